@@ -0,0 +1,48 @@
+package com.oms.eventcontracts.events;
+
+import java.time.Instant;
+
+/**
+ * Units of a product that can currently be reserved, as read by inventory at
+ * {@code asOf}. Published keyed by product id to a compacted topic, so the
+ * latest value per product is all a new consumer has to read.
+ */
+public class InventoryAvailabilityEvent {
+
+    private String productId;
+    private int availableQuantity;
+    private Instant asOf;
+
+    public InventoryAvailabilityEvent() {
+    }
+
+    public InventoryAvailabilityEvent(String productId, int availableQuantity, Instant asOf) {
+        this.productId = productId;
+        this.availableQuantity = availableQuantity;
+        this.asOf = asOf;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public int getAvailableQuantity() {
+        return availableQuantity;
+    }
+
+    public void setAvailableQuantity(int availableQuantity) {
+        this.availableQuantity = availableQuantity;
+    }
+
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(Instant asOf) {
+        this.asOf = asOf;
+    }
+}
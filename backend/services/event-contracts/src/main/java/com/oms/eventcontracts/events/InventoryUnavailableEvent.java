@@ -1,12 +1,14 @@
 package com.oms.eventcontracts.events;
 
 import java.time.Instant;
+import java.util.List;
 
 public class InventoryUnavailableEvent {
 
     private String orderId;
     private String reason;
     private Instant timestamp;
+    private List<Shortage> shortages;
 
     
     public InventoryUnavailableEvent() {
@@ -19,6 +21,11 @@ public class InventoryUnavailableEvent {
         this.timestamp = timestamp;
     }
 
+    public InventoryUnavailableEvent(String orderId, String reason, Instant timestamp, List<Shortage> shortages) {
+        this(orderId, reason, timestamp);
+        this.shortages = shortages;
+    }
+
     public String getOrderId() {
         return orderId;
     }
@@ -42,4 +49,40 @@ public class InventoryUnavailableEvent {
     public void setTimestamp(Instant timestamp) {
         this.timestamp = timestamp;
     }
+
+    public List<Shortage> getShortages() {
+        return shortages;
+    }
+
+    public void setShortages(List<Shortage> shortages) {
+        this.shortages = shortages;
+    }
+
+    
+    public static class Shortage {
+        private String productId;
+        private int requested;
+        private int available;
+
+        public Shortage() {
+        }
+
+        public Shortage(String productId, int requested, int available) {
+            this.productId = productId;
+            this.requested = requested;
+            this.available = available;
+        }
+
+        public String getProductId() {
+            return productId;
+        }
+
+        public int getRequested() {
+            return requested;
+        }
+
+        public int getAvailable() {
+            return available;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.oms.eventcontracts.events;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,6 +16,8 @@ public class OrderCreatedEvent extends BaseEvent {
     private String currency = "USD";
     private BigDecimal discount = BigDecimal.ZERO;
 
+    private Instant createdAt;
+
     
     public OrderCreatedEvent() {
         super(1);
@@ -64,4 +67,12 @@ public class OrderCreatedEvent extends BaseEvent {
     public BigDecimal getDiscount() {
         return discount;
     }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
 }
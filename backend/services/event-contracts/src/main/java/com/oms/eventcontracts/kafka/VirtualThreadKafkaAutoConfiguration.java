@@ -0,0 +1,39 @@
+package com.oms.eventcontracts.kafka;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.AbstractKafkaListenerContainerFactory;
+
+/**
+ * With {@code spring.threads.virtual.enabled} Boot runs request handling,
+ * {@code @Scheduled} jobs and its own listener container factory on
+ * virtual threads. Every service builds its listener container factories by
+ * hand, so this gives each of them a virtual-thread listener executor too,
+ * unless one was set explicitly. Picked up by every service that depends on
+ * this module.
+ */
+@AutoConfiguration
+@ConditionalOnClass(name = "org.springframework.kafka.config.AbstractKafkaListenerContainerFactory")
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadKafkaAutoConfiguration {
+
+    @Bean
+    public static BeanPostProcessor virtualThreadListenerContainers() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractKafkaListenerContainerFactory<?, ?, ?> factory
+                        && factory.getContainerProperties().getListenerTaskExecutor() == null) {
+                    SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(beanName + "-");
+                    executor.setVirtualThreads(true);
+                    factory.getContainerProperties().setListenerTaskExecutor(executor);
+                }
+                return bean;
+            }
+        };
+    }
+}
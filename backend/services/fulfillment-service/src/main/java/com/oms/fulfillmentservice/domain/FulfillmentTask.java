@@ -1,5 +1,6 @@
 package com.oms.fulfillmentservice.domain;
 
+import com.oms.eventcontracts.ids.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,7 +16,7 @@ import java.util.UUID;
 public class FulfillmentTask {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false, unique = true)
@@ -1,35 +1,155 @@
 package com.oms.inventoryservice.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.oms.inventoryservice.application.ingest.StockImportResult;
+import com.oms.inventoryservice.application.ingest.StockImportService;
+import com.oms.inventoryservice.application.reservation.InventoryReservationEngine;
+import com.oms.inventoryservice.application.striping.StockStripeService;
 import com.oms.inventoryservice.domain.model.Inventory;
+import com.oms.inventoryservice.domain.model.InventoryView;
+import com.oms.inventoryservice.domain.repository.InventoryCatalogRepository;
 import com.oms.inventoryservice.domain.repository.InventoryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/inventory")
 @RequiredArgsConstructor
 public class InventoryController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final InventoryRepository inventoryRepository;
     private final com.oms.inventoryservice.service.InventoryService inventoryService;
+    private final ObjectProvider<InventoryReservationEngine> reservationEngine;
+    private final StockStripeService stockStripeService;
+    private final InventoryCatalogRepository catalogRepository;
+    private final StockImportService stockImportService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
     @PostMapping
     public ResponseEntity<Inventory> createItem(@RequestBody CreateInventoryRequest request) {
         Inventory inventory = new Inventory(request.getProductId(), request.getInitialStock());
-        return ResponseEntity.ok(inventoryRepository.save(inventory));
+        Inventory saved = inventoryRepository.save(inventory);
+        reservationEngine.ifAvailable(engine -> engine.invalidate(List.of(saved.getProductId())));
+        return ResponseEntity.ok(saved);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Inventory> getItem(@PathVariable String id) {
-        return inventoryRepository.findByProductId(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Inventory> getItem(@PathVariable String id, WebRequest request) {
+        Inventory inventory = inventoryRepository.findByProductId(id)
+                .map(stockStripeService::withStripes)
+                .orElse(null);
+        if (inventory == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // striped stock moves without bumping the row version, so the quantities are part of the tag
+        String etag = weakEtag(inventory.getVersion() + "-" + inventory.getAvailableQuantity()
+                + "-" + inventory.getReservedQuantity());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(inventory);
     }
 
+    /**
+     * Whole catalog as one array; kept for the dashboard, which revalidates
+     * it through the ETag. Large catalogs should use {@code /page} or
+     * {@code /export}.
+     */
     @GetMapping
-    public ResponseEntity<java.util.List<Inventory>> listAll() {
-        return ResponseEntity.ok(inventoryService.findAll());
+    public ResponseEntity<List<Inventory>> listAll(WebRequest request) {
+        String etag = weakEtag(catalogRepository.fingerprint());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(stockStripeService.withStripes(inventoryService.findAll()));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<InventoryPage> page(
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest request
+    ) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<InventoryView> items = catalogRepository.findPage(after, pageSize);
+
+        String etag = pageEtag(after, items);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        String nextCursor = items.size() == pageSize ? items.get(items.size() - 1).productId() : null;
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(new InventoryPage(items, nextCursor));
+    }
+
+    /**
+     * Every product as newline-delimited JSON, streamed from a database
+     * cursor so memory use does not grow with the catalog.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> catalogRepository.streamAll(item -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(item));
+                out.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    /**
+     * Restocks from a CSV or NDJSON feed in one request; see
+     * {@link StockImportService}. Answers 500 with the partial result if
+     * the import stopped part-way.
+     */
+    @PostMapping(value = "/bulk", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<StockImportResult> bulkImport(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(defaultValue = "") String after,
+            InputStream body
+    ) {
+        StockImportService.Format format = NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+                ? StockImportService.Format.NDJSON
+                : StockImportService.Format.CSV;
+        StockImportResult result = stockImportService.importStock(body, format, after);
+        return ResponseEntity.status(result.complete() ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+    }
+
+    @PostMapping("/{id}/stripes")
+    public ResponseEntity<Void> stripe(@PathVariable String id, @RequestParam(defaultValue = "16") int count) {
+        if (!stockStripeService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        stockStripeService.stripe(id, count);
+        return ResponseEntity.ok().build();
     }
 
     @PostMapping("/{id}/add")
@@ -37,4 +157,19 @@ public class InventoryController {
         inventoryService.addStock(id, quantity);
         return ResponseEntity.ok().build();
     }
+
+    static String pageEtag(String after, List<InventoryView> items) {
+        int hash = after.hashCode();
+        for (InventoryView item : items) {
+            hash = 31 * hash + item.productId().hashCode();
+            hash = 31 * hash + Long.hashCode(item.version());
+            hash = 31 * hash + item.availableQuantity();
+            hash = 31 * hash + item.reservedQuantity();
+        }
+        return weakEtag(items.size() + "-" + Integer.toHexString(hash));
+    }
+
+    private static String weakEtag(String value) {
+        return "W/\"" + value + "\"";
+    }
 }
@@ -0,0 +1,12 @@
+package com.oms.inventoryservice.api;
+
+import com.oms.inventoryservice.domain.model.InventoryView;
+
+import java.util.List;
+
+/**
+ * One page of the catalog. {@code nextCursor} is passed back as
+ * {@code after} for the next page and is null on the last one.
+ */
+public record InventoryPage(List<InventoryView> items, String nextCursor) {
+}
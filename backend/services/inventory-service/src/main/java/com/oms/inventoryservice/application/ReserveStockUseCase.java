@@ -3,23 +3,23 @@ package com.oms.inventoryservice.application;
 import com.oms.eventcontracts.commands.ReserveInventoryCommand;
 import com.oms.eventcontracts.events.InventoryReservedEvent;
 import com.oms.eventcontracts.events.InventoryUnavailableEvent;
+import com.oms.inventoryservice.application.expiry.ReservationExpiryReaper;
+import com.oms.inventoryservice.application.idempotency.ProcessedOrderIndex;
+import com.oms.inventoryservice.application.striping.StockStripeService;
 import com.oms.inventoryservice.domain.event.InventoryEventPublisher;
-import com.oms.inventoryservice.domain.model.Inventory;
-import com.oms.inventoryservice.domain.model.InventoryReservation;
+import com.oms.inventoryservice.domain.model.StockShortage;
 import com.oms.inventoryservice.domain.repository.InventoryRepository;
-import com.oms.inventoryservice.domain.repository.ReservationRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,77 +27,60 @@ import java.util.stream.Collectors;
 public class ReserveStockUseCase {
 
     private final InventoryRepository inventoryRepository;
-    private final ReservationRepository reservationRepository;
+    private final ProcessedOrderIndex processedOrders;
     private final InventoryEventPublisher eventPublisher;
+    private final StockStripeService stockStripeService;
+    private final ReservationExpiryReaper expiryReaper;
 
     @Transactional
     public void execute(UUID orderId, List<ReserveInventoryCommand.LineItem> items) {
+        execute(orderId, items, null);
+    }
+
+    /**
+     * @param requestedAt when the command was issued; lets the duplicate
+     *                    check skip the database for orders it has not seen
+     */
+    @Transactional
+    public void execute(UUID orderId, List<ReserveInventoryCommand.LineItem> items, Instant requestedAt) {
 
-        
-        
-        if (reservationRepository.existsByOrderId(orderId.toString())) {
+        if (processedOrders.isProcessed(orderId, requestedAt)) {
             log.info("Ignored duplicate reservation request for orderId={}", orderId);
             return;
         }
 
-        
-        List<String> productIds = items.stream()
-                .map(ReserveInventoryCommand.LineItem::getProductId)
-                .toList();
-
-        Map<String, Inventory> inventoryMap = inventoryRepository.findAllByProductIdIn(productIds)
-                .stream()
-                .collect(Collectors.toMap(Inventory::getProductId, Function.identity()));
-
-        
+        Map<String, Integer> quantities = new LinkedHashMap<>();
         for (ReserveInventoryCommand.LineItem item : items) {
-            Inventory inventory = inventoryMap.get(item.getProductId());
-
-            
-            if (inventory == null) {
-                log.warn("Validation Failed: Product {} not found for order {}", item.getProductId(), orderId);
-                publishFailure(orderId, "PRODUCT_NOT_FOUND: " + item.getProductId());
-                return;
-            }
-
-            
-            if (!inventory.hasAvailableStock(item.getQuantity())) {
-                log.warn("Validation Failed: Insufficient stock for {} in order {}", item.getProductId(), orderId);
-                publishFailure(orderId, "INSUFFICIENT_STOCK: " + item.getProductId());
-                return;
-            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
         }
 
-        
-        
-        List<InventoryReservation> newReservations = new ArrayList<>();
-
-        try {
-            for (ReserveInventoryCommand.LineItem item : items) {
-                Inventory inventory = inventoryMap.get(item.getProductId());
+        Map<String, Integer> stripedLines = new LinkedHashMap<>();
+        for (String productId : stockStripeService.stripedAmong(quantities.keySet())) {
+            stripedLines.put(productId, quantities.remove(productId));
+        }
 
-                
-                inventory.reserveStock(item.getQuantity());
+        // one round-trip: all lines are decremented and recorded, or none are
+        List<StockShortage> shortages = quantities.isEmpty()
+                ? List.of()
+                : inventoryRepository.reserveAll(orderId, quantities);
 
-                
-                newReservations.add(new InventoryReservation(
-                        orderId,
-                        item.getProductId(),
-                        item.getQuantity()
-                ));
+        if (shortages.isEmpty() && !stripedLines.isEmpty()) {
+            shortages = stockStripeService.reserve(orderId, stripedLines);
+            if (!shortages.isEmpty()) {
+                // undo the lines that were already taken
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             }
+        }
 
-            
-            inventoryRepository.saveAll(inventoryMap.values());
-            reservationRepository.saveAll(newReservations);
-
-            
-            publishSuccess(orderId);
-
-        } catch (Exception e) {
-            log.error("Unexpected error during reservation for order {}", orderId, e);
-            throw e; 
+        if (!shortages.isEmpty()) {
+            log.warn("Validation Failed: {} lines short in order {}", shortages.size(), orderId);
+            publishFailure(orderId, shortages);
+            return;
         }
+
+        processedOrders.record(orderId);
+        expiryReaper.track(orderId);
+        publishSuccess(orderId);
     }
 
     private void publishSuccess(UUID orderId) {
@@ -110,12 +93,15 @@ public class ReserveStockUseCase {
         );
     }
 
-    private void publishFailure(UUID orderId, String reason) {
+    private void publishFailure(UUID orderId, List<StockShortage> shortages) {
         eventPublisher.publishInventoryUnavailable(
                 new InventoryUnavailableEvent(
                         orderId.toString(),
-                        reason,
-                        Instant.now()
+                        shortages.get(0).reason(),
+                        Instant.now(),
+                        shortages.stream()
+                                .map(s -> new InventoryUnavailableEvent.Shortage(s.productId(), s.requested(), s.available()))
+                                .toList()
                 )
         );
     }
@@ -0,0 +1,141 @@
+package com.oms.inventoryservice.application.availability;
+
+import com.oms.eventcontracts.events.InventoryAvailabilityEvent;
+import com.oms.inventoryservice.domain.event.InventoryEventPublisher;
+import com.oms.inventoryservice.domain.model.InventoryView;
+import com.oms.inventoryservice.domain.repository.InventoryCatalogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes how many units of each product can be reserved, so other
+ * services can turn away orders that cannot be served without asking.
+ *
+ * A periodic full snapshot streams the whole catalog; in between, deltas
+ * are polled from {@code updated_at}. The poll re-reads a short overlap
+ * behind the newest timestamp it has seen, which covers transactions that
+ * commit after a later one and clock skew between the service and the
+ * database. Rows in that overlap (and striped products, which are read on
+ * every poll) are only published again when their quantity changed.
+ *
+ * The values are advisory: reservations are still decided by
+ * {@code ReserveStockUseCase} against the rows themselves.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.availability.enabled", havingValue = "true", matchIfMissing = true)
+public class AvailabilityPublisher {
+
+    private final InventoryCatalogRepository catalogRepository;
+    private final InventoryEventPublisher eventPublisher;
+    private final Duration overlap;
+    private final Counter snapshotEvents;
+    private final Counter deltaEvents;
+
+    // not synchronized: a virtual thread blocking on JDBC or Kafka inside a monitor pins its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Instant watermark;
+    private Map<String, Integer> recentlyPublished = Map.of();
+
+    public AvailabilityPublisher(
+            InventoryCatalogRepository catalogRepository,
+            InventoryEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.availability.overlap:PT10S}") Duration overlap
+    ) {
+        this.catalogRepository = catalogRepository;
+        this.eventPublisher = eventPublisher;
+        this.overlap = overlap;
+        this.snapshotEvents = published(meterRegistry, "snapshot");
+        this.deltaEvents = published(meterRegistry, "delta");
+    }
+
+    private static Counter published(MeterRegistry meterRegistry, String kind) {
+        return Counter.builder("omniorder_inventory_availability_published_total")
+                .description("Availability events published, by full snapshot or delta poll")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.availability.snapshot-interval-ms:600000}")
+    public void publishSnapshot() {
+        lock.lock();
+        try {
+            snapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.availability.poll-interval-ms:1000}")
+    public void publishChanges() {
+        lock.lock();
+        try {
+            changes();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void snapshot() {
+
+        Instant asOf = Instant.now();
+        Instant[] newest = {watermark};
+
+        catalogRepository.streamAll(view -> {
+            publish(view, asOf);
+            snapshotEvents.increment();
+            newest[0] = later(newest[0], view.updatedAt());
+        });
+
+        watermark = newest[0] != null ? newest[0] : asOf;
+        // the snapshot may have published values the next poll would skip as unchanged
+        recentlyPublished = Map.of();
+        log.debug("Published availability snapshot as of {}", asOf);
+    }
+
+    private void changes() {
+
+        if (watermark == null) {
+            // nothing published yet; the snapshot sets the starting point
+            return;
+        }
+
+        Instant asOf = Instant.now();
+        List<InventoryView> changed = catalogRepository.findChangedSince(watermark.minus(overlap));
+
+        Map<String, Integer> published = new HashMap<>(changed.size());
+        for (InventoryView view : changed) {
+            Integer previous = recentlyPublished.get(view.productId());
+            if (previous == null || previous != view.availableQuantity()) {
+                publish(view, asOf);
+                deltaEvents.increment();
+            }
+            published.put(view.productId(), view.availableQuantity());
+            watermark = later(watermark, view.updatedAt());
+        }
+        recentlyPublished = published;
+    }
+
+    private void publish(InventoryView view, Instant asOf) {
+        eventPublisher.publishAvailability(
+                new InventoryAvailabilityEvent(view.productId(), Math.max(0, view.availableQuantity()), asOf));
+    }
+
+    private static Instant later(Instant current, Instant candidate) {
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+}
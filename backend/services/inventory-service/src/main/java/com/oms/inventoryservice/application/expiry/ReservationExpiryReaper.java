@@ -0,0 +1,169 @@
+package com.oms.inventoryservice.application.expiry;
+
+import com.oms.inventoryservice.application.reservation.InventoryReservationEngine;
+import com.oms.inventoryservice.application.striping.StockStripeService;
+import com.oms.inventoryservice.domain.model.InventoryReservation;
+import com.oms.inventoryservice.domain.repository.ReservationExpiryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Releases reservations when they expire.
+ *
+ * Orders are tracked in a timing wheel when they are reserved, so finding
+ * what is due costs nothing while no reservation expires and does not scan
+ * {@code inventory_reservations}. Due orders are released in batches: one
+ * statement marks their expired reservations released and sums them per
+ * product, one statement returns the stock to {@code inventory}. Striped
+ * products get their summed units back through {@link StockStripeService}.
+ *
+ * The wheel is rebuilt from the table on startup. Reservations written by
+ * other instances are only picked up by the infrequent sweep, which also
+ * catches anything a failed batch left behind.
+ */
+@Slf4j
+@Component
+public class ReservationExpiryReaper {
+
+    private static final int WHEEL_SLOTS = 64;
+    private static final int WHEEL_LEVELS = 3;
+
+    private final ReservationExpiryRepository expiryRepository;
+    private final StockStripeService stockStripeService;
+    private final ObjectProvider<InventoryReservationEngine> reservationEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final long tickMs;
+    private final int batchSize;
+
+    private final TimingWheel<UUID> wheel;
+
+    public ReservationExpiryReaper(
+            ReservationExpiryRepository expiryRepository,
+            StockStripeService stockStripeService,
+            ObjectProvider<InventoryReservationEngine> reservationEngine,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.expiry.tick-ms:1000}") long tickMs,
+            @Value("${inventory.expiry.batch-size:1000}") int batchSize
+    ) {
+        this.expiryRepository = expiryRepository;
+        this.stockStripeService = stockStripeService;
+        this.reservationEngine = reservationEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tickMs = tickMs;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(tickMs, WHEEL_SLOTS, WHEEL_LEVELS, System.currentTimeMillis());
+    }
+
+    /** Tracks an order whose reservations were just written. */
+    public void track(UUID orderId) {
+        track(orderId, Instant.now().plus(InventoryReservation.TTL));
+    }
+
+    void track(UUID orderId, Instant expiresAt) {
+        // one tick of slack for the database clock, which stamped expires_at
+        long deadlineMs = expiresAt.toEpochMilli() + tickMs;
+        synchronized (wheel) {
+            wheel.schedule(orderId, deadlineMs);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        expiryRepository.forEachPendingExpiry(this::track);
+        log.info("Tracking {} orders with pending reservations", pending());
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.expiry.tick-ms:1000}")
+    public void tick() {
+
+        List<UUID> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+
+        for (int from = 0; from < due.size(); from += batchSize) {
+            release(due.subList(from, Math.min(from + batchSize, due.size())));
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${inventory.expiry.sweep-interval-ms:300000}",
+            fixedDelayString = "${inventory.expiry.sweep-interval-ms:300000}"
+    )
+    public void sweep() {
+
+        List<UUID> expired;
+        do {
+            expired = expiryRepository.findExpiredOrderIds(batchSize);
+            if (!expired.isEmpty()) {
+                log.info("Sweeping {} orders with untracked expired reservations", expired.size());
+            }
+        } while (!expired.isEmpty() && release(expired) && expired.size() == batchSize);
+    }
+
+    int pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * Releases what has expired of the given orders and re-tracks the ones
+     * that still hold reservations. Returns false if the batch failed; its
+     * orders are then retried on the next tick.
+     */
+    boolean release(List<UUID> orderIds) {
+
+        Set<String> productIds;
+        try {
+            productIds = transactionTemplate.execute(status -> releaseExpired(orderIds));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to release expired reservations of {} orders", orderIds.size(), ex);
+            Instant retryAt = Instant.now();
+            orderIds.forEach(orderId -> track(orderId, retryAt));
+            return false;
+        }
+
+        if (!productIds.isEmpty()) {
+            log.info("Released expired reservations of {} products", productIds.size());
+            reservationEngine.ifAvailable(engine -> engine.invalidate(productIds));
+        }
+
+        // confirmed and released orders drop out here; reservations with a later expiry are tracked again
+        expiryRepository.findPendingExpiries(orderIds).forEach(this::track);
+        return true;
+    }
+
+    private Set<String> releaseExpired(List<UUID> orderIds) {
+
+        Map<String, Integer> released = expiryRepository.markExpiredReleased(orderIds);
+        if (released.isEmpty()) {
+            return Set.of();
+        }
+
+        Map<String, Integer> rowStock = new HashMap<>(released);
+        for (String productId : stockStripeService.stripedAmong(released.keySet())) {
+            if (stockStripeService.release(productId, released.get(productId))) {
+                rowStock.remove(productId);
+            }
+        }
+        if (!rowStock.isEmpty()) {
+            expiryRepository.returnReservedStock(rowStock);
+        }
+        return released.keySet();
+    }
+}
@@ -0,0 +1,119 @@
+package com.oms.inventoryservice.application.expiry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: {@code levels} wheels of {@code slots} slots,
+ * where a slot of level L spans {@code slots^L} ticks. An entry sits in the
+ * lowest level whose current window contains its deadline and cascades one
+ * level down each time the wheel above it turns over, so scheduling and
+ * expiring are O(1) per entry regardless of how many are pending.
+ *
+ * Deadlines beyond the top level's window wait in an overflow list that is
+ * re-scheduled whenever the top level turns over. Not thread-safe; callers
+ * synchronize.
+ */
+final class TimingWheel<T> {
+
+    private record Entry<T>(T item, long deadlineTick) {
+    }
+
+    private final long tickMs;
+    private final int slots;
+    private final List<Entry<T>>[][] wheels;
+    private final long[] spans;
+    private List<Entry<T>> overflow = new ArrayList<>();
+
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMs, int slots, int levels, long startMs) {
+        this.tickMs = tickMs;
+        this.slots = slots;
+        this.wheels = new List[levels][slots];
+        this.spans = new long[levels + 1];
+        for (int level = 0; level <= levels; level++) {
+            spans[level] = level == 0 ? 1 : spans[level - 1] * slots;
+        }
+        for (List<Entry<T>>[] wheel : wheels) {
+            for (int slot = 0; slot < slots; slot++) {
+                wheel[slot] = new ArrayList<>();
+            }
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    void schedule(T item, long deadlineMs) {
+        // round up so an entry never fires before its deadline
+        place(new Entry<>(item, Math.max(currentTick, Math.floorDiv(deadlineMs + tickMs - 1, tickMs))));
+        size++;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMs} and returns every entry whose
+     * deadline has passed, in tick order.
+     */
+    List<T> advance(long nowMs) {
+
+        List<T> due = new ArrayList<>();
+        drain(wheels[0][slotOf(currentTick, 0)], due);
+
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            drain(wheels[0][slotOf(currentTick, 0)], due);
+        }
+
+        size -= due.size();
+        return due;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void cascade() {
+
+        int levels = wheels.length;
+        if (currentTick % spans[levels] == 0) {
+            List<Entry<T>> waiting = overflow;
+            overflow = new ArrayList<>();
+            waiting.forEach(this::place);
+        }
+        for (int level = levels - 1; level > 0; level--) {
+            if (currentTick % spans[level] == 0) {
+                List<Entry<T>> slot = wheels[level][slotOf(currentTick, level)];
+                List<Entry<T>> entries = new ArrayList<>(slot);
+                slot.clear();
+                entries.forEach(this::place);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        for (int level = 0; level < wheels.length; level++) {
+            if (entry.deadlineTick() / spans[level + 1] == currentTick / spans[level + 1]) {
+                wheels[level][slotOf(entry.deadlineTick(), level)].add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private void drain(List<Entry<T>> slot, List<T> due) {
+        if (slot.isEmpty()) {
+            return;
+        }
+        for (Entry<T> entry : slot) {
+            due.add(entry.item());
+        }
+        slot.clear();
+    }
+
+    private int slotOf(long tick, int level) {
+        return (int) ((tick / spans[level]) % slots);
+    }
+}
@@ -0,0 +1,161 @@
+package com.oms.inventoryservice.application.idempotency;
+
+import com.oms.inventoryservice.domain.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Answers "has this order already been reserved?" for redelivered reserve
+ * commands.
+ *
+ * A Bloom filter of reserved order ids sits in front of the
+ * {@code order_id} lookup on {@code inventory_reservations}. An order the
+ * filter has never seen cannot have been reserved by this instance, so
+ * first-time orders, the common case, are answered without a query.
+ *
+ * The filter is warmed on startup with the orders reserved within
+ * {@code inventory.idempotency.warmup-window}. Commands requested before
+ * that window, and commands for orders another instance reserved, are not
+ * covered by it: the former always go to the database, the latter hit the
+ * unique {@code (order_id, product_id)} constraint, after which the
+ * consumer {@link #record records} the order and the retry finds it.
+ */
+@Slf4j
+@Component
+public class ProcessedOrderIndex {
+
+    // allowance for the clock of whoever stamped requestedAt
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private final ReservationRepository reservationRepository;
+    private final BloomFilter filter;
+    private final Duration warmupWindow;
+
+    private final Counter skipped;
+    private final Counter duplicates;
+    private final Counter falsePositives;
+    private final Counter unfiltered;
+
+    private volatile Instant coveredSince = Instant.MAX;
+
+    public ProcessedOrderIndex(
+            ReservationRepository reservationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.idempotency.expected-orders:1000000}") long expectedOrders,
+            @Value("${inventory.idempotency.false-positive-probability:0.01}") double falsePositiveProbability,
+            @Value("${inventory.idempotency.warmup-window:PT24H}") Duration warmupWindow
+    ) {
+        this.reservationRepository = reservationRepository;
+        this.filter = new BloomFilter(expectedOrders, falsePositiveProbability);
+        this.warmupWindow = warmupWindow;
+
+        this.skipped = lookups(meterRegistry, "skipped");
+        this.duplicates = lookups(meterRegistry, "duplicate");
+        this.falsePositives = lookups(meterRegistry, "false_positive");
+        this.unfiltered = lookups(meterRegistry, "unfiltered");
+
+        Gauge.builder("omniorder_inventory_idempotency_filter_fpp", filter, BloomFilter::expectedFalsePositiveProbability)
+                .description("Expected false-positive probability of the processed-order filter at its current fill")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs before the listener containers start, so no command is checked
+     * against a filter that is still empty.
+     */
+    @PostConstruct
+    public void warmUp() {
+        Instant since = Instant.now().minus(warmupWindow);
+        List<UUID> orderIds = reservationRepository.findOrderIdsReservedSince(since);
+        orderIds.forEach(filter::add);
+        coveredSince = since.plus(CLOCK_SKEW);
+        log.info("Warmed processed-order filter with {} orders reserved since {}", orderIds.size(), since);
+    }
+
+    /**
+     * @param requestedAt when the command was issued; null if unknown,
+     *                    which forces a database probe
+     */
+    public boolean isProcessed(UUID orderId, Instant requestedAt) {
+
+        if (!isCovered(requestedAt)) {
+            unfiltered.increment();
+            return reservationRepository.existsByOrderId(orderId.toString());
+        }
+        if (!filter.mightContain(orderId)) {
+            skipped.increment();
+            return false;
+        }
+
+        boolean processed = reservationRepository.existsByOrderId(orderId.toString());
+        (processed ? duplicates : falsePositives).increment();
+        return processed;
+    }
+
+    /**
+     * Batch form of {@link #isProcessed}: probes only the orders the filter
+     * cannot rule out, in one query.
+     */
+    public Set<UUID> findProcessed(Map<UUID, Instant> requestedAtByOrder) {
+
+        Set<UUID> candidates = new HashSet<>();
+        int covered = 0;
+        for (Map.Entry<UUID, Instant> order : requestedAtByOrder.entrySet()) {
+            if (!isCovered(order.getValue())) {
+                unfiltered.increment();
+                candidates.add(order.getKey());
+            } else if (filter.mightContain(order.getKey())) {
+                covered++;
+                candidates.add(order.getKey());
+            } else {
+                skipped.increment();
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<UUID> processed = reservationRepository.findReservedOrderIds(candidates);
+        if (covered > 0) {
+            long confirmed = processed.stream()
+                    .filter(orderId -> isCovered(requestedAtByOrder.get(orderId)))
+                    .count();
+            duplicates.increment(confirmed);
+            falsePositives.increment(covered - confirmed);
+        }
+        return processed;
+    }
+
+    public void record(UUID orderId) {
+        filter.add(orderId);
+    }
+
+    public void record(Collection<UUID> orderIds) {
+        orderIds.forEach(filter::add);
+    }
+
+    private boolean isCovered(Instant requestedAt) {
+        return requestedAt != null && !requestedAt.isBefore(coveredSince);
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("omniorder_inventory_idempotency_lookups_total")
+                .tag("outcome", outcome)
+                .description("Processed-order lookups by outcome: skipped, duplicate, false_positive or unfiltered")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.oms.inventoryservice.application.ingest;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk stock import. {@code rejects} lists at most the
+ * configured number of rejected lines; {@code rejected} counts all of them.
+ * If {@code complete} is false the import stopped part-way and can be
+ * re-submitted with {@code after=resumeAfter}: products up to and
+ * including that id are already applied.
+ */
+public record StockImportResult(
+        long lines,
+        long staged,
+        int created,
+        int updated,
+        long rejected,
+        List<Reject> rejects,
+        boolean complete,
+        String resumeAfter,
+        long durationMs,
+        long linesPerSecond
+) {
+
+    public record Reject(long lineNumber, String reason) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.oms.inventoryservice.application.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oms.inventoryservice.application.reservation.InventoryReservationEngine;
+import com.oms.inventoryservice.domain.model.StockLine;
+import com.oms.inventoryservice.domain.repository.StockImportRepository;
+import com.oms.inventoryservice.domain.repository.StockImportRepository.ImportOutcome;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk restock from a warehouse feed: CSV ({@code productId,quantity},
+ * optional header) or NDJSON ({@code {"productId":..,"quantity":..}}).
+ *
+ * The body is parsed while it is copied into the database, so the feed is
+ * never held in memory. Malformed lines are rejected individually and do
+ * not stop the import; repeated products are summed.
+ */
+@Slf4j
+@Service
+public class StockImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int MAX_PRODUCT_ID_LENGTH = 255;
+
+    private final StockImportRepository importRepository;
+    private final ObjectProvider<InventoryReservationEngine> reservationEngine;
+    private final int maxReportedRejects;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public StockImportService(
+            StockImportRepository importRepository,
+            ObjectProvider<InventoryReservationEngine> reservationEngine,
+            @Value("${inventory.import.max-reported-rejects:1000}") int maxReportedRejects
+    ) {
+        this.importRepository = importRepository;
+        this.reservationEngine = reservationEngine;
+        this.maxReportedRejects = maxReportedRejects;
+    }
+
+    public StockImportResult importStock(InputStream body, Format format, String afterProductId) {
+
+        long started = System.nanoTime();
+        LineReader lines = new LineReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), format);
+
+        ImportOutcome outcome = importRepository.importLines(lines, afterProductId,
+                productIds -> reservationEngine.ifAvailable(engine -> engine.invalidate(productIds)));
+
+        long durationMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        StockImportResult result = new StockImportResult(
+                lines.read,
+                outcome.staged(),
+                outcome.created(),
+                outcome.updated(),
+                lines.rejected,
+                lines.rejects,
+                outcome.resumeAfter() == null,
+                outcome.resumeAfter(),
+                durationMs,
+                lines.read * 1000 / durationMs
+        );
+
+        log.info("Imported stock feed: {} lines, {} created, {} updated, {} rejected in {} ms",
+                result.lines(), result.created(), result.updated(), result.rejected(), durationMs);
+        return result;
+    }
+
+    StockLine parse(long lineNumber, String line, Format format) {
+        return format == Format.CSV ? parseCsv(lineNumber, line) : parseJson(lineNumber, line);
+    }
+
+    private StockLine parseCsv(long lineNumber, String line) {
+
+        String[] fields = line.split(",", -1);
+        if (fields.length != 2) {
+            throw new IllegalArgumentException("expected productId,quantity");
+        }
+        return validated(lineNumber, unquote(fields[0].trim()), parseQuantity(unquote(fields[1].trim())));
+    }
+
+    private StockLine parseJson(long lineNumber, String line) {
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("malformed JSON");
+        }
+        JsonNode productId = node.get("productId");
+        JsonNode quantity = node.get("quantity");
+        if (productId == null || !productId.isTextual()) {
+            throw new IllegalArgumentException("productId missing");
+        }
+        if (quantity == null || !quantity.isIntegralNumber() || !quantity.canConvertToInt()) {
+            throw new IllegalArgumentException("quantity must be an integer");
+        }
+        return validated(lineNumber, productId.asText().trim(), quantity.asInt());
+    }
+
+    private static StockLine validated(long lineNumber, String productId, int quantity) {
+        if (productId.isEmpty() || productId.length() > MAX_PRODUCT_ID_LENGTH) {
+            throw new IllegalArgumentException("productId must be 1 to " + MAX_PRODUCT_ID_LENGTH + " characters");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+        return new StockLine(lineNumber, productId, quantity);
+    }
+
+    private static int parseQuantity(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("quantity must be an integer");
+        }
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1).replace("\"\"", "\"");
+        }
+        return value;
+    }
+
+    /**
+     * Yields the accepted lines of the body and keeps count of what it
+     * rejected along the way.
+     */
+    private final class LineReader implements Iterator<StockLine> {
+
+        private final BufferedReader reader;
+        private final Format format;
+        private final List<StockImportResult.Reject> rejects = new ArrayList<>();
+
+        private long read;
+        private long rejected;
+        private StockLine next;
+
+        LineReader(BufferedReader reader, Format format) {
+            this.reader = reader;
+            this.format = format;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                String line;
+                try {
+                    line = reader.readLine();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                if (line == null) {
+                    return false;
+                }
+                read++;
+                if (line.isBlank() || (read == 1 && format == Format.CSV && isHeader(line))) {
+                    continue;
+                }
+                try {
+                    next = parse(read, line, format);
+                } catch (IllegalArgumentException ex) {
+                    rejected++;
+                    if (rejects.size() < maxReportedRejects) {
+                        rejects.add(new StockImportResult.Reject(read, ex.getMessage()));
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public StockLine next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            StockLine line = next;
+            next = null;
+            return line;
+        }
+
+        private boolean isHeader(String line) {
+            return unquote(line.split(",", -1)[0].trim()).equalsIgnoreCase("productId");
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.oms.inventoryservice.application.reservation;
+
+import com.oms.eventcontracts.commands.ReserveInventoryCommand;
+import com.oms.eventcontracts.events.InventoryReservedEvent;
+import com.oms.eventcontracts.events.InventoryUnavailableEvent;
+import com.oms.inventoryservice.application.ReserveStockUseCase;
+import com.oms.inventoryservice.application.expiry.ReservationExpiryReaper;
+import com.oms.inventoryservice.application.idempotency.ProcessedOrderIndex;
+import com.oms.inventoryservice.domain.event.InventoryEventPublisher;
+import com.oms.inventoryservice.domain.model.Inventory;
+import com.oms.inventoryservice.domain.model.InventoryReservation;
+import com.oms.inventoryservice.domain.model.StockShortage;
+import com.oms.inventoryservice.domain.repository.InventoryRepository;
+import com.oms.inventoryservice.domain.repository.ReservationBatchRepository;
+import com.oms.inventoryservice.domain.repository.ReservationBatchRepository.StockConflictException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Decides reservations against in-memory per-product counters instead of
+ * locking inventory rows.
+ *
+ * Counters are loaded from {@code inventory} on first use and shared by all
+ * consumer threads of this instance. A multi-line order takes its lines one
+ * compare-and-set at a time and hands back what it already took if a later
+ * line is short, so no order ever holds a lock. The decisions of a whole
+ * poll are then written in one transaction and only published afterwards.
+ *
+ * An order is only rejected after the counters of its short products have
+ * been reloaded from {@code inventory} and it is still short, since another
+ * instance may have restocked or released units the counters don't know of.
+ *
+ * The database write is guarded on the available quantity. If it fails,
+ * another writer changed the stock (a second instance or a REST stock
+ * change), so the counters of the batch are dropped and the batch is
+ * replayed through {@link ReserveStockUseCase}.
+ *
+ * Enabled with {@code inventory.reservation.engine=memory}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "inventory.reservation.engine", havingValue = "memory")
+public class InventoryReservationEngine {
+
+    private final InventoryRepository inventoryRepository;
+    private final ProcessedOrderIndex processedOrders;
+    private final ReservationBatchRepository batchRepository;
+    private final InventoryEventPublisher eventPublisher;
+    private final ReserveStockUseCase fallback;
+    private final ReservationExpiryReaper expiryReaper;
+
+    private final ConcurrentMap<String, StockCounter> counters = new ConcurrentHashMap<>();
+
+    public void reserveAll(List<ReserveInventoryCommand> commands) {
+
+        Map<UUID, ReserveInventoryCommand> pending = new LinkedHashMap<>();
+        for (ReserveInventoryCommand command : commands) {
+            if (pending.putIfAbsent(UUID.fromString(command.getOrderId()), command) != null) {
+                log.info("Ignored duplicate reservation request for orderId={}", command.getOrderId());
+            }
+        }
+
+        Map<UUID, Instant> requestedAt = new HashMap<>();
+        pending.forEach((orderId, command) -> requestedAt.put(orderId, command.getRequestedAt()));
+        Set<UUID> alreadyReserved = processedOrders.findProcessed(requestedAt);
+        if (!alreadyReserved.isEmpty()) {
+            log.info("Ignored {} duplicate reservation requests", alreadyReserved.size());
+            pending.keySet().removeAll(alreadyReserved);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Set<String> productIds = new LinkedHashSet<>();
+        pending.values().forEach(command -> command.getItems().forEach(item -> productIds.add(item.getProductId())));
+        load(productIds);
+
+        List<Decision> decisions = new ArrayList<>(pending.size());
+        pending.forEach((orderId, command) -> decisions.add(decide(orderId, command.getItems())));
+
+        if (!write(decisions, pending)) {
+            return;
+        }
+        publish(decisions.stream().filter(decision -> decision.shortages().isEmpty()).toList());
+
+        List<Decision> rejected = decisions.stream().filter(decision -> !decision.shortages().isEmpty()).toList();
+        if (!rejected.isEmpty()) {
+            recheck(rejected, pending);
+        }
+    }
+
+    /**
+     * Counters only see the stock changes made through this instance, so a
+     * restock, release or expiry elsewhere leaves them too low. Before an
+     * order is turned away, the counters of its short products are reloaded
+     * from {@code inventory} and the order is decided again; only shortages
+     * that hold against the stored stock are published.
+     */
+    private void recheck(List<Decision> rejected, Map<UUID, ReserveInventoryCommand> pending) {
+
+        Set<String> shortProducts = new LinkedHashSet<>();
+        rejected.forEach(decision -> decision.shortages().forEach(shortage -> shortProducts.add(shortage.productId())));
+        reload(shortProducts);
+
+        Map<UUID, ReserveInventoryCommand> retried = new LinkedHashMap<>();
+        List<Decision> decisions = new ArrayList<>(rejected.size());
+        for (Decision decision : rejected) {
+            ReserveInventoryCommand command = pending.get(decision.orderId());
+            retried.put(decision.orderId(), command);
+            decisions.add(decide(decision.orderId(), command.getItems()));
+        }
+
+        if (write(decisions, retried)) {
+            publish(decisions);
+        }
+    }
+
+    /**
+     * Writes the holds of the given decisions in one transaction. Returns
+     * false if the stored stock disagreed with the counters; the orders have
+     * then been replayed through the database instead.
+     */
+    private boolean write(List<Decision> decisions, Map<UUID, ReserveInventoryCommand> commands) {
+
+        Map<String, Integer> quantities = new HashMap<>();
+        List<InventoryReservation> reservations = new ArrayList<>();
+        for (Decision decision : decisions) {
+            for (Hold hold : decision.holds()) {
+                quantities.merge(hold.productId(), hold.quantity(), Integer::sum);
+                reservations.add(new InventoryReservation(decision.orderId(), hold.productId(), hold.quantity()));
+            }
+        }
+
+        if (reservations.isEmpty()) {
+            return true;
+        }
+        try {
+            batchRepository.reserve(quantities, reservations);
+            return true;
+        } catch (StockConflictException ex) {
+            log.warn("Stock counters out of date, replaying {} reservations through the database", commands.size(), ex);
+            Set<String> productIds = new LinkedHashSet<>();
+            commands.values().forEach(command -> command.getItems().forEach(item -> productIds.add(item.getProductId())));
+            invalidate(productIds);
+            commands.forEach((orderId, command) -> fallback.execute(orderId, command.getItems(), command.getRequestedAt()));
+            return false;
+        } catch (RuntimeException ex) {
+            decisions.forEach(Decision::cancel);
+            throw ex;
+        }
+    }
+
+    private void publish(List<Decision> decisions) {
+
+        for (Decision decision : decisions) {
+            if (decision.shortages().isEmpty()) {
+                processedOrders.record(decision.orderId());
+                expiryReaper.track(decision.orderId());
+                log.info("Inventory successfully reserved for orderId={}", decision.orderId());
+                eventPublisher.publishInventoryReserved(
+                        new InventoryReservedEvent(decision.orderId().toString(), Instant.now()));
+            } else {
+                log.warn("Validation Failed: {} lines short in order {}", decision.shortages().size(), decision.orderId());
+                eventPublisher.publishInventoryUnavailable(new InventoryUnavailableEvent(
+                        decision.orderId().toString(),
+                        decision.shortages().get(0).reason(),
+                        Instant.now(),
+                        decision.shortages().stream()
+                                .map(s -> new InventoryUnavailableEvent.Shortage(s.productId(), s.requested(), s.available()))
+                                .toList()));
+            }
+        }
+    }
+
+    /**
+     * Drops the counters of products whose stock was changed outside the
+     * engine; they are reloaded on next use.
+     */
+    public void invalidate(Collection<String> productIds) {
+        productIds.forEach(counters::remove);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a load racing the caller's transaction may still have read the old row
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    productIds.forEach(counters::remove);
+                }
+            });
+        }
+    }
+
+    private void load(Set<String> productIds) {
+
+        List<String> missing = productIds.stream()
+                .filter(productId -> !counters.containsKey(productId))
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        for (Inventory inventory : inventoryRepository.findAllByProductIdIn(missing)) {
+            counters.putIfAbsent(inventory.getProductId(),
+                    new StockCounter(inventory.getAvailableQuantity(), inventory.getReservedQuantity()));
+        }
+    }
+
+    /**
+     * Replaces the counters of the given products with the stored stock.
+     * Holds other threads still have to write are not in it; if that lets
+     * an order through twice, the guarded write fails and the batch is
+     * replayed through the database.
+     */
+    private void reload(Set<String> productIds) {
+
+        Set<String> unknown = new LinkedHashSet<>(productIds);
+        for (Inventory inventory : inventoryRepository.findAllByProductIdIn(List.copyOf(productIds))) {
+            unknown.remove(inventory.getProductId());
+            counters.put(inventory.getProductId(),
+                    new StockCounter(inventory.getAvailableQuantity(), inventory.getReservedQuantity()));
+        }
+        unknown.forEach(counters::remove);
+    }
+
+    private Decision decide(UUID orderId, List<ReserveInventoryCommand.LineItem> items) {
+
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        for (ReserveInventoryCommand.LineItem item : items) {
+            lines.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        Decision decision = new Decision(orderId, new ArrayList<>(lines.size()), List.of());
+        for (Map.Entry<String, Integer> line : lines.entrySet()) {
+            if (!take(decision, line.getKey(), line.getValue())) {
+                decision.cancel();
+                return new Decision(orderId, List.of(), shortagesOf(lines, line.getKey()));
+            }
+        }
+        return decision;
+    }
+
+    private boolean take(Decision decision, String productId, int quantity) {
+
+        StockCounter counter = counters.get(productId);
+        if (counter == null || quantity <= 0 || !counter.tryReserve(quantity)) {
+            return false;
+        }
+        decision.holds().add(new Hold(productId, counter, quantity));
+        return true;
+    }
+
+    /**
+     * Reports every short line of a rejected order, not just the one that
+     * stopped it, against the counters as they are now.
+     */
+    private List<StockShortage> shortagesOf(Map<String, Integer> lines, String failedProductId) {
+
+        List<StockShortage> shortages = new ArrayList<>();
+        lines.forEach((productId, quantity) -> {
+            StockCounter counter = counters.get(productId);
+            if (counter == null) {
+                shortages.add(new StockShortage(productId, quantity, 0, true));
+            } else if (quantity <= 0 || counter.available() < quantity || productId.equals(failedProductId)) {
+                // the failed line stays reported even if stock came back in the meantime
+                shortages.add(new StockShortage(productId, quantity, counter.available(), false));
+            }
+        });
+        return shortages;
+    }
+
+    private record Hold(String productId, StockCounter counter, int quantity) {
+    }
+
+    private record Decision(UUID orderId, List<Hold> holds, List<StockShortage> shortages) {
+
+        void cancel() {
+            holds.forEach(hold -> hold.counter().cancel(hold.quantity()));
+        }
+    }
+}
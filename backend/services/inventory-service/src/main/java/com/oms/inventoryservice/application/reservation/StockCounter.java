@@ -0,0 +1,60 @@
+package com.oms.inventoryservice.application.reservation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Available and reserved units of one product packed into a single long,
+ * available in the high and reserved in the low 32 bits, so a reservation
+ * moves both with one compare-and-set.
+ */
+final class StockCounter {
+
+    private final AtomicLong state;
+
+    StockCounter(int available, int reserved) {
+        this.state = new AtomicLong(pack(available, reserved));
+    }
+
+    /**
+     * Takes {@code quantity} units if that many are available. Never blocks;
+     * a lost race only re-reads the counter and tries again.
+     */
+    boolean tryReserve(int quantity) {
+        long current = state.get();
+        while (true) {
+            int available = available(current);
+            if (available < quantity) {
+                return false;
+            }
+            long witness = state.compareAndExchange(current, pack(available - quantity, reserved(current) + quantity));
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+    }
+
+    void cancel(int quantity) {
+        state.getAndUpdate(current -> pack(available(current) + quantity, reserved(current) - quantity));
+    }
+
+    int available() {
+        return available(state.get());
+    }
+
+    int reserved() {
+        return reserved(state.get());
+    }
+
+    private static long pack(int available, int reserved) {
+        return ((long) available << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    private static int available(long state) {
+        return (int) (state >> 32);
+    }
+
+    private static int reserved(long state) {
+        return (int) state;
+    }
+}
@@ -0,0 +1,259 @@
+package com.oms.inventoryservice.application.striping;
+
+import com.oms.inventoryservice.domain.model.Inventory;
+import com.oms.inventoryservice.domain.model.InventoryReservation;
+import com.oms.inventoryservice.domain.model.InventoryStripe;
+import com.oms.inventoryservice.domain.model.StockShortage;
+import com.oms.inventoryservice.domain.repository.InventoryStripeRepository;
+import com.oms.inventoryservice.domain.repository.InventoryStripeRepository.Totals;
+import com.oms.inventoryservice.domain.repository.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Opt-in striping for hot products.
+ *
+ * A striped product keeps its available stock in several
+ * {@code inventory_stripes} rows instead of the {@code inventory} row.
+ * A reservation takes from a random stripe that can cover it and skips
+ * stripes that are locked, so concurrent reservers rarely wait on each
+ * other. Only if no single stripe is free and large enough are all
+ * stripes locked and drained together.
+ *
+ * Stripes drift apart as they are drained at random; the rebalancer
+ * spreads the available stock evenly again and also sweeps in stock added
+ * to the {@code inventory} row (restocks and releases of reservations made
+ * before striping).
+ *
+ * Enabled with {@code inventory.striping.enabled=true}, then per product
+ * through {@code POST /inventory/{id}/stripes}. Applies to the database
+ * reservation path; the in-memory engine has no row contention to spread.
+ */
+@Slf4j
+@Service
+public class StockStripeService {
+
+    private final InventoryStripeRepository stripeRepository;
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final boolean memoryEngine;
+
+    public StockStripeService(
+            InventoryStripeRepository stripeRepository,
+            ReservationRepository reservationRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${inventory.striping.enabled:false}") boolean enabled,
+            @Value("${inventory.reservation.engine:jpa}") String reservationEngine
+    ) {
+        this.stripeRepository = stripeRepository;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.memoryEngine = "memory".equals(reservationEngine);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Set<String> stripedAmong(Collection<String> productIds) {
+        return enabled && !productIds.isEmpty() ? stripeRepository.findStripedProductIds(productIds) : Set.of();
+    }
+
+    public boolean isStriped(String productId) {
+        return !stripedAmong(List.of(productId)).isEmpty();
+    }
+
+    /**
+     * Spreads the product's available stock over {@code stripes} rows.
+     */
+    @Transactional
+    public void stripe(String productId, int stripes) {
+
+        if (!enabled || memoryEngine) {
+            throw new IllegalStateException("Stock striping is not enabled");
+        }
+        if (stripes < 2) {
+            throw new IllegalArgumentException("A striped product needs at least two stripes");
+        }
+        if (isStriped(productId)) {
+            throw new IllegalStateException("Product " + productId + " is already striped");
+        }
+
+        int available = stripeRepository.drainInventoryRow(productId);
+        List<InventoryStripe> created = new ArrayList<>(stripes);
+        for (int i = 0; i < stripes; i++) {
+            created.add(new InventoryStripe(productId, i, share(available, stripes, i)));
+        }
+        stripeRepository.saveAll(created);
+
+        log.info("Striped product {} over {} stripes ({} available)", productId, stripes, available);
+    }
+
+    /**
+     * Reserves striped lines of an order and records their reservations.
+     * Runs in the caller's transaction, which must be rolled back if
+     * shortages are returned: lines reserved before the short one have
+     * already been taken.
+     *
+     * @return the shortages; empty if every line was reserved
+     */
+    public List<StockShortage> reserve(UUID orderId, Map<String, Integer> quantitiesByProduct) {
+
+        List<InventoryReservation> reservations = new ArrayList<>(quantitiesByProduct.size());
+        List<StockShortage> shortages = new ArrayList<>();
+
+        quantitiesByProduct.forEach((productId, quantity) -> {
+            if (stripeRepository.reserveFromAnyStripe(productId, quantity) || reserveAcrossStripes(productId, quantity)) {
+                reservations.add(new InventoryReservation(orderId, productId, quantity));
+            } else {
+                int available = stripeRepository.lockStripes(productId).stream()
+                        .mapToInt(InventoryStripe::getAvailableQuantity)
+                        .sum();
+                shortages.add(new StockShortage(productId, quantity, available, false));
+            }
+        });
+
+        if (!shortages.isEmpty()) {
+            return shortages;
+        }
+        reservationRepository.saveAll(reservations);
+        return List.of();
+    }
+
+    /**
+     * Returns reserved units to the stripes. Returns false, and changes
+     * nothing, if the stripes do not hold that many reserved units, which
+     * happens for reservations made before the product was striped.
+     */
+    @Transactional
+    public boolean release(String productId, int quantity) {
+        return enabled && moveReserved(productId, quantity, InventoryStripe::release);
+    }
+
+    /**
+     * Drops confirmed units from the stripes' reserved stock; same contract
+     * as {@link #release}.
+     */
+    @Transactional
+    public boolean confirm(String productId, int quantity) {
+        return enabled && moveReserved(productId, quantity, InventoryStripe::confirm);
+    }
+
+    public Inventory withStripes(Inventory inventory) {
+        if (!enabled) {
+            return inventory;
+        }
+        Totals totals = stripeRepository.sumByProduct(List.of(inventory.getProductId())).get(inventory.getProductId());
+        return totals == null ? inventory : inventory.withStripedStock(totals.available(), totals.reserved());
+    }
+
+    public List<Inventory> withStripes(List<Inventory> inventories) {
+        if (!enabled) {
+            return inventories;
+        }
+        Map<String, Totals> totals = stripeRepository.sumAll();
+        if (totals.isEmpty()) {
+            return inventories;
+        }
+        return inventories.stream()
+                .map(inventory -> {
+                    Totals striped = totals.get(inventory.getProductId());
+                    return striped == null ? inventory : inventory.withStripedStock(striped.available(), striped.reserved());
+                })
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.striping.rebalance-interval-ms:1000}")
+    public void rebalance() {
+
+        if (!enabled) {
+            return;
+        }
+
+        for (String productId : stripeRepository.findProductIdsToRebalance()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalance(productId));
+            } catch (RuntimeException ex) {
+                log.warn("Failed to rebalance stripes of product {}", productId, ex);
+            }
+        }
+    }
+
+    private void rebalance(String productId) {
+
+        List<InventoryStripe> stripes = stripeRepository.lockStripes(productId);
+        if (stripes.isEmpty()) {
+            return;
+        }
+
+        int available = stripeRepository.drainInventoryRow(productId);
+        for (InventoryStripe stripe : stripes) {
+            available += stripe.getAvailableQuantity();
+        }
+        for (int i = 0; i < stripes.size(); i++) {
+            stripes.get(i).rebalance(share(available, stripes.size(), i));
+        }
+        stripeRepository.saveAll(stripes);
+
+        log.debug("Rebalanced {} available units of product {} over {} stripes", available, productId, stripes.size());
+    }
+
+    /**
+     * Slow path for a quantity no single free stripe covers: locks all
+     * stripes and takes from each in turn.
+     */
+    private boolean reserveAcrossStripes(String productId, int quantity) {
+
+        List<InventoryStripe> stripes = stripeRepository.lockStripes(productId);
+        int available = stripes.stream().mapToInt(InventoryStripe::getAvailableQuantity).sum();
+        if (stripes.isEmpty() || available < quantity) {
+            return false;
+        }
+
+        int remaining = quantity;
+        for (InventoryStripe stripe : stripes) {
+            remaining -= stripe.reserve(remaining);
+        }
+        stripeRepository.saveAll(stripes);
+        return true;
+    }
+
+    private boolean moveReserved(String productId, int quantity, StripeMove move) {
+
+        List<InventoryStripe> stripes = stripeRepository.lockStripes(productId);
+        int reserved = stripes.stream().mapToInt(InventoryStripe::getReservedQuantity).sum();
+        if (stripes.isEmpty() || reserved < quantity) {
+            return false;
+        }
+
+        int remaining = quantity;
+        for (InventoryStripe stripe : stripes) {
+            remaining -= move.apply(stripe, remaining);
+        }
+        stripeRepository.saveAll(stripes);
+        return true;
+    }
+
+    private static int share(int total, int stripes, int index) {
+        return total / stripes + (index < total % stripes ? 1 : 0);
+    }
+
+    @FunctionalInterface
+    private interface StripeMove {
+        int apply(InventoryStripe stripe, int quantity);
+    }
+}
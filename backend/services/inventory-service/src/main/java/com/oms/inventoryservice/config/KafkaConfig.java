@@ -28,6 +28,9 @@ public class KafkaConfig {
     @Value("${kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${inventory.reservation.max-poll-records:500}")
+    private int reservationMaxPollRecords;
+
     @Bean
     public ConsumerFactory<String, Object> consumerFactory() {
         Map<String, Object> config = new HashMap<>();
@@ -46,6 +49,7 @@ public class KafkaConfig {
 
         config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
 
         return new DefaultKafkaConsumerFactory<>(config);
     }
@@ -62,6 +66,21 @@ public class KafkaConfig {
         return factory;
     }
 
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> reserveBatchKafkaListenerContainerFactory() {
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties()
+                .setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.getContainerProperties().getKafkaConsumerProperties()
+                .put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(reservationMaxPollRecords));
+
+        return factory;
+    }
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> config = new HashMap<>();
@@ -1,5 +1,6 @@
 package com.oms.inventoryservice.domain.event;
 
+import com.oms.eventcontracts.events.InventoryAvailabilityEvent;
 import com.oms.eventcontracts.events.InventoryReservedEvent;
 import com.oms.eventcontracts.events.InventoryUnavailableEvent;
 
@@ -8,4 +9,6 @@ public interface InventoryEventPublisher {
     void publishInventoryReserved(InventoryReservedEvent event);
 
     void publishInventoryUnavailable(InventoryUnavailableEvent event);
+
+    void publishAvailability(InventoryAvailabilityEvent event);
 }
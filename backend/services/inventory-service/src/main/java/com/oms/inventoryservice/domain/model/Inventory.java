@@ -9,7 +9,7 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import java.time.Instant;
 
 @Entity
-@Table(name = "inventory")
+@Table(name = "inventory", indexes = @Index(name = "idx_inventory_updated_at", columnList = "updatedAt"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -77,6 +77,31 @@ public class Inventory {
         this.updatedAt = Instant.now();
     }
 
+    /**
+     * Confirms a reservation whose units were held in stripes, so only the
+     * total on this row changes.
+     */
+    public void confirmStripedReservation(int quantity) {
+        this.totalQuantity -= quantity;
+        this.updatedAt = Instant.now();
+    }
+
+    /**
+     * Detached copy that also counts the stock held in stripes, for reads
+     * that report a product's totals.
+     */
+    public Inventory withStripedStock(int stripedAvailable, int stripedReserved) {
+        Inventory copy = new Inventory();
+        copy.productId = productId;
+        copy.totalQuantity = totalQuantity;
+        copy.availableQuantity = availableQuantity + stripedAvailable;
+        copy.reservedQuantity = reservedQuantity + stripedReserved;
+        copy.version = version;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+
     public void addStock(int quantity) {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity to add must be positive");
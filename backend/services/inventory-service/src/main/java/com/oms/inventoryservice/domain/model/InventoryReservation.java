@@ -1,9 +1,11 @@
 package com.oms.inventoryservice.domain.model;
 
+import com.oms.eventcontracts.ids.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -16,8 +18,10 @@ import java.util.UUID;
 @NoArgsConstructor
 public class InventoryReservation {
 
+    public static final Duration TTL = Duration.ofSeconds(900);
+
     @Id
-    @GeneratedValue
+    @TimeOrderedId
     private UUID id;
 
     @Column(name = "order_id", nullable = false)
@@ -49,7 +53,7 @@ public class InventoryReservation {
         this.status = ReservationStatus.RESERVED;
         this.createdAt = Instant.now();
         this.updatedAt = this.createdAt;
-        this.expiresAt = this.createdAt.plusSeconds(900);
+        this.expiresAt = this.createdAt.plus(TTL);
     }
 
     public boolean isExpired() {
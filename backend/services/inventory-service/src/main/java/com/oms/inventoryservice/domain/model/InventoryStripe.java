@@ -0,0 +1,78 @@
+package com.oms.inventoryservice.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * One bucket of a striped product's stock. Reservations on a hot product
+ * take from any stripe with enough stock instead of all updating the same
+ * {@code inventory} row.
+ */
+@Entity
+@Table(name = "inventory_stripes")
+@IdClass(InventoryStripe.Key.class)
+@Getter
+@NoArgsConstructor
+public class InventoryStripe {
+
+    @Id
+    @Column(name = "product_id")
+    private String productId;
+
+    @Id
+    private int stripe;
+
+    @Column(nullable = false)
+    private int availableQuantity;
+
+    @Column(nullable = false)
+    private int reservedQuantity;
+
+    public InventoryStripe(String productId, int stripe, int availableQuantity) {
+        this.productId = productId;
+        this.stripe = stripe;
+        this.availableQuantity = availableQuantity;
+        this.reservedQuantity = 0;
+    }
+
+    /** Moves up to {@code quantity} units from available to reserved; returns how many moved. */
+    public int reserve(int quantity) {
+        int taken = Math.min(quantity, availableQuantity);
+        this.availableQuantity -= taken;
+        this.reservedQuantity += taken;
+        return taken;
+    }
+
+    /** Moves up to {@code quantity} reserved units back to available; returns how many moved. */
+    public int release(int quantity) {
+        int released = Math.min(quantity, reservedQuantity);
+        this.reservedQuantity -= released;
+        this.availableQuantity += released;
+        return released;
+    }
+
+    /** Drops up to {@code quantity} reserved units that left the warehouse; returns how many. */
+    public int confirm(int quantity) {
+        int confirmed = Math.min(quantity, reservedQuantity);
+        this.reservedQuantity -= confirmed;
+        return confirmed;
+    }
+
+    public void rebalance(int availableQuantity) {
+        this.availableQuantity = availableQuantity;
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String productId;
+        private int stripe;
+    }
+}
@@ -0,0 +1,17 @@
+package com.oms.inventoryservice.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of an {@code inventory} row with its stripes summed
+ * in, for listing and export without loading managed entities.
+ */
+public record InventoryView(
+        String productId,
+        int totalQuantity,
+        int availableQuantity,
+        int reservedQuantity,
+        long version,
+        Instant updatedAt
+) {
+}
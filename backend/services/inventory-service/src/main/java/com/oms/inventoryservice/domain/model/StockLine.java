@@ -0,0 +1,5 @@
+package com.oms.inventoryservice.domain.model;
+
+/** One accepted line of a bulk stock feed: add {@code quantity} units to {@code productId}. */
+public record StockLine(long lineNumber, String productId, int quantity) {
+}
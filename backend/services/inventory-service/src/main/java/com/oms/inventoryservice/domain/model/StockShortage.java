@@ -0,0 +1,12 @@
+package com.oms.inventoryservice.domain.model;
+
+/**
+ * A reservation line that could not be covered. {@code missing} marks
+ * products that do not exist; their {@code available} is zero.
+ */
+public record StockShortage(String productId, int requested, int available, boolean missing) {
+
+    public String reason() {
+        return (missing ? "PRODUCT_NOT_FOUND: " : "INSUFFICIENT_STOCK: ") + productId;
+    }
+}
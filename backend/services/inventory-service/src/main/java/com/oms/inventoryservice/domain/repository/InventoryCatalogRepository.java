@@ -0,0 +1,29 @@
+package com.oms.inventoryservice.domain.repository;
+
+import com.oms.inventoryservice.domain.model.InventoryView;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface InventoryCatalogRepository {
+
+    /** Up to {@code limit} products ordered by id, starting after {@code afterProductId}. */
+    List<InventoryView> findPage(String afterProductId, int limit);
+
+    /** Streams every product through a server-side cursor, in product id order. */
+    void streamAll(Consumer<InventoryView> action);
+
+    /**
+     * Products whose row was updated after {@code since}, plus every striped
+     * product, whose stripes change without touching the row.
+     */
+    List<InventoryView> findChangedSince(Instant since);
+
+    /**
+     * Changes whenever any product's stock changes: row count and summed
+     * versions of {@code inventory}, plus the summed stripe quantities,
+     * which change without touching the row's version.
+     */
+    String fingerprint();
+}
@@ -1,10 +1,13 @@
 package com.oms.inventoryservice.domain.repository;
 
 import com.oms.inventoryservice.domain.model.Inventory;
+import com.oms.inventoryservice.domain.model.StockShortage;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 public interface InventoryRepository {
 
@@ -15,4 +18,14 @@ public interface InventoryRepository {
     List<Inventory> findAllByProductIdIn(List<String> productIds);
 
     void saveAll(Collection<Inventory> values);
+
+    /**
+     * Reserves every line of an order or none of them, in one statement that
+     * decrements the stock and inserts the reservation rows.
+     *
+     * @return the lines that could not be covered; empty if the order was reserved
+     * @throws ReservationBatchRepository.StockConflictException if a concurrent
+     *         reservation took stock between the check and the update
+     */
+    List<StockShortage> reserveAll(UUID orderId, Map<String, Integer> quantitiesByProduct);
 }
@@ -0,0 +1,45 @@
+package com.oms.inventoryservice.domain.repository;
+
+import com.oms.inventoryservice.domain.model.InventoryStripe;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface InventoryStripeRepository {
+
+    Set<String> findStripedProductIds(Collection<String> productIds);
+
+    /**
+     * Reserves {@code quantity} from one stripe that has enough stock,
+     * skipping stripes other transactions hold locked.
+     *
+     * @return false if no unlocked stripe could cover the quantity
+     */
+    boolean reserveFromAnyStripe(String productId, int quantity);
+
+    /** Locks and returns all stripes of a product, in stripe order. */
+    List<InventoryStripe> lockStripes(String productId);
+
+    void saveAll(Collection<InventoryStripe> stripes);
+
+    /**
+     * Sets the {@code inventory} row's available quantity to zero and
+     * returns what it was, so it can be spread over the stripes.
+     */
+    int drainInventoryRow(String productId);
+
+    Map<String, Totals> sumByProduct(Collection<String> productIds);
+
+    Map<String, Totals> sumAll();
+
+    /**
+     * Products whose emptiest stripe has less than half the average, or
+     * whose {@code inventory} row received stock that is not striped yet.
+     */
+    List<String> findProductIdsToRebalance();
+
+    record Totals(int available, int reserved) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.oms.inventoryservice.domain.repository;
+
+import com.oms.inventoryservice.domain.model.InventoryReservation;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ReservationBatchRepository {
+
+    /**
+     * Applies the summed quantities per product to inventory and inserts the
+     * reservations in one transaction. Every stock update is guarded on the
+     * available quantity, so nothing is oversold even if the caller decided
+     * on stale counts.
+     *
+     * @throws StockConflictException if a guard fails; nothing is written then
+     */
+    void reserve(Map<String, Integer> quantitiesByProduct, List<InventoryReservation> reservations);
+
+    class StockConflictException extends RuntimeException {
+        public StockConflictException(String productId) {
+            super("Stock of product " + productId + " changed underneath the reservation");
+        }
+    }
+}
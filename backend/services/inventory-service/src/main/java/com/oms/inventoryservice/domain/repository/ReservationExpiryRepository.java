@@ -0,0 +1,30 @@
+package com.oms.inventoryservice.domain.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+public interface ReservationExpiryRepository {
+
+    /** Streams every order with RESERVED reservations and its latest expiry. */
+    void forEachPendingExpiry(BiConsumer<UUID, Instant> action);
+
+    /** Latest expiry of the given orders' reservations that are still RESERVED. */
+    Map<UUID, Instant> findPendingExpiries(Collection<UUID> orderIds);
+
+    List<UUID> findExpiredOrderIds(int limit);
+
+    /**
+     * Marks the given orders' expired RESERVED reservations RELEASED in one
+     * statement.
+     *
+     * @return released units summed per product
+     */
+    Map<String, Integer> markExpiredReleased(Collection<UUID> orderIds);
+
+    /** Moves reserved units back to available, one row update per product. */
+    void returnReservedStock(Map<String, Integer> quantitiesByProduct);
+}
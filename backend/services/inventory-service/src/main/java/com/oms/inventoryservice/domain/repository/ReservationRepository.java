@@ -4,8 +4,10 @@ import com.oms.inventoryservice.domain.model.InventoryReservation;
 import com.oms.inventoryservice.domain.model.InventoryReservation.ReservationStatus;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface ReservationRepository {
@@ -19,15 +21,8 @@ public interface ReservationRepository {
     boolean existsByOrderId(String string);
 
     void saveAll(List<InventoryReservation> newReservations);
-}
-
-
-
-
-
-
-
-
-
 
+    Set<UUID> findReservedOrderIds(Collection<UUID> orderIds);
 
+    List<UUID> findOrderIdsReservedSince(Instant since);
+}
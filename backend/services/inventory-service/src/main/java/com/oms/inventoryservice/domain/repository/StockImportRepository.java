@@ -0,0 +1,29 @@
+package com.oms.inventoryservice.domain.repository;
+
+import com.oms.inventoryservice.domain.model.StockLine;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface StockImportRepository {
+
+    /**
+     * Stages {@code lines} as they are read and adds their summed quantities
+     * to inventory, creating unknown products. Products are applied in id
+     * order, in chunks that commit on their own so no transaction holds
+     * many rows locked; {@code onChunkApplied} gets each committed chunk's
+     * product ids.
+     *
+     * @param afterProductId only products ordered after this id are applied,
+     *                       to resume an import that stopped part-way
+     */
+    ImportOutcome importLines(Iterator<StockLine> lines, String afterProductId, Consumer<List<String>> onChunkApplied);
+
+    /**
+     * @param resumeAfter last product of the last committed chunk if a chunk
+     *                    failed, null if every product was applied
+     */
+    record ImportOutcome(long staged, int created, int updated, String resumeAfter) {
+    }
+}
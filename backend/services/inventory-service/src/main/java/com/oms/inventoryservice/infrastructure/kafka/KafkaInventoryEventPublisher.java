@@ -1,6 +1,7 @@
 package com.oms.inventoryservice.infrastructure.kafka;
 
 import com.oms.inventoryservice.domain.event.InventoryEventPublisher;
+import com.oms.eventcontracts.events.InventoryAvailabilityEvent;
 import com.oms.eventcontracts.events.InventoryReservedEvent;
 import com.oms.eventcontracts.events.InventoryUnavailableEvent;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +23,9 @@ public class KafkaInventoryEventPublisher implements InventoryEventPublisher {
     @Value("${kafka.topics.inventory-unavailable}")
     private String inventoryUnavailableTopic;
 
+    @Value("${kafka.topics.inventory-availability:inventory.availability}")
+    private String inventoryAvailabilityTopic;
+
     @Override
     public void publishInventoryReserved(InventoryReservedEvent event) {
         kafkaTemplate.send(
@@ -48,4 +52,16 @@ public class KafkaInventoryEventPublisher implements InventoryEventPublisher {
             throw new RuntimeException(e);
         }
     }
+
+    @Override
+    public void publishAvailability(InventoryAvailabilityEvent event) {
+        kafkaTemplate.send(
+                inventoryAvailabilityTopic,
+                event.getProductId(),
+                event).whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.warn("Failed to publish availability of {}", event.getProductId(), ex);
+                    }
+                });
+    }
 }
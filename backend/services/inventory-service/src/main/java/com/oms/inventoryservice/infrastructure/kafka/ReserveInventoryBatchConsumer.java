@@ -0,0 +1,42 @@
+package com.oms.inventoryservice.infrastructure.kafka;
+
+import com.oms.eventcontracts.commands.ReserveInventoryCommand;
+import com.oms.inventoryservice.application.idempotency.ProcessedOrderIndex;
+import com.oms.inventoryservice.application.reservation.InventoryReservationEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "inventory.reservation.engine", havingValue = "memory")
+public class ReserveInventoryBatchConsumer {
+
+    private final InventoryReservationEngine reservationEngine;
+    private final ProcessedOrderIndex processedOrders;
+
+    @KafkaListener(
+            topics = "inventory.reserve.command",
+            groupId = "inventory-service",
+            containerFactory = "reserveBatchKafkaListenerContainerFactory"
+    )
+    public void handle(List<ReserveInventoryCommand> commands) {
+
+        log.debug("ReserveInventoryCommand batch received | size={}", commands.size());
+
+        try {
+            reservationEngine.reserveAll(commands);
+        } catch (DataIntegrityViolationException ex) {
+            // some order was reserved elsewhere; the retry checks the whole batch against the database
+            processedOrders.record(commands.stream().map(command -> UUID.fromString(command.getOrderId())).toList());
+            throw ex;
+        }
+    }
+}
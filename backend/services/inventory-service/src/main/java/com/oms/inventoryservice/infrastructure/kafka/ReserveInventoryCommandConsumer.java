@@ -2,8 +2,11 @@ package com.oms.inventoryservice.infrastructure.kafka;
 
 import com.oms.eventcontracts.commands.ReserveInventoryCommand;
 import com.oms.inventoryservice.application.ReserveStockUseCase;
+import com.oms.inventoryservice.application.idempotency.ProcessedOrderIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
@@ -13,9 +16,11 @@ import java.util.UUID;
 @Component
 @RequiredArgsConstructor
 @Slf4j
+@ConditionalOnProperty(name = "inventory.reservation.engine", havingValue = "jpa", matchIfMissing = true)
 public class ReserveInventoryCommandConsumer {
 
     private final ReserveStockUseCase reserveStockUseCase;
+    private final ProcessedOrderIndex processedOrders;
 
     @KafkaListener(
             topics = "inventory.reserve.command",
@@ -27,44 +32,13 @@ public class ReserveInventoryCommandConsumer {
                 command.getOrderId(),
                 command.getItems().size()); 
 
-        reserveStockUseCase.execute(
-                UUID.fromString(command.getOrderId()),
-                command.getItems()
-        );
+        UUID orderId = UUID.fromString(command.getOrderId());
+        try {
+            reserveStockUseCase.execute(orderId, command.getItems(), command.getRequestedAt());
+        } catch (DataIntegrityViolationException ex) {
+            // reserved elsewhere (another instance before a rebalance); the retry checks the database
+            processedOrders.record(orderId);
+            throw ex;
+        }
     }
 }
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
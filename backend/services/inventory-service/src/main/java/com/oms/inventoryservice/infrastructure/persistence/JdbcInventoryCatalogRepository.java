@@ -0,0 +1,129 @@
+package com.oms.inventoryservice.infrastructure.persistence;
+
+import com.oms.inventoryservice.domain.model.InventoryView;
+import com.oms.inventoryservice.domain.repository.InventoryCatalogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+public class JdbcInventoryCatalogRepository implements InventoryCatalogRepository {
+
+    private static final String FIND_PAGE = """
+            SELECT i.product_id, i.total_quantity,
+                   i.available_quantity + coalesce(s.available, 0) AS available_quantity,
+                   i.reserved_quantity + coalesce(s.reserved, 0) AS reserved_quantity,
+                   coalesce(i.version, 0) AS version, i.updated_at
+            FROM (
+                SELECT *
+                FROM inventory
+                WHERE product_id > ?
+                ORDER BY product_id
+                LIMIT ?
+            ) i
+            LEFT JOIN LATERAL (
+                SELECT sum(available_quantity) AS available, sum(reserved_quantity) AS reserved
+                FROM inventory_stripes st
+                WHERE st.product_id = i.product_id
+            ) s ON true
+            ORDER BY i.product_id
+            """;
+
+    private static final String STREAM_ALL = """
+            SELECT i.product_id, i.total_quantity,
+                   i.available_quantity + coalesce(s.available, 0) AS available_quantity,
+                   i.reserved_quantity + coalesce(s.reserved, 0) AS reserved_quantity,
+                   coalesce(i.version, 0) AS version, i.updated_at
+            FROM inventory i
+            LEFT JOIN (
+                SELECT product_id, sum(available_quantity) AS available, sum(reserved_quantity) AS reserved
+                FROM inventory_stripes
+                GROUP BY product_id
+            ) s ON s.product_id = i.product_id
+            ORDER BY i.product_id
+            """;
+
+    private static final String FIND_CHANGED_SINCE = """
+            SELECT i.product_id, i.total_quantity,
+                   i.available_quantity + coalesce(s.available, 0) AS available_quantity,
+                   i.reserved_quantity + coalesce(s.reserved, 0) AS reserved_quantity,
+                   coalesce(i.version, 0) AS version, i.updated_at
+            FROM inventory i
+            LEFT JOIN LATERAL (
+                SELECT sum(available_quantity) AS available, sum(reserved_quantity) AS reserved
+                FROM inventory_stripes st
+                WHERE st.product_id = i.product_id
+            ) s ON true
+            WHERE i.product_id IN (
+                SELECT product_id FROM inventory WHERE updated_at > ?
+                UNION
+                SELECT product_id FROM inventory_stripes
+            )
+            """;
+
+    private static final String FINGERPRINT = """
+            SELECT count(*) || '-' || coalesce(sum(version), 0) || '-' || (
+                SELECT coalesce(sum(available_quantity), 0) || '-' || coalesce(sum(reserved_quantity), 0)
+                FROM inventory_stripes
+            )
+            FROM inventory
+            """;
+
+    private static final RowMapper<InventoryView> VIEW = (rs, rowNum) -> new InventoryView(
+            rs.getString("product_id"),
+            rs.getInt("total_quantity"),
+            rs.getInt("available_quantity"),
+            rs.getInt("reserved_quantity"),
+            rs.getLong("version"),
+            rs.getTimestamp("updated_at").toInstant()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public JdbcInventoryCatalogRepository(
+            JdbcTemplate jdbcTemplate,
+            @Value("${inventory.catalog.export-fetch-size:1000}") int fetchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public List<InventoryView> findPage(String afterProductId, int limit) {
+        return jdbcTemplate.query(FIND_PAGE, VIEW, afterProductId, limit);
+    }
+
+    /**
+     * The PostgreSQL driver only honours the fetch size outside autocommit,
+     * hence the read-only transaction around the cursor.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<InventoryView> action) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(STREAM_ALL);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            action.accept(VIEW.mapRow(rs, 0));
+        });
+    }
+
+    @Override
+    public List<InventoryView> findChangedSince(Instant since) {
+        return jdbcTemplate.query(FIND_CHANGED_SINCE, VIEW, Timestamp.from(since));
+    }
+
+    @Override
+    public String fingerprint() {
+        return jdbcTemplate.queryForObject(FINGERPRINT, String.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.oms.inventoryservice.infrastructure.persistence;
+
+import com.oms.eventcontracts.ids.UuidV7;
+import com.oms.inventoryservice.domain.model.InventoryReservation;
+import com.oms.inventoryservice.domain.repository.ReservationBatchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Repository
+@RequiredArgsConstructor
+public class JdbcReservationBatchRepository implements ReservationBatchRepository {
+
+    private static final String RESERVE_STOCK = """
+            UPDATE inventory
+            SET available_quantity = available_quantity - ?,
+                reserved_quantity = reserved_quantity + ?,
+                version = version + 1,
+                updated_at = ?
+            WHERE product_id = ?
+            AND available_quantity >= ?
+            """;
+
+    private static final String INSERT_RESERVATION = """
+            INSERT INTO inventory_reservations
+                (id, order_id, product_id, quantity, status, expires_at, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void reserve(Map<String, Integer> quantitiesByProduct, List<InventoryReservation> reservations) {
+
+        // a fixed row order keeps concurrent batches from deadlocking on inventory rows
+        List<Map.Entry<String, Integer>> updates = new ArrayList<>(new TreeMap<>(quantitiesByProduct).entrySet());
+        Timestamp now = Timestamp.from(Instant.now());
+
+        List<Object[]> stockArgs = new ArrayList<>(updates.size());
+        for (Map.Entry<String, Integer> update : updates) {
+            stockArgs.add(new Object[]{update.getValue(), update.getValue(), now, update.getKey(), update.getValue()});
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(RESERVE_STOCK, stockArgs);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw new StockConflictException(updates.get(i).getKey());
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_RESERVATION, reservations, INSERT_BATCH_SIZE, (ps, reservation) -> {
+            ps.setObject(1, UuidV7.next());
+            ps.setObject(2, reservation.getOrderId());
+            ps.setString(3, reservation.getProductId());
+            ps.setInt(4, reservation.getQuantity());
+            ps.setString(5, reservation.getStatus().name());
+            ps.setTimestamp(6, Timestamp.from(reservation.getExpiresAt()));
+            ps.setTimestamp(7, Timestamp.from(reservation.getCreatedAt()));
+            ps.setTimestamp(8, Timestamp.from(reservation.getUpdatedAt()));
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package com.oms.inventoryservice.infrastructure.persistence;
+
+import com.oms.inventoryservice.domain.repository.ReservationExpiryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+@Repository
+@RequiredArgsConstructor
+public class JdbcReservationExpiryRepository implements ReservationExpiryRepository {
+
+    private static final String FIND_ALL_PENDING = """
+            SELECT order_id, max(expires_at) AS expires_at
+            FROM inventory_reservations
+            WHERE status = 'RESERVED'
+            GROUP BY order_id
+            """;
+
+    private static final String FIND_PENDING = """
+            SELECT order_id, max(expires_at) AS expires_at
+            FROM inventory_reservations
+            WHERE order_id = ANY(?)
+            AND status = 'RESERVED'
+            GROUP BY order_id
+            """;
+
+    private static final String FIND_EXPIRED = """
+            SELECT DISTINCT order_id
+            FROM inventory_reservations
+            WHERE status = 'RESERVED'
+            AND expires_at <= now()
+            LIMIT ?
+            """;
+
+    private static final String MARK_RELEASED = """
+            WITH released AS (
+                UPDATE inventory_reservations
+                SET status = 'RELEASED',
+                    updated_at = now()
+                WHERE order_id = ANY(?)
+                AND status = 'RESERVED'
+                AND expires_at <= now()
+                RETURNING product_id, quantity
+            )
+            SELECT product_id, sum(quantity) AS quantity
+            FROM released
+            GROUP BY product_id
+            """;
+
+    private static final String RETURN_STOCK = """
+            UPDATE inventory i
+            SET available_quantity = i.available_quantity + d.quantity,
+                reserved_quantity = i.reserved_quantity - d.quantity,
+                version = i.version + 1,
+                updated_at = now()
+            FROM unnest(?::varchar[], ?::int[]) AS d (product_id, quantity)
+            WHERE i.product_id = d.product_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void forEachPendingExpiry(BiConsumer<UUID, Instant> action) {
+        jdbcTemplate.query(FIND_ALL_PENDING, rs -> {
+            action.accept(rs.getObject("order_id", UUID.class), rs.getTimestamp("expires_at").toInstant());
+        });
+    }
+
+    @Override
+    public Map<UUID, Instant> findPendingExpiries(Collection<UUID> orderIds) {
+        Map<UUID, Instant> expiries = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(FIND_PENDING);
+            statement.setArray(1, connection.createArrayOf("uuid", orderIds.toArray()));
+            return statement;
+        }, rs -> {
+            expiries.put(rs.getObject("order_id", UUID.class), rs.getTimestamp("expires_at").toInstant());
+        });
+        return expiries;
+    }
+
+    @Override
+    public List<UUID> findExpiredOrderIds(int limit) {
+        return jdbcTemplate.queryForList(FIND_EXPIRED, UUID.class, limit);
+    }
+
+    @Override
+    public Map<String, Integer> markExpiredReleased(Collection<UUID> orderIds) {
+        Map<String, Integer> released = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(MARK_RELEASED);
+            statement.setArray(1, connection.createArrayOf("uuid", orderIds.toArray()));
+            return statement;
+        }, rs -> {
+            released.put(rs.getString("product_id"), rs.getInt("quantity"));
+        });
+        return released;
+    }
+
+    @Override
+    public void returnReservedStock(Map<String, Integer> quantitiesByProduct) {
+
+        String[] productIds = quantitiesByProduct.keySet().toArray(String[]::new);
+        Integer[] quantities = new Integer[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            quantities[i] = quantitiesByProduct.get(productIds[i]);
+        }
+
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(RETURN_STOCK);
+            statement.setArray(1, connection.createArrayOf("varchar", productIds));
+            statement.setArray(2, connection.createArrayOf("int4", quantities));
+            return statement;
+        });
+    }
+}
@@ -1,19 +1,71 @@
 package com.oms.inventoryservice.infrastructure.persistence;
 
+import com.oms.eventcontracts.ids.UuidV7;
 import com.oms.inventoryservice.domain.model.Inventory;
+import com.oms.inventoryservice.domain.model.StockShortage;
 import com.oms.inventoryservice.domain.repository.InventoryRepository;
+import com.oms.inventoryservice.domain.repository.ReservationBatchRepository.StockConflictException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 @RequiredArgsConstructor
 public class JpaInventoryRepository implements InventoryRepository {
 
+    /**
+     * Decrements every requested line and inserts its reservation, but only
+     * if the statement snapshot shows enough stock for all of them. Each row
+     * is re-checked against its latest version when it is locked, so a
+     * concurrent reservation shows up as fewer reserved lines than requested.
+     * The final select reports every line with its available quantity.
+     * Reservation ids are UUIDv7s generated in Java, one per line, so they
+     * stay time-ordered in the primary key index.
+     */
+    private static final String RESERVE_ALL = """
+            WITH requested (product_id, quantity, reservation_id) AS (
+                SELECT * FROM unnest(?::varchar[], ?::int[], ?::uuid[])
+            ),
+            reserved AS (
+                UPDATE inventory i
+                SET available_quantity = i.available_quantity - r.quantity,
+                    reserved_quantity = i.reserved_quantity + r.quantity,
+                    version = i.version + 1,
+                    updated_at = now()
+                FROM requested r
+                WHERE i.product_id = r.product_id
+                AND i.available_quantity >= r.quantity
+                AND NOT EXISTS (
+                    SELECT 1
+                    FROM requested q
+                    LEFT JOIN inventory s ON s.product_id = q.product_id
+                    WHERE s.product_id IS NULL OR s.available_quantity < q.quantity
+                )
+                RETURNING i.product_id, r.quantity, r.reservation_id
+            ),
+            inserted AS (
+                INSERT INTO inventory_reservations
+                    (id, order_id, product_id, quantity, status, expires_at, created_at, updated_at)
+                SELECT reservation_id, ?, product_id, quantity, 'RESERVED',
+                       now() + interval '900 seconds', now(), now()
+                FROM reserved
+            )
+            SELECT r.product_id, r.quantity, s.available_quantity, x.product_id IS NOT NULL AS reserved
+            FROM requested r
+            LEFT JOIN inventory s ON s.product_id = r.product_id
+            LEFT JOIN reserved x ON x.product_id = r.product_id
+            """;
+
     private final SpringDataInventoryRepository springRepo;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     public Optional<Inventory> findByProductId(String productId) {
@@ -36,4 +88,49 @@ public class JpaInventoryRepository implements InventoryRepository {
         
         springRepo.saveAll(values);
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional
+    public List<StockShortage> reserveAll(UUID orderId, Map<String, Integer> quantitiesByProduct) {
+
+        String[] productIds = quantitiesByProduct.keySet().toArray(String[]::new);
+        Integer[] quantities = new Integer[productIds.length];
+        UUID[] reservationIds = new UUID[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            quantities[i] = quantitiesByProduct.get(productIds[i]);
+            reservationIds[i] = UuidV7.next();
+        }
+
+        List<StockShortage> shortages = new ArrayList<>();
+        int[] reserved = new int[1];
+
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(RESERVE_ALL);
+            statement.setArray(1, connection.createArrayOf("varchar", productIds));
+            statement.setArray(2, connection.createArrayOf("int4", quantities));
+            statement.setArray(3, connection.createArrayOf("uuid", reservationIds));
+            statement.setObject(4, orderId);
+            return statement;
+        }, rs -> {
+            if (rs.getBoolean("reserved")) {
+                reserved[0]++;
+                return;
+            }
+            int requested = rs.getInt("quantity");
+            int available = rs.getInt("available_quantity");
+            boolean missing = rs.wasNull();
+            if (missing || available < requested) {
+                shortages.add(new StockShortage(rs.getString("product_id"), requested, available, missing));
+            }
+        });
+
+        if (reserved[0] == productIds.length) {
+            return List.of();
+        }
+        if (reserved[0] > 0 || shortages.isEmpty()) {
+            // the snapshot said yes but a row lost its stock before it was locked
+            throw new StockConflictException(String.join(",", productIds));
+        }
+        return shortages;
+    }
+}
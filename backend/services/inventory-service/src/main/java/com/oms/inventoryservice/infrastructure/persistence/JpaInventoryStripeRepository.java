@@ -0,0 +1,132 @@
+package com.oms.inventoryservice.infrastructure.persistence;
+
+import com.oms.inventoryservice.domain.model.InventoryStripe;
+import com.oms.inventoryservice.domain.repository.InventoryStripeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Repository
+@RequiredArgsConstructor
+public class JpaInventoryStripeRepository implements InventoryStripeRepository {
+
+    /**
+     * Picks a random stripe that can cover the quantity. SKIP LOCKED makes
+     * concurrent reservers spread over the stripes instead of queueing on
+     * the first one.
+     */
+    private static final String RESERVE_FROM_ANY_STRIPE = """
+            UPDATE inventory_stripes s
+            SET available_quantity = s.available_quantity - ?,
+                reserved_quantity = s.reserved_quantity + ?
+            WHERE (s.product_id, s.stripe) IN (
+                SELECT product_id, stripe
+                FROM inventory_stripes
+                WHERE product_id = ?
+                AND available_quantity >= ?
+                ORDER BY random()
+                LIMIT 1
+                FOR UPDATE SKIP LOCKED
+            )
+            """;
+
+    private static final String DRAIN_INVENTORY_ROW = """
+            UPDATE inventory i
+            SET available_quantity = 0,
+                version = i.version + 1,
+                updated_at = now()
+            FROM (
+                SELECT product_id, available_quantity
+                FROM inventory
+                WHERE product_id = ?
+                FOR UPDATE
+            ) old
+            WHERE i.product_id = old.product_id
+            RETURNING old.available_quantity
+            """;
+
+    private static final String SUM_BY_PRODUCT = """
+            SELECT product_id, sum(available_quantity) AS available, sum(reserved_quantity) AS reserved
+            FROM inventory_stripes
+            WHERE product_id = ANY (?)
+            GROUP BY product_id
+            """;
+
+    private static final String SUM_ALL = """
+            SELECT product_id, sum(available_quantity) AS available, sum(reserved_quantity) AS reserved
+            FROM inventory_stripes
+            GROUP BY product_id
+            """;
+
+    private static final String FIND_PRODUCTS_TO_REBALANCE = """
+            SELECT s.product_id
+            FROM inventory_stripes s
+            JOIN inventory i ON i.product_id = s.product_id
+            GROUP BY s.product_id, i.available_quantity
+            HAVING min(s.available_quantity) * 2 < avg(s.available_quantity)
+            OR i.available_quantity > 0
+            """;
+
+    private final SpringDataInventoryStripeRepository springRepo;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Set<String> findStripedProductIds(Collection<String> productIds) {
+        return springRepo.findProductIdsByProductIdIn(productIds);
+    }
+
+    @Override
+    public boolean reserveFromAnyStripe(String productId, int quantity) {
+        return jdbcTemplate.update(RESERVE_FROM_ANY_STRIPE, quantity, quantity, productId, quantity) == 1;
+    }
+
+    @Override
+    public List<InventoryStripe> lockStripes(String productId) {
+        return springRepo.lockByProductId(productId);
+    }
+
+    @Override
+    public void saveAll(Collection<InventoryStripe> stripes) {
+        springRepo.saveAll(stripes);
+    }
+
+    @Override
+    public int drainInventoryRow(String productId) {
+        List<Integer> drained = jdbcTemplate.queryForList(DRAIN_INVENTORY_ROW, Integer.class, productId);
+        return drained.isEmpty() ? 0 : drained.get(0);
+    }
+
+    @Override
+    public Map<String, Totals> sumByProduct(Collection<String> productIds) {
+        Map<String, Totals> totals = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SUM_BY_PRODUCT);
+            statement.setArray(1, connection.createArrayOf("varchar", productIds.toArray()));
+            return statement;
+        }, collectTotals(totals));
+        return totals;
+    }
+
+    @Override
+    public Map<String, Totals> sumAll() {
+        Map<String, Totals> totals = new HashMap<>();
+        jdbcTemplate.query(SUM_ALL, collectTotals(totals));
+        return totals;
+    }
+
+    @Override
+    public List<String> findProductIdsToRebalance() {
+        return jdbcTemplate.queryForList(FIND_PRODUCTS_TO_REBALANCE, String.class);
+    }
+
+    private static RowCallbackHandler collectTotals(Map<String, Totals> totals) {
+        return rs -> totals.put(rs.getString("product_id"), new Totals(rs.getInt("available"), rs.getInt("reserved")));
+    }
+}
@@ -7,8 +7,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 
@@ -35,33 +37,21 @@ public class JpaReservationRepository implements ReservationRepository {
 
     @Override
     public boolean existsByOrderId(String string) {
-        return springRepo.existsById(UUID.fromString(string));
+        return springRepo.existsByOrderId(UUID.fromString(string));
     }
 
     @Override
     public void saveAll(List<InventoryReservation> newReservations) {
         springRepo.saveAll(newReservations);
     }
-}
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
 
+    @Override
+    public Set<UUID> findReservedOrderIds(Collection<UUID> orderIds) {
+        return springRepo.findOrderIdsByOrderIdIn(orderIds);
+    }
 
+    @Override
+    public List<UUID> findOrderIdsReservedSince(Instant since) {
+        return springRepo.findOrderIdsCreatedSince(since);
+    }
+}
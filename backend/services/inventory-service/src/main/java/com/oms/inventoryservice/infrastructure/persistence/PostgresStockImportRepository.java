@@ -0,0 +1,186 @@
+package com.oms.inventoryservice.infrastructure.persistence;
+
+import com.oms.inventoryservice.domain.model.StockLine;
+import com.oms.inventoryservice.domain.repository.StockImportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bulk stock import over one pooled connection: the feed is streamed into
+ * a session temp table with {@code COPY}, summed per product into a second
+ * one, and merged into {@code inventory} with {@code INSERT ... ON CONFLICT}
+ * one chunk of products per transaction. Chunks lock rows in product id
+ * order, like the reservation batch writes.
+ */
+@Slf4j
+@Repository
+public class PostgresStockImportRepository implements StockImportRepository {
+
+    private static final String CREATE_LINES = """
+            CREATE TEMP TABLE stock_import_lines (
+                line_number bigint NOT NULL,
+                product_id varchar(255) NOT NULL,
+                quantity int NOT NULL
+            )
+            """;
+
+    private static final String COPY_LINES =
+            "COPY stock_import_lines (line_number, product_id, quantity) FROM STDIN WITH (FORMAT csv)";
+
+    // byte-order collation, so the chunk cursor compares like String.compareTo
+    private static final String CREATE_PRODUCTS = """
+            CREATE TEMP TABLE stock_import_products (
+                product_id varchar(255) COLLATE "C" PRIMARY KEY,
+                quantity bigint NOT NULL
+            )
+            """;
+
+    private static final String SUM_PRODUCTS = """
+            INSERT INTO stock_import_products (product_id, quantity)
+            SELECT product_id, sum(quantity)
+            FROM stock_import_lines
+            WHERE product_id COLLATE "C" > ?
+            GROUP BY product_id
+            """;
+
+    // xmax is 0 only on rows this statement inserted
+    private static final String MERGE_CHUNK = """
+            INSERT INTO inventory AS i
+                (product_id, total_quantity, available_quantity, reserved_quantity, version, created_at, updated_at)
+            SELECT product_id, quantity, quantity, 0, 0, now(), now()
+            FROM stock_import_products
+            WHERE product_id > ?
+            ORDER BY product_id
+            LIMIT ?
+            ON CONFLICT (product_id) DO UPDATE
+            SET total_quantity = i.total_quantity + excluded.total_quantity,
+                available_quantity = i.available_quantity + excluded.available_quantity,
+                version = i.version + 1,
+                updated_at = excluded.updated_at
+            RETURNING i.product_id, (i.xmax = 0) AS created
+            """;
+
+    private static final String DROP_TABLES = "DROP TABLE IF EXISTS stock_import_lines, stock_import_products";
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final DataSource dataSource;
+    private final int chunkSize;
+
+    public PostgresStockImportRepository(
+            DataSource dataSource,
+            @Value("${inventory.import.chunk-size:5000}") int chunkSize
+    ) {
+        this.dataSource = dataSource;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ImportOutcome importLines(Iterator<StockLine> lines, String afterProductId, Consumer<List<String>> onChunkApplied) {
+
+        try (Connection connection = dataSource.getConnection()) {
+            try {
+                long staged = stage(connection, lines, afterProductId);
+                return merge(connection, staged, afterProductId, onChunkApplied);
+            } finally {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(DROP_TABLES);
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Stock import failed", ex);
+        }
+    }
+
+    private long stage(Connection connection, Iterator<StockLine> lines, String afterProductId) throws SQLException {
+
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(DROP_TABLES);
+            statement.execute(CREATE_LINES);
+            statement.execute(CREATE_PRODUCTS);
+        }
+
+        PGCopyOutputStream copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_LINES, COPY_BUFFER_BYTES);
+        try (copy) {
+            while (lines.hasNext()) {
+                StockLine line = lines.next();
+                copy.write((line.lineNumber() + "," + csvQuoted(line.productId()) + "," + line.quantity() + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        long staged = copy.getHandledRowCount();
+
+        try (PreparedStatement statement = connection.prepareStatement(SUM_PRODUCTS)) {
+            statement.setString(1, afterProductId);
+            statement.executeUpdate();
+        }
+        return staged;
+    }
+
+    private ImportOutcome merge(Connection connection, long staged, String afterProductId,
+                                Consumer<List<String>> onChunkApplied) throws SQLException {
+
+        connection.setAutoCommit(false);
+        String after = afterProductId;
+        int created = 0;
+        int updated = 0;
+
+        try (PreparedStatement statement = connection.prepareStatement(MERGE_CHUNK)) {
+            while (true) {
+                List<String> chunk = new ArrayList<>(chunkSize);
+                try {
+                    statement.setString(1, after);
+                    statement.setInt(2, chunkSize);
+                    int chunkCreated = 0;
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            chunk.add(rs.getString("product_id"));
+                            if (rs.getBoolean("created")) {
+                                chunkCreated++;
+                            }
+                        }
+                    }
+                    connection.commit();
+                    created += chunkCreated;
+                    updated += chunk.size() - chunkCreated;
+                } catch (SQLException ex) {
+                    connection.rollback();
+                    log.warn("Stock import stopped after product {}", after, ex);
+                    return new ImportOutcome(staged, created, updated, after);
+                }
+
+                if (chunk.isEmpty()) {
+                    return new ImportOutcome(staged, created, updated, null);
+                }
+                // RETURNING does not promise insert order
+                after = chunk.stream().max(String::compareTo).orElseThrow();
+                onChunkApplied.accept(chunk);
+            }
+        }
+    }
+
+    private static String csvQuoted(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,23 @@
+package com.oms.inventoryservice.infrastructure.persistence;
+
+import com.oms.inventoryservice.domain.model.InventoryStripe;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface SpringDataInventoryStripeRepository
+        extends JpaRepository<InventoryStripe, InventoryStripe.Key> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InventoryStripe s WHERE s.productId = :productId ORDER BY s.stripe")
+    List<InventoryStripe> lockByProductId(@Param("productId") String productId);
+
+    @Query("SELECT DISTINCT s.productId FROM InventoryStripe s WHERE s.productId IN :productIds")
+    Set<String> findProductIdsByProductIdIn(@Param("productIds") Collection<String> productIds);
+}
@@ -7,8 +7,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 
@@ -17,8 +19,16 @@ public interface SpringDataReservationRepository
 
     Optional<InventoryReservation> findByOrderIdAndProductId(UUID orderId, String productId);
 
+    boolean existsByOrderId(UUID orderId);
+
     List<InventoryReservation> findByExpiresAtBeforeAndStatus(
             Instant now,
             ReservationStatus status
     );
+
+    @Query("SELECT DISTINCT r.orderId FROM InventoryReservation r WHERE r.orderId IN :orderIds")
+    Set<UUID> findOrderIdsByOrderIdIn(@Param("orderIds") Collection<UUID> orderIds);
+
+    @Query("SELECT DISTINCT r.orderId FROM InventoryReservation r WHERE r.createdAt >= :since")
+    List<UUID> findOrderIdsCreatedSince(@Param("since") Instant since);
 }
@@ -1,5 +1,8 @@
 package com.oms.inventoryservice.service;
 
+import com.oms.inventoryservice.application.expiry.ReservationExpiryReaper;
+import com.oms.inventoryservice.application.reservation.InventoryReservationEngine;
+import com.oms.inventoryservice.application.striping.StockStripeService;
 import com.oms.inventoryservice.domain.model.Inventory;
 import com.oms.inventoryservice.domain.model.InventoryReservation;
 import com.oms.inventoryservice.repository.InventoryRepository;
@@ -24,6 +27,16 @@ public class InventoryService {
         @Autowired
         private StringRedisTemplate redisTemplate;
 
+        @Autowired
+        private StockStripeService stockStripeService;
+
+        @Autowired
+        private ReservationExpiryReaper expiryReaper;
+
+        /** Present with inventory.reservation.engine=memory; told about stock changed here. */
+        @Autowired(required = false)
+        private InventoryReservationEngine reservationEngine;
+
         /**
          * Acquire a simple Redis SET NX lock. Replaces Redisson RLock
          * (Redisson 3.x is incompatible with Spring Boot 4.0).
@@ -73,7 +86,9 @@ public class InventoryService {
                                                 inventoryRepository.save(inventory);
                                                 InventoryReservation reservation = new InventoryReservation(orderId,
                                                                 productId, quantity);
-                                                return reservationRepository.save(reservation);
+                                                InventoryReservation saved = reservationRepository.save(reservation);
+                                                expiryReaper.track(orderId);
+                                                return saved;
                                         } finally {
                                                 releaseLock(lockKey, lockValue);
                                         }
@@ -85,6 +100,11 @@ public class InventoryService {
                 InventoryReservation reservation = reservationRepository.findByOrderId(orderId)
                                 .orElseThrow(() -> new IllegalArgumentException(
                                                 "Reservation not found for orderId: " + orderId));
+                if (stockStripeService.release(reservation.getProductId(), reservation.getQuantity())) {
+                        reservation.release();
+                        reservationRepository.save(reservation);
+                        return;
+                }
                 Inventory inventory = inventoryRepository.findById(reservation.getProductId())
                                 .orElseThrow(() -> new IllegalArgumentException(
                                                 "Product not found: " + reservation.getProductId()));
@@ -92,6 +112,7 @@ public class InventoryService {
                 reservation.release();
                 inventoryRepository.save(inventory);
                 reservationRepository.save(reservation);
+                invalidateCounters(inventory.getProductId());
         }
 
         @Transactional
@@ -102,32 +123,19 @@ public class InventoryService {
                 Inventory inventory = inventoryRepository.findById(reservation.getProductId())
                                 .orElseThrow(() -> new IllegalArgumentException(
                                                 "Product not found: " + reservation.getProductId()));
-                inventory.confirmReservation(reservation.getQuantity());
+                if (stockStripeService.confirm(reservation.getProductId(), reservation.getQuantity())) {
+                        inventory.confirmStripedReservation(reservation.getQuantity());
+                } else {
+                        inventory.confirmReservation(reservation.getQuantity());
+                }
                 reservation.confirm();
                 reservationRepository.save(reservation);
                 inventoryRepository.save(inventory);
         }
 
-        @org.springframework.scheduling.annotation.Scheduled(fixedRate = 60000)
-        @Transactional
-        public void releaseExpiredReservations() {
-                java.time.Instant now = java.time.Instant.now();
-                java.util.List<InventoryReservation> expired = reservationRepository
-                                .findByStatusAndExpiresAtBefore(InventoryReservation.ReservationStatus.RESERVED, now);
-                if (!expired.isEmpty()) {
-                        System.out.println("Releasing " + expired.size() + " expired reservations");
-                        for (InventoryReservation r : expired) {
-                                try {
-                                        releaseReservation(r.getOrderId());
-                                } catch (Exception e) {
-                                        System.err.println("Failed to release: " + r.getId() + " - " + e.getMessage());
-                                }
-                        }
-                }
-        }
-
         public boolean isAvailable(String productId, int quantity) {
                 return inventoryRepository.findById(productId)
+                                .map(stockStripeService::withStripes)
                                 .map(inventory -> inventory.hasAvailableStock(quantity))
                                 .orElse(false);
         }
@@ -138,6 +146,13 @@ public class InventoryService {
                                 .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
                 inventory.addStock(quantity);
                 inventoryRepository.save(inventory);
+                invalidateCounters(productId);
+        }
+
+        private void invalidateCounters(String productId) {
+                if (reservationEngine != null) {
+                        reservationEngine.invalidate(java.util.List.of(productId));
+                }
         }
 
         public java.util.List<Inventory> findAll() {
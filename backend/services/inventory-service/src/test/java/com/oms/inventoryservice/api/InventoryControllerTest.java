@@ -0,0 +1,219 @@
+package com.oms.inventoryservice.api;
+
+import com.oms.inventoryservice.application.ingest.StockImportService;
+import com.oms.inventoryservice.application.reservation.InventoryReservationEngine;
+import com.oms.inventoryservice.application.striping.StockStripeService;
+import com.oms.inventoryservice.domain.model.Inventory;
+import com.oms.inventoryservice.domain.model.InventoryView;
+import com.oms.inventoryservice.domain.repository.InventoryCatalogRepository;
+import com.oms.inventoryservice.domain.repository.InventoryRepository;
+import com.oms.inventoryservice.service.InventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryControllerTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private ObjectProvider<InventoryReservationEngine> reservationEngine;
+
+    @Mock
+    private StockStripeService stockStripeService;
+
+    @Mock
+    private InventoryCatalogRepository catalogRepository;
+
+    @Mock
+    private StockImportService stockImportService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new InventoryController(inventoryRepository, inventoryService,
+                reservationEngine, stockStripeService, catalogRepository, stockImportService)).build();
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForAnUnchangedPage() throws Exception {
+
+        List<InventoryView> items = List.of(view("p-1", 1), view("p-2", 1));
+        when(catalogRepository.findPage("", 100)).thenReturn(items);
+        String etag = InventoryController.pageEtag("", items);
+
+        mockMvc.perform(get("/inventory/page"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+
+        mockMvc.perform(get("/inventory/page").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void shouldHandOutTheLastIdOfAFullPageAsTheNextCursor() throws Exception {
+
+        when(catalogRepository.findPage("", 2)).thenReturn(List.of(view("p-1", 1), view("p-2", 1)));
+        when(catalogRepository.findPage("p-2", 2)).thenReturn(List.of(view("p-3", 1)));
+
+        mockMvc.perform(get("/inventory/page").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[1].productId").value("p-2"))
+                .andExpect(jsonPath("$.nextCursor").value("p-2"));
+
+        mockMvc.perform(get("/inventory/page").param("after", "p-2").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].productId").value("p-3"))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    void shouldClampThePageSize() throws Exception {
+
+        List<InventoryView> full = IntStream.range(0, 1000).mapToObj(i -> view("p-" + i, 1)).toList();
+        when(catalogRepository.findPage("", 1000)).thenReturn(full);
+        when(catalogRepository.findPage("", 1)).thenReturn(List.of(view("p-0", 1)));
+
+        mockMvc.perform(get("/inventory/page").param("limit", "50000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("p-999"));
+        mockMvc.perform(get("/inventory/page").param("limit", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("p-0"));
+    }
+
+    @Test
+    void shouldRevalidateTheCatalogThroughItsFingerprint() throws Exception {
+
+        when(catalogRepository.fingerprint()).thenReturn("2-7-0-0");
+
+        mockMvc.perform(get("/inventory").header(HttpHeaders.IF_NONE_MATCH, "W/\"2-7-0-0\""))
+                .andExpect(status().isNotModified());
+        verify(inventoryService, never()).findAll();
+
+        Inventory item = inventory("p-1", 3L);
+        when(inventoryService.findAll()).thenReturn(List.of(item));
+        when(stockStripeService.withStripes(List.of(item))).thenReturn(List.of(item));
+
+        mockMvc.perform(get("/inventory").header(HttpHeaders.IF_NONE_MATCH, "W/\"2-6-0-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"2-7-0-0\""))
+                .andExpect(jsonPath("$[0].productId").value("p-1"));
+    }
+
+    @Test
+    void shouldTagAnItemWithItsVersionAndQuantities() throws Exception {
+
+        Inventory item = inventory("p-1", 3L);
+        when(inventoryRepository.findByProductId("p-1")).thenReturn(Optional.of(item));
+        when(stockStripeService.withStripes(item)).thenReturn(item);
+        String etag = "W/\"3-10-0\"";
+
+        mockMvc.perform(get("/inventory/p-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/inventory/p-1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldAnswerNotFoundForAnUnknownItem() throws Exception {
+
+        when(inventoryRepository.findByProductId("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/inventory/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldExportOneJsonObjectPerLine() throws Exception {
+
+        doAnswer(invocation -> {
+            Consumer<InventoryView> action = invocation.getArgument(0);
+            action.accept(view("p-1", 1));
+            action.accept(view("p-2", 2));
+            return null;
+        }).when(catalogRepository).streamAll(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/inventory/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n", -1);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("{").contains("\"productId\":\"p-1\"").endsWith("}");
+        assertThat(lines[1]).startsWith("{").contains("\"productId\":\"p-2\"").contains("\"version\":2");
+        assertThat(lines[2]).isEmpty();
+        assertThat(lines[0]).contains("\"updatedAt\":\"2026-01-01T00:00:00Z\"");
+    }
+
+    @Test
+    void shouldChangeThePageTagWithAnyQuantityVersionOrCursor() {
+
+        List<InventoryView> page = List.of(view("p-1", 1), view("p-2", 1));
+        String etag = InventoryController.pageEtag("", page);
+
+        assertThat(InventoryController.pageEtag("", List.of(view("p-1", 1), view("p-2", 1)))).isEqualTo(etag);
+        assertThat(etag).startsWith("W/\"2-");
+        assertThat(InventoryController.pageEtag("", List.of(view("p-1", 1), view("p-2", 2)))).isNotEqualTo(etag);
+        assertThat(InventoryController.pageEtag("", List.of(view("p-1", 1),
+                new InventoryView("p-2", 10, 9, 1, 1, Instant.parse("2026-01-01T00:00:00Z")))))
+                .isNotEqualTo(etag);
+        assertThat(InventoryController.pageEtag("p-0", page)).isNotEqualTo(etag);
+        assertThat(InventoryController.pageEtag("", List.of(view("p-1", 1)))).isNotEqualTo(etag);
+    }
+
+    private static InventoryView view(String productId, long version) {
+        return new InventoryView(productId, 10, 10, 0, version, Instant.parse("2026-01-01T00:00:00Z"));
+    }
+
+    private static Inventory inventory(String productId, Long version) {
+        Inventory inventory = new Inventory(productId, 10);
+        ReflectionTestUtils.setField(inventory, "version", version);
+        return inventory;
+    }
+}
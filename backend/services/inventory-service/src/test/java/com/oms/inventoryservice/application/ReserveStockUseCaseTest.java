@@ -0,0 +1,111 @@
+package com.oms.inventoryservice.application;
+
+import com.oms.eventcontracts.commands.ReserveInventoryCommand.LineItem;
+import com.oms.eventcontracts.events.InventoryReservedEvent;
+import com.oms.eventcontracts.events.InventoryUnavailableEvent;
+import com.oms.eventcontracts.events.InventoryUnavailableEvent.Shortage;
+import com.oms.inventoryservice.application.expiry.ReservationExpiryReaper;
+import com.oms.inventoryservice.application.idempotency.ProcessedOrderIndex;
+import com.oms.inventoryservice.application.striping.StockStripeService;
+import com.oms.inventoryservice.domain.event.InventoryEventPublisher;
+import com.oms.inventoryservice.domain.model.StockShortage;
+import com.oms.inventoryservice.domain.repository.InventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReserveStockUseCaseTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private ProcessedOrderIndex processedOrders;
+
+    @Mock
+    private InventoryEventPublisher eventPublisher;
+
+    @Mock
+    private StockStripeService stockStripeService;
+
+    @Mock
+    private ReservationExpiryReaper expiryReaper;
+
+    @InjectMocks
+    private ReserveStockUseCase useCase;
+
+    @Test
+    void shouldReserveAllLinesInOneCallWithMergedQuantities() {
+
+        UUID orderId = UUID.randomUUID();
+        when(processedOrders.isProcessed(eq(orderId), any())).thenReturn(false);
+        when(inventoryRepository.reserveAll(eq(orderId), any())).thenReturn(List.of());
+
+        useCase.execute(orderId, List.of(new LineItem("p-1", 2), new LineItem("p-2", 1), new LineItem("p-1", 3)));
+
+        verify(inventoryRepository).reserveAll(orderId, Map.of("p-1", 5, "p-2", 1));
+        verify(expiryReaper).track(orderId);
+        verify(eventPublisher).publishInventoryReserved(any(InventoryReservedEvent.class));
+    }
+
+    @Test
+    void shouldIgnoreOrdersThatWereAlreadyReserved() {
+
+        UUID orderId = UUID.randomUUID();
+        Instant requestedAt = Instant.now();
+        when(processedOrders.isProcessed(orderId, requestedAt)).thenReturn(true);
+
+        useCase.execute(orderId, List.of(new LineItem("p-1", 1)), requestedAt);
+
+        verify(inventoryRepository, never()).reserveAll(any(), any());
+        verify(eventPublisher, never()).publishInventoryReserved(any());
+    }
+
+    @Test
+    void shouldRecordReservedOrdersAsProcessed() {
+
+        UUID orderId = UUID.randomUUID();
+        when(inventoryRepository.reserveAll(eq(orderId), any())).thenReturn(List.of());
+
+        useCase.execute(orderId, List.of(new LineItem("p-1", 1)), Instant.now());
+
+        verify(processedOrders).record(orderId);
+    }
+
+    @Test
+    void shouldPublishEveryShortageOnTheUnavailableEvent() {
+
+        UUID orderId = UUID.randomUUID();
+        when(processedOrders.isProcessed(eq(orderId), any())).thenReturn(false);
+        when(inventoryRepository.reserveAll(eq(orderId), any())).thenReturn(List.of(
+                new StockShortage("p-1", 5, 2, false),
+                new StockShortage("p-9", 1, 0, true)));
+
+        useCase.execute(orderId, List.of(new LineItem("p-1", 5), new LineItem("p-9", 1)));
+
+        ArgumentCaptor<InventoryUnavailableEvent> event = ArgumentCaptor.forClass(InventoryUnavailableEvent.class);
+        verify(eventPublisher).publishInventoryUnavailable(event.capture());
+        verify(eventPublisher, never()).publishInventoryReserved(any());
+        assertThat(event.getValue().getReason()).isEqualTo("INSUFFICIENT_STOCK: p-1");
+        assertThat(event.getValue().getShortages())
+                .extracting(Shortage::getProductId, Shortage::getRequested, Shortage::getAvailable)
+                .containsExactly(tuple("p-1", 5, 2), tuple("p-9", 1, 0));
+    }
+}
@@ -0,0 +1,132 @@
+package com.oms.inventoryservice.application.availability;
+
+import com.oms.eventcontracts.events.InventoryAvailabilityEvent;
+import com.oms.inventoryservice.domain.event.InventoryEventPublisher;
+import com.oms.inventoryservice.domain.model.InventoryView;
+import com.oms.inventoryservice.domain.repository.InventoryCatalogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityPublisherTest {
+
+    private static final Instant UPDATED = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Mock
+    private InventoryCatalogRepository catalogRepository;
+
+    @Mock
+    private InventoryEventPublisher eventPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AvailabilityPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new AvailabilityPublisher(catalogRepository, eventPublisher, meterRegistry, Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldWaitForTheFirstSnapshotBeforePollingChanges() {
+
+        publisher.publishChanges();
+
+        verifyNoInteractions(catalogRepository, eventPublisher);
+    }
+
+    @Test
+    void shouldPollChangesFromBehindTheNewestSnapshotRow() {
+
+        snapshot(view("sku-1", 5, UPDATED));
+        when(catalogRepository.findChangedSince(any())).thenReturn(List.of());
+
+        publisher.publishChanges();
+
+        verify(catalogRepository).findChangedSince(UPDATED.minusSeconds(10));
+    }
+
+    @Test
+    void shouldOnlyRepublishOverlappingRowsWhoseQuantityChanged() {
+
+        snapshot(view("sku-1", 5, UPDATED));
+        when(catalogRepository.findChangedSince(any()))
+                .thenReturn(List.of(view("sku-1", 4, UPDATED.plusSeconds(1)), view("sku-2", 0, UPDATED)))
+                .thenReturn(List.of(view("sku-1", 4, UPDATED.plusSeconds(1)), view("sku-2", 3, UPDATED.plusSeconds(2))));
+
+        publisher.publishChanges();
+        publisher.publishChanges();
+
+        ArgumentCaptor<InventoryAvailabilityEvent> events = ArgumentCaptor.forClass(InventoryAvailabilityEvent.class);
+        verify(eventPublisher, times(4)).publishAvailability(events.capture());
+        assertThat(events.getAllValues())
+                .extracting(InventoryAvailabilityEvent::getProductId, InventoryAvailabilityEvent::getAvailableQuantity)
+                .containsExactly(
+                        tuple("sku-1", 5),
+                        tuple("sku-1", 4),
+                        tuple("sku-2", 0),
+                        tuple("sku-2", 3));
+        assertThat(meterRegistry.get("omniorder_inventory_availability_published_total")
+                .tag("kind", "delta").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRepublishAfterASnapshotEvenWhenTheDeltaLooksUnchanged() {
+
+        snapshot(view("sku-1", 5, UPDATED));
+        when(catalogRepository.findChangedSince(any())).thenReturn(List.of(view("sku-1", 5, UPDATED)));
+
+        publisher.publishChanges();
+        publisher.publishSnapshot();
+        publisher.publishChanges();
+
+        verify(eventPublisher, times(4)).publishAvailability(any());
+    }
+
+    @Test
+    void shouldNotPublishNegativeAvailability() {
+
+        snapshot(view("sku-1", -2, UPDATED));
+
+        ArgumentCaptor<InventoryAvailabilityEvent> event = ArgumentCaptor.forClass(InventoryAvailabilityEvent.class);
+        verify(eventPublisher).publishAvailability(event.capture());
+        assertThat(event.getValue().getAvailableQuantity()).isZero();
+        verify(catalogRepository, never()).findChangedSince(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void snapshot(InventoryView... views) {
+        doAnswer(invocation -> {
+            Consumer<InventoryView> action = invocation.getArgument(0);
+            for (InventoryView view : views) {
+                action.accept(view);
+            }
+            return null;
+        }).when(catalogRepository).streamAll(any(Consumer.class));
+        publisher.publishSnapshot();
+    }
+
+    private static InventoryView view(String productId, int available, Instant updatedAt) {
+        return new InventoryView(productId, 10, available, 10 - available, 1, updatedAt);
+    }
+}
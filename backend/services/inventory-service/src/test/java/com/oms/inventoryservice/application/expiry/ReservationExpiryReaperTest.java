@@ -0,0 +1,100 @@
+package com.oms.inventoryservice.application.expiry;
+
+import com.oms.inventoryservice.application.reservation.InventoryReservationEngine;
+import com.oms.inventoryservice.application.striping.StockStripeService;
+import com.oms.inventoryservice.domain.repository.ReservationExpiryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpiryReaperTest {
+
+    @Mock
+    private ReservationExpiryRepository expiryRepository;
+
+    @Mock
+    private StockStripeService stockStripeService;
+
+    @Mock
+    private ObjectProvider<InventoryReservationEngine> reservationEngine;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReservationExpiryReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        reaper = new ReservationExpiryReaper(
+                expiryRepository, stockStripeService, reservationEngine, transactionManager, 1000, 100);
+    }
+
+    @Test
+    void shouldReturnReleasedStockInOneUpdatePerBatch() {
+
+        List<UUID> orderIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(expiryRepository.markExpiredReleased(orderIds)).thenReturn(Map.of("p-1", 5, "p-2", 1));
+        when(stockStripeService.stripedAmong(any())).thenReturn(Set.of());
+
+        assertThat(reaper.release(orderIds)).isTrue();
+
+        verify(expiryRepository).returnReservedStock(Map.of("p-1", 5, "p-2", 1));
+    }
+
+    @Test
+    void shouldReleaseStripedProductsThroughTheirStripes() {
+
+        List<UUID> orderIds = List.of(UUID.randomUUID());
+        when(expiryRepository.markExpiredReleased(orderIds)).thenReturn(Map.of("hot", 7, "p-1", 2));
+        when(stockStripeService.stripedAmong(any())).thenReturn(Set.of("hot"));
+        when(stockStripeService.release("hot", 7)).thenReturn(true);
+
+        reaper.release(orderIds);
+
+        verify(expiryRepository).returnReservedStock(Map.of("p-1", 2));
+    }
+
+    @Test
+    void shouldTrackOrdersAgainThatStillHoldReservations() {
+
+        UUID orderId = UUID.randomUUID();
+        when(expiryRepository.markExpiredReleased(List.of(orderId))).thenReturn(Map.of());
+        when(expiryRepository.findPendingExpiries(List.of(orderId)))
+                .thenReturn(Map.of(orderId, Instant.now().plusSeconds(60)));
+
+        reaper.release(List.of(orderId));
+
+        verify(expiryRepository, never()).returnReservedStock(any());
+        assertThat(reaper.pending()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRetryAFailedBatchOnTheNextTick() {
+
+        List<UUID> orderIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(expiryRepository.markExpiredReleased(orderIds)).thenThrow(new CannotAcquireLockException("deadlock"));
+
+        assertThat(reaper.release(orderIds)).isFalse();
+
+        assertThat(reaper.pending()).isEqualTo(2);
+        verify(expiryRepository, never()).findPendingExpiries(any());
+    }
+}
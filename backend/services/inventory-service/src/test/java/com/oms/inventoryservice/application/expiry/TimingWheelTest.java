@@ -0,0 +1,73 @@
+package com.oms.inventoryservice.application.expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK_MS = 1000;
+
+    // 4 slots over 2 levels cover 16 ticks; later deadlines overflow
+    private final TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, 4, 2, 0);
+
+    @Test
+    void shouldFireEntriesOnTheirDeadlineTick() {
+
+        wheel.schedule("a", 2 * TICK_MS);
+        wheel.schedule("b", 3 * TICK_MS);
+
+        assertThat(wheel.advance(TICK_MS)).isEmpty();
+        assertThat(wheel.advance(2 * TICK_MS)).containsExactly("a");
+        assertThat(wheel.advance(3 * TICK_MS)).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldNeverFireBeforeTheDeadline() {
+
+        wheel.schedule("a", 2 * TICK_MS + 1);
+
+        assertThat(wheel.advance(2 * TICK_MS)).isEmpty();
+        assertThat(wheel.advance(3 * TICK_MS)).containsExactly("a");
+    }
+
+    @Test
+    void shouldCascadeEntriesFromUpperLevelsAndOverflow() {
+
+        wheel.schedule("level-1", 9 * TICK_MS);
+        wheel.schedule("overflow", 37 * TICK_MS);
+
+        List<Long> fired = new ArrayList<>();
+        for (long tick = 1; tick <= 40; tick++) {
+            if (!wheel.advance(tick * TICK_MS).isEmpty()) {
+                fired.add(tick);
+            }
+        }
+
+        assertThat(fired).containsExactly(9L, 37L);
+    }
+
+    @Test
+    void shouldFireEverythingDueWhenAdvancedAcrossManyTicks() {
+
+        wheel.schedule("a", 5 * TICK_MS);
+        wheel.schedule("b", 20 * TICK_MS);
+        wheel.schedule("c", 70 * TICK_MS);
+
+        assertThat(wheel.advance(64 * TICK_MS)).containsExactly("a", "b");
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFirePastDeadlinesOnTheNextAdvance() {
+
+        wheel.advance(10 * TICK_MS);
+        wheel.schedule("late", 4 * TICK_MS);
+
+        assertThat(wheel.advance(10 * TICK_MS)).containsExactly("late");
+    }
+}
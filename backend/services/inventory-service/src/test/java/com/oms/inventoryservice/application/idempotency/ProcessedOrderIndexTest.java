@@ -0,0 +1,100 @@
+package com.oms.inventoryservice.application.idempotency;
+
+import com.oms.inventoryservice.domain.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessedOrderIndexTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UUID warmedOrder = UUID.randomUUID();
+
+    private ProcessedOrderIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProcessedOrderIndex(reservationRepository, meterRegistry, 1000, 0.01, Duration.ofHours(1));
+        when(reservationRepository.findOrderIdsReservedSince(any())).thenReturn(List.of(warmedOrder));
+        index.warmUp();
+    }
+
+    @Test
+    void shouldAnswerFirstTimeOrdersWithoutTheDatabase() {
+
+        assertThat(index.isProcessed(UUID.randomUUID(), Instant.now())).isFalse();
+
+        verify(reservationRepository, never()).existsByOrderId(anyString());
+        assertThat(lookups("skipped")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldConfirmFilterHitsAgainstTheDatabase() {
+
+        when(reservationRepository.existsByOrderId(warmedOrder.toString())).thenReturn(true);
+
+        assertThat(index.isProcessed(warmedOrder, Instant.now())).isTrue();
+        assertThat(lookups("duplicate")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountFilterHitsTheDatabaseRejectsAsFalsePositives() {
+
+        UUID recorded = UUID.randomUUID();
+        index.record(recorded);
+        when(reservationRepository.existsByOrderId(recorded.toString())).thenReturn(false);
+
+        assertThat(index.isProcessed(recorded, Instant.now())).isFalse();
+        assertThat(lookups("false_positive")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldProbeCommandsOlderThanTheWarmedWindow() {
+
+        UUID orderId = UUID.randomUUID();
+        when(reservationRepository.existsByOrderId(orderId.toString())).thenReturn(true);
+
+        assertThat(index.isProcessed(orderId, Instant.now().minus(Duration.ofHours(2)))).isTrue();
+        assertThat(index.isProcessed(orderId, null)).isTrue();
+        assertThat(lookups("unfiltered")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldOnlyProbeCandidatesOfABatch() {
+
+        UUID fresh = UUID.randomUUID();
+        when(reservationRepository.findReservedOrderIds(Set.of(warmedOrder))).thenReturn(Set.of(warmedOrder));
+
+        Set<UUID> processed = index.findProcessed(Map.of(warmedOrder, Instant.now(), fresh, Instant.now()));
+
+        assertThat(processed).containsExactly(warmedOrder);
+        assertThat(lookups("skipped")).isEqualTo(1);
+        assertThat(lookups("duplicate")).isEqualTo(1);
+    }
+
+    private double lookups(String outcome) {
+        return meterRegistry.get("omniorder_inventory_idempotency_lookups_total").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,101 @@
+package com.oms.inventoryservice.application.ingest;
+
+import com.oms.inventoryservice.application.ingest.StockImportService.Format;
+import com.oms.inventoryservice.application.reservation.InventoryReservationEngine;
+import com.oms.inventoryservice.domain.model.StockLine;
+import com.oms.inventoryservice.domain.repository.StockImportRepository;
+import com.oms.inventoryservice.domain.repository.StockImportRepository.ImportOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class StockImportServiceTest {
+
+    @Mock
+    private StockImportRepository importRepository;
+
+    @Mock
+    private ObjectProvider<InventoryReservationEngine> reservationEngine;
+
+    private StockImportService service;
+
+    private final List<StockLine> staged = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        service = new StockImportService(importRepository, reservationEngine, 1);
+        lenient().when(importRepository.importLines(any(), anyString(), any())).thenAnswer(invocation -> {
+            Iterator<StockLine> lines = invocation.getArgument(0);
+            lines.forEachRemaining(staged::add);
+            return new ImportOutcome(staged.size(), 1, 1, null);
+        });
+    }
+
+    @Test
+    void shouldStageValidCsvLinesAndRejectTheRest() {
+
+        StockImportResult result = service.importStock(body("""
+                productId,quantity
+                p-1,5
+                p-2,abc
+                "p,3",2
+
+                p-4,-1
+                """), Format.CSV, "");
+
+        assertThat(staged).extracting(StockLine::lineNumber, StockLine::productId, StockLine::quantity)
+                .containsExactly(tuple(2L, "p-1", 5));
+        assertThat(result.lines()).isEqualTo(6);
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.rejects()).extracting(StockImportResult.Reject::lineNumber).containsExactly(3L);
+        assertThat(result.complete()).isTrue();
+    }
+
+    @Test
+    void shouldStageNdjsonLines() {
+
+        StockImportResult result = service.importStock(body("""
+                {"productId":"p-1","quantity":5}
+                {"productId":"p-2","quantity":1.5}
+                {"productId":"p-3"}
+                not json
+                {"productId":"p-4","quantity":2}
+                """), Format.NDJSON, "");
+
+        assertThat(staged).extracting(StockLine::productId).containsExactly("p-1", "p-4");
+        assertThat(result.rejected()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldReportWhereAnIncompleteImportCanResume() {
+
+        doReturn(new ImportOutcome(2, 1, 0, "p-1"))
+                .when(importRepository).importLines(any(), anyString(), any());
+
+        StockImportResult result = service.importStock(body("p-1,1\np-2,1\n"), Format.CSV, "");
+
+        assertThat(result.complete()).isFalse();
+        assertThat(result.resumeAfter()).isEqualTo("p-1");
+    }
+
+    private static ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,177 @@
+package com.oms.inventoryservice.application.reservation;
+
+import com.oms.eventcontracts.commands.ReserveInventoryCommand;
+import com.oms.eventcontracts.commands.ReserveInventoryCommand.LineItem;
+import com.oms.eventcontracts.events.InventoryReservedEvent;
+import com.oms.eventcontracts.events.InventoryUnavailableEvent;
+import com.oms.eventcontracts.events.InventoryUnavailableEvent.Shortage;
+import com.oms.inventoryservice.application.ReserveStockUseCase;
+import com.oms.inventoryservice.application.expiry.ReservationExpiryReaper;
+import com.oms.inventoryservice.application.idempotency.ProcessedOrderIndex;
+import com.oms.inventoryservice.domain.event.InventoryEventPublisher;
+import com.oms.inventoryservice.domain.model.Inventory;
+import com.oms.inventoryservice.domain.model.InventoryReservation;
+import com.oms.inventoryservice.domain.repository.InventoryRepository;
+import com.oms.inventoryservice.domain.repository.ReservationBatchRepository;
+import com.oms.inventoryservice.domain.repository.ReservationBatchRepository.StockConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryReservationEngineTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private ProcessedOrderIndex processedOrders;
+
+    @Mock
+    private ReservationBatchRepository batchRepository;
+
+    @Mock
+    private InventoryEventPublisher eventPublisher;
+
+    @Mock
+    private ReserveStockUseCase fallback;
+
+    @Mock
+    private ReservationExpiryReaper expiryReaper;
+
+    private InventoryReservationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new InventoryReservationEngine(
+                inventoryRepository, processedOrders, batchRepository, eventPublisher, fallback, expiryReaper);
+        when(processedOrders.findProcessed(any())).thenReturn(Set.of());
+    }
+
+    @Test
+    void shouldWriteTheWholeBatchOnceAndPublishAfterwards() {
+
+        when(inventoryRepository.findAllByProductIdIn(anyList()))
+                .thenReturn(List.of(new Inventory("p-1", 10), new Inventory("p-2", 10)));
+
+        ReserveInventoryCommand first = command(new LineItem("p-1", 3), new LineItem("p-2", 1));
+        ReserveInventoryCommand second = command(new LineItem("p-1", 2));
+
+        engine.reserveAll(List.of(first, second));
+
+        ArgumentCaptor<Map<String, Integer>> quantities = quantitiesCaptor();
+        ArgumentCaptor<List<InventoryReservation>> reservations = reservationsCaptor();
+        verify(batchRepository).reserve(quantities.capture(), reservations.capture());
+        assertThat(quantities.getValue()).containsExactlyInAnyOrderEntriesOf(Map.of("p-1", 5, "p-2", 1));
+        assertThat(reservations.getValue()).hasSize(3);
+        verify(eventPublisher, times(2)).publishInventoryReserved(any(InventoryReservedEvent.class));
+        verify(inventoryRepository, times(1)).findAllByProductIdIn(anyList());
+    }
+
+    @Test
+    void shouldRejectTheWholeOrderAndReturnItsOtherLines() {
+
+        when(inventoryRepository.findAllByProductIdIn(anyList()))
+                .thenReturn(List.of(new Inventory("p-1", 5), new Inventory("p-2", 1)));
+
+        ReserveInventoryCommand tooMuch = command(new LineItem("p-1", 5), new LineItem("p-2", 2));
+        ReserveInventoryCommand fits = command(new LineItem("p-1", 5));
+
+        engine.reserveAll(List.of(tooMuch, fits));
+
+        ArgumentCaptor<InventoryUnavailableEvent> rejected = ArgumentCaptor.forClass(InventoryUnavailableEvent.class);
+        verify(eventPublisher).publishInventoryUnavailable(rejected.capture());
+        assertThat(rejected.getValue().getOrderId()).isEqualTo(tooMuch.getOrderId());
+        assertThat(rejected.getValue().getReason()).isEqualTo("INSUFFICIENT_STOCK: p-2");
+        assertThat(rejected.getValue().getShortages())
+                .extracting(Shortage::getProductId, Shortage::getRequested, Shortage::getAvailable)
+                .containsExactly(tuple("p-2", 2, 1));
+
+        ArgumentCaptor<InventoryReservedEvent> reserved = ArgumentCaptor.forClass(InventoryReservedEvent.class);
+        verify(eventPublisher).publishInventoryReserved(reserved.capture());
+        assertThat(reserved.getValue().getOrderId()).isEqualTo(fits.getOrderId());
+    }
+
+    @Test
+    void shouldReloadStaleCountersBeforeRejecting() {
+
+        when(inventoryRepository.findAllByProductIdIn(anyList()))
+                .thenReturn(List.of(new Inventory("p-1", 1)))
+                .thenReturn(List.of(new Inventory("p-1", 10)));
+        engine.reserveAll(List.of(command(new LineItem("p-1", 1))));
+
+        // restocked by another instance; the cached counter still says 0
+        ReserveInventoryCommand afterRestock = command(new LineItem("p-1", 5));
+        engine.reserveAll(List.of(afterRestock));
+
+        verify(eventPublisher, never()).publishInventoryUnavailable(any());
+        ArgumentCaptor<InventoryReservedEvent> reserved = ArgumentCaptor.forClass(InventoryReservedEvent.class);
+        verify(eventPublisher, times(2)).publishInventoryReserved(reserved.capture());
+        assertThat(reserved.getAllValues().get(1).getOrderId()).isEqualTo(afterRestock.getOrderId());
+        verify(batchRepository, times(2)).reserve(anyMap(), anyList());
+    }
+
+    @Test
+    void shouldSkipOrdersThatAreAlreadyReserved() {
+
+        ReserveInventoryCommand duplicate = command(new LineItem("p-1", 1));
+        when(processedOrders.findProcessed(any()))
+                .thenReturn(Set.of(UUID.fromString(duplicate.getOrderId())));
+
+        engine.reserveAll(List.of(duplicate, duplicate));
+
+        verify(batchRepository, never()).reserve(anyMap(), anyList());
+        verify(eventPublisher, never()).publishInventoryReserved(any());
+    }
+
+    @Test
+    void shouldReplayThroughTheDatabaseWhenCountersAreStale() {
+
+        when(inventoryRepository.findAllByProductIdIn(anyList())).thenReturn(List.of(new Inventory("p-1", 10)));
+        doThrow(new StockConflictException("p-1")).when(batchRepository).reserve(anyMap(), anyList());
+
+        ReserveInventoryCommand command = command(new LineItem("p-1", 4));
+
+        engine.reserveAll(List.of(command));
+
+        verify(fallback).execute(UUID.fromString(command.getOrderId()), command.getItems(), command.getRequestedAt());
+        verify(eventPublisher, never()).publishInventoryReserved(any());
+
+        engine.reserveAll(List.of(command(new LineItem("p-1", 1))));
+        verify(inventoryRepository, times(2)).findAllByProductIdIn(anyList());
+    }
+
+    private static ReserveInventoryCommand command(LineItem... items) {
+        return new ReserveInventoryCommand(UUID.randomUUID().toString(), List.of(items), Instant.now());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Map<String, Integer>> quantitiesCaptor() {
+        return ArgumentCaptor.forClass(Map.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<InventoryReservation>> reservationsCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.oms.inventoryservice.application.striping;
+
+import com.oms.inventoryservice.domain.model.Inventory;
+import com.oms.inventoryservice.domain.model.InventoryStripe;
+import com.oms.inventoryservice.domain.model.StockShortage;
+import com.oms.inventoryservice.domain.repository.InventoryStripeRepository;
+import com.oms.inventoryservice.domain.repository.InventoryStripeRepository.Totals;
+import com.oms.inventoryservice.domain.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockStripeServiceTest {
+
+    @Mock
+    private InventoryStripeRepository stripeRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StockStripeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StockStripeService(stripeRepository, reservationRepository, transactionManager, true, "jpa");
+    }
+
+    @Test
+    void shouldSpreadAvailableStockEvenlyWhenStriping() {
+
+        when(stripeRepository.findStripedProductIds(any())).thenReturn(Set.of());
+        when(stripeRepository.drainInventoryRow("hot")).thenReturn(10);
+
+        service.stripe("hot", 4);
+
+        assertThat(savedStripes()).extracting(InventoryStripe::getAvailableQuantity).containsExactly(3, 3, 2, 2);
+    }
+
+    @Test
+    void shouldTakeFromAllStripesWhenNoSingleStripeCoversTheLine() {
+
+        List<InventoryStripe> stripes = List.of(new InventoryStripe("hot", 0, 3), new InventoryStripe("hot", 1, 4));
+        when(stripeRepository.reserveFromAnyStripe("hot", 6)).thenReturn(false);
+        when(stripeRepository.lockStripes("hot")).thenReturn(stripes);
+
+        List<StockShortage> shortages = service.reserve(UUID.randomUUID(), Map.of("hot", 6));
+
+        assertThat(shortages).isEmpty();
+        assertThat(stripes).extracting(InventoryStripe::getAvailableQuantity).containsExactly(0, 1);
+        assertThat(stripes).extracting(InventoryStripe::getReservedQuantity).containsExactly(3, 3);
+        verify(reservationRepository).saveAll(any());
+    }
+
+    @Test
+    void shouldReportTheStripedTotalAsShortage() {
+
+        when(stripeRepository.reserveFromAnyStripe("hot", 9)).thenReturn(false);
+        when(stripeRepository.lockStripes("hot"))
+                .thenReturn(List.of(new InventoryStripe("hot", 0, 3), new InventoryStripe("hot", 1, 4)));
+
+        List<StockShortage> shortages = service.reserve(UUID.randomUUID(), Map.of("hot", 9));
+
+        assertThat(shortages).containsExactly(new StockShortage("hot", 9, 7, false));
+        verify(reservationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void shouldLeaveReleasesOfUnstripedReservationsToTheInventoryRow() {
+
+        when(stripeRepository.lockStripes("hot")).thenReturn(List.of(new InventoryStripe("hot", 0, 3)));
+
+        assertThat(service.release("hot", 2)).isFalse();
+        verify(stripeRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void shouldReportAggregateTotalsForStripedProducts() {
+
+        when(stripeRepository.sumByProduct(List.of("hot"))).thenReturn(Map.of("hot", new Totals(40, 5)));
+
+        Inventory inventory = service.withStripes(new Inventory("hot", 0));
+
+        assertThat(inventory.getAvailableQuantity()).isEqualTo(40);
+        assertThat(inventory.getReservedQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldRefuseStripingWhenDisabled() {
+
+        StockStripeService disabled = new StockStripeService(stripeRepository, reservationRepository,
+                transactionManager, false, "jpa");
+
+        assertThatThrownBy(() -> disabled.stripe("hot", 4)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<InventoryStripe> savedStripes() {
+        ArgumentCaptor<Collection<InventoryStripe>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(stripeRepository).saveAll(captor.capture());
+        return List.copyOf(captor.getValue());
+    }
+}
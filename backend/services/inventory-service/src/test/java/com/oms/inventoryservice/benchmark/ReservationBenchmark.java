@@ -0,0 +1,260 @@
+package com.oms.inventoryservice.benchmark;
+
+import com.oms.eventcontracts.commands.ReserveInventoryCommand;
+import com.oms.eventcontracts.commands.ReserveInventoryCommand.LineItem;
+import com.oms.eventcontracts.events.InventoryAvailabilityEvent;
+import com.oms.eventcontracts.events.InventoryReservedEvent;
+import com.oms.eventcontracts.events.InventoryUnavailableEvent;
+import com.oms.inventoryservice.application.ReserveStockUseCase;
+import com.oms.inventoryservice.application.expiry.ReservationExpiryReaper;
+import com.oms.inventoryservice.application.idempotency.ProcessedOrderIndex;
+import com.oms.inventoryservice.application.reservation.InventoryReservationEngine;
+import com.oms.inventoryservice.application.striping.StockStripeService;
+import com.oms.inventoryservice.domain.event.InventoryEventPublisher;
+import com.oms.inventoryservice.domain.model.Inventory;
+import com.oms.inventoryservice.domain.model.InventoryReservation;
+import com.oms.inventoryservice.domain.model.InventoryReservation.ReservationStatus;
+import com.oms.inventoryservice.domain.model.StockShortage;
+import com.oms.inventoryservice.domain.repository.InventoryRepository;
+import com.oms.inventoryservice.domain.repository.ReservationBatchRepository;
+import com.oms.inventoryservice.domain.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Compares reserving stock through {@link ReserveStockUseCase} (one
+ * conditional update per order, serialized on the row) with
+ * {@link InventoryReservationEngine} under eight concurrent consumers, for
+ * 1, 10 and 10k products.
+ *
+ * Both paths run against in-memory repositories, so the numbers show the
+ * cost of contention rather than of Postgres. The row lock of the
+ * conditional update is emulated per product. Orders are single-line.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.oms.inventoryservice.benchmark.ReservationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ReservationBenchmark {
+
+    private static final int STOCK = 1_000_000_000;
+
+    @Param({"1", "10", "10000"})
+    public int products;
+
+    private String[] productIds;
+    private ReserveStockUseCase useCase;
+    private InventoryReservationEngine engine;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+
+        productIds = new String[products];
+        for (int i = 0; i < products; i++) {
+            productIds[i] = "sku-" + i;
+        }
+
+        InMemoryInventoryRepository inventory = new InMemoryInventoryRepository(productIds);
+        NoOpReservationRepository reservations = new NoOpReservationRepository();
+        NoOpEventPublisher publisher = new NoOpEventPublisher();
+        ReservationBatchRepository batchRepository = (quantities, rows) -> {
+        };
+
+        StockStripeService stripingDisabled = new StockStripeService(null, reservations, null, false, "jpa");
+        // stub-only, so tracking millions of orders records no invocations
+        ReservationExpiryReaper expiryReaper = mock(ReservationExpiryReaper.class, withSettings().stubOnly());
+        ProcessedOrderIndex processedOrders = new ProcessedOrderIndex(
+                reservations, new SimpleMeterRegistry(), 1_000_000, 0.01, Duration.ofHours(24));
+        processedOrders.warmUp();
+        useCase = new ReserveStockUseCase(inventory, processedOrders, publisher, stripingDisabled, expiryReaper);
+        engine = new InventoryReservationEngine(inventory, processedOrders, batchRepository, publisher, useCase, expiryReaper);
+    }
+
+    @Benchmark
+    public void conditionalUpdate() {
+        useCase.execute(UUID.randomUUID(), List.of(new LineItem(randomProduct(), 1)), Instant.now());
+    }
+
+    @Benchmark
+    public void atomicCounters() {
+        engine.reserveAll(List.of(new ReserveInventoryCommand(
+                UUID.randomUUID().toString(), List.of(new LineItem(randomProduct(), 1)), Instant.now())));
+    }
+
+    private String randomProduct() {
+        return productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ReservationBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Committed rows keyed by product; reads hand out detached copies and
+     * saves succeed only if the row's version is unchanged. A reservation
+     * updates each row atomically, like the row lock taken by the update.
+     */
+    private static final class InMemoryInventoryRepository implements InventoryRepository {
+
+        private record Row(int total, int available, int reserved, long version) {
+        }
+
+        private final Map<String, Row> rows = new ConcurrentHashMap<>();
+
+        InMemoryInventoryRepository(String[] productIds) {
+            for (String productId : productIds) {
+                rows.put(productId, new Row(STOCK, STOCK, 0, 0));
+            }
+        }
+
+        @Override
+        public Optional<Inventory> findByProductId(String productId) {
+            return Optional.ofNullable(rows.get(productId)).map(row -> copy(productId, row));
+        }
+
+        @Override
+        public Inventory save(Inventory inventory) {
+            saveAll(List.of(inventory));
+            return inventory;
+        }
+
+        @Override
+        public List<Inventory> findAllByProductIdIn(List<String> productIds) {
+            List<Inventory> found = new ArrayList<>(productIds.size());
+            for (String productId : productIds) {
+                Row row = rows.get(productId);
+                if (row != null) {
+                    found.add(copy(productId, row));
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public void saveAll(Collection<Inventory> values) {
+            for (Inventory inventory : values) {
+                rows.compute(inventory.getProductId(), (productId, row) -> {
+                    if (row == null || row.version() != inventory.getVersion()) {
+                        throw new ObjectOptimisticLockingFailureException(Inventory.class, productId);
+                    }
+                    return new Row(inventory.getTotalQuantity(), inventory.getAvailableQuantity(),
+                            inventory.getReservedQuantity(), row.version() + 1);
+                });
+            }
+        }
+
+        @Override
+        public List<StockShortage> reserveAll(UUID orderId, Map<String, Integer> quantitiesByProduct) {
+            List<StockShortage> shortages = new ArrayList<>();
+            quantitiesByProduct.forEach((productId, quantity) -> rows.compute(productId, (id, row) -> {
+                if (row == null || row.available() < quantity) {
+                    shortages.add(new StockShortage(id, quantity, row == null ? 0 : row.available(), row == null));
+                    return row;
+                }
+                return new Row(row.total(), row.available() - quantity, row.reserved() + quantity, row.version() + 1);
+            }));
+            return shortages;
+        }
+
+        private static Inventory copy(String productId, Row row) {
+            Inventory inventory = new Inventory();
+            inventory.setProductId(productId);
+            inventory.setTotalQuantity(row.total());
+            inventory.setAvailableQuantity(row.available());
+            inventory.setReservedQuantity(row.reserved());
+            inventory.setVersion(row.version());
+            return inventory;
+        }
+    }
+
+    private static final class NoOpReservationRepository implements ReservationRepository {
+
+        @Override
+        public Optional<InventoryReservation> findByOrderIdAndProductId(UUID orderId, String productId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public InventoryReservation save(InventoryReservation reservation) {
+            return reservation;
+        }
+
+        @Override
+        public List<InventoryReservation> findExpiredReservations(Instant now, ReservationStatus status) {
+            return List.of();
+        }
+
+        @Override
+        public boolean existsByOrderId(String orderId) {
+            return false;
+        }
+
+        @Override
+        public void saveAll(List<InventoryReservation> newReservations) {
+        }
+
+        @Override
+        public Set<UUID> findReservedOrderIds(Collection<UUID> orderIds) {
+            return Set.of();
+        }
+
+        @Override
+        public List<UUID> findOrderIdsReservedSince(Instant since) {
+            return List.of();
+        }
+    }
+
+    private static final class NoOpEventPublisher implements InventoryEventPublisher {
+
+        @Override
+        public void publishInventoryReserved(InventoryReservedEvent event) {
+        }
+
+        @Override
+        public void publishInventoryUnavailable(InventoryUnavailableEvent event) {
+        }
+
+        @Override
+        public void publishAvailability(InventoryAvailabilityEvent event) {
+        }
+    }
+}
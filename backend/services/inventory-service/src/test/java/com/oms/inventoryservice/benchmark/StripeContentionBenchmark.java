@@ -0,0 +1,130 @@
+package com.oms.inventoryservice.benchmark;
+
+import com.oms.inventoryservice.domain.repository.InventoryStripeRepository;
+import com.oms.inventoryservice.infrastructure.persistence.JpaInventoryRepository;
+import com.oms.inventoryservice.infrastructure.persistence.JpaInventoryStripeRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 64 concurrent reservers on one product, against a real Postgres: the
+ * single-row conditional update of {@code reserveAll} versus taking from
+ * one of N stripes with SKIP LOCKED. Both record the reservation row; the
+ * stripe count only affects the striped run.
+ *
+ * Needs the inventory schema (start the service once) and a pool that
+ * allows 64 connections. Connection settings come from the
+ * {@code benchmark.jdbc.*} system properties and default to the local
+ * docker-compose database. Stock is reset for every iteration.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.oms.inventoryservice.benchmark.StripeContentionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+public class StripeContentionBenchmark {
+
+    private static final String PRODUCT_ID = "benchmark-hot-sku";
+    private static final int STOCK = 1_000_000_000;
+
+    @Param({"8", "32", "64"})
+    public int stripes;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private JpaInventoryRepository rowRepository;
+    private InventoryStripeRepository stripeRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void connect() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5436/inventorydb"));
+        dataSource.setUsername(System.getProperty("benchmark.jdbc.username", "inventoryuser"));
+        dataSource.setPassword(System.getProperty("benchmark.jdbc.password", "inventorypass"));
+        dataSource.setMaximumPoolSize(64);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        rowRepository = new JpaInventoryRepository(null, jdbcTemplate);
+        stripeRepository = new JpaInventoryStripeRepository(null, jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStock() {
+        cleanUp();
+        jdbcTemplate.update("""
+                INSERT INTO inventory (product_id, total_quantity, available_quantity, reserved_quantity, version, created_at, updated_at)
+                VALUES (?, ?, ?, 0, 0, now(), now())
+                """, PRODUCT_ID, STOCK, STOCK);
+        for (int i = 0; i < stripes; i++) {
+            jdbcTemplate.update("""
+                    INSERT INTO inventory_stripes (product_id, stripe, available_quantity, reserved_quantity)
+                    VALUES (?, ?, ?, 0)
+                    """, PRODUCT_ID, i, STOCK / stripes);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void disconnect() {
+        cleanUp();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public void singleRow() {
+        rowRepository.reserveAll(UUID.randomUUID(), Map.of(PRODUCT_ID, 1));
+    }
+
+    @Benchmark
+    public void striped() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (stripeRepository.reserveFromAnyStripe(PRODUCT_ID, 1)) {
+                jdbcTemplate.update("""
+                        INSERT INTO inventory_reservations
+                            (id, order_id, product_id, quantity, status, expires_at, created_at, updated_at)
+                        VALUES (gen_random_uuid(), ?, ?, 1, 'RESERVED', now() + interval '900 seconds', now(), now())
+                        """, UUID.randomUUID(), PRODUCT_ID);
+            }
+        });
+    }
+
+    private void cleanUp() {
+        jdbcTemplate.update("DELETE FROM inventory_reservations WHERE product_id = ?", PRODUCT_ID);
+        jdbcTemplate.update("DELETE FROM inventory_stripes WHERE product_id = ?", PRODUCT_ID);
+        jdbcTemplate.update("DELETE FROM inventory WHERE product_id = ?", PRODUCT_ID);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StripeContentionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -1,5 +1,7 @@
 package com.oms.inventoryservice.service;
 
+import com.oms.inventoryservice.application.expiry.ReservationExpiryReaper;
+import com.oms.inventoryservice.application.striping.StockStripeService;
 import com.oms.inventoryservice.domain.model.Inventory;
 import com.oms.inventoryservice.domain.model.InventoryReservation;
 import com.oms.inventoryservice.repository.InventoryRepository;
@@ -35,6 +37,12 @@ class InventoryServiceTest {
     @Mock
     private ValueOperations<String, String> valueOperations;
 
+    @Mock
+    private StockStripeService stockStripeService;
+
+    @Mock
+    private ReservationExpiryReaper expiryReaper;
+
     @InjectMocks
     private InventoryService inventoryService;
 
@@ -51,6 +59,7 @@ class InventoryServiceTest {
         lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         lenient().when(valueOperations.setIfAbsent(anyString(), anyString(), any(java.time.Duration.class))).thenReturn(true);
         lenient().when(valueOperations.get(anyString())).thenReturn(orderId.toString());
+        lenient().when(stockStripeService.withStripes(any(Inventory.class))).thenAnswer(invocation -> invocation.getArgument(0));
     }
 
     @Test
@@ -200,36 +209,4 @@ class InventoryServiceTest {
         
         assertThat(available).isFalse();
     }
-
-    @Test
-    void shouldReleaseExpiredReservations() {
-        
-        InventoryReservation expiredReservation = new InventoryReservation(orderId, productId, quantity);
-        
-        
-
-        Inventory inventory = new Inventory(productId, 100);
-        inventory.confirmReservation(0);
-        inventory.setAvailableQuantity(95);
-        inventory.setReservedQuantity(5);
-
-        when(reservationRepository.findByStatusAndExpiresAtBefore(
-                eq(InventoryReservation.ReservationStatus.RESERVED), any()))
-                .thenReturn(java.util.List.of(expiredReservation));
-
-        when(reservationRepository.findByOrderId(orderId)).thenReturn(Optional.of(expiredReservation));
-        when(inventoryRepository.findById(productId)).thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
-        
-        inventoryService.releaseExpiredReservations();
-
-        
-        InventoryReservation released = expiredReservation; 
-        assertThat(released.getStatus()).isEqualTo(InventoryReservation.ReservationStatus.RELEASED);
-        verify(reservationRepository)
-                .findByStatusAndExpiresAtBefore(eq(InventoryReservation.ReservationStatus.RESERVED), any());
-        verify(inventoryRepository).save(inventory);
-        verify(reservationRepository, atLeastOnce()).save(any(InventoryReservation.class));
-    }
 }
@@ -1,12 +1,18 @@
 package com.oms.orderservice.api;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.oms.orderservice.api.dto.BatchCreateOrderRequest;
+import com.oms.orderservice.api.dto.BatchOrderRequest;
+import com.oms.orderservice.api.dto.BatchOrderResult;
 import com.oms.orderservice.api.dto.CreateOrderRequest;
 import com.oms.orderservice.api.dto.CreateOrderResponse;
+import com.oms.orderservice.api.dto.OrderCursor;
 import com.oms.orderservice.api.dto.OrderItemRequest;
 import com.oms.orderservice.api.dto.OrderSummaryResponse;
 import com.oms.orderservice.application.OrderCommandService;
 import com.oms.orderservice.application.OrderQueryService;
+import com.oms.orderservice.application.availability.AvailabilityView;
+import com.oms.orderservice.application.availability.InsufficientAvailabilityException;
 import com.oms.orderservice.domain.model.Order;
 import com.oms.orderservice.domain.model.OrderItem;
 import com.oms.orderservice.domain.repository.OrderQueryRepository;
@@ -15,11 +21,16 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import java.util.List;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oms.orderservice.infrastructure.idempotency.IdempotencyCompletion;
 import com.oms.orderservice.infrastructure.idempotency.IdempotencyResult;
 import com.oms.orderservice.infrastructure.idempotency.IdempotencyService;
 import org.springframework.web.server.ResponseStatusException;
@@ -28,34 +39,46 @@ import org.springframework.web.server.ResponseStatusException;
 @RequestMapping("/orders")
 public class OrderController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
     private final OrderCommandService orderCommandService;
     private final OrderQueryService orderQueryService;
     private final OrderQueryRepository orderQueryRepository;
     private final IdempotencyService idempotencyService;
     private final ObjectMapper objectMapper;
+    private final AvailabilityView availabilityView;
 
     public OrderController(OrderCommandService orderCommandService, OrderQueryService orderQueryService,
             OrderQueryRepository orderQueryRepository,
-            IdempotencyService idempotencyService, ObjectMapper objectMapper) {
+            IdempotencyService idempotencyService, ObjectMapper objectMapper,
+            AvailabilityView availabilityView) {
         this.orderCommandService = orderCommandService;
         this.orderQueryService = orderQueryService;
         this.orderQueryRepository = orderQueryRepository;
         this.idempotencyService = idempotencyService;
         this.objectMapper = objectMapper;
+        this.availabilityView = availabilityView;
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<CreateOrderResponse> getOrder(@PathVariable UUID id) {
-        return orderQueryService.findOrderById(id)
+        return orderQueryService.findOrderStatus(id)
                 .map(order -> ResponseEntity.ok(
-                        new CreateOrderResponse(order.getId(), order.getStatus())))
+                        new CreateOrderResponse(order.orderId(), order.status())))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Newest orders first. A full page carries an {@code X-Next-Cursor}
+     * header; passing it back as {@code cursor} returns the next page.
+     */
     @GetMapping
     public ResponseEntity<List<OrderSummaryResponse>> listOrders(
-            @RequestParam(defaultValue = "100") int limit) {
-        return ResponseEntity.ok(orderQueryRepository.findRecent(limit));
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String cursor) {
+        int pageSize = pageSize(limit);
+        return page(orderQueryRepository.findRecent(OrderCursor.decode(cursor), pageSize), pageSize);
     }
 
     @PostMapping(consumes = "application/json", produces = "application/json")
@@ -97,6 +120,9 @@ public class OrderController {
                     .map(this::toDomain)
                     .collect(Collectors.toList());
 
+            // advisory: inventory still decides the reservation
+            availabilityView.requireAvailable(items);
+
             UUID userId = userIdHeader != null ? UUID.fromString(userIdHeader) : request.getUserId();
 
             Order order = orderCommandService.createOrder(items, request.getCustomerEmail(), userId);
@@ -124,14 +150,126 @@ public class OrderController {
 
     }
 
+    /**
+     * Creates many orders in one request and one transaction. Every order
+     * carries its own Idempotency-Key and gets its own result, in request
+     * order; rejecting one order does not affect the others. Any key claimed
+     * here that does not end up completed is cleared before returning, so a
+     * failure never leaves keys in progress until their TTL.
+     */
+    @PostMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public List<BatchOrderResult> createOrders(
+            @RequestHeader(value = "X-User-Id", required = false) String userIdHeader,
+            @Valid @RequestBody BatchCreateOrderRequest request) {
+
+        // a malformed header is one 400, checked before any key is claimed
+        UUID headerUserId = userIdHeader != null ? UUID.fromString(userIdHeader) : null;
+
+        List<BatchOrderRequest> orders = request.getOrders();
+        List<IdempotencyResult> claims = idempotencyService.tryAcquireAll(
+                orders.stream().map(BatchOrderRequest::getIdempotencyKey).toList());
+
+        Set<String> unfinished = new LinkedHashSet<>();
+        for (int i = 0; i < orders.size(); i++) {
+            if (claims.get(i).isAcquired()) {
+                unfinished.add(orders.get(i).getIdempotencyKey());
+            }
+        }
+
+        try {
+            BatchOrderResult[] results = new BatchOrderResult[orders.size()];
+            List<Integer> accepted = new ArrayList<>();
+            List<Order> toCreate = new ArrayList<>();
+            List<String> rejectedKeys = new ArrayList<>();
+
+            for (int i = 0; i < orders.size(); i++) {
+                BatchOrderRequest order = orders.get(i);
+                IdempotencyResult claim = claims.get(i);
+
+                if (claim.isCompleted()) {
+                    results[i] = BatchOrderResult.of(order.getIdempotencyKey(), BatchOrderResult.Outcome.DUPLICATE,
+                            storedResponse(claim));
+                } else if (claim.isInProgress()) {
+                    results[i] = BatchOrderResult.inProgress(order.getIdempotencyKey());
+                } else {
+                    try {
+                        List<OrderItem> items = order.getItems().stream().map(this::toDomain).toList();
+                        availabilityView.requireAvailable(items);
+                        UUID userId = headerUserId != null ? headerUserId : order.getUserId();
+                        toCreate.add(Order.create(items, order.getCustomerEmail(), userId));
+                        accepted.add(i);
+                    } catch (IllegalArgumentException | InsufficientAvailabilityException ex) {
+                        results[i] = BatchOrderResult.rejected(order.getIdempotencyKey(), ex.getMessage());
+                        rejectedKeys.add(order.getIdempotencyKey());
+                    }
+                }
+            }
+            if (!rejectedKeys.isEmpty()) {
+                idempotencyService.clearAll(rejectedKeys);
+                rejectedKeys.forEach(unfinished::remove);
+            }
+
+            if (!toCreate.isEmpty()) {
+                List<String> acceptedKeys = accepted.stream().map(i -> orders.get(i).getIdempotencyKey()).toList();
+                List<Order> created = orderCommandService.createOrders(toCreate);
+
+                List<IdempotencyCompletion> completions = new ArrayList<>(created.size());
+                for (int j = 0; j < created.size(); j++) {
+                    Order order = created.get(j);
+                    CreateOrderResponse response = new CreateOrderResponse(order.getId(), order.getStatus());
+                    results[accepted.get(j)] = BatchOrderResult.of(acceptedKeys.get(j),
+                            BatchOrderResult.Outcome.CREATED, response);
+                    try {
+                        completions.add(new IdempotencyCompletion(
+                                acceptedKeys.get(j), order.getId(), objectMapper.writeValueAsString(response)));
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalStateException("Failed to serialize idempotent response", e);
+                    }
+                }
+                idempotencyService.markAllCompleted(completions);
+                acceptedKeys.forEach(unfinished::remove);
+            }
+
+            return Arrays.asList(results);
+        } finally {
+            if (!unfinished.isEmpty()) {
+                idempotencyService.clearAll(unfinished);
+            }
+        }
+    }
+
+    private CreateOrderResponse storedResponse(IdempotencyResult result) {
+        try {
+            return objectMapper.readValue(result.getExistingRecord().getResponse(), CreateOrderResponse.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to deserialize cached response", e);
+        }
+    }
+
     private OrderItem toDomain(OrderItemRequest item) {
         return OrderItem.create(item.getProductId(), item.getQuantity(), item.getPrice());
 
     }
 
     @GetMapping("/customer/{email}")
-    public ResponseEntity<List<OrderSummaryResponse>> listOrdersByCustomer(@PathVariable String email) {
-        return ResponseEntity.ok(orderQueryService.findOrdersByEmail(email));
+    public ResponseEntity<List<OrderSummaryResponse>> listOrdersByCustomer(
+            @PathVariable String email,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor) {
+        int pageSize = pageSize(limit);
+        return page(orderQueryService.findOrdersByEmail(email, OrderCursor.decode(cursor), pageSize), pageSize);
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static ResponseEntity<List<OrderSummaryResponse>> page(List<OrderSummaryResponse> orders, int pageSize) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (orders.size() == pageSize) {
+            response.header(NEXT_CURSOR, OrderCursor.after(orders.get(orders.size() - 1)).encode());
+        }
+        return response.body(orders);
     }
 
     @PutMapping("/{id}/cancel")
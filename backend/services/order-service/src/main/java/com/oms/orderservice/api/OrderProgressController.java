@@ -0,0 +1,51 @@
+package com.oms.orderservice.api;
+
+import com.oms.orderservice.application.progress.OrderProgressStreams;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Order progress as server-sent events, so clients can follow an order
+ * instead of polling {@code GET /orders/{id}}.
+ *
+ * Each transition is a {@code progress} event whose id is the progress
+ * name. A reconnecting client sends that id back as {@code Last-Event-ID}
+ * and only gets what it has not seen yet. The stream is closed once the
+ * order completes or fails; {@link OrderProgressStreams} does the rest.
+ */
+@RestController
+@RequestMapping("/orders")
+public class OrderProgressController {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final OrderProgressStreams progressStreams;
+    private final Duration timeout;
+
+    public OrderProgressController(
+            OrderProgressStreams progressStreams,
+            @Value("${order.progress-stream.timeout:PT30M}") Duration timeout
+    ) {
+        this.progressStreams = progressStreams;
+        this.timeout = timeout;
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProgress(
+            @PathVariable UUID id,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId
+    ) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        if (!progressStreams.open(id, lastEventId, emitter)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found: " + id);
+        }
+        return emitter;
+    }
+}
@@ -0,0 +1,33 @@
+package com.oms.orderservice.api;
+
+import com.oms.orderservice.infrastructure.messaging.OrderViewProjectionConsumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+
+@RestController
+@RequestMapping("/admin/projections")
+@RequiredArgsConstructor
+@Slf4j
+public class ProjectionAdminController {
+
+    private final OrderViewProjectionConsumer orderViewProjectionConsumer;
+
+    /**
+     * Rebuilds {@code order_view} in place by replaying the order events.
+     * Only covers the partitions assigned to this instance.
+     */
+    @PostMapping("/order-view/replay")
+    public ResponseEntity<Map<String, Object>> replayOrderView() {
+        int partitions = orderViewProjectionConsumer.replay();
+
+        log.info("🔁 order_view replay triggered | partitions={}", partitions);
+        return ResponseEntity.accepted().body(Map.of(
+                "status", "replaying",
+                "partitions", partitions));
+    }
+}
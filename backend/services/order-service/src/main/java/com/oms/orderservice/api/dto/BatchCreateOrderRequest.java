@@ -0,0 +1,24 @@
+package com.oms.orderservice.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateOrderRequest {
+
+    public static final int MAX_ORDERS = 500;
+
+    @NotEmpty(message = "orders must not be empty")
+    @Size(max = MAX_ORDERS, message = "at most " + MAX_ORDERS + " orders per batch")
+    @Valid
+    private List<BatchOrderRequest> orders;
+
+}
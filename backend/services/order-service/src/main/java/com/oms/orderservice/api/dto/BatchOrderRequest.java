@@ -0,0 +1,17 @@
+package com.oms.orderservice.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/** One order of a batch, carrying the Idempotency-Key a single request would send as a header. */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class BatchOrderRequest extends CreateOrderRequest {
+
+    @NotBlank(message = "idempotencyKey is required")
+    private String idempotencyKey;
+
+}
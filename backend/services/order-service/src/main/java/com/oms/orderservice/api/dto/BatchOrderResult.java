@@ -0,0 +1,45 @@
+package com.oms.orderservice.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.oms.orderservice.domain.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchOrderResult {
+
+    public enum Outcome {
+        /** Created by this request. */
+        CREATED,
+        /** Created by an earlier request with the same key; the original result is returned. */
+        DUPLICATE,
+        /** Another request with the same key has not finished yet. */
+        IN_PROGRESS,
+        /** Not created; see {@code error}. Retrying with the same key is allowed. */
+        REJECTED
+    }
+
+    private String idempotencyKey;
+    private Outcome outcome;
+    private UUID orderId;
+    private OrderStatus status;
+    private String error;
+
+    public static BatchOrderResult of(String idempotencyKey, Outcome outcome, CreateOrderResponse response) {
+        return new BatchOrderResult(idempotencyKey, outcome, response.getOrderId(), response.getStatus(), null);
+    }
+
+    public static BatchOrderResult inProgress(String idempotencyKey) {
+        return new BatchOrderResult(idempotencyKey, Outcome.IN_PROGRESS, null, null, null);
+    }
+
+    public static BatchOrderResult rejected(String idempotencyKey, String error) {
+        return new BatchOrderResult(idempotencyKey, Outcome.REJECTED, null, null, error);
+    }
+}
@@ -0,0 +1,36 @@
+package com.oms.orderservice.api.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in an order listing, newest first: the page continues with
+ * orders older than {@code createdAt}, ties broken by order id. Clients get
+ * it as an opaque string in the {@code X-Next-Cursor} header.
+ */
+public record OrderCursor(Instant createdAt, UUID orderId) {
+
+    public static OrderCursor after(OrderSummaryResponse order) {
+        return new OrderCursor(order.createdAt(), order.orderId());
+    }
+
+    /** The cursor for a client-supplied string; {@code null} or blank for the first page. */
+    public static OrderCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            return new OrderCursor(Instant.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + orderId).getBytes(StandardCharsets.UTF_8));
+    }
+}
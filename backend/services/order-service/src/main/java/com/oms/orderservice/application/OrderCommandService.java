@@ -2,7 +2,10 @@ package com.oms.orderservice.application;
 
 import com.oms.eventcontracts.events.OrderCreatedEvent;
 import com.oms.eventcontracts.events.OrderItemDTO;
+import com.oms.eventcontracts.events.OrderProgressUpdatedEvent;
+import com.oms.orderservice.application.cache.OrderStatusCache;
 import com.oms.orderservice.domain.model.Order;
+import com.oms.orderservice.application.outbox.OutboxSignal;
 import com.oms.orderservice.domain.model.OrderItem;
 import com.oms.orderservice.domain.outbox.OutboxEvent;
 import com.oms.orderservice.domain.outbox.OutboxRepository;
@@ -22,6 +25,8 @@ public class OrderCommandService {
     private final OrderRepository orderRepository;
     private final OutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
+    private final OutboxSignal outboxSignal;
+    private final OrderStatusCache orderStatusCache;
     private final io.micrometer.core.instrument.MeterRegistry meterRegistry;
     private final io.micrometer.core.instrument.Counter ordersCreatedCounter;
     private final io.micrometer.core.instrument.DistributionSummary revenueSummary;
@@ -30,10 +35,14 @@ public class OrderCommandService {
             OrderRepository orderRepository,
             OutboxRepository outboxRepository,
             ObjectMapper objectMapper,
+            OutboxSignal outboxSignal,
+            OrderStatusCache orderStatusCache,
             io.micrometer.core.instrument.MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
         this.outboxRepository = outboxRepository;
         this.objectMapper = objectMapper;
+        this.outboxSignal = outboxSignal;
+        this.orderStatusCache = orderStatusCache;
         this.meterRegistry = meterRegistry;
 
         this.ordersCreatedCounter = io.micrometer.core.instrument.Counter.builder("omniorder_orders_created_total")
@@ -54,6 +63,39 @@ public class OrderCommandService {
         ordersCreatedCounter.increment();
         revenueSummary.record(order.getTotalAmount().doubleValue());
 
+        outboxRepository.save(createdEvent(order));
+        outboxSignal.signalAfterCommit();
+        orderStatusCache.storeAfterCommit(order);
+
+        return order;
+    }
+
+    /**
+     * Persists orders built with {@link Order#create} together with their
+     * outbox events in one transaction. With Hibernate JDBC batching the
+     * inserts go out as one batch per table instead of one statement per row.
+     */
+    @org.springframework.transaction.annotation.Transactional
+    public List<Order> createOrders(List<Order> orders) {
+
+        List<Order> saved = orderRepository.saveAll(orders);
+
+        List<OutboxEvent> events = new java.util.ArrayList<>(saved.size());
+        for (Order order : saved) {
+            ordersCreatedCounter.increment();
+            revenueSummary.record(order.getTotalAmount().doubleValue());
+            events.add(createdEvent(order));
+            orderStatusCache.storeAfterCommit(order);
+        }
+
+        outboxRepository.saveAll(events);
+        outboxSignal.signalAfterCommit();
+
+        return saved;
+    }
+
+    private OutboxEvent createdEvent(Order order) {
+
         List<OrderItemDTO> itemDtos = order.getItems()
                 .stream()
                 .map(this::toDto)
@@ -66,16 +108,13 @@ public class OrderCommandService {
                 itemDtos,
                 "USD",
                 java.math.BigDecimal.ZERO);
+        event.setCreatedAt(order.getCreatedAt());
 
-        OutboxEvent outboxEvent = OutboxEvent.create(
+        return OutboxEvent.create(
                 order.getId(),
                 ORDER,
                 OrderCreatedEvent.class.getSimpleName(),
                 serialize(event));
-
-        outboxRepository.save(outboxEvent);
-
-        return order;
     }
 
     private OrderItemDTO toDto(OrderItem item) {
@@ -100,5 +139,15 @@ public class OrderCommandService {
 
         order.advanceProgress(com.oms.eventcontracts.enums.OrderProgress.ORDER_FAILED);
         orderRepository.save(order);
+
+        // lets every instance move its cached status forward
+        OrderProgressUpdatedEvent event = new OrderProgressUpdatedEvent(order.getId(), order.getProgress());
+        outboxRepository.save(OutboxEvent.create(
+                order.getId(),
+                ORDER,
+                OrderProgressUpdatedEvent.class.getSimpleName(),
+                serialize(event)));
+        outboxSignal.signalAfterCommit();
+        orderStatusCache.storeAfterCommit(order);
     }
 }
@@ -1,9 +1,11 @@
 package com.oms.orderservice.application;
 
+import com.oms.orderservice.api.dto.OrderCursor;
+import com.oms.orderservice.application.cache.OrderStatusCache;
+import com.oms.orderservice.application.cache.OrderStatusSnapshot;
 import com.oms.orderservice.domain.model.Order;
 import com.oms.orderservice.domain.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -17,19 +19,27 @@ public class OrderQueryService {
 
     private final OrderRepository orderRepository;
     private final com.oms.orderservice.domain.repository.OrderQueryRepository orderQueryRepository;
+    private final OrderStatusCache orderStatusCache;
 
-    public java.util.List<com.oms.orderservice.api.dto.OrderSummaryResponse> findOrdersByEmail(String email) {
-        return orderQueryRepository.findByCustomerEmail(email);
+    public java.util.List<com.oms.orderservice.api.dto.OrderSummaryResponse> findOrdersByEmail(
+            String email, OrderCursor after, int limit) {
+        return orderQueryRepository.findByCustomerEmail(email, after, limit);
     }
 
-    @Cacheable(value = "orders", key = "#id")
     public Order getOrderById(UUID id) {
-        return orderRepository.findById(id)
+        return findOrderById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
     }
 
     public Optional<Order> findOrderById(UUID id) {
-        return orderRepository.findById(id);
+        Optional<Order> order = orderRepository.findById(id);
+        order.ifPresent(orderStatusCache::fill);
+        return order;
+    }
+
+    /** Status of an order for polling clients; usually served without touching the database. */
+    public Optional<OrderStatusSnapshot> findOrderStatus(UUID id) {
+        return orderStatusCache.get(id, orderRepository::findById);
     }
 
 }
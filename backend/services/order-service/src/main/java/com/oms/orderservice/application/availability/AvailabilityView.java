@@ -0,0 +1,106 @@
+package com.oms.orderservice.application.availability;
+
+import com.oms.eventcontracts.events.InventoryAvailabilityEvent;
+import com.oms.orderservice.domain.model.OrderItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of inventory's published availability, used to turn away
+ * orders that clearly cannot be served before they start a saga (and a
+ * payment that would have to be refunded).
+ *
+ * The check is advisory and errs towards accepting: products the view has
+ * not heard of, or has not heard about for longer than {@code max-age}, are
+ * let through, and inventory still decides every reservation itself.
+ */
+@Component
+public class AvailabilityView {
+
+    private final ConcurrentHashMap<String, Availability> products = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final Clock clock;
+    private final Counter rejectedOrders;
+
+    public AvailabilityView(
+            MeterRegistry meterRegistry,
+            @Value("${order.availability-precheck.enabled:true}") boolean enabled,
+            @Value("${order.availability-precheck.max-age:PT30M}") Duration maxAge
+    ) {
+        this(meterRegistry, enabled, maxAge, Clock.systemUTC());
+    }
+
+    AvailabilityView(MeterRegistry meterRegistry, boolean enabled, Duration maxAge, Clock clock) {
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+        this.clock = clock;
+
+        this.rejectedOrders = Counter.builder("omniorder_orders_rejected_out_of_stock_total")
+                .description("Orders rejected by the availability pre-check instead of failing in the saga")
+                .register(meterRegistry);
+
+        Gauge.builder("omniorder_availability_view_products", products, Map::size)
+                .description("Products in the local availability view")
+                .register(meterRegistry);
+    }
+
+    /** Applies an event unless the view already holds a newer one for the product. */
+    public void apply(InventoryAvailabilityEvent event) {
+        if (event.getProductId() == null || event.getAsOf() == null) {
+            return;
+        }
+        Availability update = new Availability(event.getAvailableQuantity(), event.getAsOf());
+        products.merge(event.getProductId(), update,
+                (current, candidate) -> candidate.asOf().isBefore(current.asOf()) ? current : candidate);
+    }
+
+    /**
+     * Rejects the order if any of its products is known, recently enough, to
+     * have fewer units available than the order asks for in total.
+     */
+    public void requireAvailable(List<OrderItem> items) {
+
+        if (!enabled) {
+            return;
+        }
+
+        Map<String, Integer> requested = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        Instant freshAfter = clock.instant().minus(maxAge);
+        Map<String, String> shortages = new LinkedHashMap<>();
+
+        requested.forEach((productId, quantity) -> {
+            Availability availability = products.get(productId);
+            if (availability != null
+                    && availability.asOf().isAfter(freshAfter)
+                    && availability.quantity() < quantity) {
+                shortages.put(productId,
+                        "requested " + quantity + ", available " + availability.quantity());
+            }
+        });
+
+        if (!shortages.isEmpty()) {
+            rejectedOrders.increment();
+            throw new InsufficientAvailabilityException(shortages);
+        }
+    }
+
+    private record Availability(int quantity, Instant asOf) {
+    }
+}
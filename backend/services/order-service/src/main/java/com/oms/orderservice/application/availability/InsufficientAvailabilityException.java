@@ -0,0 +1,17 @@
+package com.oms.orderservice.application.availability;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+public class InsufficientAvailabilityException extends RuntimeException {
+
+    /** Product id to a short description of the shortfall. */
+    private final Map<String, String> shortages;
+
+    public InsufficientAvailabilityException(Map<String, String> shortages) {
+        super("Insufficient stock for " + String.join(", ", shortages.keySet()));
+        this.shortages = shortages;
+    }
+}
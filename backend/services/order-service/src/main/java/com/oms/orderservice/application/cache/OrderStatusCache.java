@@ -0,0 +1,168 @@
+package com.oms.orderservice.application.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oms.eventcontracts.enums.OrderProgress;
+import com.oms.orderservice.domain.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Order status for polling clients, from a bounded in-process cache in
+ * front of Redis in front of Postgres.
+ *
+ * Writers store the committed state in both levels. Every instance also
+ * follows {@code order.event.progress-updated} and moves its local entry
+ * forward, so a poll served from memory is as fresh as the event stream.
+ * Readers only fill Redis when the key is absent, which keeps a slow read
+ * from overwriting a newer value a writer stored in the meantime, and a
+ * local entry is never replaced by one that is further behind.
+ *
+ * Redis is an optimisation here: when it is unavailable lookups fall through
+ * to the database.
+ */
+@Slf4j
+@Component
+public class OrderStatusCache {
+
+    private static final String KEY_PREFIX = "order-status:";
+
+    private final Cache<UUID, OrderStatusSnapshot> local;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration remoteTtl;
+
+    private final Counter localHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+
+    public OrderStatusCache(
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${order.status-cache.local-max-size:100000}") long localMaxSize,
+            @Value("${order.status-cache.local-ttl:PT10M}") Duration localTtl,
+            @Value("${order.status-cache.remote-ttl:PT10M}") Duration remoteTtl
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.remoteTtl = remoteTtl;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .build();
+
+        this.localHits = lookups(meterRegistry, "local");
+        this.remoteHits = lookups(meterRegistry, "redis");
+        this.misses = lookups(meterRegistry, "database");
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String servedBy) {
+        return Counter.builder("omniorder_order_status_cache_lookups_total")
+                .description("Order status lookups, by the level that served them")
+                .tag("served_by", servedBy)
+                .register(meterRegistry);
+    }
+
+    public Optional<OrderStatusSnapshot> get(UUID orderId, Function<UUID, Optional<Order>> loader) {
+
+        OrderStatusSnapshot cached = local.getIfPresent(orderId);
+        if (cached != null) {
+            localHits.increment();
+            return Optional.of(cached);
+        }
+
+        OrderStatusSnapshot remote = readRemote(orderId);
+        if (remote != null) {
+            remoteHits.increment();
+            return Optional.of(keepLocally(remote));
+        }
+
+        misses.increment();
+        return loader.apply(orderId).map(this::fill);
+    }
+
+    /** Caches an order just read from the database. */
+    public OrderStatusSnapshot fill(Order order) {
+        OrderStatusSnapshot snapshot = OrderStatusSnapshot.of(order);
+        writeRemote(snapshot, false);
+        return keepLocally(snapshot);
+    }
+
+    /**
+     * Caches the order's current state once the surrounding transaction
+     * commits; nothing is cached if it rolls back.
+     */
+    public void storeAfterCommit(Order order) {
+
+        if (order.getId() == null) {
+            return;
+        }
+
+        OrderStatusSnapshot snapshot = OrderStatusSnapshot.of(order);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            store(snapshot);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                store(snapshot);
+            }
+        });
+    }
+
+    /** Moves a locally cached order forward; orders not cached here are left alone. */
+    public void advance(UUID orderId, OrderProgress progress) {
+        local.asMap().computeIfPresent(orderId, (id, current) -> {
+            OrderStatusSnapshot next = current.advancedTo(progress);
+            return current.isBehind(next) ? next : current;
+        });
+    }
+
+    private void store(OrderStatusSnapshot snapshot) {
+        writeRemote(snapshot, true);
+        keepLocally(snapshot);
+    }
+
+    private OrderStatusSnapshot keepLocally(OrderStatusSnapshot snapshot) {
+        return local.asMap().merge(snapshot.orderId(), snapshot,
+                (current, candidate) -> current.isBehind(candidate) ? candidate : current);
+    }
+
+    private OrderStatusSnapshot readRemote(UUID orderId) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + orderId);
+            return json != null ? objectMapper.readValue(json, OrderStatusSnapshot.class) : null;
+        } catch (Exception ex) {
+            log.debug("Order status cache read failed for {}", orderId, ex);
+            return null;
+        }
+    }
+
+    private void writeRemote(OrderStatusSnapshot snapshot, boolean overwrite) {
+        try {
+            String key = KEY_PREFIX + snapshot.orderId();
+            String json = objectMapper.writeValueAsString(snapshot);
+            if (overwrite) {
+                redisTemplate.opsForValue().set(key, json, remoteTtl);
+            } else {
+                redisTemplate.opsForValue().setIfAbsent(key, json, remoteTtl);
+            }
+        } catch (Exception ex) {
+            log.debug("Order status cache write failed for {}", snapshot.orderId(), ex);
+        }
+    }
+}
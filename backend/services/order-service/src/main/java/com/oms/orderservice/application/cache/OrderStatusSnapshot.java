@@ -0,0 +1,36 @@
+package com.oms.orderservice.application.cache;
+
+import com.oms.eventcontracts.enums.OrderProgress;
+import com.oms.orderservice.domain.model.Order;
+import com.oms.orderservice.domain.model.OrderStatus;
+
+import java.util.UUID;
+
+/**
+ * What a status poll needs to know about an order, small enough to keep a
+ * large number of them in memory.
+ */
+public record OrderStatusSnapshot(UUID orderId, OrderStatus status, OrderProgress progress) {
+
+    public static OrderStatusSnapshot of(Order order) {
+        return new OrderStatusSnapshot(order.getId(), order.getStatus(), order.getProgress());
+    }
+
+    /** The same order after {@code next}. */
+    public OrderStatusSnapshot advancedTo(OrderProgress next) {
+        return new OrderStatusSnapshot(orderId, OrderStatus.forProgress(next), next);
+    }
+
+    /**
+     * Progress only moves forward and terminal states are final, so of two
+     * snapshots of the same order the one further along is the newer.
+     */
+    boolean isBehind(OrderStatusSnapshot other) {
+        return !isTerminal() && other.progress.ordinal() > progress.ordinal();
+    }
+
+    /** Completed and failed orders do not move any more. */
+    public boolean isTerminal() {
+        return progress == OrderProgress.ORDER_COMPLETED || progress == OrderProgress.ORDER_FAILED;
+    }
+}
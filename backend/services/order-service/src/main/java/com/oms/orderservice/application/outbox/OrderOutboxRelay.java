@@ -2,73 +2,240 @@ package com.oms.orderservice.application.outbox;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.oms.orderservice.domain.outbox.OutboxEvent;
+import com.oms.orderservice.domain.outbox.OutboxEventKey;
 import com.oms.orderservice.domain.outbox.OutboxRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Publishes claimed outbox rows to Kafka.
+ *
+ * A batch is claimed with {@code FOR UPDATE SKIP LOCKED}, split into lanes by
+ * {@code aggregateId} and published in parallel. Rows are marked SENT in one
+ * bulk update, and only once the broker has acknowledged them; anything that
+ * was not acknowledged stays NEW and goes through the retry schedule.
+ *
+ * Ordering per aggregate is preserved because the claim query only ever
+ * returns the oldest pending event of an aggregate, so a later event cannot
+ * overtake an earlier one that is still waiting for its retry.
+ *
+ * The relay drains whenever {@link OutboxSignal} reports a commit that wrote
+ * outbox rows, locally or on another instance via LISTEN/NOTIFY. The schedule
+ * only remains as a safety net for signals that were lost.
+ *
+ * This is the default relay; {@code outbox.relay.mode=cdc} replaces it with
+ * the WAL-tailing relay.
+ */
 @Slf4j
 @Component
+@ConditionalOnProperty(name = "outbox.relay.mode", havingValue = "polling", matchIfMissing = true)
 public class OrderOutboxRelay {
 
+    private static final int MAX_RETRIES = 3;
+
     private final OutboxRepository outboxRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer publishLatency;
 
-    private static final int MAX_RETRIES = 3;
+    private final int batchSize;
+    private final int laneCount;
+    private final long ackTimeoutMs;
+    private final ExecutorService lanes;
+
+    private final ReentrantLock draining = new ReentrantLock();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
 
     public OrderOutboxRelay(
             OutboxRepository outboxRepository,
             KafkaTemplate<String, Object> kafkaTemplate,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.lanes:4}") int laneCount,
+            @Value("${outbox.relay.ack-timeout-ms:10000}") long ackTimeoutMs
     ) {
+        if (batchSize <= 0 || laneCount <= 0) {
+            throw new IllegalArgumentException("Outbox relay batch size and lane count must be positive");
+        }
         this.outboxRepository = outboxRepository;
         this.kafkaTemplate = kafkaTemplate;
         this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publishLatency = OutboxPublishLatency.timer(meterRegistry);
+        this.batchSize = batchSize;
+        this.laneCount = laneCount;
+        this.ackTimeoutMs = ackTimeoutMs;
+        this.lanes = Executors.newFixedThreadPool(laneCount, new LaneThreadFactory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lanes.shutdownNow();
     }
 
-    @Transactional
-    @Scheduled(fixedDelay = 500)
+    @Scheduled(fixedDelayString = "${outbox.relay.safety-net-interval-ms:5000}")
     public void publishPendingEvents() {
+        drain();
+    }
 
-        List<OutboxEvent> events = outboxRepository.fetchPendingEvents(50);
+    /**
+     * Publishes batches until the backlog is smaller than one batch. Calls
+     * that arrive while a drain is running are folded into that drain.
+     */
+    public void drain() {
+        drainRequested.set(true);
+        while (drainRequested.get() && draining.tryLock()) {
+            try {
+                while (drainRequested.getAndSet(false)) {
+                    Integer claimed;
+                    do {
+                        claimed = transactionTemplate.execute(status -> publishBatch());
+                    } while (claimed != null && claimed >= batchSize);
+                }
+            } finally {
+                draining.unlock();
+            }
+        }
+    }
+
+    private int publishBatch() {
+
+        List<OutboxEvent> events = outboxRepository.fetchPendingEvents(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<LaneResult>> laneResults = new ArrayList<>();
+        for (List<OutboxEvent> lane : assignLanes(events)) {
+            if (!lane.isEmpty()) {
+                laneResults.add(CompletableFuture.supplyAsync(() -> publishLane(lane), lanes));
+            }
+        }
+
+        List<OutboxEventKey> acked = new ArrayList<>(events.size());
+        for (CompletableFuture<LaneResult> laneResult : laneResults) {
+            LaneResult result = laneResult.join();
+            acked.addAll(result.acked());
+            result.failures().forEach(this::handleFailure);
+        }
+
+        if (!acked.isEmpty()) {
+            outboxRepository.markSent(acked);
+        }
+
+        log.debug("Outbox relay published {}/{} events", acked.size(), events.size());
+        return events.size();
+    }
 
+    List<List<OutboxEvent>> assignLanes(List<OutboxEvent> events) {
+        List<List<OutboxEvent>> assigned = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            assigned.add(new ArrayList<>());
+        }
         for (OutboxEvent event : events) {
-            try {
-                Object payload = objectMapper.readTree(event.getPayload());
+            int lane = Math.floorMod(event.getAggregateId().hashCode(), laneCount);
+            assigned.get(lane).add(event);
+        }
+        return assigned;
+    }
 
-                kafkaTemplate.send(
-                        resolveTopic(event),
-                        event.getAggregateId().toString(),
-                        payload
-                );
+    private LaneResult publishLane(List<OutboxEvent> lane) {
 
-                event.markSent();
+        List<CompletableFuture<?>> sends = new ArrayList<>(lane.size());
+        List<OutboxEventKey> acked = new ArrayList<>(lane.size());
+        List<Map.Entry<OutboxEvent, Exception>> failures = new ArrayList<>();
 
+        for (OutboxEvent event : lane) {
+            try {
+                sends.add(kafkaTemplate.send(
+                        OutboxTopics.resolve(event.getEventType()),
+                        event.getAggregateId().toString(),
+                        objectMapper.readTree(event.getPayload())
+                ));
             } catch (Exception ex) {
+                sends.add(CompletableFuture.failedFuture(ex));
+            }
+        }
 
-                if (event.getRetryCount() >= MAX_RETRIES) {
-                    log.error("Outbox event {} permanently failed", event.getId(), ex);
-                    event.markFailed();
-                } else {
-                    event.incrementRetry();
-                    event.scheduleNextRetry();
-                }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs);
+
+        for (int i = 0; i < lane.size(); i++) {
+            OutboxEvent event = lane.get(i);
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                sends.get(i).get(remaining, TimeUnit.NANOSECONDS);
+                publishLatency.record(Duration.between(event.getCreatedAt(), Instant.now()));
+                acked.add(OutboxEventKey.of(event));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                failures.add(Map.entry(event, ex));
+            } catch (ExecutionException ex) {
+                failures.add(Map.entry(event, ex.getCause() instanceof Exception cause ? cause : ex));
+            } catch (TimeoutException ex) {
+                failures.add(Map.entry(event, ex));
             }
         }
+
+        return new LaneResult(acked, failures);
+    }
+
+    private void handleFailure(Map.Entry<OutboxEvent, Exception> failure) {
+
+        OutboxEvent event = failure.getKey();
+        Exception ex = failure.getValue();
+
+        event.incrementRetry();
+
+        if (PublishFailureClassifier.classify(ex) == PublishFailureType.PERMANENT
+                || event.getRetryCount() >= MAX_RETRIES) {
+            log.error("Outbox event {} permanently failed", event.getId(), ex);
+            event.markFailed();
+        } else {
+            log.warn("Outbox event {} not acknowledged, retry {} scheduled", event.getId(), event.getRetryCount(), ex);
+            event.scheduleNextRetry();
+        }
+    }
+
+    private record LaneResult(List<OutboxEventKey> acked, List<Map.Entry<OutboxEvent, Exception>> failures) {
     }
 
-    private String resolveTopic(OutboxEvent event) {
-        return switch (event.getEventType()) {
-            case "OrderCreatedEvent" -> "order.event.created";
-            case "OrderProgressUpdatedEvent" -> "order.event.progress-updated";
-            default -> throw new IllegalStateException(
-                    "Unknown event type: " + event.getEventType()
-            );
-        };
+    private static final class LaneThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "outbox-lane-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 }
@@ -0,0 +1,97 @@
+package com.oms.orderservice.application.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listens on the outbox NOTIFY channel with a dedicated connection, outside
+ * the pool, and wakes the local relay when another instance commits outbox
+ * rows.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay.notify-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxNotificationListener implements SmartLifecycle {
+
+    private final DataSourceProperties dataSourceProperties;
+    private final OutboxSignal outboxSignal;
+    private final long reconnectBackoffMs;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public OutboxNotificationListener(
+            DataSourceProperties dataSourceProperties,
+            OutboxSignal outboxSignal,
+            @Value("${outbox.relay.notify-reconnect-backoff-ms:5000}") long reconnectBackoffMs
+    ) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.outboxSignal = outboxSignal;
+        this.reconnectBackoffMs = reconnectBackoffMs;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "outbox-listen");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + outboxSignal.channel());
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null && notifications.length > 0) {
+                        outboxSignal.wakeLocalRelay();
+                    }
+                }
+            } catch (Exception ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Outbox LISTEN connection lost, reconnecting in {} ms", reconnectBackoffMs, ex);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(reconnectBackoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.oms.orderservice.application.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the daily partitions of {@code outbox_events} ahead of the clock and
+ * removes expired ones in bulk.
+ *
+ * A partition is only dropped (or detached for archiving) once its whole day
+ * is past the retention window and it holds no NEW rows, so SENT and FAILED
+ * rows disappear with a single DDL statement instead of row-by-row deletes.
+ */
+@Slf4j
+@Component
+public class OutboxPartitionMaintainer {
+
+    static final String PARTITION_PREFIX = "outbox_events_p";
+    static final String HISTORY_PARTITION = "outbox_events_p_history";
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int daysAhead;
+    private final int retentionDays;
+    private final boolean archive;
+
+    public OutboxPartitionMaintainer(
+            JdbcTemplate jdbcTemplate,
+            @Value("${outbox.partitions.days-ahead:3}") int daysAhead,
+            @Value("${outbox.partitions.retention-days:7}") int retentionDays,
+            @Value("${outbox.partitions.archive:false}") boolean archive
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.daysAhead = daysAhead;
+        this.retentionDays = retentionDays;
+        this.archive = archive;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (isPartitioned()) {
+            createUpcomingPartitions(today());
+        }
+    }
+
+    @Scheduled(cron = "${outbox.partitions.maintenance-cron:0 15 * * * *}")
+    public void maintain() {
+        if (!isPartitioned()) {
+            return;
+        }
+        LocalDate today = today();
+        createUpcomingPartitions(today);
+        purgeExpiredPartitions(today);
+    }
+
+    void createUpcomingPartitions(LocalDate today) {
+        for (int i = 0; i <= daysAhead; i++) {
+            LocalDate day = today.plusDays(i);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(day)
+                    + " PARTITION OF outbox_events FOR VALUES FROM ('" + day + " 00:00:00+00') TO ('"
+                    + day.plusDays(1) + " 00:00:00+00')");
+        }
+    }
+
+    void purgeExpiredPartitions(LocalDate today) {
+
+        LocalDate cutoff = today.minusDays(retentionDays);
+
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'outbox_events'::regclass
+                """, String.class);
+
+        for (String partition : partitions) {
+
+            boolean expired = HISTORY_PARTITION.equals(partition)
+                    || partitionDay(partition).map(day -> !day.plusDays(1).isAfter(cutoff)).orElse(false);
+            if (!expired) {
+                continue;
+            }
+
+            Boolean pending = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE status = 'NEW')", Boolean.class);
+            if (Boolean.TRUE.equals(pending)) {
+                log.warn("Outbox partition {} is past retention but still has pending events", partition);
+                continue;
+            }
+
+            if (archive) {
+                jdbcTemplate.execute("ALTER TABLE outbox_events DETACH PARTITION " + partition);
+                log.info("Detached outbox partition {} for archiving", partition);
+            } else {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped outbox partition {}", partition);
+            }
+        }
+    }
+
+    static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + SUFFIX.format(day);
+    }
+
+    static Optional<LocalDate> partitionDay(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), SUFFIX));
+        } catch (DateTimeParseException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('outbox_events'))",
+                Boolean.class));
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,19 @@
+package com.oms.orderservice.application.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+public final class OutboxPublishLatency {
+    private OutboxPublishLatency() {}
+
+    /**
+     * Time from {@code OutboxEvent.createdAt} until the broker acknowledged the
+     * record, shared by both relay modes.
+     */
+    public static Timer timer(MeterRegistry meterRegistry) {
+        return Timer.builder("omniorder_outbox_publish_latency")
+                .description("Time from outbox insert to broker acknowledgement")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
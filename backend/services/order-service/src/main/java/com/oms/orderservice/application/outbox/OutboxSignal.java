@@ -0,0 +1,100 @@
+package com.oms.orderservice.application.outbox;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Wakes the outbox relay once a transaction that wrote outbox rows commits.
+ *
+ * The local relay is woken directly after commit. Other instances are woken
+ * through a Postgres NOTIFY issued inside the writing transaction, which the
+ * server only delivers if that transaction commits.
+ */
+@Component
+public class OutboxSignal {
+
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<OrderOutboxRelay> relay;
+    private final String channel;
+    private final boolean notifyEnabled;
+
+    private final ExecutorService wakeups = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-wakeup");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean wakeupScheduled = new AtomicBoolean();
+
+    public OutboxSignal(
+            JdbcTemplate jdbcTemplate,
+            ObjectProvider<OrderOutboxRelay> relay,
+            @Value("${outbox.relay.notify-channel:outbox_events}") String channel,
+            @Value("${outbox.relay.notify-enabled:true}") boolean notifyEnabled
+    ) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Outbox notify channel must be a lower-case identifier");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.relay = relay;
+        this.channel = channel;
+        this.notifyEnabled = notifyEnabled;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        wakeups.shutdownNow();
+    }
+
+    public void signalAfterCommit() {
+
+        if (relay.getIfAvailable() == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wakeLocalRelay();
+            return;
+        }
+
+        if (notifyEnabled) {
+            jdbcTemplate.query("SELECT pg_notify(?, '')", rs -> null, channel);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeLocalRelay();
+            }
+        });
+    }
+
+    /**
+     * Schedules a drain unless one is already queued; a drain that is running
+     * picks up rows committed while it was in progress.
+     */
+    public void wakeLocalRelay() {
+        OrderOutboxRelay target = relay.getIfAvailable();
+        if (target != null && wakeupScheduled.compareAndSet(false, true)) {
+            wakeups.execute(() -> {
+                wakeupScheduled.set(false);
+                target.drain();
+            });
+        }
+    }
+
+    String channel() {
+        return channel;
+    }
+}
@@ -0,0 +1,18 @@
+package com.oms.orderservice.application.outbox;
+
+public final class OutboxTopics {
+    private OutboxTopics() {}
+
+    public static final String ORDER_CREATED = "order.event.created";
+    public static final String ORDER_PROGRESS_UPDATED = "order.event.progress-updated";
+
+    public static String resolve(String eventType) {
+        return switch (eventType) {
+            case "OrderCreatedEvent" -> ORDER_CREATED;
+            case "OrderProgressUpdatedEvent" -> ORDER_PROGRESS_UPDATED;
+            default -> throw new IllegalStateException(
+                    "Unknown event type: " + eventType
+            );
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.oms.orderservice.application.outbox;
 
+import org.apache.kafka.common.errors.RetriableException;
 import org.apache.kafka.common.errors.TimeoutException;
 
 public final class PublishFailureClassifier {
@@ -17,4 +18,19 @@ public final class PublishFailureClassifier {
 
         return PublishFailureType.TRANSIENT;
     }
+
+    /**
+     * Whether sending again can succeed: a time-out waiting for the broker
+     * or a send error Kafka itself marks as retriable. Anything else, such as
+     * an unreadable payload or a serialization failure, fails the same way
+     * every time.
+     */
+    public static boolean isRetriable(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException || cause instanceof java.util.concurrent.TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,338 @@
+package com.oms.orderservice.application.outbox.cdc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oms.orderservice.application.outbox.OutboxPublishLatency;
+import com.oms.orderservice.application.outbox.OutboxTopics;
+import com.oms.orderservice.application.outbox.PublishFailureClassifier;
+import com.oms.orderservice.domain.outbox.OutboxEventKey;
+import com.oms.orderservice.domain.outbox.OutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGProperty;
+import org.postgresql.replication.LogSequenceNumber;
+import org.postgresql.replication.PGReplicationStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Outbox relay that tails inserts into {@code outbox_events} through a
+ * pgoutput logical replication slot instead of polling the table.
+ *
+ * Events of a committed transaction are published in commit order and the
+ * slot's flushed LSN is only advanced once the broker has acknowledged all of
+ * them. The slot is the checkpoint: after a restart the server resumes the
+ * stream from the last confirmed LSN, so anything published but not yet
+ * confirmed is delivered again (at-least-once, like the polling relay).
+ *
+ * Enabled with {@code outbox.relay.mode=cdc}; requires {@code wal_level=logical}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay.mode", havingValue = "cdc")
+public class OutboxCdcRelay implements SmartLifecycle {
+
+    private static final String OUTBOX_TABLE = "outbox_events";
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private static final DateTimeFormatter PG_TIMESTAMPTZ = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .optionalStart()
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true)
+            .optionalEnd()
+            .appendOffset("+HH:mm", "+00")
+            .toFormatter();
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxRepository outboxRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer publishLatency;
+
+    private final String slotName;
+    private final String publicationName;
+    private final long ackTimeoutMs;
+    private final long retryBackoffMs;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public OutboxCdcRelay(
+            DataSourceProperties dataSourceProperties,
+            JdbcTemplate jdbcTemplate,
+            OutboxRepository outboxRepository,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.cdc.slot-name:order_outbox_slot}") String slotName,
+            @Value("${outbox.cdc.publication-name:order_outbox_publication}") String publicationName,
+            @Value("${outbox.relay.ack-timeout-ms:10000}") long ackTimeoutMs,
+            @Value("${outbox.cdc.retry-backoff-ms:1000}") long retryBackoffMs
+    ) {
+        if (!IDENTIFIER.matcher(slotName).matches() || !IDENTIFIER.matcher(publicationName).matches()) {
+            throw new IllegalArgumentException("Replication slot and publication names must be lower-case identifiers");
+        }
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publishLatency = OutboxPublishLatency.timer(meterRegistry);
+        this.slotName = slotName;
+        this.publicationName = publicationName;
+        this.ackTimeoutMs = ackTimeoutMs;
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    @Override
+    public void start() {
+        ensureReplicationObjects();
+        running = true;
+        worker = new Thread(this::run, "outbox-cdc");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void ensureReplicationObjects() {
+
+        Boolean publicationExists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_publication WHERE pubname = ?)",
+                Boolean.class, publicationName);
+        if (!Boolean.TRUE.equals(publicationExists)) {
+            jdbcTemplate.execute("CREATE PUBLICATION " + publicationName
+                    + " FOR TABLE " + OUTBOX_TABLE + " WITH (publish = 'insert', publish_via_partition_root = true)");
+            log.info("Created publication {} for {}", publicationName, OUTBOX_TABLE);
+        }
+
+        String confirmedLsn = jdbcTemplate.query(
+                "SELECT confirmed_flush_lsn::text FROM pg_replication_slots WHERE slot_name = ?",
+                rs -> rs.next() ? rs.getString(1) : null,
+                slotName);
+        if (confirmedLsn == null) {
+            confirmedLsn = jdbcTemplate.queryForObject(
+                    "SELECT lsn::text FROM pg_create_logical_replication_slot(?, 'pgoutput')",
+                    String.class, slotName);
+            log.info("Created replication slot {} at {}", slotName, confirmedLsn);
+        } else {
+            log.info("Resuming replication slot {} from {}", slotName, confirmedLsn);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = openReplicationConnection()) {
+                stream(connection.unwrap(PGConnection.class));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Outbox CDC stream interrupted, reconnecting in {} ms", retryBackoffMs, ex);
+                try {
+                    Thread.sleep(retryBackoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Connection openReplicationConnection() throws SQLException {
+        Properties properties = new Properties();
+        PGProperty.USER.set(properties, dataSourceProperties.determineUsername());
+        PGProperty.PASSWORD.set(properties, dataSourceProperties.determinePassword());
+        PGProperty.ASSUME_MIN_SERVER_VERSION.set(properties, "10");
+        PGProperty.REPLICATION.set(properties, "database");
+        PGProperty.PREFER_QUERY_MODE.set(properties, "simple");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private void stream(PGConnection connection) throws SQLException, InterruptedException {
+
+        PGReplicationStream stream = connection.getReplicationAPI()
+                .replicationStream()
+                .logical()
+                .withSlotName(slotName)
+                .withSlotOption("proto_version", 1)
+                .withSlotOption("publication_names", publicationName)
+                .withStatusInterval(10, TimeUnit.SECONDS)
+                .start();
+
+        try {
+            PgOutputDecoder decoder = new PgOutputDecoder();
+            List<Map<String, String>> transaction = new ArrayList<>();
+
+            while (running) {
+                ByteBuffer buffer = stream.readPending();
+                if (buffer == null) {
+                    TimeUnit.MILLISECONDS.sleep(10);
+                    continue;
+                }
+
+                switch (decoder.decode(buffer)) {
+                    case PgOutputDecoder.Begin begin -> transaction.clear();
+                    case PgOutputDecoder.Insert insert when OUTBOX_TABLE.equals(insert.table()) ->
+                            transaction.add(insert.values());
+                    case PgOutputDecoder.Commit commit -> {
+                        publish(transaction);
+                        transaction.clear();
+                        LogSequenceNumber lsn = LogSequenceNumber.valueOf(commit.endLsn());
+                        stream.setAppliedLSN(lsn);
+                        stream.setFlushedLSN(lsn);
+                    }
+                    default -> {
+                        // relation metadata and non-outbox changes need no action
+                    }
+                }
+            }
+
+            stream.forceUpdateStatus();
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Publishes one committed transaction, retrying until every event has
+     * been acknowledged. The stream is not consumed further in the meantime,
+     * which keeps commit order on the topics. Only time-outs and retriable
+     * send errors are retried; an event that can never be sent is marked
+     * FAILED so it does not hold the slot, and the WAL behind it, forever.
+     */
+    private void publish(List<Map<String, String>> rows) throws InterruptedException {
+
+        List<Map<String, String>> pending = new ArrayList<>(rows);
+
+        while (!pending.isEmpty()) {
+
+            List<CompletableFuture<?>> sends = new ArrayList<>(pending.size());
+            List<OutboxEventKey> rejected = new ArrayList<>();
+
+            for (Map<String, String> row : pending) {
+                try {
+                    sends.add(kafkaTemplate.send(
+                            OutboxTopics.resolve(row.get("event_type")),
+                            row.get("aggregate_id"),
+                            objectMapper.readTree(row.get("payload"))
+                    ));
+                } catch (Exception ex) {
+                    if (PublishFailureClassifier.isRetriable(ex)) {
+                        sends.add(CompletableFuture.failedFuture(ex));
+                    } else {
+                        log.error("Outbox event {} permanently failed", row.get("id"), ex);
+                        rejected.add(key(row));
+                        sends.add(null);
+                    }
+                }
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs);
+            List<OutboxEventKey> acked = new ArrayList<>(pending.size());
+            List<Map<String, String>> unacked = new ArrayList<>();
+
+            for (int i = 0; i < pending.size(); i++) {
+                CompletableFuture<?> send = sends.get(i);
+                if (send == null) {
+                    continue;
+                }
+                try {
+                    send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    recordLatency(pending.get(i).get("created_at"));
+                    acked.add(key(pending.get(i)));
+                } catch (ExecutionException ex) {
+                    if (PublishFailureClassifier.isRetriable(ex.getCause())) {
+                        unacked.add(pending.get(i));
+                    } else {
+                        log.error("Outbox event {} permanently failed", pending.get(i).get("id"), ex.getCause());
+                        rejected.add(key(pending.get(i)));
+                    }
+                } catch (TimeoutException ex) {
+                    unacked.add(pending.get(i));
+                }
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!acked.isEmpty()) {
+                    outboxRepository.markSent(acked);
+                }
+                if (!rejected.isEmpty()) {
+                    outboxRepository.markFailed(rejected);
+                }
+            });
+
+            if (!unacked.isEmpty()) {
+                log.warn("{} outbox events not acknowledged, retrying in {} ms", unacked.size(), retryBackoffMs);
+                TimeUnit.MILLISECONDS.sleep(retryBackoffMs);
+            }
+            pending = unacked;
+        }
+    }
+
+    private void recordLatency(String createdAt) {
+        if (createdAt != null) {
+            publishLatency.record(Duration.between(parseTimestamp(createdAt), Instant.now()));
+        }
+    }
+
+    private static OutboxEventKey key(Map<String, String> row) {
+        return new OutboxEventKey(UUID.fromString(row.get("id")), parseTimestamp(row.get("created_at")));
+    }
+
+    private static Instant parseTimestamp(String value) {
+        return OffsetDateTime.parse(value, PG_TIMESTAMPTZ).toInstant();
+    }
+}
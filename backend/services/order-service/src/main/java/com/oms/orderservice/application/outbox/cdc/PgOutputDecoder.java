@@ -0,0 +1,126 @@
+package com.oms.orderservice.application.outbox.cdc;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal decoder for the pgoutput logical replication protocol (version 1).
+ *
+ * Only the messages the outbox relay needs are decoded: Begin, Commit,
+ * Relation and Insert. Everything else is reported as {@link Ignored}.
+ * Relation metadata is cached per decoder instance because the server only
+ * sends it once per relation and session.
+ */
+public class PgOutputDecoder {
+
+    public sealed interface Message permits Begin, Commit, Insert, Ignored {
+    }
+
+    public record Begin(long finalLsn, int xid) implements Message {
+    }
+
+    public record Commit(long commitLsn, long endLsn) implements Message {
+    }
+
+    public record Insert(String schema, String table, Map<String, String> values) implements Message {
+    }
+
+    public record Ignored(char type) implements Message {
+    }
+
+    private record Relation(String schema, String table, List<String> columns) {
+    }
+
+    private final Map<Integer, Relation> relations = new HashMap<>();
+
+    public Message decode(ByteBuffer buffer) {
+
+        char type = (char) buffer.get();
+
+        return switch (type) {
+            case 'B' -> {
+                long finalLsn = buffer.getLong();
+                buffer.getLong();
+                yield new Begin(finalLsn, buffer.getInt());
+            }
+            case 'C' -> {
+                buffer.get();
+                long commitLsn = buffer.getLong();
+                yield new Commit(commitLsn, buffer.getLong());
+            }
+            case 'R' -> {
+                readRelation(buffer);
+                yield new Ignored(type);
+            }
+            case 'I' -> readInsert(buffer);
+            default -> new Ignored(type);
+        };
+    }
+
+    private void readRelation(ByteBuffer buffer) {
+
+        int relationId = buffer.getInt();
+        String schema = readString(buffer);
+        String table = readString(buffer);
+        buffer.get();
+
+        int columnCount = buffer.getShort();
+        List<String> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            buffer.get();
+            columns.add(readString(buffer));
+            buffer.getInt();
+            buffer.getInt();
+        }
+
+        relations.put(relationId, new Relation(schema, table, columns));
+    }
+
+    private Message readInsert(ByteBuffer buffer) {
+
+        int relationId = buffer.getInt();
+        Relation relation = relations.get(relationId);
+        if (relation == null) {
+            throw new IllegalStateException("Insert for unknown relation " + relationId);
+        }
+
+        char tupleMarker = (char) buffer.get();
+        if (tupleMarker != 'N') {
+            throw new IllegalStateException("Unexpected tuple marker " + tupleMarker);
+        }
+
+        int columnCount = buffer.getShort();
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < columnCount; i++) {
+            char kind = (char) buffer.get();
+            String column = relation.columns().get(i);
+            switch (kind) {
+                case 'n', 'u' -> values.put(column, null);
+                case 't' -> {
+                    byte[] value = new byte[buffer.getInt()];
+                    buffer.get(value);
+                    values.put(column, new String(value, StandardCharsets.UTF_8));
+                }
+                default -> throw new IllegalStateException("Unsupported tuple column kind " + kind);
+            }
+        }
+
+        return new Insert(relation.schema(), relation.table(), values);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int start = buffer.position();
+        while (buffer.get() != 0) {
+            // advance to the terminating zero byte
+        }
+        int length = buffer.position() - start - 1;
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,86 @@
+package com.oms.orderservice.application.progress;
+
+import com.oms.eventcontracts.enums.OrderProgress;
+import com.oms.orderservice.application.cache.OrderStatusSnapshot;
+import com.oms.orderservice.domain.model.OrderStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * In-process fan-out of order progress to whoever on this instance is
+ * watching an order. Every instance follows
+ * {@code order.event.progress-updated} on its own consumer group, so a
+ * listener sees every transition no matter which instance accepted the
+ * order.
+ *
+ * Listeners run on the publishing thread, the Kafka consumer, and must
+ * not block: hand anything slow, such as a socket write, to another
+ * thread. One that throws is dropped.
+ */
+@Slf4j
+@Component
+public class OrderProgressHub {
+
+    private final Map<UUID, Set<Consumer<OrderStatusSnapshot>>> listeners = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+
+    public OrderProgressHub(MeterRegistry meterRegistry) {
+        Gauge.builder("omniorder_order_progress_subscriptions", subscriptions, AtomicInteger::get)
+                .description("Open order progress subscriptions on this instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Calls {@code listener} with every progress published for the order
+     * from now on. Run the returned handle to stop.
+     */
+    public Runnable subscribe(UUID orderId, Consumer<OrderStatusSnapshot> listener) {
+        listeners.compute(orderId, (id, current) -> {
+            Set<Consumer<OrderStatusSnapshot>> set = current != null ? current : ConcurrentHashMap.newKeySet();
+            if (set.add(listener)) {
+                subscriptions.incrementAndGet();
+            }
+            return set;
+        });
+        return () -> unsubscribe(orderId, listener);
+    }
+
+    public void publish(UUID orderId, OrderProgress progress) {
+        Set<Consumer<OrderStatusSnapshot>> watching = listeners.get(orderId);
+        if (watching == null) {
+            return;
+        }
+        OrderStatusSnapshot snapshot = new OrderStatusSnapshot(orderId, OrderStatus.forProgress(progress), progress);
+        for (Consumer<OrderStatusSnapshot> listener : watching) {
+            try {
+                listener.accept(snapshot);
+            } catch (RuntimeException ex) {
+                log.debug("Dropping progress listener for order {}", orderId, ex);
+                unsubscribe(orderId, listener);
+            }
+        }
+    }
+
+    int subscriberCount(UUID orderId) {
+        Set<Consumer<OrderStatusSnapshot>> watching = listeners.get(orderId);
+        return watching != null ? watching.size() : 0;
+    }
+
+    private void unsubscribe(UUID orderId, Consumer<OrderStatusSnapshot> listener) {
+        listeners.computeIfPresent(orderId, (id, set) -> {
+            if (set.remove(listener)) {
+                subscriptions.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
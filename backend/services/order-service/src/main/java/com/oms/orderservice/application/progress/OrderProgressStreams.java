@@ -0,0 +1,373 @@
+package com.oms.orderservice.application.progress;
+
+import com.oms.eventcontracts.enums.OrderProgress;
+import com.oms.orderservice.application.OrderQueryService;
+import com.oms.orderservice.application.cache.OrderStatusSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Feeds {@link OrderProgressHub} transitions into server-sent event streams.
+ *
+ * A stream starts with the current status and then carries every later
+ * transition, each as a {@code progress} event whose id is the progress
+ * name. A stream resumed with the last id it saw only gets what comes after
+ * it. The stream is completed once the order completes or fails.
+ *
+ * Transitions arrive on the Kafka consumer thread, so they are only queued
+ * on the stream there; the socket writes happen on a small pool of writer
+ * threads, one drain per stream at a time. A client that falls
+ * {@code max-pending-events} behind, or finds the writer queue full, has its
+ * stream closed and reconnects with {@code Last-Event-ID}. An idle stream
+ * holds a connection but no thread; a comment is queued now and then, from
+ * a scheduler of its own, so proxies do not drop it.
+ */
+@Slf4j
+@Component
+public class OrderProgressStreams {
+
+    private final OrderQueryService orderQueryService;
+    private final OrderProgressHub orderProgressHub;
+    private final int maxPendingEvents;
+    private final ExecutorService writers;
+    private final ScheduledExecutorService heartbeats;
+    private final Set<ProgressStream> openStreams = ConcurrentHashMap.newKeySet();
+
+    public OrderProgressStreams(
+            OrderQueryService orderQueryService,
+            OrderProgressHub orderProgressHub,
+            @Value("${order.progress-stream.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+            @Value("${order.progress-stream.writer-threads:8}") int writerThreads,
+            @Value("${order.progress-stream.writer-queue-capacity:10000}") int writerQueueCapacity,
+            @Value("${order.progress-stream.max-pending-events:16}") int maxPendingEvents
+    ) {
+        this.orderQueryService = orderQueryService;
+        this.orderProgressHub = orderProgressHub;
+        this.maxPendingEvents = maxPendingEvents;
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(writerQueueCapacity), new StreamThreadFactory("progress-stream-writer-"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(
+                new StreamThreadFactory("progress-stream-heartbeat-"));
+        this.heartbeats.scheduleWithFixedDelay(
+                this::sendHeartbeats, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    /**
+     * Streams the progress of an order into {@code emitter}, resuming after
+     * {@code lastEventId} if there is one. Returns false, with nothing
+     * subscribed, when the order is unknown.
+     */
+    public boolean open(UUID orderId, String lastEventId, SseEmitter emitter) {
+        ProgressStream stream = new ProgressStream(emitter, rankOf(lastEventId));
+
+        // subscribe before reading the status, so a transition in between is not lost
+        Runnable unsubscribe = orderProgressHub.subscribe(orderId, stream::send);
+        Optional<OrderStatusSnapshot> current;
+        try {
+            current = orderQueryService.findOrderStatus(orderId);
+        } catch (RuntimeException ex) {
+            unsubscribe.run();
+            throw ex;
+        }
+        if (current.isEmpty()) {
+            unsubscribe.run();
+            return false;
+        }
+
+        stream.start(unsubscribe, current.get());
+        return true;
+    }
+
+    int openStreams() {
+        return openStreams.size();
+    }
+
+    void sendHeartbeats() {
+        try {
+            openStreams.forEach(ProgressStream::heartbeat);
+        } catch (RuntimeException ex) {
+            // keep the schedule alive
+            log.warn("Progress stream heartbeat failed", ex);
+        }
+    }
+
+    /** The rank after which a resumed stream picks up, or -1 for a fresh one. */
+    private static int rankOf(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return -1;
+        }
+        try {
+            return OrderProgress.valueOf(lastEventId.trim()).ordinal();
+        } catch (IllegalArgumentException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * One client connection. Events are queued under the lock and written
+     * by {@link #drain()} on a writer thread; the lock is never held across
+     * a write, so a publisher never waits for a slow socket.
+     */
+    private final class ProgressStream {
+
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private int lastRank;
+        private boolean closed;
+        private boolean draining;
+        private boolean completeWhenDrained;
+        private Runnable unsubscribe = () -> {};
+
+        private ProgressStream(SseEmitter emitter, int lastRank) {
+            this.emitter = emitter;
+            this.lastRank = lastRank;
+        }
+
+        void start(Runnable unsubscribe, OrderStatusSnapshot current) {
+            emitter.onCompletion(this::close);
+            emitter.onError(ex -> close());
+            emitter.onTimeout(() -> {
+                close();
+                emitter.complete();
+            });
+
+            lock.lock();
+            try {
+                this.unsubscribe = unsubscribe;
+                if (!closed) {
+                    openStreams.add(this);
+                }
+            } finally {
+                lock.unlock();
+            }
+            // released right away if the hub already delivered the final transition
+            releaseSubscription();
+
+            send(current);
+            if (current.isTerminal()) {
+                // a client resuming after the last event still needs the stream closed
+                finish();
+            }
+        }
+
+        /** Queues the snapshot if it is further along than anything this stream has queued. */
+        void send(OrderStatusSnapshot snapshot) {
+            boolean schedule;
+            lock.lock();
+            try {
+                int rank = snapshot.progress().ordinal();
+                if (closed || rank <= lastRank) {
+                    return;
+                }
+                lastRank = rank;
+                schedule = enqueue(SseEmitter.event()
+                        .id(snapshot.progress().name())
+                        .name("progress")
+                        .data(snapshot, MediaType.APPLICATION_JSON));
+                if (snapshot.isTerminal() && !closed) {
+                    closeLocked();
+                    completeWhenDrained = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+            // a finished or dropped stream lets go of the hub now, not after its last write
+            releaseSubscription();
+            if (schedule) {
+                scheduleDrain();
+            }
+        }
+
+        void heartbeat() {
+            boolean schedule;
+            lock.lock();
+            try {
+                // a stream with events queued is about to write anyway
+                if (closed || !pending.isEmpty()) {
+                    return;
+                }
+                schedule = enqueue(SseEmitter.event().comment("keep-alive"));
+            } finally {
+                lock.unlock();
+            }
+            releaseSubscription();
+            if (schedule) {
+                scheduleDrain();
+            }
+        }
+
+        private void finish() {
+            boolean schedule;
+            lock.lock();
+            try {
+                closeLocked();
+                completeWhenDrained = true;
+                schedule = !draining;
+                draining = true;
+            } finally {
+                lock.unlock();
+            }
+            releaseSubscription();
+            if (schedule) {
+                scheduleDrain();
+            }
+        }
+
+        /**
+         * Adds a frame and says whether a drain has to be started. A stream
+         * too far behind is dropped instead: its queue is cleared and the
+         * running drain completes it.
+         */
+        private boolean enqueue(SseEmitter.SseEventBuilder event) {
+            if (pending.size() >= maxPendingEvents) {
+                log.debug("Progress stream fell {} events behind, closing it", pending.size());
+                pending.clear();
+                closeLocked();
+                completeWhenDrained = true;
+                return false;
+            }
+            pending.add(event);
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        private void scheduleDrain() {
+            try {
+                writers.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                log.debug("Progress stream writers are saturated, closing a stream");
+                lock.lock();
+                try {
+                    pending.clear();
+                    draining = false;
+                    completeWhenDrained = false;
+                    closeLocked();
+                } finally {
+                    lock.unlock();
+                }
+                releaseSubscription();
+                // no write is running for this stream, so this does not wait on the socket
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                boolean complete = false;
+                lock.lock();
+                try {
+                    event = pending.poll();
+                    if (event == null) {
+                        draining = false;
+                        complete = completeWhenDrained;
+                        completeWhenDrained = false;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                releaseSubscription();
+
+                if (event == null) {
+                    if (complete) {
+                        emitter.complete();
+                    }
+                    return;
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException ex) {
+                    log.debug("Progress stream went away");
+                    lock.lock();
+                    try {
+                        pending.clear();
+                        completeWhenDrained = false;
+                        closeLocked();
+                    } finally {
+                        lock.unlock();
+                    }
+                    releaseSubscription();
+                }
+            }
+        }
+
+        private void close() {
+            lock.lock();
+            try {
+                closeLocked();
+            } finally {
+                lock.unlock();
+            }
+            releaseSubscription();
+        }
+
+        /** Stops accepting events; the subscription is released outside the lock. */
+        private void closeLocked() {
+            closed = true;
+        }
+
+        private void releaseSubscription() {
+            Runnable release;
+            lock.lock();
+            try {
+                if (!closed || unsubscribe == null) {
+                    return;
+                }
+                release = unsubscribe;
+                unsubscribe = null;
+            } finally {
+                lock.unlock();
+            }
+            openStreams.remove(this);
+            release.run();
+        }
+    }
+
+    private static final class StreamThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        private StreamThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
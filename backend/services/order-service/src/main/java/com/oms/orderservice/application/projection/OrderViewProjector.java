@@ -0,0 +1,172 @@
+package com.oms.orderservice.application.projection;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oms.eventcontracts.enums.OrderProgress;
+import com.oms.eventcontracts.events.OrderCreatedEvent;
+import com.oms.eventcontracts.events.OrderItemDTO;
+import com.oms.eventcontracts.events.OrderProgressUpdatedEvent;
+import com.oms.orderservice.application.outbox.OutboxTopics;
+import com.oms.orderservice.domain.model.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps {@code order_view} current from the order events.
+ *
+ * The two topics are not ordered against each other, so either event may
+ * create the row. Both writes are upserts, and progress is only ever moved
+ * forward, which also makes replaying the topics from the beginning safe
+ * over an existing table.
+ */
+@Slf4j
+@Component
+public class OrderViewProjector {
+
+    private static final String UPSERT_CREATED = """
+            INSERT INTO order_view
+                (order_id, customer_email, total_amount, first_product_id, item_count,
+                 status, progress, progress_rank, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, now())
+            ON CONFLICT (order_id) DO UPDATE
+            SET customer_email = excluded.customer_email,
+                total_amount = excluded.total_amount,
+                first_product_id = excluded.first_product_id,
+                item_count = excluded.item_count,
+                created_at = excluded.created_at,
+                updated_at = now()
+            """;
+
+    private static final String UPSERT_PROGRESS = """
+            INSERT INTO order_view (order_id, status, progress, progress_rank, updated_at)
+            VALUES (?, ?, ?, ?, now())
+            ON CONFLICT (order_id) DO UPDATE
+            SET status = excluded.status,
+                progress = excluded.progress,
+                progress_rank = excluded.progress_rank,
+                updated_at = now()
+            WHERE order_view.progress_rank < ?
+            AND excluded.progress_rank > order_view.progress_rank
+            """;
+
+    /** Ranks from here on are terminal and never replaced. */
+    private static final int FIRST_TERMINAL_RANK = OrderProgress.ORDER_COMPLETED.ordinal();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final Counter unreadableEvents;
+    private final AtomicLong lagRecords = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OrderViewProjector(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.unreadableEvents = Counter.builder("omniorder_order_view_unreadable_events_total")
+                .description("Order events the read model projection skipped because they could not be parsed")
+                .register(meterRegistry);
+
+        Gauge.builder("omniorder_order_view_lag_records", lagRecords, AtomicLong::get)
+                .description("Order events published but not yet applied to the read model")
+                .register(meterRegistry);
+
+        Gauge.builder("omniorder_order_view_lag_seconds", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Delay between publishing and applying the newest event of the last batch")
+                .register(meterRegistry);
+    }
+
+    public void apply(List<ConsumerRecord<String, String>> records) {
+
+        List<Object[]> created = new ArrayList<>();
+        List<Object[]> progress = new ArrayList<>();
+        long newestTimestamp = 0;
+
+        for (ConsumerRecord<String, String> record : records) {
+            newestTimestamp = Math.max(newestTimestamp, record.timestamp());
+            try {
+                if (OutboxTopics.ORDER_CREATED.equals(record.topic())) {
+                    created.add(createdRow(objectMapper.readValue(record.value(), OrderCreatedEvent.class), record));
+                } else if (OutboxTopics.ORDER_PROGRESS_UPDATED.equals(record.topic())) {
+                    progress.add(progressRow(objectMapper.readValue(record.value(), OrderProgressUpdatedEvent.class)));
+                }
+            } catch (Exception ex) {
+                log.warn("Skipping unreadable order event at {}-{}@{}",
+                        record.topic(), record.partition(), record.offset(), ex);
+                unreadableEvents.increment();
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!created.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_CREATED, created);
+            }
+            if (!progress.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_PROGRESS, progress);
+            }
+        });
+
+        if (newestTimestamp > 0) {
+            lagMillis.set(Math.max(0, System.currentTimeMillis() - newestTimestamp));
+        }
+    }
+
+    /** Events still to be applied, as reported by the consumer after a batch. */
+    public void recordLag(long records) {
+        lagRecords.set(records);
+    }
+
+    private static Object[] createdRow(OrderCreatedEvent event, ConsumerRecord<String, String> record) {
+        if (event.getOrderId() == null) {
+            throw new IllegalArgumentException("OrderCreatedEvent without orderId");
+        }
+        List<OrderItemDTO> items = event.getItems() != null ? event.getItems() : List.of();
+        // events published before createdAt was added fall back to the publish time
+        Instant createdAt = event.getCreatedAt() != null ? event.getCreatedAt() : Instant.ofEpochMilli(record.timestamp());
+        return new Object[]{
+                event.getOrderId(),
+                event.getCustomerEmail(),
+                event.getAmount(),
+                items.isEmpty() ? null : items.get(0).getProductId(),
+                items.size(),
+                OrderStatus.PENDING.name(),
+                OrderProgress.ORDER_ACCEPTED.name(),
+                OrderProgress.ORDER_ACCEPTED.ordinal(),
+                Timestamp.from(createdAt)
+        };
+    }
+
+    private static Object[] progressRow(OrderProgressUpdatedEvent event) {
+        OrderProgress progress = event.getProgress();
+        if (event.getOrderId() == null || progress == null) {
+            throw new IllegalArgumentException("OrderProgressUpdatedEvent without orderId or progress");
+        }
+        return new Object[]{
+                event.getOrderId(),
+                OrderStatus.forProgress(progress).name(),
+                progress.name(),
+                progress.ordinal(),
+                FIRST_TERMINAL_RANK
+        };
+    }
+}
@@ -1,6 +1,10 @@
 package com.oms.orderservice.common.exception;
 
 
+import com.oms.orderservice.application.availability.InsufficientAvailabilityException;
+import com.oms.orderservice.domain.model.OrderStateConflictException;
+import com.oms.orderservice.infrastructure.admission.OrderWritesOverloadedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -32,6 +36,26 @@ public class GlobalExceptionHandler {
                              .body(ApiErrorResponse.of(HttpStatus.BAD_REQUEST.value(), ex.getMessage(), null));
     }
 
+    @ExceptionHandler(OrderStateConflictException.class)
+    public ResponseEntity<?> handleOrderStateConflict(OrderStateConflictException ex){
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                             .body(ApiErrorResponse.of(HttpStatus.CONFLICT.value(), ex.getMessage(), null));
+    }
+
+    @ExceptionHandler(InsufficientAvailabilityException.class)
+    public ResponseEntity<?> handleInsufficientAvailability(InsufficientAvailabilityException ex){
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                             .body(ApiErrorResponse.of(HttpStatus.UNPROCESSABLE_ENTITY.value(), "Insufficient stock", ex.getShortages()));
+    }
+
+    @ExceptionHandler(OrderWritesOverloadedException.class)
+    public ResponseEntity<?> handleOverloaded(OrderWritesOverloadedException ex){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                             .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                             .body(ApiErrorResponse.of(HttpStatus.SERVICE_UNAVAILABLE.value(), "Order service is overloaded, retry later",
+                                     Map.of("reason", ex.getReason())));
+    }
+
 
 
 
@@ -1,6 +1,7 @@
 package com.oms.orderservice.domain.model;
 
 import com.oms.eventcontracts.enums.OrderProgress;
+import com.oms.eventcontracts.ids.TimeOrderedId;
 import com.oms.orderservice.domain.lifecycle.OrderProgressTransitions;
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -21,7 +22,7 @@ import java.io.Serializable;
 public class Order implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     @Column(name = "order_id", updatable = false, nullable = false)
     private UUID id;
 
@@ -119,12 +120,12 @@ public class Order implements Serializable {
         
         if (this.progress == OrderProgress.ORDER_COMPLETED
                 || this.progress == OrderProgress.ORDER_FAILED) {
-            throw new IllegalStateException("Order is in terminal state");
+            throw new OrderStateConflictException("Order is in terminal state");
         }
 
         
         if (!OrderProgressTransitions.isCommandAllowed(this.progress, next)) {
-            throw new IllegalStateException(
+            throw new OrderStateConflictException(
                     "Illegal transition: " + this.progress + " → " + next);
         }
 
@@ -135,16 +136,12 @@ public class Order implements Serializable {
         updateSubStatuses(next);
 
         
+        this.status = OrderStatus.forProgress(next);
         switch (next) {
-            case ORDER_COMPLETED -> {
-                this.status = OrderStatus.COMPLETED;
-                this.completedAt = Instant.now();
-            }
-            case ORDER_FAILED -> {
-                this.status = OrderStatus.CANCELLED;
-                this.cancelledAt = Instant.now();
+            case ORDER_COMPLETED -> this.completedAt = Instant.now();
+            case ORDER_FAILED -> this.cancelledAt = Instant.now();
+            default -> {
             }
-            default -> this.status = OrderStatus.PENDING;
         }
     }
 
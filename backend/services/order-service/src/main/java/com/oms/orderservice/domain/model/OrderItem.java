@@ -1,5 +1,6 @@
 package com.oms.orderservice.domain.model;
 
+import com.oms.eventcontracts.ids.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Getter;
 
@@ -10,13 +11,13 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import java.io.Serializable;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = @Index(name = "idx_order_items_order_id", columnList = "order_id"))
 @Getter
 @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 public class OrderItem implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     @Column(name = "order_item_id", updatable = false, nullable = false)
     private UUID id;
 
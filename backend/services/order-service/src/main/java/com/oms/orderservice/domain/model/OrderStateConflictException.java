@@ -0,0 +1,13 @@
+package com.oms.orderservice.domain.model;
+
+/**
+ * A change the order's current state no longer allows, such as cancelling a
+ * completed order. It is the caller's conflict, not a server fault, and is
+ * answered with 409.
+ */
+public class OrderStateConflictException extends IllegalStateException {
+
+    public OrderStateConflictException(String message) {
+        super(message);
+    }
+}
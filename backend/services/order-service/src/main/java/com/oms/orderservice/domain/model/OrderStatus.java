@@ -1,11 +1,19 @@
 package com.oms.orderservice.domain.model;
 
+import com.oms.eventcontracts.enums.OrderProgress;
+
 public enum OrderStatus {
     PENDING,     
     COMPLETED,   
     CANCELLED,   
-    FAILED       
-}
-
-
+    FAILED;
 
+    /** The status an order has once it reaches {@code progress}. */
+    public static OrderStatus forProgress(OrderProgress progress) {
+        return switch (progress) {
+            case ORDER_COMPLETED -> COMPLETED;
+            case ORDER_FAILED -> CANCELLED;
+            default -> PENDING;
+        };
+    }
+}
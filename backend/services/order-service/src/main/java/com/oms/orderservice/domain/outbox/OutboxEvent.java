@@ -1,5 +1,6 @@
 package com.oms.orderservice.domain.outbox;
 
+import com.oms.eventcontracts.ids.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import org.hibernate.annotations.JdbcTypeCode; 
@@ -9,12 +10,15 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "outbox_events")
+@Table(
+        name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_events_aggregate_created", columnList = "aggregate_id, created_at")
+)
 @Getter
 public class OutboxEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(name = "aggregate_id", nullable = false)
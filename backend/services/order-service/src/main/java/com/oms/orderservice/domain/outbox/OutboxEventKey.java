@@ -0,0 +1,16 @@
+package com.oms.orderservice.domain.outbox;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Primary key of a row in the partitioned {@code outbox_events} table.
+ * {@code created_at} is the partition key, so it is carried along with the id
+ * wherever rows are addressed individually.
+ */
+public record OutboxEventKey(UUID id, Instant createdAt) {
+
+    public static OutboxEventKey of(OutboxEvent event) {
+        return new OutboxEventKey(event.getId(), event.getCreatedAt());
+    }
+}
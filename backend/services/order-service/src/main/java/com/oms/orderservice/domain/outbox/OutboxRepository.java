@@ -7,14 +7,28 @@ import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.UUID;
 
-public interface OutboxRepository extends JpaRepository<OutboxEvent, UUID> {
+public interface OutboxRepository extends JpaRepository<OutboxEvent, UUID>, OutboxStatusUpdates {
+
+    /**
+     * Claims up to {@code limit} publishable events. Only the oldest pending
+     * event of each aggregate is eligible, which keeps per-aggregate ordering
+     * across relay lanes and across instances.
+     */
     @Query(value = """
     SELECT *
-    FROM outbox_events
-    WHERE status = 'NEW'
-    AND retry_count < 3
-    AND (next_retry_at IS NULL OR next_retry_at <= now())
-    ORDER BY created_at
+    FROM outbox_events e
+    WHERE e.status = 'NEW'
+    AND e.retry_count < 3
+    AND (e.next_retry_at IS NULL OR e.next_retry_at <= now())
+    AND NOT EXISTS (
+        SELECT 1
+        FROM outbox_events prior
+        WHERE prior.aggregate_id = e.aggregate_id
+        AND prior.status = 'NEW'
+        AND prior.retry_count < 3
+        AND prior.created_at < e.created_at
+    )
+    ORDER BY e.created_at
     LIMIT :limit
     FOR UPDATE SKIP LOCKED
 """, nativeQuery = true)
@@ -0,0 +1,14 @@
+package com.oms.orderservice.domain.outbox;
+
+import java.util.Collection;
+
+/**
+ * Bulk status updates addressed by full primary key, so that each statement
+ * only touches the daily partitions its rows live in.
+ */
+public interface OutboxStatusUpdates {
+
+    int markSent(Collection<OutboxEventKey> keys);
+
+    int markFailed(Collection<OutboxEventKey> keys);
+}
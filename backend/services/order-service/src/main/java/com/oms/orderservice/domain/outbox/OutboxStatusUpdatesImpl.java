@@ -0,0 +1,65 @@
+package com.oms.orderservice.domain.outbox;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+
+class OutboxStatusUpdatesImpl implements OutboxStatusUpdates {
+
+    /**
+     * Matches rows on (id, created_at). The pairs are joined in from arrays,
+     * which the planner cannot prune on, so the batch's created_at range is
+     * repeated as a plain bound; that prunes every partition outside it,
+     * including the history partition, when the statement starts.
+     */
+    private static final String UPDATE_STATUS = """
+            UPDATE outbox_events e
+            SET status = ?
+            FROM unnest(?::uuid[], ?::timestamptz[]) AS k (id, created_at)
+            WHERE e.id = k.id
+            AND e.created_at = k.created_at
+            AND e.created_at BETWEEN ? AND ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    OutboxStatusUpdatesImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int markSent(Collection<OutboxEventKey> keys) {
+        return updateStatus(OutboxStatus.SENT, keys);
+    }
+
+    @Override
+    public int markFailed(Collection<OutboxEventKey> keys) {
+        return updateStatus(OutboxStatus.FAILED, keys);
+    }
+
+    private int updateStatus(OutboxStatus status, Collection<OutboxEventKey> keys) {
+
+        if (keys.isEmpty()) {
+            return 0;
+        }
+
+        Object[] ids = keys.stream().map(OutboxEventKey::id).toArray();
+        Object[] createdAts = keys.stream().map(key -> key.createdAt().toString()).toArray();
+        Instant oldest = keys.stream().map(OutboxEventKey::createdAt).min(Comparator.naturalOrder()).orElseThrow();
+        Instant newest = keys.stream().map(OutboxEventKey::createdAt).max(Comparator.naturalOrder()).orElseThrow();
+
+        return jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(UPDATE_STATUS);
+            statement.setString(1, status.name());
+            statement.setArray(2, connection.createArrayOf("uuid", ids));
+            statement.setArray(3, connection.createArrayOf("timestamptz", createdAts));
+            statement.setObject(4, OffsetDateTime.ofInstant(oldest, ZoneOffset.UTC));
+            statement.setObject(5, OffsetDateTime.ofInstant(newest, ZoneOffset.UTC));
+            return statement;
+        });
+    }
+}
@@ -1,52 +1,74 @@
 package com.oms.orderservice.domain.repository;
 
+import com.oms.orderservice.api.dto.OrderCursor;
 import com.oms.orderservice.api.dto.OrderSummaryResponse;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Order listings, newest first, one keyset page at a time.
+ *
+ * Reads the {@code order_view} read model, which carries the first product
+ * of each order, so a page is a single range scan of its covering index.
+ * Rows the projection has only seen a progress event for yet have no
+ * {@code created_at} and are left out until their creation event arrives.
+ */
 @Repository
 public class OrderQueryRepository {
 
+    private static final String PAGE = """
+            SELECT order_id, status, created_at, first_product_id
+            FROM order_view
+            WHERE created_at IS NOT NULL AND %s
+            ORDER BY created_at DESC, order_id DESC
+            LIMIT ?
+            """;
+
+    private static final RowMapper<OrderSummaryResponse> SUMMARY = (rs, i) -> new OrderSummaryResponse(
+            UUID.fromString(rs.getString("order_id")),
+            rs.getString("status"),
+            rs.getTimestamp("created_at").toInstant(),
+            rs.getString("first_product_id"));
+
     private final JdbcTemplate jdbcTemplate;
 
     public OrderQueryRepository(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
     }
 
-    public List<OrderSummaryResponse> findRecent(int limit) {
-        return jdbcTemplate.query(
-                """
-                        SELECT o.order_id, o.status, o.created_at, 
-                               (SELECT product_id FROM order_items WHERE order_id = o.order_id LIMIT 1) as product_id
-                        FROM orders o
-                        ORDER BY o.created_at DESC
-                        LIMIT ?
-                        """,
-                (rs, i) -> new OrderSummaryResponse(
-                        UUID.fromString(rs.getString("order_id")),
-                        rs.getString("status"),
-                        rs.getTimestamp("created_at").toInstant(),
-                        rs.getString("product_id")),
-                limit);
+    /** Up to {@code limit} orders placed before {@code after}, or the newest ones when it is {@code null}. */
+    public List<OrderSummaryResponse> findRecent(OrderCursor after, int limit) {
+        return page(null, after, limit);
+    }
+
+    /** Like {@link #findRecent}, restricted to one customer's orders. */
+    public List<OrderSummaryResponse> findByCustomerEmail(String email, OrderCursor after, int limit) {
+        return page(email, after, limit);
     }
 
-    public List<OrderSummaryResponse> findByCustomerEmail(String email) {
-        return jdbcTemplate.query(
-                """
-                        SELECT o.order_id, o.status, o.created_at,
-                               (SELECT product_id FROM order_items WHERE order_id = o.order_id LIMIT 1) as product_id
-                        FROM orders o
-                        WHERE o.customer_email = ?
-                        ORDER BY o.created_at DESC
-                        """,
-                (rs, i) -> new OrderSummaryResponse(
-                        UUID.fromString(rs.getString("order_id")),
-                        rs.getString("status"),
-                        rs.getTimestamp("created_at").toInstant(),
-                        rs.getString("product_id")),
-                email);
+    private List<OrderSummaryResponse> page(String email, OrderCursor after, int limit) {
+
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+
+        if (email != null) {
+            conditions.add("customer_email = ?");
+            args.add(email);
+        }
+        if (after != null) {
+            conditions.add("(created_at, order_id) < (?, ?)");
+            args.add(Timestamp.from(after.createdAt()));
+            args.add(after.orderId());
+        }
+        args.add(limit);
+
+        String where = conditions.isEmpty() ? "true" : String.join(" AND ", conditions);
+        return jdbcTemplate.query(PAGE.formatted(where), SUMMARY, args.toArray());
     }
 }
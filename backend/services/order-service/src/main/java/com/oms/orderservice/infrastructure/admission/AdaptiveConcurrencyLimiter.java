@@ -0,0 +1,266 @@
+package com.oms.orderservice.infrastructure.admission;
+
+import com.oms.orderservice.infrastructure.chaos.ChaosController;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * How many order writes may run at once, adjusted to the latency they see.
+ *
+ * Completed requests are averaged per window (at least a second and ten
+ * requests) and compared with a slow-moving baseline. While a window stays
+ * within 1.5x the baseline and the limit is actually in use, the limit grows
+ * by about its square root; beyond that it shrinks in proportion to the
+ * slowdown, down to half per window. A failed request cuts it by 10% at once.
+ * Requests over the limit are refused instead of queueing for a database or
+ * Redis connection.
+ *
+ * A positive {@link ChaosController#maxTps} is enforced on top as a token
+ * bucket, one token per order, and also caps the limit at what that rate
+ * needs at the baseline latency (Little's law).
+ *
+ * Requests of very different cost must not share a limiter: their latencies
+ * would blur one baseline. {@link OrderAdmissionConfig} keeps single writes
+ * and batches apart, each metric tagged with its endpoint.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    static final String CONCURRENCY = "concurrency";
+    static final String RATE = "rate";
+
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final int BASELINE_WINDOWS = 60;
+    private static final long WINDOW_NANOS = Duration.ofSeconds(1).toNanos();
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration retryAfter;
+    private final IntSupplier maxTps;
+    private final LongSupplier nanoClock;
+
+    private final Counter concurrencyRejections;
+    private final Counter rateRejections;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // written under the lock, volatile for the gauges
+    private volatile double limit;
+    private volatile int inFlight;
+    private double baselineRttNanos;
+    private long windowStart;
+    private long windowRttNanos;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private int bucketTps = -1;
+    private double tokens;
+    private long tokensRefilledAt;
+
+    public AdaptiveConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            String endpoint,
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            Duration retryAfter
+    ) {
+        this(meterRegistry, endpoint, initialLimit, minLimit, maxLimit, retryAfter,
+                () -> ChaosController.maxTps, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            String endpoint,
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            Duration retryAfter,
+            IntSupplier maxTps,
+            LongSupplier nanoClock
+    ) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.retryAfter = retryAfter;
+        this.maxTps = maxTps;
+        this.nanoClock = nanoClock;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.windowStart = nanoClock.getAsLong();
+
+        Gauge.builder("omniorder_order_admission_limit", this, AdaptiveConcurrencyLimiter::limit)
+                .description("Order write requests currently allowed to run at once")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("omniorder_order_admission_in_flight", this, limiter -> limiter.inFlight)
+                .description("Order write requests running now")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        this.concurrencyRejections = rejections(meterRegistry, endpoint, CONCURRENCY);
+        this.rateRejections = rejections(meterRegistry, endpoint, RATE);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String endpoint, String reason) {
+        return Counter.builder("omniorder_order_admission_rejected_total")
+                .description("Order write requests refused with 503, by the limit they hit")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits one request carrying a single order, or throws
+     * {@link OrderWritesOverloadedException}. The permit must be released
+     * exactly once.
+     */
+    public Permit acquire() {
+        return acquire(1);
+    }
+
+    /**
+     * Admits one request carrying {@code orders} orders. It takes one slot
+     * of the limit, and as many rate tokens as it has orders, capped at one
+     * second's worth so that a large batch can still get through.
+     */
+    public Permit acquire(int orders) {
+        long now = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            int tps = maxTps.getAsInt();
+            if (inFlight >= allowedInFlight(tps)) {
+                concurrencyRejections.increment();
+                throw new OrderWritesOverloadedException(CONCURRENCY, retryAfter);
+            }
+            if (tps > 0 && !takeTokens(tps, Math.max(1, Math.min(orders, tps)), now)) {
+                rateRejections.increment();
+                throw new OrderWritesOverloadedException(RATE, retryAfter);
+            }
+            inFlight++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+            return new Permit(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    private int allowedInFlight(int tps) {
+        int allowed = (int) limit;
+        if (tps > 0 && baselineRttNanos > 0) {
+            int forRate = (int) Math.ceil(tps * baselineRttNanos / 1e9);
+            allowed = Math.min(allowed, Math.max(1, forRate));
+        }
+        return allowed;
+    }
+
+    private boolean takeTokens(int tps, int count, long now) {
+        if (tps != bucketTps) {
+            bucketTps = tps;
+            tokens = tps;
+        } else {
+            tokens = Math.min(tps, tokens + (now - tokensRefilledAt) * tps / 1e9);
+        }
+        tokensRefilledAt = now;
+        if (tokens < count) {
+            return false;
+        }
+        tokens -= count;
+        return true;
+    }
+
+    private void release(long startedAt, Outcome outcome) {
+        long now = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            inFlight--;
+            switch (outcome) {
+                case SUCCEEDED -> {
+                    windowRttNanos += now - startedAt;
+                    windowSamples++;
+                    if (now - windowStart >= WINDOW_NANOS && windowSamples >= MIN_WINDOW_SAMPLES) {
+                        closeWindow(now);
+                    }
+                }
+                case FAILED -> limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                case IGNORED -> { }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeWindow(long now) {
+        double rtt = Math.max(1.0, (double) windowRttNanos / windowSamples);
+        if (baselineRttNanos == 0) {
+            baselineRttNanos = rtt;
+        } else {
+            baselineRttNanos += (rtt - baselineRttNanos) / BASELINE_WINDOWS;
+            if (baselineRttNanos > 2 * rtt) {
+                // latency has recovered; don't wait a full baseline period to notice
+                baselineRttNanos *= 0.95;
+            }
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, RTT_TOLERANCE * baselineRttNanos / rtt));
+        boolean inUse = windowMaxInFlight * 2 >= limit;
+        double target = limit * gradient + (inUse ? Math.sqrt(limit) : 0);
+        double previous = limit;
+        limit = Math.max(minLimit, Math.min(maxLimit, previous + SMOOTHING * (target - previous)));
+
+        if ((int) previous != (int) limit) {
+            log.debug("Order write limit {} -> {} (window rtt {} ms, baseline {} ms)",
+                    (int) previous, (int) limit, Math.round(rtt / 1e6), Math.round(baselineRttNanos / 1e6));
+        }
+
+        windowStart = now;
+        windowRttNanos = 0;
+        windowSamples = 0;
+        windowMaxInFlight = inFlight;
+    }
+
+    private enum Outcome { SUCCEEDED, FAILED, IGNORED }
+
+    /** One admitted request. */
+    public final class Permit {
+
+        private final long startedAt;
+        private boolean released;
+
+        private Permit(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        /** The request completed; its latency feeds the limit. */
+        public void succeeded() {
+            release(Outcome.SUCCEEDED);
+        }
+
+        /** The request failed on our side; the limit backs off. */
+        public void failed() {
+            release(Outcome.FAILED);
+        }
+
+        /** The request ended early for reasons that say nothing about load, such as bad input. */
+        public void ignored() {
+            release(Outcome.IGNORED);
+        }
+
+        private void release(Outcome outcome) {
+            if (!released) {
+                released = true;
+                AdaptiveConcurrencyLimiter.this.release(startedAt, outcome);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.oms.orderservice.infrastructure.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * One {@link AdaptiveConcurrencyLimiter} for the single-order writes and
+ * another for {@code POST /orders/batch}. A batch of up to 500 orders holds
+ * its permit far longer than a single order does; in one limiter it would
+ * both take a slot worth one order and push the shared latency baseline
+ * around.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderAdmissionConfig {
+
+    public static final String ORDER_WRITES = "orderWriteLimiter";
+    public static final String BATCH_WRITES = "batchOrderWriteLimiter";
+
+    @Bean(ORDER_WRITES)
+    public AdaptiveConcurrencyLimiter orderWriteLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${order.admission.initial-limit:20}") int initialLimit,
+            @Value("${order.admission.min-limit:5}") int minLimit,
+            @Value("${order.admission.max-limit:200}") int maxLimit,
+            @Value("${order.admission.retry-after:PT1S}") Duration retryAfter
+    ) {
+        return new AdaptiveConcurrencyLimiter(meterRegistry, "orders", initialLimit, minLimit, maxLimit, retryAfter);
+    }
+
+    @Bean(BATCH_WRITES)
+    public AdaptiveConcurrencyLimiter batchOrderWriteLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${order.admission.batch.initial-limit:4}") int initialLimit,
+            @Value("${order.admission.batch.min-limit:1}") int minLimit,
+            @Value("${order.admission.batch.max-limit:20}") int maxLimit,
+            @Value("${order.admission.retry-after:PT1S}") Duration retryAfter
+    ) {
+        return new AdaptiveConcurrencyLimiter(meterRegistry, "batch", initialLimit, minLimit, maxLimit, retryAfter);
+    }
+}
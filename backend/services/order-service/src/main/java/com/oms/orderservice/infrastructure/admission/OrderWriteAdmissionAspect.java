@@ -0,0 +1,83 @@
+package com.oms.orderservice.infrastructure.admission;
+
+import com.oms.orderservice.api.dto.BatchCreateOrderRequest;
+import com.oms.orderservice.application.availability.InsufficientAvailabilityException;
+import com.oms.orderservice.domain.model.OrderStateConflictException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Puts the {@code OrderController} write endpoints behind
+ * {@link AdaptiveConcurrencyLimiter}: {@code POST /orders/batch} behind its
+ * own, the rest behind a shared one. A refused request fails before it
+ * touches Redis or the database, and is answered with 503 and Retry-After.
+ * Client errors release their permit without a latency sample; any other
+ * failure counts against the limit.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "order.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderWriteAdmissionAspect {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final AdaptiveConcurrencyLimiter batchLimiter;
+
+    public OrderWriteAdmissionAspect(
+            @Qualifier(OrderAdmissionConfig.ORDER_WRITES) AdaptiveConcurrencyLimiter limiter,
+            @Qualifier(OrderAdmissionConfig.BATCH_WRITES) AdaptiveConcurrencyLimiter batchLimiter
+    ) {
+        this.limiter = limiter;
+        this.batchLimiter = batchLimiter;
+    }
+
+    @Pointcut("execution(* com.oms.orderservice.api.OrderController.*(..)) && ("
+            + "@annotation(org.springframework.web.bind.annotation.PostMapping) || "
+            + "@annotation(org.springframework.web.bind.annotation.PutMapping))")
+    void writeEndpoints() {
+    }
+
+    @Pointcut("execution(* com.oms.orderservice.api.OrderController.createOrders(..))")
+    void batchEndpoint() {
+    }
+
+    @Around("writeEndpoints() && !batchEndpoint()")
+    public Object admit(ProceedingJoinPoint call) throws Throwable {
+        return proceed(call, limiter.acquire());
+    }
+
+    @Around("batchEndpoint() && args(.., request)")
+    public Object admitBatch(ProceedingJoinPoint call, BatchCreateOrderRequest request) throws Throwable {
+        int orders = request.getOrders() == null ? 1 : request.getOrders().size();
+        return proceed(call, batchLimiter.acquire(orders));
+    }
+
+    private static Object proceed(ProceedingJoinPoint call, AdaptiveConcurrencyLimiter.Permit permit) throws Throwable {
+        try {
+            Object result = call.proceed();
+            permit.succeeded();
+            return result;
+        } catch (Throwable ex) {
+            if (isClientError(ex)) {
+                permit.ignored();
+            } else {
+                permit.failed();
+            }
+            throw ex;
+        }
+    }
+
+    static boolean isClientError(Throwable ex) {
+        if (ex instanceof ResponseStatusException statusException) {
+            return statusException.getStatusCode().is4xxClientError();
+        }
+        return ex instanceof IllegalArgumentException
+                || ex instanceof OrderStateConflictException
+                || ex instanceof InsufficientAvailabilityException;
+    }
+}
@@ -0,0 +1,19 @@
+package com.oms.orderservice.infrastructure.admission;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class OrderWritesOverloadedException extends RuntimeException {
+
+    /** {@code concurrency} or {@code rate}, as in the rejected-requests metric. */
+    private final String reason;
+    private final Duration retryAfter;
+
+    public OrderWritesOverloadedException(String reason, Duration retryAfter) {
+        super("Order writes are over their " + reason + " limit");
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -37,8 +37,9 @@ public class ChaosController {
 
     /**
      * POST /chaos/throttle?tps=N
-     * Set a max TPS cap on order processing (use -1 to remove throttle).
-     * Enforced via a RateLimiter in the order command service.
+     * Set a max TPS cap on order writes (use -1 to remove throttle).
+     * Enforced by the admission limiter in front of the order endpoints;
+     * requests over the cap get 503 with Retry-After.
      */
     @PostMapping("/throttle")
     public String setThrottle(@RequestParam int tps) {
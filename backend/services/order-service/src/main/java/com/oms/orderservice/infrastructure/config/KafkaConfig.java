@@ -2,6 +2,8 @@ package com.oms.orderservice.infrastructure.config;
 
 import org.apache.kafka.common.serialization.StringDeserializer;
 import com.oms.eventcontracts.commands.AdvanceOrderProgressCommand;
+import com.oms.eventcontracts.events.InventoryAvailabilityEvent;
+import com.oms.eventcontracts.events.OrderProgressUpdatedEvent;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.TopicPartition;
@@ -18,12 +20,14 @@ import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @EnableKafka
 @Configuration
@@ -77,6 +81,8 @@ public class KafkaConfig {
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, consumerGroupId);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // skip saga commands from aborted orchestrator transactions
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
 
         return new DefaultKafkaConsumerFactory<>(
                 props,
@@ -99,6 +105,90 @@ public class KafkaConfig {
 
     
 
+    /**
+     * Every instance keeps its own full availability view, so it replays the
+     * compacted topic from the start.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, InventoryAvailabilityEvent> inventoryAvailabilityKafkaListenerContainerFactory() {
+        return broadcastListenerContainerFactory(InventoryAvailabilityEvent.class, "availability", "earliest");
+    }
+
+    /**
+     * Every instance moves its own cached order statuses forward; entries
+     * are only cached after startup, so earlier events are of no use.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderProgressUpdatedEvent> orderProgressKafkaListenerContainerFactory() {
+        return broadcastListenerContainerFactory(OrderProgressUpdatedEvent.class, "progress", "latest");
+    }
+
+    /**
+     * The read model lives in the shared database, so its consumer group is
+     * shared too. A group without committed offsets (a new deployment, or a
+     * new {@code order.projection.group-id}) builds the view from the start
+     * of the topics. Failed batches are retried until they apply, since a
+     * skipped batch would leave the view permanently behind.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> orderViewProjectionKafkaListenerContainerFactory(
+            @Value("${order.projection.group-id:order-view-projection}") String projectionGroupId,
+            @Value("${order.projection.max-poll-records:500}") int maxPollRecords) {
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, projectionGroupId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(1000L, FixedBackOff.UNLIMITED_ATTEMPTS)));
+
+        return factory;
+    }
+
+    /**
+     * Batch listener that sees every record of its topics: each instance
+     * joins with a consumer group of its own.
+     */
+    private <T> ConcurrentKafkaListenerContainerFactory<String, T> broadcastListenerContainerFactory(
+            Class<T> valueType, String purpose, String offsetReset) {
+
+        JsonDeserializer<T> valueDeserializer = new JsonDeserializer<>(valueType);
+
+        valueDeserializer.addTrustedPackages("com.oms.eventcontracts");
+        valueDeserializer.setUseTypeHeaders(false);
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, consumerGroupId + "-" + purpose + "-" + UUID.randomUUID());
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, offsetReset);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        // an unreadable record arrives as null instead of stalling the batch
+        ConsumerFactory<String, T> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(valueDeserializer));
+
+        ConcurrentKafkaListenerContainerFactory<String, T> factory = new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        return factory;
+    }
+
+    
+
     @Bean
     public ConsumerFactory<String, String> dlqConsumerFactory() {
         Map<String, Object> props = new HashMap<>();
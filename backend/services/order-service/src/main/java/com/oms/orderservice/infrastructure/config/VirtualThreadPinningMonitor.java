@@ -0,0 +1,140 @@
+package com.oms.orderservice.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, from the JDK's
+ * own {@code jdk.VirtualThreadPinned} event. Each pin is attributed to the
+ * client library it happened in (JDBC driver, pool, Redis, Kafka), so a
+ * library that blocks inside {@code synchronized} shows up as a source in
+ * {@code omniorder_virtual_thread_pinned_seconds}. The stack of a pin is
+ * logged at most once a minute per source.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final Duration LOG_INTERVAL = Duration.ofMinutes(1);
+    private static final int LOGGED_FRAMES = 12;
+
+    private static final Map<String, String> SOURCES = Map.of(
+            "org.postgresql.", "postgres-jdbc",
+            "com.zaxxer.hikari.", "hikari",
+            "org.hibernate.", "hibernate",
+            "io.lettuce.", "lettuce",
+            "org.springframework.data.redis.", "spring-data-redis",
+            "org.apache.kafka.", "kafka-client");
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Map<String, Long> lastLogged = new ConcurrentHashMap<>();
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${diagnostics.virtual-threads.pinned-threshold:PT0.02S}") Duration threshold
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED, this::record);
+        recording.startAsync();
+        stream = recording;
+        log.info("Reporting virtual thread pins longer than {}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void record(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null
+                ? event.getStackTrace().getFrames()
+                : List.of();
+        String source = sourceOf(frames);
+
+        Timer.builder("omniorder_virtual_thread_pinned_seconds")
+                .description("Time virtual threads spent pinned to their carrier thread, by client library")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        if (dueForLog(source)) {
+            log.warn("Virtual thread pinned for {} ms in {}:\n{}",
+                    event.getDuration().toMillis(), source, describe(event.getStackTrace()));
+        }
+    }
+
+    private boolean dueForLog(String source) {
+        long now = System.currentTimeMillis();
+        boolean[] due = {false};
+        lastLogged.compute(source, (key, previous) -> {
+            if (previous == null || now - previous >= LOG_INTERVAL.toMillis()) {
+                due[0] = true;
+                return now;
+            }
+            return previous;
+        });
+        return due[0];
+    }
+
+    private static String sourceOf(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod() == null || frame.getMethod().getType() == null) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            for (Map.Entry<String, String> source : SOURCES.entrySet()) {
+                if (type.startsWith(source.getKey())) {
+                    return source.getValue();
+                }
+            }
+        }
+        return "other";
+    }
+
+    private static String describe(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "    (no stack trace)";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "    at " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
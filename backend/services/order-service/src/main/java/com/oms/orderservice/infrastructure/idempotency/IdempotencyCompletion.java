@@ -0,0 +1,7 @@
+package com.oms.orderservice.infrastructure.idempotency;
+
+import java.util.UUID;
+
+/** The outcome to store under an Idempotency-Key once its order exists. */
+public record IdempotencyCompletion(String idempotencyKey, UUID orderId, String response) {
+}
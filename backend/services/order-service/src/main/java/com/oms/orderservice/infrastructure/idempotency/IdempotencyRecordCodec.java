@@ -0,0 +1,85 @@
+package com.oms.orderservice.infrastructure.idempotency;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oms.orderservice.domain.idempotency.IdempotencyStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Fixed-layout encoding of an {@link IdempotencyRecord} as stored in Redis:
+ *
+ * <pre>
+ * version:1 | status:1 | hasOrderId:1 | createdAt epoch millis:8 | orderId:16 | response UTF-8...
+ * </pre>
+ *
+ * Records written by earlier versions as polymorphic JSON are still read,
+ * so keys created before a deployment keep answering retries.
+ */
+final class IdempotencyRecordCodec {
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 3 + Long.BYTES + 2 * Long.BYTES;
+
+    private static final ObjectMapper LEGACY_MAPPER = new ObjectMapper();
+
+    private IdempotencyRecordCodec() {}
+
+    static byte[] encode(IdempotencyRecord record) {
+        byte[] response = record.getResponse() != null
+                ? record.getResponse().getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        UUID orderId = record.getOrderId();
+
+        return ByteBuffer.allocate(HEADER_LENGTH + response.length)
+                .put(VERSION)
+                .put((byte) record.getStatus().ordinal())
+                .put((byte) (orderId != null ? 1 : 0))
+                .putLong(record.getCreatedAt() != null ? record.getCreatedAt().toEpochMilli() : 0L)
+                .putLong(orderId != null ? orderId.getMostSignificantBits() : 0L)
+                .putLong(orderId != null ? orderId.getLeastSignificantBits() : 0L)
+                .put(response)
+                .array();
+    }
+
+    static IdempotencyRecord decode(byte[] bytes) {
+        if (bytes.length > 0 && bytes[0] == '{') {
+            return decodeLegacy(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[0] != VERSION || bytes[1] >= IdempotencyStatus.values().length) {
+            throw new IllegalStateException("Corrupted idempotency record in Redis");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        IdempotencyStatus status = IdempotencyStatus.values()[buffer.get()];
+        boolean hasOrderId = buffer.get() == 1;
+        Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+        long mostSignificant = buffer.getLong();
+        long leastSignificant = buffer.getLong();
+        String response = buffer.hasRemaining()
+                ? new String(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, StandardCharsets.UTF_8)
+                : null;
+
+        return new IdempotencyRecord(
+                status,
+                hasOrderId ? new UUID(mostSignificant, leastSignificant) : null,
+                response,
+                createdAt);
+    }
+
+    private static IdempotencyRecord decodeLegacy(byte[] bytes) {
+        try {
+            JsonNode node = LEGACY_MAPPER.readTree(bytes);
+            return new IdempotencyRecord(
+                    IdempotencyStatus.valueOf(node.path("status").asText()),
+                    node.hasNonNull("orderId") ? UUID.fromString(node.get("orderId").asText()) : null,
+                    node.hasNonNull("response") ? node.get("response").asText() : null,
+                    node.hasNonNull("createdAt") ? Instant.parse(node.get("createdAt").asText()) : null);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Corrupted idempotency record in Redis", ex);
+        }
+    }
+}
@@ -1,63 +1,242 @@
 package com.oms.orderservice.infrastructure.idempotency;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.oms.orderservice.domain.idempotency.IdempotencyStatus;
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.RedisTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Idempotency-Key bookkeeping for {@code POST /orders}.
+ *
+ * Acquiring is one script call that either claims the key or returns the
+ * record already stored under it. Completed records never change before
+ * they expire, so they are also kept in memory: a client retrying a request
+ * that has already succeeded is answered without going to Redis.
+ */
 @Service
-@RequiredArgsConstructor
 public class IdempotencyService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
-
-    
-    
     private static final Duration IN_PROGRESS_TTL = Duration.ofSeconds(60);
-    private static final Duration COMPLETED_TTL = Duration.ofHours(24);
+
+    // returns the existing record, or nil after claiming the key
+    private static final RedisScript<byte[]> ACQUIRE = new DefaultRedisScript<>("""
+            local existing = redis.call('GET', KEYS[1])
+            if existing then
+                return existing
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return false
+            """, byte[].class);
+
+    // the same for every key in order; claimed keys answer with an empty string
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ACQUIRE_ALL = new DefaultRedisScript<>("""
+            local results = {}
+            for i, key in ipairs(KEYS) do
+                local existing = redis.call('GET', key)
+                if existing then
+                    results[i] = existing
+                else
+                    redis.call('SET', key, ARGV[1], 'PX', ARGV[2])
+                    results[i] = ''
+                end
+            end
+            return results
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration completedTtl;
+    private final Cache<String, IdempotencyRecord> completed;
+
+    private final Counter acquired;
+    private final Counter completedLocal;
+    private final Counter completedRemote;
+    private final Counter inProgress;
+
+    public IdempotencyService(
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.order.ttl-hours:24}") long ttlHours,
+            @Value("${idempotency.order.local-max-size:10000}") long localMaxSize,
+            @Value("${idempotency.order.local-ttl:PT10M}") Duration localTtl
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.completedTtl = Duration.ofHours(ttlHours);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl.compareTo(completedTtl) < 0 ? localTtl : completedTtl)
+                .build();
+
+        this.acquired = acquireCounter(meterRegistry, "acquired");
+        this.completedLocal = acquireCounter(meterRegistry, "completed_local");
+        this.completedRemote = acquireCounter(meterRegistry, "completed");
+        this.inProgress = acquireCounter(meterRegistry, "in_progress");
+    }
 
     public IdempotencyResult tryAcquire(String idempotencyKey) {
         String redisKey = IdempotencyKeyUtil.orderCreate(idempotencyKey);
 
+        IdempotencyRecord local = completed.getIfPresent(redisKey);
+        if (local != null) {
+            completedLocal.increment();
+            return IdempotencyResult.completed(local);
+        }
+
         IdempotencyRecord newRecord = new IdempotencyRecord(
                 IdempotencyStatus.IN_PROGRESS,
                 null,
                 null,
                 Instant.now());
 
-        Boolean acquired = redisTemplate.opsForValue()
-                .setIfAbsent(redisKey, newRecord, IN_PROGRESS_TTL);
+        byte[] existing = redisTemplate.execute(
+                ACQUIRE,
+                RedisSerializer.byteArray(),
+                RedisSerializer.byteArray(),
+                List.of(redisKey),
+                IdempotencyRecordCodec.encode(newRecord),
+                Long.toString(IN_PROGRESS_TTL.toMillis()).getBytes(StandardCharsets.US_ASCII));
 
-        if (Boolean.TRUE.equals(acquired)) {
-            return IdempotencyResult.acquired();
-        }
+        return resultOf(redisKey, existing);
+    }
 
-        Object existing = redisTemplate.opsForValue().get(redisKey);
+    /**
+     * {@link #tryAcquire} for many keys in one script call. A key repeated
+     * in {@code idempotencyKeys} is acquired once and in progress after that.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<IdempotencyResult> tryAcquireAll(List<String> idempotencyKeys) {
+
+        IdempotencyResult[] results = new IdempotencyResult[idempotencyKeys.size()];
+        List<Integer> remote = new ArrayList<>();
+        List<String> remoteKeys = new ArrayList<>();
+
+        for (int i = 0; i < results.length; i++) {
+            String redisKey = IdempotencyKeyUtil.orderCreate(idempotencyKeys.get(i));
+            IdempotencyRecord local = completed.getIfPresent(redisKey);
+            if (local != null) {
+                completedLocal.increment();
+                results[i] = IdempotencyResult.completed(local);
+            } else {
+                remote.add(i);
+                remoteKeys.add(redisKey);
+            }
+        }
 
-        if (existing instanceof IdempotencyRecord existingRecord) {
-            return IdempotencyResult.from(existingRecord);
+        if (!remoteKeys.isEmpty()) {
+            IdempotencyRecord newRecord = new IdempotencyRecord(
+                    IdempotencyStatus.IN_PROGRESS,
+                    null,
+                    null,
+                    Instant.now());
+
+            List<byte[]> existing = redisTemplate.execute(
+                    ACQUIRE_ALL,
+                    RedisSerializer.byteArray(),
+                    (RedisSerializer) RedisSerializer.byteArray(),
+                    remoteKeys,
+                    IdempotencyRecordCodec.encode(newRecord),
+                    Long.toString(IN_PROGRESS_TTL.toMillis()).getBytes(StandardCharsets.US_ASCII));
+
+            for (int j = 0; j < remote.size(); j++) {
+                results[remote.get(j)] = resultOf(remoteKeys.get(j), existing.get(j));
+            }
         }
 
-        throw new IllegalStateException("Corrupted idempotency record in Redis");
+        return Arrays.asList(results);
     }
 
     public void markCompleted(String idempotencyKey, UUID orderId, String responseJson) {
         String redisKey = IdempotencyKeyUtil.orderCreate(idempotencyKey);
 
-        IdempotencyRecord completed = new IdempotencyRecord(IdempotencyStatus.COMPLETED, orderId, responseJson,
+        IdempotencyRecord record = new IdempotencyRecord(IdempotencyStatus.COMPLETED, orderId, responseJson,
                 Instant.now());
+        byte[] key = redisKey.getBytes(StandardCharsets.UTF_8);
+        byte[] value = IdempotencyRecordCodec.encode(record);
+
+        redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                .set(key, value, Expiration.from(completedTtl), SetOption.upsert()));
+        completed.put(redisKey, record);
+    }
 
-        redisTemplate.opsForValue()
-                .set(redisKey, completed, COMPLETED_TTL);
+    /** {@link #markCompleted} for many keys in one pipelined round trip. */
+    public void markAllCompleted(List<IdempotencyCompletion> completions) {
+        if (completions.isEmpty()) {
+            return;
+        }
 
+        Map<String, IdempotencyRecord> records = new LinkedHashMap<>();
+        for (IdempotencyCompletion completion : completions) {
+            records.put(IdempotencyKeyUtil.orderCreate(completion.idempotencyKey()), new IdempotencyRecord(
+                    IdempotencyStatus.COMPLETED, completion.orderId(), completion.response(), Instant.now()));
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            records.forEach((redisKey, record) -> connection.stringCommands().set(
+                    redisKey.getBytes(StandardCharsets.UTF_8),
+                    IdempotencyRecordCodec.encode(record),
+                    Expiration.from(completedTtl),
+                    SetOption.upsert()));
+            return null;
+        });
+        completed.putAll(records);
+    }
+
+    public void clearAll(Collection<String> idempotencyKeys) {
+        if (idempotencyKeys.isEmpty()) {
+            return;
+        }
+        List<String> redisKeys = idempotencyKeys.stream().map(IdempotencyKeyUtil::orderCreate).toList();
+        completed.invalidateAll(redisKeys);
+        redisTemplate.delete(redisKeys);
     }
 
     public void clear(String idempotencyKey) {
-        redisTemplate.delete(IdempotencyKeyUtil.orderCreate(idempotencyKey));
+        String redisKey = IdempotencyKeyUtil.orderCreate(idempotencyKey);
+        completed.invalidate(redisKey);
+        redisTemplate.delete(redisKey);
+    }
+
+    private IdempotencyResult resultOf(String redisKey, byte[] existing) {
+        if (existing == null || existing.length == 0) {
+            acquired.increment();
+            return IdempotencyResult.acquired();
+        }
+
+        IdempotencyRecord existingRecord = IdempotencyRecordCodec.decode(existing);
+        if (existingRecord.getStatus() == IdempotencyStatus.COMPLETED) {
+            completed.put(redisKey, existingRecord);
+            completedRemote.increment();
+        } else {
+            inProgress.increment();
+        }
+        return IdempotencyResult.from(existingRecord);
     }
 
+    private static Counter acquireCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("omniorder_idempotency_acquire_total")
+                .description("Idempotency-Key acquire attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
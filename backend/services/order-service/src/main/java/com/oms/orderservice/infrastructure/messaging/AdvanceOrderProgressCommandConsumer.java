@@ -4,6 +4,8 @@ package com.oms.orderservice.infrastructure.messaging;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.oms.eventcontracts.commands.AdvanceOrderProgressCommand;
 import com.oms.eventcontracts.events.OrderProgressUpdatedEvent;
+import com.oms.orderservice.application.cache.OrderStatusCache;
+import com.oms.orderservice.application.outbox.OutboxSignal;
 import com.oms.orderservice.domain.outbox.OutboxEvent;
 import com.oms.orderservice.domain.outbox.OutboxRepository;
 import com.oms.orderservice.domain.repository.OrderRepository;
@@ -26,6 +28,8 @@ public class AdvanceOrderProgressCommandConsumer {
 
     private final OutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
+    private final OutboxSignal outboxSignal;
+    private final OrderStatusCache orderStatusCache;
 
 
     @KafkaListener(
@@ -80,6 +84,8 @@ public class AdvanceOrderProgressCommandConsumer {
             );
 
             outboxRepository.save(outboxEvent);
+            outboxSignal.signalAfterCommit();
+            orderStatusCache.storeAfterCommit(order);
 
             
             ack.acknowledge();
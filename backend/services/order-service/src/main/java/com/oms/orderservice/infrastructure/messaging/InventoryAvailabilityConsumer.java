@@ -0,0 +1,28 @@
+package com.oms.orderservice.infrastructure.messaging;
+
+import com.oms.eventcontracts.events.InventoryAvailabilityEvent;
+import com.oms.orderservice.application.availability.AvailabilityView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class InventoryAvailabilityConsumer {
+
+    private final AvailabilityView availabilityView;
+
+    @KafkaListener(
+            topics = "${kafka.topics.inventory-availability:inventory.availability}",
+            containerFactory = "inventoryAvailabilityKafkaListenerContainerFactory"
+    )
+    public void handle(List<InventoryAvailabilityEvent> events) {
+        for (InventoryAvailabilityEvent event : events) {
+            if (event != null) {
+                availabilityView.apply(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.oms.orderservice.infrastructure.messaging;
+
+import com.oms.eventcontracts.events.OrderProgressUpdatedEvent;
+import com.oms.orderservice.application.cache.OrderStatusCache;
+import com.oms.orderservice.application.outbox.OutboxTopics;
+import com.oms.orderservice.application.progress.OrderProgressHub;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class OrderProgressUpdatedConsumer {
+
+    private final OrderStatusCache orderStatusCache;
+    private final OrderProgressHub orderProgressHub;
+
+    @KafkaListener(
+            topics = OutboxTopics.ORDER_PROGRESS_UPDATED,
+            containerFactory = "orderProgressKafkaListenerContainerFactory"
+    )
+    public void handle(List<OrderProgressUpdatedEvent> events) {
+        for (OrderProgressUpdatedEvent event : events) {
+            if (event != null && event.getOrderId() != null && event.getProgress() != null) {
+                // cache first, so a stream that subscribes and then reads the status cannot miss this event
+                orderStatusCache.advance(event.getOrderId(), event.getProgress());
+                orderProgressHub.publish(event.getOrderId(), event.getProgress());
+            }
+        }
+    }
+}
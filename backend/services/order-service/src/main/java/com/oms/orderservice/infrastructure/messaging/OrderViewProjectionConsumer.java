@@ -0,0 +1,44 @@
+package com.oms.orderservice.infrastructure.messaging;
+
+import com.oms.orderservice.application.outbox.OutboxTopics;
+import com.oms.orderservice.application.projection.OrderViewProjector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderViewProjectionConsumer extends AbstractConsumerSeekAware {
+
+    private final OrderViewProjector projector;
+
+    @KafkaListener(
+            topics = {OutboxTopics.ORDER_CREATED, OutboxTopics.ORDER_PROGRESS_UPDATED},
+            containerFactory = "orderViewProjectionKafkaListenerContainerFactory"
+    )
+    public void handle(List<ConsumerRecord<String, String>> records, Consumer<?, ?> consumer) {
+        projector.apply(records);
+        projector.recordLag(consumer.assignment().stream()
+                .mapToLong(partition -> consumer.currentLag(partition).orElse(0))
+                .sum());
+    }
+
+    /**
+     * Re-applies the topics from the beginning on the partitions this
+     * instance consumes. Safe over the existing view; run it on every
+     * instance to cover all partitions.
+     */
+    public int replay() {
+        var callbacks = getSeekCallbacks();
+        callbacks.forEach((partition, callback) -> callback.seekToBeginning(List.of(partition)));
+        log.info("Replaying order events into order_view on {} partitions", callbacks.size());
+        return callbacks.size();
+    }
+}
@@ -0,0 +1,78 @@
+-- Range-partitions outbox_events by day on created_at.
+-- An existing (Hibernate-created) table is kept as outbox_events_legacy and only
+-- its pending rows are carried over; it can be archived and dropped afterwards.
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class c
+               JOIN pg_namespace n ON n.oid = c.relnamespace
+               WHERE c.relname = 'outbox_events'
+                 AND n.nspname = current_schema()
+                 AND c.relkind = 'r') THEN
+        ALTER TABLE outbox_events RENAME TO outbox_events_legacy;
+        ALTER TABLE outbox_events_legacy RENAME CONSTRAINT outbox_events_pkey TO outbox_events_legacy_pkey;
+        ALTER INDEX IF EXISTS idx_outbox_events_aggregate_created RENAME TO idx_outbox_events_legacy_aggregate_created;
+    END IF;
+END $$;
+
+CREATE TABLE outbox_events (
+    id UUID NOT NULL,
+    aggregate_id UUID NOT NULL,
+    aggregate_type VARCHAR(255) NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    payload JSONB NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    retry_count INTEGER NOT NULL,
+    next_retry_at TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT outbox_events_pkey PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- The relay only ever scans pending rows.
+CREATE INDEX idx_outbox_events_pending ON outbox_events (created_at) WHERE status = 'NEW';
+CREATE INDEX idx_outbox_events_aggregate_created ON outbox_events (aggregate_id, created_at) WHERE status = 'NEW';
+
+-- Everything before today lands in one history partition; daily partitions
+-- from today on are created here and kept ahead by OutboxPartitionMaintainer.
+DO $$
+DECLARE
+    today DATE := (now() AT TIME ZONE 'UTC')::date;
+    day DATE;
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE outbox_events_p_history PARTITION OF outbox_events FOR VALUES FROM (MINVALUE) TO (%L)',
+        today::timestamp AT TIME ZONE 'UTC');
+
+    FOR i IN 0..3 LOOP
+        day := today + i;
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF outbox_events FOR VALUES FROM (%L) TO (%L)',
+            'outbox_events_p' || to_char(day, 'YYYYMMDD'),
+            day::timestamp AT TIME ZONE 'UTC',
+            (day + 1)::timestamp AT TIME ZONE 'UTC');
+    END LOOP;
+END $$;
+
+DO $$
+DECLARE
+    publication TEXT;
+BEGIN
+    IF to_regclass('outbox_events_legacy') IS NOT NULL THEN
+        INSERT INTO outbox_events (id, aggregate_id, aggregate_type, event_type, payload, status, created_at, retry_count, next_retry_at)
+        SELECT id, aggregate_id, aggregate_type, event_type, payload, status, created_at, retry_count, next_retry_at
+        FROM outbox_events_legacy
+        WHERE status = 'NEW';
+
+        -- Publications follow the renamed table; point CDC at the new one.
+        FOR publication IN
+            SELECT p.pubname
+            FROM pg_publication p
+            JOIN pg_publication_rel r ON r.prpubid = p.oid
+            WHERE r.prrelid = 'outbox_events_legacy'::regclass
+        LOOP
+            EXECUTE format('ALTER PUBLICATION %I DROP TABLE outbox_events_legacy', publication);
+            EXECUTE format('ALTER PUBLICATION %I ADD TABLE outbox_events', publication);
+            EXECUTE format('ALTER PUBLICATION %I SET (publish_via_partition_root = true)', publication);
+        END LOOP;
+    END IF;
+END $$;
@@ -0,0 +1,27 @@
+-- Denormalized read model for order listings, projected from order.event.created
+-- and order.event.progress-updated. Rows can be created by either event, so the
+-- columns only the created event carries are nullable until it arrives.
+
+CREATE TABLE IF NOT EXISTS order_view (
+    order_id UUID PRIMARY KEY,
+    customer_email VARCHAR(255),
+    total_amount NUMERIC(38, 2),
+    first_product_id VARCHAR(255),
+    item_count INTEGER,
+    status VARCHAR(32) NOT NULL,
+    progress VARCHAR(64) NOT NULL,
+    progress_rank SMALLINT NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- keyset pages are answered from the index alone
+CREATE INDEX IF NOT EXISTS idx_order_view_created
+    ON order_view (created_at DESC, order_id DESC)
+    INCLUDE (status, first_product_id)
+    WHERE created_at IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_order_view_customer_created
+    ON order_view (customer_email, created_at DESC, order_id DESC)
+    INCLUDE (status, first_product_id)
+    WHERE created_at IS NOT NULL;
@@ -0,0 +1,41 @@
+-- Tables Hibernate used to create through ddl-auto=update, which is now
+-- ddl-auto=validate so that it can never touch the partitioned outbox_events.
+-- Existing databases already have these tables and skip the statements.
+
+CREATE TABLE IF NOT EXISTS orders (
+    order_id UUID PRIMARY KEY,
+    version BIGINT NOT NULL,
+    total_amount NUMERIC(38, 2) NOT NULL,
+    customer_email VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    progress VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    completed_at TIMESTAMP(6) WITH TIME ZONE,
+    cancelled_at TIMESTAMP(6) WITH TIME ZONE,
+    user_id UUID,
+    payment_status VARCHAR(255),
+    inventory_status VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    order_item_id UUID PRIMARY KEY,
+    order_id UUID NOT NULL REFERENCES orders (order_id),
+    product_id VARCHAR(255) NOT NULL,
+    quantity INTEGER NOT NULL,
+    price NUMERIC(38, 2) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id);
+
+CREATE TABLE IF NOT EXISTS dlq_records (
+    id UUID PRIMARY KEY,
+    source_service VARCHAR(255) NOT NULL,
+    original_topic VARCHAR(255) NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    aggregate_id VARCHAR(255),
+    payload TEXT,
+    exception_message TEXT,
+    failed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    resolved_at TIMESTAMP(6) WITH TIME ZONE
+);
@@ -1,11 +1,20 @@
 package com.oms.orderservice.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oms.orderservice.api.dto.BatchCreateOrderRequest;
+import com.oms.orderservice.api.dto.BatchOrderRequest;
 import com.oms.orderservice.api.dto.CreateOrderRequest;
+import com.oms.orderservice.api.dto.OrderCursor;
 import com.oms.orderservice.api.dto.OrderItemRequest;
+import com.oms.orderservice.api.dto.OrderSummaryResponse;
 import com.oms.orderservice.application.OrderCommandService;
+import com.oms.orderservice.application.availability.AvailabilityView;
+import com.oms.orderservice.application.availability.InsufficientAvailabilityException;
+import com.oms.orderservice.domain.idempotency.IdempotencyStatus;
 import com.oms.orderservice.domain.model.Order;
 import com.oms.orderservice.domain.model.OrderItem;
+import com.oms.orderservice.domain.model.OrderStateConflictException;
+import com.oms.orderservice.infrastructure.idempotency.IdempotencyRecord;
 import com.oms.orderservice.infrastructure.idempotency.IdempotencyResult;
 import com.oms.orderservice.infrastructure.idempotency.IdempotencyService;
 import org.junit.jupiter.api.Test;
@@ -13,17 +22,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -46,6 +68,9 @@ class OrderControllerTest {
         @MockBean
         private com.oms.orderservice.domain.repository.OrderQueryRepository orderQueryRepository;
 
+        @MockBean
+        private AvailabilityView availabilityView;
+
         @Autowired
         private ObjectMapper objectMapper;
 
@@ -112,4 +137,211 @@ class OrderControllerTest {
                                 .content(objectMapper.writeValueAsString(request)))
                                 .andExpect(status().isConflict());
         }
-}
\ No newline at end of file
+
+        @Test
+        void shouldRejectOrderTheAvailabilityViewKnowsCannotBeServed() throws Exception {
+
+                String idempotencyKey = UUID.randomUUID().toString();
+
+                when(idempotencyService.tryAcquire(idempotencyKey))
+                                .thenReturn(IdempotencyResult.acquired());
+                doThrow(new InsufficientAvailabilityException(Map.of("prod-1", "requested 1, available 0")))
+                                .when(availabilityView).requireAvailable(any());
+
+                OrderItemRequest itemReq = new OrderItemRequest();
+                itemReq.setProductId("prod-1");
+                itemReq.setQuantity(1);
+                itemReq.setPrice(BigDecimal.valueOf(100));
+
+                CreateOrderRequest request = new CreateOrderRequest();
+                request.setItems(List.of(itemReq));
+                request.setCustomerEmail("test@example.com");
+
+                mockMvc.perform(post("/orders")
+                                .header("Idempotency-Key", idempotencyKey)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(status().isUnprocessableEntity())
+                                .andExpect(jsonPath("$.errors['prod-1']").value("requested 1, available 0"));
+
+                verify(orderCommandService, never()).createOrder(any(), any(), any());
+                verify(idempotencyService).clear(idempotencyKey);
+        }
+
+        @Test
+        void shouldCapThePageSizeAndReturnTheNextCursor() throws Exception {
+
+                OrderSummaryResponse last = new OrderSummaryResponse(
+                                UUID.randomUUID(), "PENDING", Instant.parse("2026-01-01T10:00:00Z"), "prod-1");
+                List<OrderSummaryResponse> page = new ArrayList<>(Collections.nCopies(99, last));
+                page.add(last);
+
+                when(orderQueryRepository.findRecent(null, 100)).thenReturn(page);
+
+                mockMvc.perform(get("/orders").param("limit", "100000"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("X-Next-Cursor", OrderCursor.after(last).encode()));
+        }
+
+        @Test
+        void shouldContinueFromTheCursor() throws Exception {
+
+                OrderCursor cursor = new OrderCursor(Instant.parse("2026-01-01T10:00:00Z"), UUID.randomUUID());
+
+                when(orderQueryRepository.findRecent(cursor, 20)).thenReturn(List.of());
+
+                mockMvc.perform(get("/orders").param("limit", "20").param("cursor", cursor.encode()))
+                                .andExpect(status().isOk())
+                                .andExpect(header().doesNotExist("X-Next-Cursor"));
+        }
+
+        @Test
+        void shouldRejectAMalformedCursor() throws Exception {
+
+                mockMvc.perform(get("/orders").param("cursor", "not-a-cursor"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldReportEveryOrderOfABatchSeparately() throws Exception {
+
+                UUID createdId = UUID.randomUUID();
+                UUID earlierId = UUID.randomUUID();
+
+                BatchCreateOrderRequest request = new BatchCreateOrderRequest(List.of(
+                                batchOrder("key-new", "prod-1"),
+                                batchOrder("key-seen", "prod-1"),
+                                batchOrder("key-short", "prod-out")));
+
+                when(idempotencyService.tryAcquireAll(List.of("key-new", "key-seen", "key-short")))
+                                .thenReturn(List.of(
+                                                IdempotencyResult.acquired(),
+                                                IdempotencyResult.completed(new IdempotencyRecord(
+                                                                IdempotencyStatus.COMPLETED, earlierId,
+                                                                "{\"orderId\":\"" + earlierId + "\",\"status\":\"COMPLETED\"}",
+                                                                Instant.now())),
+                                                IdempotencyResult.acquired()));
+                doThrow(new InsufficientAvailabilityException(Map.of("prod-out", "requested 1, available 0")))
+                                .when(availabilityView)
+                                .requireAvailable(argThat(items -> items.get(0).getProductId().equals("prod-out")));
+
+                Order created = Order.create(
+                                List.of(OrderItem.create("prod-1", 1, BigDecimal.valueOf(100))),
+                                "test@example.com",
+                                null);
+                ReflectionTestUtils.setField(created, "id", createdId);
+                when(orderCommandService.createOrders(any())).thenReturn(List.of(created));
+
+                mockMvc.perform(post("/orders/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].outcome").value("CREATED"))
+                                .andExpect(jsonPath("$[0].orderId").value(createdId.toString()))
+                                .andExpect(jsonPath("$[1].outcome").value("DUPLICATE"))
+                                .andExpect(jsonPath("$[1].orderId").value(earlierId.toString()))
+                                .andExpect(jsonPath("$[2].outcome").value("REJECTED"));
+
+                verify(idempotencyService).clearAll(List.of("key-short"));
+                verify(idempotencyService).markAllCompleted(argThat(completions -> completions.size() == 1
+                                && completions.get(0).idempotencyKey().equals("key-new")));
+        }
+
+        @Test
+        void shouldRejectAMalformedUserIdBeforeClaimingAnyKey() throws Exception {
+
+                BatchCreateOrderRequest request = new BatchCreateOrderRequest(List.of(
+                                batchOrder("key-1", "prod-1"),
+                                batchOrder("key-2", "prod-1")));
+
+                mockMvc.perform(post("/orders/batch")
+                                .header("X-User-Id", "not-a-uuid")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(status().isBadRequest());
+
+                verify(idempotencyService, never()).tryAcquireAll(any());
+        }
+
+        @Test
+        void shouldReleaseClaimedKeysWhenAStoredResponseCannotBeRead() {
+
+                BatchCreateOrderRequest request = new BatchCreateOrderRequest(List.of(
+                                batchOrder("key-new", "prod-1"),
+                                batchOrder("key-seen", "prod-1")));
+
+                when(idempotencyService.tryAcquireAll(List.of("key-new", "key-seen")))
+                                .thenReturn(List.of(
+                                                IdempotencyResult.acquired(),
+                                                IdempotencyResult.completed(new IdempotencyRecord(
+                                                                IdempotencyStatus.COMPLETED, UUID.randomUUID(),
+                                                                "not json", Instant.now()))));
+
+                assertThatThrownBy(() -> mockMvc.perform(post("/orders/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request))))
+                                .hasRootCauseInstanceOf(com.fasterxml.jackson.core.JsonParseException.class);
+
+                verify(idempotencyService).clearAll(Set.of("key-new"));
+                verify(orderCommandService, never()).createOrders(any());
+        }
+
+        @Test
+        void shouldReleaseAcceptedKeysWhenTheOrdersAreNotCreated() {
+
+                BatchCreateOrderRequest request = new BatchCreateOrderRequest(List.of(
+                                batchOrder("key-1", "prod-1"),
+                                batchOrder("key-2", "prod-1")));
+
+                when(idempotencyService.tryAcquireAll(List.of("key-1", "key-2")))
+                                .thenReturn(List.of(IdempotencyResult.acquired(), IdempotencyResult.acquired()));
+                when(orderCommandService.createOrders(any())).thenThrow(new IllegalStateException("database down"));
+
+                assertThatThrownBy(() -> mockMvc.perform(post("/orders/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request))))
+                                .hasRootCauseMessage("database down");
+
+                verify(idempotencyService).clearAll(Set.of("key-1", "key-2"));
+                verify(idempotencyService, never()).markAllCompleted(any());
+        }
+
+        @Test
+        void shouldRejectBatchesOverTheLimit() throws Exception {
+
+                BatchCreateOrderRequest request = new BatchCreateOrderRequest(new ArrayList<>(Collections.nCopies(
+                                BatchCreateOrderRequest.MAX_ORDERS + 1, batchOrder("key", "prod-1"))));
+
+                mockMvc.perform(post("/orders/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(status().isBadRequest());
+
+                verify(orderCommandService, never()).createOrders(any());
+        }
+
+        @Test
+        void shouldAnswerConflictWhenCancellingAFinishedOrder() throws Exception {
+
+                UUID orderId = UUID.randomUUID();
+                doThrow(new OrderStateConflictException("Order is in terminal state"))
+                                .when(orderCommandService).cancelOrder(orderId);
+
+                mockMvc.perform(put("/orders/{id}/cancel", orderId))
+                                .andExpect(status().isConflict())
+                                .andExpect(jsonPath("$.message").value("Order is in terminal state"));
+        }
+
+        private static BatchOrderRequest batchOrder(String idempotencyKey, String productId) {
+                OrderItemRequest item = new OrderItemRequest();
+                item.setProductId(productId);
+                item.setQuantity(1);
+                item.setPrice(BigDecimal.valueOf(100));
+
+                BatchOrderRequest order = new BatchOrderRequest();
+                order.setIdempotencyKey(idempotencyKey);
+                order.setItems(List.of(item));
+                order.setCustomerEmail("test@example.com");
+                return order;
+        }
+}
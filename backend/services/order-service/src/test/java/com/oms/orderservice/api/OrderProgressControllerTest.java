@@ -0,0 +1,115 @@
+package com.oms.orderservice.api;
+
+import com.oms.eventcontracts.enums.OrderProgress;
+import com.oms.orderservice.application.OrderQueryService;
+import com.oms.orderservice.application.cache.OrderStatusSnapshot;
+import com.oms.orderservice.application.progress.OrderProgressHub;
+import com.oms.orderservice.domain.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(OrderProgressController.class)
+@org.springframework.context.annotation.Import({
+                com.oms.orderservice.config.SecurityConfig.class,
+                com.oms.orderservice.application.progress.OrderProgressStreams.class})
+class OrderProgressControllerTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @MockBean
+        private OrderQueryService orderQueryService;
+
+        @MockBean
+        private OrderProgressHub orderProgressHub;
+
+        private Runnable unsubscribe;
+
+        @BeforeEach
+        void setUp() {
+                unsubscribe = mock(Runnable.class);
+                when(orderProgressHub.subscribe(any(), any())).thenReturn(unsubscribe);
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void streamsCurrentStatusThenTransitionsUntilTerminal() throws Exception {
+                UUID orderId = UUID.randomUUID();
+                when(orderQueryService.findOrderStatus(orderId)).thenReturn(Optional.of(
+                                new OrderStatusSnapshot(orderId, OrderStatus.PENDING, OrderProgress.AWAITING_PAYMENT)));
+
+                MvcResult result = mockMvc.perform(get("/orders/{id}/events", orderId)
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                ArgumentCaptor<Consumer<OrderStatusSnapshot>> listener = ArgumentCaptor.forClass(Consumer.class);
+                verify(orderProgressHub).subscribe(eq(orderId), listener.capture());
+                // a stale redelivery is skipped, the terminal transition closes the stream
+                listener.getValue().accept(
+                                new OrderStatusSnapshot(orderId, OrderStatus.PENDING, OrderProgress.ORDER_ACCEPTED));
+                listener.getValue().accept(
+                                new OrderStatusSnapshot(orderId, OrderStatus.COMPLETED, OrderProgress.ORDER_COMPLETED));
+
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(content().string(containsString("id:AWAITING_PAYMENT\nevent:progress\n")))
+                                .andExpect(content().string(containsString("id:ORDER_COMPLETED\nevent:progress\n")))
+                                .andExpect(content().string(containsString("\"status\":\"COMPLETED\"")))
+                                .andExpect(content().string(not(containsString("id:ORDER_ACCEPTED"))));
+                verify(unsubscribe).run();
+        }
+
+        @Test
+        void resumedStreamOfFinishedOrderClosesWithoutRepeatingEvents() throws Exception {
+                UUID orderId = UUID.randomUUID();
+                when(orderQueryService.findOrderStatus(orderId)).thenReturn(Optional.of(
+                                new OrderStatusSnapshot(orderId, OrderStatus.CANCELLED, OrderProgress.ORDER_FAILED)));
+
+                MvcResult result = mockMvc.perform(get("/orders/{id}/events", orderId)
+                                .accept(MediaType.TEXT_EVENT_STREAM)
+                                .header("Last-Event-ID", "ORDER_FAILED"))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(content().string(not(containsString("event:progress"))));
+                verify(unsubscribe).run();
+        }
+
+        @Test
+        void unknownOrderIsNotFound() throws Exception {
+                UUID orderId = UUID.randomUUID();
+                when(orderQueryService.findOrderStatus(orderId)).thenReturn(Optional.empty());
+
+                mockMvc.perform(get("/orders/{id}/events", orderId)
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+                                .andExpect(status().isNotFound());
+                verify(unsubscribe).run();
+        }
+}
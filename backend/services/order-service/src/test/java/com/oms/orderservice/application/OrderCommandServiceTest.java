@@ -1,6 +1,8 @@
 package com.oms.orderservice.application;
 
+import com.oms.orderservice.application.cache.OrderStatusCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oms.orderservice.application.outbox.OutboxSignal;
 import com.oms.orderservice.domain.model.Order;
 import com.oms.orderservice.domain.model.OrderItem;
 import com.oms.orderservice.domain.outbox.OutboxEvent;
@@ -34,6 +36,12 @@ class OrderCommandServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private OutboxSignal outboxSignal;
+
+    @Mock
+    private OrderStatusCache orderStatusCache;
+
     @Spy
     private io.micrometer.core.instrument.MeterRegistry meterRegistry = new io.micrometer.core.instrument.simple.SimpleMeterRegistry();
 
@@ -61,6 +69,25 @@ class OrderCommandServiceTest {
 
         verify(orderRepository).save(any(Order.class));
         verify(outboxRepository).save(any(OutboxEvent.class));
+        verify(outboxSignal).signalAfterCommit();
+    }
+
+    @Test
+    void shouldCreateABatchWithOneSignal() throws Exception {
+
+        List<Order> orders = List.of(
+                Order.create(List.of(OrderItem.create("prod-1", 1, BigDecimal.TEN)), "a@example.com", null),
+                Order.create(List.of(OrderItem.create("prod-2", 2, BigDecimal.TEN)), "b@example.com", null));
+
+        when(orderRepository.saveAll(orders)).thenReturn(orders);
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+
+        List<Order> result = orderCommandService.createOrders(orders);
+
+        assertThat(result).hasSize(2);
+        verify(outboxRepository).saveAll(org.mockito.ArgumentMatchers.<List<OutboxEvent>>argThat(events -> events.size() == 2));
+        verify(outboxSignal).signalAfterCommit();
+        assertThat(meterRegistry.get("omniorder_orders_created_total").counter().count()).isEqualTo(2);
     }
 
     @Test
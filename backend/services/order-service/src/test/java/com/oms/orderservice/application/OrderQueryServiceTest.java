@@ -1,5 +1,6 @@
 package com.oms.orderservice.application;
 
+import com.oms.orderservice.application.cache.OrderStatusCache;
 import com.oms.orderservice.domain.model.Order;
 import com.oms.orderservice.domain.repository.OrderRepository;
 import org.junit.jupiter.api.Test;
@@ -22,6 +23,9 @@ class OrderQueryServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderStatusCache orderStatusCache;
+
     @InjectMocks
     private OrderQueryService orderQueryService;
 
@@ -79,4 +83,16 @@ class OrderQueryServiceTest {
         
         assertThat(result).isEmpty();
     }
+
+    @Test
+    void shouldCacheTheStatusOfOrdersReadFromTheDatabase() {
+
+        UUID orderId = UUID.randomUUID();
+        Order order = mock(Order.class);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        orderQueryService.getOrderById(orderId);
+
+        verify(orderStatusCache).fill(order);
+    }
 }
@@ -0,0 +1,80 @@
+package com.oms.orderservice.application.availability;
+
+import com.oms.eventcontracts.events.InventoryAvailabilityEvent;
+import com.oms.orderservice.domain.model.OrderItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AvailabilityViewTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AvailabilityView view = new AvailabilityView(
+            meterRegistry, true, Duration.ofMinutes(30), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void shouldRejectWhenTheOrderNeedsMoreThanIsAvailable() {
+
+        view.apply(new InventoryAvailabilityEvent("sku-1", 2, NOW.minusSeconds(5)));
+
+        assertThatThrownBy(() -> view.requireAvailable(List.of(item("sku-1", 2), item("sku-1", 1))))
+                .isInstanceOfSatisfying(InsufficientAvailabilityException.class, ex ->
+                        assertThat(ex.getShortages()).containsEntry("sku-1", "requested 3, available 2"));
+        assertThat(meterRegistry.get("omniorder_orders_rejected_out_of_stock_total").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldAcceptProductsItHasNotHeardOf() {
+
+        assertThatCode(() -> view.requireAvailable(List.of(item("sku-unknown", 5))))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldIgnoreStaleAvailability() {
+
+        view.apply(new InventoryAvailabilityEvent("sku-1", 0, NOW.minus(Duration.ofHours(1))));
+
+        assertThatCode(() -> view.requireAvailable(List.of(item("sku-1", 1))))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldKeepTheNewestAvailabilityWhenEventsArriveOutOfOrder() {
+
+        view.apply(new InventoryAvailabilityEvent("sku-1", 10, NOW.minusSeconds(1)));
+        view.apply(new InventoryAvailabilityEvent("sku-1", 0, NOW.minusSeconds(10)));
+
+        assertThatCode(() -> view.requireAvailable(List.of(item("sku-1", 10))))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldAcceptEverythingWhenDisabled() {
+
+        AvailabilityView disabled = new AvailabilityView(
+                new SimpleMeterRegistry(), false, Duration.ofMinutes(30), Clock.fixed(NOW, ZoneOffset.UTC));
+        disabled.apply(new InventoryAvailabilityEvent("sku-1", 0, NOW));
+
+        assertThatCode(() -> disabled.requireAvailable(List.of(item("sku-1", 1))))
+                .doesNotThrowAnyException();
+    }
+
+    private static OrderItem item(String productId, int quantity) {
+        return OrderItem.create(productId, quantity, BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,145 @@
+package com.oms.orderservice.application.cache;
+
+import com.oms.eventcontracts.enums.OrderProgress;
+import com.oms.orderservice.domain.model.Order;
+import com.oms.orderservice.domain.model.OrderItem;
+import com.oms.orderservice.domain.model.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OrderStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        cache = new OrderStatusCache(redisTemplate, meterRegistry, 100, Duration.ofMinutes(10), Duration.ofMinutes(10));
+    }
+
+    @Test
+    void shouldServeRepeatedPollsFromMemory() {
+
+        Order order = order();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(order.getId(), id -> {
+            loads.incrementAndGet();
+            return Optional.of(order);
+        });
+        Optional<OrderStatusSnapshot> second = cache.get(order.getId(), id -> {
+            loads.incrementAndGet();
+            return Optional.of(order);
+        });
+
+        assertThat(second).map(OrderStatusSnapshot::status).contains(OrderStatus.PENDING);
+        assertThat(loads).hasValue(1);
+        assertThat(lookups("local")).isEqualTo(1);
+        verify(valueOperations).setIfAbsent(eq("order-status:" + order.getId()), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void shouldFillMemoryFromRedis() {
+
+        UUID orderId = UUID.randomUUID();
+        when(valueOperations.get("order-status:" + orderId))
+                .thenReturn("{\"orderId\":\"" + orderId + "\",\"status\":\"COMPLETED\",\"progress\":\"ORDER_COMPLETED\"}");
+
+        Optional<OrderStatusSnapshot> status = cache.get(orderId, id -> Optional.empty());
+
+        assertThat(status).map(OrderStatusSnapshot::status).contains(OrderStatus.COMPLETED);
+        assertThat(lookups("redis")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFallThroughToTheDatabaseWhenRedisIsDown() {
+
+        Order order = order();
+        when(valueOperations.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        Optional<OrderStatusSnapshot> status = cache.get(order.getId(), id -> Optional.of(order));
+
+        assertThat(status).isPresent();
+        assertThat(lookups("database")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMoveCachedEntriesForwardOnProgressEvents() {
+
+        Order order = order();
+        cache.fill(order);
+
+        cache.advance(order.getId(), OrderProgress.ORDER_COMPLETED);
+
+        assertThat(cache.get(order.getId(), id -> Optional.empty()))
+                .map(OrderStatusSnapshot::status).contains(OrderStatus.COMPLETED);
+    }
+
+    @Test
+    void shouldNotMoveTerminalEntriesBack() {
+
+        Order order = order();
+        cache.fill(order);
+        cache.advance(order.getId(), OrderProgress.ORDER_FAILED);
+
+        cache.advance(order.getId(), OrderProgress.AWAITING_PAYMENT);
+        cache.fill(order);
+
+        assertThat(cache.get(order.getId(), id -> Optional.empty()))
+                .map(OrderStatusSnapshot::progress).contains(OrderProgress.ORDER_FAILED);
+    }
+
+    @Test
+    void shouldIgnoreEventsForOrdersNotCachedHere() {
+
+        UUID orderId = UUID.randomUUID();
+
+        cache.advance(orderId, OrderProgress.ORDER_COMPLETED);
+
+        assertThat(cache.get(orderId, id -> Optional.empty())).isEmpty();
+    }
+
+    private double lookups(String servedBy) {
+        return meterRegistry.get("omniorder_order_status_cache_lookups_total")
+                .tag("served_by", servedBy).counter().count();
+    }
+
+    private static Order order() {
+        Order order = Order.create(
+                List.of(OrderItem.create("prod-1", 1, BigDecimal.TEN)), "test@example.com", UUID.randomUUID());
+        ReflectionTestUtils.setField(order, "id", UUID.randomUUID());
+        return order;
+    }
+}
@@ -0,0 +1,143 @@
+package com.oms.orderservice.application.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oms.orderservice.domain.outbox.AggregateType;
+import com.oms.orderservice.domain.outbox.OutboxEvent;
+import com.oms.orderservice.domain.outbox.OutboxEventKey;
+import com.oms.orderservice.domain.outbox.OutboxRepository;
+import com.oms.orderservice.domain.outbox.OutboxStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderOutboxRelayTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OrderOutboxRelay(outboxRepository, kafkaTemplate, new ObjectMapper(),
+                transactionManager, meterRegistry, 100, 4, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    @Test
+    void shouldMarkAcknowledgedEventsSentInBulk() {
+
+        OutboxEvent first = event(UUID.randomUUID());
+        OutboxEvent second = event(UUID.randomUUID());
+
+        when(outboxRepository.fetchPendingEvents(100)).thenReturn(List.of(first, second));
+        when(kafkaTemplate.send(eq("order.event.created"), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.publishPendingEvents();
+
+        ArgumentCaptor<Collection<OutboxEventKey>> keys = keysCaptor();
+        verify(outboxRepository).markSent(keys.capture());
+        assertThat(keys.getValue()).containsExactlyInAnyOrder(OutboxEventKey.of(first), OutboxEventKey.of(second));
+        assertThat(meterRegistry.get("omniorder_outbox_publish_latency").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepDrainingWhileBatchesAreFull() {
+
+        OrderOutboxRelay smallBatchRelay = new OrderOutboxRelay(outboxRepository, kafkaTemplate, new ObjectMapper(),
+                transactionManager, meterRegistry, 1, 1, 1000);
+
+        when(outboxRepository.fetchPendingEvents(1))
+                .thenReturn(List.of(event(UUID.randomUUID())))
+                .thenReturn(List.of());
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        try {
+            smallBatchRelay.drain();
+        } finally {
+            smallBatchRelay.shutdown();
+        }
+
+        verify(outboxRepository, times(2)).fetchPendingEvents(1);
+    }
+
+    @Test
+    void shouldLeaveUnacknowledgedEventPendingForRetry() {
+
+        OutboxEvent event = event(UUID.randomUUID());
+
+        when(outboxRepository.fetchPendingEvents(100)).thenReturn(List.of(event));
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker unavailable")));
+
+        relay.publishPendingEvents();
+
+        verify(outboxRepository, never()).markSent(any());
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.NEW);
+        assertThat(event.getRetryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepEventsOfOneAggregateOnTheSameLane() {
+
+        UUID aggregateId = UUID.randomUUID();
+
+        List<List<OutboxEvent>> lanes = relay.assignLanes(List.of(
+                event(aggregateId),
+                event(UUID.randomUUID()),
+                event(aggregateId)
+        ));
+
+        assertThat(lanes).filteredOn(lane -> lane.stream().anyMatch(e -> e.getAggregateId().equals(aggregateId)))
+                .singleElement()
+                .satisfies(lane -> assertThat(lane).filteredOn(e -> e.getAggregateId().equals(aggregateId)).hasSize(2));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Collection<OutboxEventKey>> keysCaptor() {
+        return ArgumentCaptor.forClass(Collection.class);
+    }
+
+    private static OutboxEvent event(UUID aggregateId) {
+        OutboxEvent event = OutboxEvent.create(aggregateId, AggregateType.ORDER, "OrderCreatedEvent", "{}");
+        ReflectionTestUtils.setField(event, "id", UUID.randomUUID());
+        return event;
+    }
+}
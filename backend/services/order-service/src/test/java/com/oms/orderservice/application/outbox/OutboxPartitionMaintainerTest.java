@@ -0,0 +1,70 @@
+package com.oms.orderservice.application.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxPartitionMaintainerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldDropExpiredPartitionWithoutPendingEvents() {
+
+        OutboxPartitionMaintainer maintainer = new OutboxPartitionMaintainer(jdbcTemplate, 3, 7, false);
+
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("outbox_events_p20261001", "outbox_events_p20261016"));
+        when(jdbcTemplate.queryForObject(contains("outbox_events_p20261001"), eq(Boolean.class)))
+                .thenReturn(false);
+
+        maintainer.purgeExpiredPartitions(TODAY);
+
+        verify(jdbcTemplate).execute("DROP TABLE outbox_events_p20261001");
+        verify(jdbcTemplate, never()).execute("DROP TABLE outbox_events_p20261016");
+    }
+
+    @Test
+    void shouldKeepExpiredPartitionThatStillHasPendingEvents() {
+
+        OutboxPartitionMaintainer maintainer = new OutboxPartitionMaintainer(jdbcTemplate, 3, 7, true);
+
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("outbox_events_p20261001"));
+        when(jdbcTemplate.queryForObject(contains("outbox_events_p20261001"), eq(Boolean.class)))
+                .thenReturn(true);
+
+        maintainer.purgeExpiredPartitions(TODAY);
+
+        verify(jdbcTemplate, never()).execute(contains("outbox_events_p20261001"));
+    }
+
+    @Test
+    void shouldCreatePartitionsAhead() {
+
+        OutboxPartitionMaintainer maintainer = new OutboxPartitionMaintainer(jdbcTemplate, 1, 7, false);
+
+        maintainer.createUpcomingPartitions(TODAY);
+
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS outbox_events_p20261017 PARTITION OF outbox_events"
+                + " FOR VALUES FROM ('2026-10-17 00:00:00+00') TO ('2026-10-18 00:00:00+00')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS outbox_events_p20261018 PARTITION OF outbox_events"
+                + " FOR VALUES FROM ('2026-10-18 00:00:00+00') TO ('2026-10-19 00:00:00+00')");
+    }
+}
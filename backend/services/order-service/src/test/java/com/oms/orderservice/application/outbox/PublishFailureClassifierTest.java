@@ -0,0 +1,36 @@
+package com.oms.orderservice.application.outbox;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import org.apache.kafka.common.errors.NotLeaderOrFollowerException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublishFailureClassifierTest {
+
+    @Test
+    void shouldRetryTimeoutsAndRetriableSendErrors() {
+
+        assertThat(PublishFailureClassifier.isRetriable(new TimeoutException("no ack"))).isTrue();
+        assertThat(PublishFailureClassifier.isRetriable(new java.util.concurrent.TimeoutException())).isTrue();
+        assertThat(PublishFailureClassifier.isRetriable(
+                new ExecutionException(new KafkaException("send failed", new NotLeaderOrFollowerException("moved")))))
+                .isTrue();
+    }
+
+    @Test
+    void shouldNotRetryFailuresThatRepeatEveryTime() {
+
+        assertThat(PublishFailureClassifier.isRetriable(new JsonParseException(null, "bad payload"))).isFalse();
+        assertThat(PublishFailureClassifier.isRetriable(new SerializationException("bad value"))).isFalse();
+        assertThat(PublishFailureClassifier.isRetriable(
+                new KafkaException("send failed", new RecordTooLargeException("too large")))).isFalse();
+        assertThat(PublishFailureClassifier.isRetriable(new IllegalStateException("Unknown event type"))).isFalse();
+    }
+}
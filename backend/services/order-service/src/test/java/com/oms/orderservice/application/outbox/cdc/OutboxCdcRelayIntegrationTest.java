@@ -0,0 +1,97 @@
+package com.oms.orderservice.application.outbox.cdc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oms.orderservice.domain.outbox.OutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Disabled("Docker environment unavailable for Testcontainers")
+@Testcontainers
+class OutboxCdcRelayIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withCommand("postgres", "-c", "wal_level=logical");
+
+    private final OutboxRepository outboxRepository = mock(OutboxRepository.class);
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+
+    private JdbcTemplate jdbcTemplate;
+    private OutboxCdcRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS outbox_events (
+                    id uuid PRIMARY KEY,
+                    aggregate_id uuid NOT NULL,
+                    aggregate_type varchar(255) NOT NULL,
+                    event_type varchar(255) NOT NULL,
+                    payload jsonb NOT NULL,
+                    status varchar(255) NOT NULL,
+                    created_at timestamptz NOT NULL,
+                    retry_count int NOT NULL,
+                    next_retry_at timestamptz
+                )
+                """);
+
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(postgres.getJdbcUrl());
+        properties.setUsername(postgres.getUsername());
+        properties.setPassword(postgres.getPassword());
+
+        relay = new OutboxCdcRelay(properties, jdbcTemplate, outboxRepository, kafkaTemplate,
+                new ObjectMapper(), new DataSourceTransactionManager(dataSource), new SimpleMeterRegistry(),
+                "order_outbox_slot", "order_outbox_publication", 5000, 100);
+
+        when(kafkaTemplate.send(any(String.class), any(String.class), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.stop();
+    }
+
+    @Test
+    void shouldPublishCommittedInsertsFromTheWal() {
+
+        relay.start();
+
+        UUID aggregateId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO outbox_events (id, aggregate_id, aggregate_type, event_type, payload, status, created_at, retry_count)
+                VALUES (?, ?, 'ORDER', 'OrderCreatedEvent', '{"orderId":"x"}'::jsonb, 'NEW', now(), 0)
+                """, UUID.randomUUID(), aggregateId);
+
+        verify(kafkaTemplate, timeout(10_000))
+                .send(eq("order.event.created"), eq(aggregateId.toString()), any());
+        verify(outboxRepository, timeout(10_000)).markSent(any());
+    }
+}
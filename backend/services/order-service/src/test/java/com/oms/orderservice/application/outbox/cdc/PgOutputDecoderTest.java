@@ -0,0 +1,97 @@
+package com.oms.orderservice.application.outbox.cdc;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PgOutputDecoderTest {
+
+    private final PgOutputDecoder decoder = new PgOutputDecoder();
+
+    @Test
+    void shouldDecodeInsertUsingRelationColumns() throws IOException {
+
+        decoder.decode(relation(16384, "public", "outbox_events", "id", "event_type", "next_retry_at"));
+
+        PgOutputDecoder.Message message = decoder.decode(insert(16384, "7f1c", "OrderCreatedEvent", null));
+
+        assertThat(message).isInstanceOfSatisfying(PgOutputDecoder.Insert.class, insert -> {
+            assertThat(insert.table()).isEqualTo("outbox_events");
+            assertThat(insert.values())
+                    .containsEntry("id", "7f1c")
+                    .containsEntry("event_type", "OrderCreatedEvent")
+                    .containsEntry("next_retry_at", null);
+        });
+    }
+
+    @Test
+    void shouldDecodeCommitLsn() throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte('C');
+        out.writeByte(0);
+        out.writeLong(100L);
+        out.writeLong(164L);
+        out.writeLong(0L);
+
+        assertThat(decoder.decode(ByteBuffer.wrap(bytes.toByteArray())))
+                .isEqualTo(new PgOutputDecoder.Commit(100L, 164L));
+    }
+
+    @Test
+    void shouldRejectInsertForUnknownRelation() {
+        assertThatThrownBy(() -> decoder.decode(insert(1, "x")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static ByteBuffer relation(int id, String schema, String table, String... columns) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte('R');
+        out.writeInt(id);
+        writeString(out, schema);
+        writeString(out, table);
+        out.writeByte('d');
+        out.writeShort(columns.length);
+        for (String column : columns) {
+            out.writeByte(0);
+            writeString(out, column);
+            out.writeInt(25);
+            out.writeInt(-1);
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    private static ByteBuffer insert(int id, String... values) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte('I');
+        out.writeInt(id);
+        out.writeByte('N');
+        out.writeShort(values.length);
+        for (String value : values) {
+            if (value == null) {
+                out.writeByte('n');
+            } else {
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                out.writeByte('t');
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.write(value.getBytes(StandardCharsets.UTF_8));
+        out.writeByte(0);
+    }
+}
@@ -0,0 +1,72 @@
+package com.oms.orderservice.application.progress;
+
+import com.oms.eventcontracts.enums.OrderProgress;
+import com.oms.orderservice.application.cache.OrderStatusSnapshot;
+import com.oms.orderservice.domain.model.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderProgressHubTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderProgressHub hub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new OrderProgressHub(meterRegistry);
+    }
+
+    @Test
+    void deliversProgressOnlyToListenersOfThatOrder() {
+        UUID watched = UUID.randomUUID();
+        List<OrderStatusSnapshot> received = new ArrayList<>();
+        hub.subscribe(watched, received::add);
+
+        hub.publish(UUID.randomUUID(), OrderProgress.AWAITING_PAYMENT);
+        hub.publish(watched, OrderProgress.ORDER_COMPLETED);
+
+        assertThat(received).containsExactly(
+                new OrderStatusSnapshot(watched, OrderStatus.COMPLETED, OrderProgress.ORDER_COMPLETED));
+    }
+
+    @Test
+    void unsubscribingStopsDeliveryAndForgetsTheOrder() {
+        UUID orderId = UUID.randomUUID();
+        List<OrderStatusSnapshot> received = new ArrayList<>();
+        Runnable unsubscribe = hub.subscribe(orderId, received::add);
+
+        unsubscribe.run();
+        unsubscribe.run();
+        hub.publish(orderId, OrderProgress.AWAITING_PAYMENT);
+
+        assertThat(received).isEmpty();
+        assertThat(hub.subscriberCount(orderId)).isZero();
+        assertThat(meterRegistry.get("omniorder_order_progress_subscriptions").gauge().value()).isZero();
+    }
+
+    @Test
+    void dropsListenerThatThrowsWithoutAffectingOthers() {
+        UUID orderId = UUID.randomUUID();
+        List<OrderStatusSnapshot> received = new ArrayList<>();
+        hub.subscribe(orderId, snapshot -> {
+            throw new IllegalStateException("client gone");
+        });
+        hub.subscribe(orderId, received::add);
+
+        hub.publish(orderId, OrderProgress.AWAITING_PAYMENT);
+        hub.publish(orderId, OrderProgress.AWAITING_STOCK_CONFIRMATION);
+
+        assertThat(received).extracting(OrderStatusSnapshot::progress)
+                .containsExactly(OrderProgress.AWAITING_PAYMENT, OrderProgress.AWAITING_STOCK_CONFIRMATION);
+        assertThat(hub.subscriberCount(orderId)).isEqualTo(1);
+        assertThat(meterRegistry.get("omniorder_order_progress_subscriptions").gauge().value()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,225 @@
+package com.oms.orderservice.application.progress;
+
+import com.oms.eventcontracts.enums.OrderProgress;
+import com.oms.orderservice.application.OrderQueryService;
+import com.oms.orderservice.application.cache.OrderStatusSnapshot;
+import com.oms.orderservice.domain.model.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderProgressStreamsTest {
+
+    private static final long HOUR_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Mock
+    private OrderQueryService orderQueryService;
+
+    @Mock
+    private OrderProgressHub orderProgressHub;
+
+    private OrderProgressStreams streams;
+
+    @BeforeEach
+    void setUp() {
+        // one writer, room for one queued drain and one pending event per stream
+        streams = new OrderProgressStreams(orderQueryService, orderProgressHub, HOUR_MS, 1, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streams.shutdown();
+    }
+
+    @Test
+    void dropsAClientThatFallsTooFarBehind() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        Runnable unsubscribe = mock(Runnable.class);
+        RecordingEmitter slow = RecordingEmitter.blocked();
+        Consumer<OrderStatusSnapshot> listener = open(orderId, OrderProgress.AWAITING_PAYMENT, slow, unsubscribe);
+
+        // the writer is stuck on the first event; the next one waits, the one after overflows
+        slow.awaitWriting();
+        listener.accept(snapshot(orderId, OrderProgress.AWAITING_STOCK_CONFIRMATION));
+        listener.accept(snapshot(orderId, OrderProgress.ORDER_COMPLETED));
+
+        verify(unsubscribe).run();
+        assertThat(streams.openStreams()).isZero();
+
+        slow.release();
+        slow.awaitCompleted();
+        assertThat(slow.frames).hasSize(1);
+        assertThat(slow.frames.get(0)).contains("id:AWAITING_PAYMENT");
+    }
+
+    @Test
+    void closesAStreamTheWritersCannotTakeOn() throws Exception {
+        Runnable unsubscribe = mock(Runnable.class);
+        RecordingEmitter stuck = RecordingEmitter.blocked();
+        RecordingEmitter queued = new RecordingEmitter();
+        RecordingEmitter rejected = new RecordingEmitter();
+
+        // the only writer is busy and the one queue slot is taken
+        open(UUID.randomUUID(), OrderProgress.AWAITING_PAYMENT, stuck, unsubscribe);
+        stuck.awaitWriting();
+        open(UUID.randomUUID(), OrderProgress.AWAITING_PAYMENT, queued, unsubscribe);
+        open(UUID.randomUUID(), OrderProgress.AWAITING_PAYMENT, rejected, unsubscribe);
+
+        rejected.awaitCompleted();
+        assertThat(rejected.frames).isEmpty();
+        verify(unsubscribe).run();
+        assertThat(streams.openStreams()).isEqualTo(2);
+
+        stuck.release();
+        queued.awaitFrames(1);
+        assertThat(queued.frames.get(0)).contains("id:AWAITING_PAYMENT");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void completesAStreamWhoseOrderFinishesBeforeItStarts() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        Runnable unsubscribe = mock(Runnable.class);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        ArgumentCaptor<Consumer<OrderStatusSnapshot>> listener = ArgumentCaptor.forClass(Consumer.class);
+        when(orderProgressHub.subscribe(eq(orderId), listener.capture())).thenReturn(unsubscribe);
+        // the final transition is delivered between the subscription and the status read
+        when(orderQueryService.findOrderStatus(orderId)).thenAnswer(invocation -> {
+            listener.getValue().accept(snapshot(orderId, OrderProgress.ORDER_COMPLETED));
+            return Optional.of(snapshot(orderId, OrderProgress.AWAITING_PAYMENT));
+        });
+
+        assertThat(streams.open(orderId, null, emitter)).isTrue();
+
+        emitter.awaitCompleted();
+        assertThat(emitter.frames).hasSize(1);
+        assertThat(emitter.frames.get(0)).contains("id:ORDER_COMPLETED");
+        verify(unsubscribe, times(1)).run();
+        assertThat(streams.openStreams()).isZero();
+    }
+
+    @Test
+    void queuesAHeartbeatOnlyForIdleStreams() throws Exception {
+        Runnable unsubscribe = mock(Runnable.class);
+        RecordingEmitter emitter = new RecordingEmitter();
+        open(UUID.randomUUID(), OrderProgress.AWAITING_PAYMENT, emitter, unsubscribe);
+        emitter.awaitFrames(1);
+
+        streams.sendHeartbeats();
+
+        emitter.awaitFrames(2);
+        assertThat(emitter.frames.get(1)).contains("keep-alive");
+        assertThat(streams.openStreams()).isEqualTo(1);
+    }
+
+    @Test
+    void leavesNothingSubscribedForAnUnknownOrder() {
+        UUID orderId = UUID.randomUUID();
+        Runnable unsubscribe = mock(Runnable.class);
+        when(orderProgressHub.subscribe(eq(orderId), any())).thenReturn(unsubscribe);
+        when(orderQueryService.findOrderStatus(orderId)).thenReturn(Optional.empty());
+
+        assertThat(streams.open(orderId, null, new RecordingEmitter())).isFalse();
+
+        verify(unsubscribe).run();
+        assertThat(streams.openStreams()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<OrderStatusSnapshot> open(
+            UUID orderId, OrderProgress current, RecordingEmitter emitter, Runnable unsubscribe) {
+        ArgumentCaptor<Consumer<OrderStatusSnapshot>> listener = ArgumentCaptor.forClass(Consumer.class);
+        when(orderProgressHub.subscribe(eq(orderId), listener.capture())).thenReturn(unsubscribe);
+        when(orderQueryService.findOrderStatus(orderId)).thenReturn(Optional.of(snapshot(orderId, current)));
+
+        assertThat(streams.open(orderId, null, emitter)).isTrue();
+        return listener.getValue();
+    }
+
+    private static OrderStatusSnapshot snapshot(UUID orderId, OrderProgress progress) {
+        return new OrderStatusSnapshot(orderId, OrderStatus.forProgress(progress), progress);
+    }
+
+    /** Records what is written instead of writing it, optionally holding the first write. */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch gate;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        private RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        static RecordingEmitter blocked() {
+            return new RecordingEmitter(new CountDownLatch(1));
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            writing.countDown();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            frames.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        void awaitWriting() throws InterruptedException {
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void awaitCompleted() throws InterruptedException {
+            assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void awaitFrames(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (frames.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(frames).hasSizeGreaterThanOrEqualTo(count);
+        }
+    }
+}
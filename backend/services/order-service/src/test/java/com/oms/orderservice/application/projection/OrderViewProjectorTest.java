@@ -0,0 +1,101 @@
+package com.oms.orderservice.application.projection;
+
+import com.oms.eventcontracts.enums.OrderProgress;
+import com.oms.orderservice.application.outbox.OutboxTopics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OrderViewProjectorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OrderViewProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        projector = new OrderViewProjector(jdbcTemplate, transactionManager, meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldUpsertCreatedOrdersWithTheirFirstProduct() {
+
+        UUID orderId = UUID.randomUUID();
+        String payload = """
+                {"orderId":"%s","customerEmail":"test@example.com","amount":20.00,
+                 "createdAt":"2026-01-01T10:00:00Z",
+                 "items":[{"productId":"prod-1","quantity":1,"price":10.00},
+                          {"productId":"prod-2","quantity":1,"price":10.00}]}
+                """.formatted(orderId);
+
+        projector.apply(List.of(record(OutboxTopics.ORDER_CREATED, payload)));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("customer_email"), rows.capture());
+        Object[] row = rows.getValue().get(0);
+        assertThat(row[0]).isEqualTo(orderId);
+        assertThat(row[3]).isEqualTo("prod-1");
+        assertThat(row[4]).isEqualTo(2);
+        assertThat(row[5]).isEqualTo("PENDING");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldMapProgressToStatus() {
+
+        UUID orderId = UUID.randomUUID();
+        String payload = """
+                {"orderId":"%s","progress":"ORDER_FAILED"}
+                """.formatted(orderId);
+
+        projector.apply(List.of(record(OutboxTopics.ORDER_PROGRESS_UPDATED, payload)));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("progress_rank"), rows.capture());
+        Object[] row = rows.getValue().get(0);
+        assertThat(row[1]).isEqualTo("CANCELLED");
+        assertThat(row[3]).isEqualTo(OrderProgress.ORDER_FAILED.ordinal());
+    }
+
+    @Test
+    void shouldSkipAndCountUnreadableEvents() {
+
+        projector.apply(List.of(record(OutboxTopics.ORDER_CREATED, "not json")));
+
+        verify(jdbcTemplate, never()).batchUpdate(contains("order_view"), anyList());
+        assertThat(meterRegistry.get("omniorder_order_view_unreadable_events_total").counter().count())
+                .isEqualTo(1);
+    }
+
+    private static ConsumerRecord<String, String> record(String topic, String value) {
+        return new ConsumerRecord<>(topic, 0, 0L, "key", value);
+    }
+}
@@ -0,0 +1,130 @@
+package com.oms.orderservice.benchmark;
+
+import com.oms.eventcontracts.ids.UuidV7;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Sustained insert rate and primary key index growth for random (v4)
+ * versus time-ordered (v7) ids, on scratch copies of {@code orders} and
+ * {@code outbox_events} ({@code CREATE TABLE ... (LIKE ... INCLUDING ALL)},
+ * so they carry the same indexes). Prints rows/s and index size for every
+ * million rows, then leaf density from {@code pgstatindex} when the
+ * pgstattuple extension is available.
+ *
+ * Needs the order schema (start the service once). Connection settings come
+ * from the {@code benchmark.jdbc.*} system properties and default to the
+ * local docker-compose database; {@code benchmark.rows} defaults to 10M.
+ * The scratch tables are dropped at the end.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.oms.orderservice.benchmark.UuidKeyInsertBenchmark
+ */
+public class UuidKeyInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int REPORT_EVERY = 1_000_000;
+
+    private static final Map<String, Supplier<UUID>> KINDS = Map.of(
+            "v4", UUID::randomUUID,
+            "v7", UuidV7::next);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long rows;
+
+    private UuidKeyInsertBenchmark(JdbcTemplate jdbcTemplate, long rows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rows = rows;
+    }
+
+    public static void main(String[] args) {
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setJdbcUrl(System.getProperty("benchmark.jdbc.url",
+                    "jdbc:postgresql://localhost:5433/orderdb?reWriteBatchedInserts=true"));
+            dataSource.setUsername(System.getProperty("benchmark.jdbc.username", "orderuser"));
+            dataSource.setPassword(System.getProperty("benchmark.jdbc.password", "orderpass"));
+            dataSource.setMaximumPoolSize(1);
+
+            UuidKeyInsertBenchmark benchmark = new UuidKeyInsertBenchmark(
+                    new JdbcTemplate(dataSource), Long.getLong("benchmark.rows", 10_000_000L));
+
+            for (String kind : List.of("v4", "v7")) {
+                benchmark.run("orders", kind, """
+                        INSERT INTO %s (order_id, version, total_amount, customer_email, status, progress, created_at)
+                        VALUES (?, 0, 100.00, 'bench@example.com', 'PENDING', 'ORDER_ACCEPTED', ?)
+                        """);
+                benchmark.run("outbox_events", kind, """
+                        INSERT INTO %s (id, aggregate_id, aggregate_type, event_type, payload, status,
+                                        created_at, retry_count, next_retry_at)
+                        VALUES (?, ?, 'ORDER', 'OrderCreatedEvent', '{}'::jsonb, 'SENT', ?, 0, NULL)
+                        """);
+            }
+        }
+    }
+
+    private void run(String table, String kind, String insert) {
+
+        String scratch = "uuid_bench_" + table + "_" + kind;
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + scratch);
+        jdbcTemplate.execute("CREATE TABLE " + scratch + " (LIKE " + table + " INCLUDING ALL)");
+        String pk = jdbcTemplate.queryForObject("""
+                SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass AND contype = 'p'
+                """, String.class, scratch);
+
+        Supplier<UUID> ids = KINDS.get(kind);
+        String sql = insert.formatted(scratch);
+        boolean outbox = sql.contains("aggregate_id");
+
+        System.out.printf("%n%s %s: %,d rows%n", table, kind, rows);
+        long segmentStart = System.nanoTime();
+        long started = segmentStart;
+
+        for (long done = 0; done < rows; ) {
+            int batch = (int) Math.min(BATCH_SIZE, rows - done);
+            List<Object[]> args = new ArrayList<>(batch);
+            Timestamp now = Timestamp.from(Instant.now());
+            for (int i = 0; i < batch; i++) {
+                UUID id = ids.get();
+                args.add(outbox ? new Object[]{id, UUID.randomUUID(), now} : new Object[]{id, now});
+            }
+            jdbcTemplate.batchUpdate(sql, args);
+            done += batch;
+
+            if (done % REPORT_EVERY == 0 || done == rows) {
+                long elapsed = System.nanoTime() - segmentStart;
+                long segment = done % REPORT_EVERY == 0 ? REPORT_EVERY : done % REPORT_EVERY;
+                System.out.printf("  %,12d rows  %,10.0f rows/s  pk %s%n",
+                        done, segment / (elapsed / 1e9), size(pk));
+                segmentStart = System.nanoTime();
+            }
+        }
+
+        System.out.printf("  total %,.0f rows/s, table %s, pk %s, leaf density %s%n",
+                rows / ((System.nanoTime() - started) / 1e9), size(scratch), size(pk), leafDensity(pk));
+        jdbcTemplate.execute("DROP TABLE " + scratch);
+    }
+
+    private String size(String relation) {
+        return jdbcTemplate.queryForObject("SELECT pg_size_pretty(pg_relation_size(?::regclass))", String.class,
+                relation);
+    }
+
+    private String leafDensity(String index) {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pgstattuple");
+            return jdbcTemplate.queryForObject("SELECT avg_leaf_density FROM pgstatindex(?)", Double.class, index)
+                    + "%";
+        } catch (RuntimeException ex) {
+            return "n/a (pgstattuple unavailable)";
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.oms.orderservice.infrastructure.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger maxTps = new AtomicInteger(-1);
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(meterRegistry, "orders", initialLimit, 1, 100, Duration.ofSeconds(1),
+                maxTps::get, clock::get);
+    }
+
+    @Test
+    void shouldRejectRequestsOverTheLimitUntilOneCompletes() {
+
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire();
+        limiter.acquire();
+
+        assertThatThrownBy(limiter::acquire)
+                .isInstanceOf(OrderWritesOverloadedException.class)
+                .extracting("reason").isEqualTo(AdaptiveConcurrencyLimiter.CONCURRENCY);
+        assertThat(rejected(AdaptiveConcurrencyLimiter.CONCURRENCY)).isEqualTo(1.0);
+        assertThat(meterRegistry.get("omniorder_order_admission_in_flight").gauge().value()).isEqualTo(2.0);
+
+        first.succeeded();
+        first.succeeded();
+
+        limiter.acquire();
+        assertThat(meterRegistry.get("omniorder_order_admission_in_flight").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldGrowWhileTheLimitIsInUseAndLatencyHolds() {
+
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        for (int i = 0; i < 5; i++) {
+            runWindow(limiter, limiter.limit(), 10);
+        }
+
+        assertThat(limiter.limit()).isGreaterThan(10);
+        assertThat(meterRegistry.get("omniorder_order_admission_limit").gauge().value())
+                .isEqualTo(limiter.limit());
+    }
+
+    @Test
+    void shouldNotGrowWhileMostOfTheLimitIsUnused() {
+
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+
+        for (int i = 0; i < 5; i++) {
+            runWindow(limiter, 5, 10);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void shouldBackOffWhenLatencyRisesAboveTheBaseline() {
+
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        for (int i = 0; i < 5; i++) {
+            runWindow(limiter, 5, 10);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            runWindow(limiter, 5, 100);
+        }
+
+        assertThat(limiter.limit()).isLessThan(16);
+    }
+
+    @Test
+    void shouldCutTheLimitOnFailureButNotOnClientErrors() {
+
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+
+        limiter.acquire().ignored();
+        assertThat(limiter.limit()).isEqualTo(20);
+
+        limiter.acquire().failed();
+        assertThat(limiter.limit()).isEqualTo(18);
+    }
+
+    @Test
+    void shouldEnforceTheThrottleRate() {
+
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        maxTps.set(5);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire().ignored();
+        }
+        assertThatThrownBy(limiter::acquire)
+                .isInstanceOf(OrderWritesOverloadedException.class)
+                .extracting("reason").isEqualTo(AdaptiveConcurrencyLimiter.RATE);
+        assertThat(rejected(AdaptiveConcurrencyLimiter.RATE)).isEqualTo(1.0);
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        limiter.acquire().ignored();
+
+        maxTps.set(-1);
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire().ignored();
+        }
+    }
+
+    @Test
+    void shouldChargeABatchOneTokenPerOrderUpToOneSecondOfRate() {
+
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        maxTps.set(10);
+
+        limiter.acquire(4).ignored();
+        limiter.acquire(4).ignored();
+        assertThatThrownBy(() -> limiter.acquire(4))
+                .isInstanceOf(OrderWritesOverloadedException.class)
+                .extracting("reason").isEqualTo(AdaptiveConcurrencyLimiter.RATE);
+
+        // a batch larger than the rate waits for a full bucket instead of never fitting
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        limiter.acquire(500).ignored();
+        assertThatThrownBy(limiter::acquire).isInstanceOf(OrderWritesOverloadedException.class);
+    }
+
+    @Test
+    void shouldKeepTheMetricsOfEachEndpointApart() {
+
+        AdaptiveConcurrencyLimiter orders = limiter(20);
+        AdaptiveConcurrencyLimiter batch = new AdaptiveConcurrencyLimiter(meterRegistry, "batch", 1, 1, 10,
+                Duration.ofSeconds(1), maxTps::get, clock::get);
+
+        batch.acquire(500);
+        assertThatThrownBy(() -> batch.acquire(1)).isInstanceOf(OrderWritesOverloadedException.class);
+        orders.acquire();
+
+        assertThat(meterRegistry.get("omniorder_order_admission_in_flight").tag("endpoint", "batch").gauge().value())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("omniorder_order_admission_in_flight").tag("endpoint", "orders").gauge().value())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("omniorder_order_admission_rejected_total")
+                .tags("endpoint", "batch", "reason", AdaptiveConcurrencyLimiter.CONCURRENCY).counter().count())
+                .isEqualTo(1.0);
+    }
+
+    /** Completes batches of {@code concurrent} requests of {@code rttMillis} each until a window closes. */
+    private void runWindow(AdaptiveConcurrencyLimiter limiter, int concurrent, long rttMillis) {
+        long end = clock.get() + Duration.ofSeconds(1).toNanos();
+        int samples = 0;
+        while (clock.get() < end || samples < 10) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            for (int i = 0; i < concurrent; i++) {
+                permits.add(limiter.acquire());
+            }
+            clock.addAndGet(Duration.ofMillis(rttMillis).toNanos());
+            permits.forEach(AdaptiveConcurrencyLimiter.Permit::succeeded);
+            samples += concurrent;
+        }
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("omniorder_order_admission_rejected_total")
+                .tags("endpoint", "orders", "reason", reason).counter().count();
+    }
+}
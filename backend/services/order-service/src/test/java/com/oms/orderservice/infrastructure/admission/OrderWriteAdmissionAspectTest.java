@@ -0,0 +1,36 @@
+package com.oms.orderservice.infrastructure.admission;
+
+import com.oms.orderservice.application.availability.InsufficientAvailabilityException;
+import com.oms.orderservice.domain.model.OrderStateConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderWriteAdmissionAspectTest {
+
+    @Test
+    void shouldTreatBadInputAndStateConflictsAsClientErrors() {
+
+        assertThat(OrderWriteAdmissionAspect.isClientError(new IllegalArgumentException("bad id"))).isTrue();
+        assertThat(OrderWriteAdmissionAspect.isClientError(
+                new OrderStateConflictException("Order is in terminal state"))).isTrue();
+        assertThat(OrderWriteAdmissionAspect.isClientError(
+                new InsufficientAvailabilityException(Map.of("prod-1", "short by 1")))).isTrue();
+        assertThat(OrderWriteAdmissionAspect.isClientError(
+                new ResponseStatusException(HttpStatus.CONFLICT))).isTrue();
+    }
+
+    @Test
+    void shouldCountServerFaultsAgainstTheLimit() {
+
+        assertThat(OrderWriteAdmissionAspect.isClientError(
+                new IllegalStateException("Corrupted idempotency record in Redis"))).isFalse();
+        assertThat(OrderWriteAdmissionAspect.isClientError(
+                new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR))).isFalse();
+        assertThat(OrderWriteAdmissionAspect.isClientError(new RuntimeException("database down"))).isFalse();
+    }
+}
@@ -0,0 +1,58 @@
+package com.oms.orderservice.infrastructure.idempotency;
+
+import com.oms.orderservice.domain.idempotency.IdempotencyStatus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyRecordCodecTest {
+
+    @Test
+    void shouldRoundTripCompletedRecords() {
+
+        IdempotencyRecord record = new IdempotencyRecord(
+                IdempotencyStatus.COMPLETED,
+                UUID.randomUUID(),
+                "{\"orderId\":\"x\",\"status\":\"PENDING\"}",
+                Instant.ofEpochMilli(1_700_000_000_123L));
+
+        assertThat(IdempotencyRecordCodec.decode(IdempotencyRecordCodec.encode(record))).isEqualTo(record);
+    }
+
+    @Test
+    void shouldRoundTripInProgressRecordsWithoutOrder() {
+
+        IdempotencyRecord record = new IdempotencyRecord(
+                IdempotencyStatus.IN_PROGRESS, null, null, Instant.ofEpochMilli(1_700_000_000_123L));
+
+        assertThat(IdempotencyRecordCodec.decode(IdempotencyRecordCodec.encode(record))).isEqualTo(record);
+    }
+
+    @Test
+    void shouldReadRecordsWrittenAsJson() {
+
+        UUID orderId = UUID.randomUUID();
+        String legacy = """
+                {"@class":"com.oms.orderservice.infrastructure.idempotency.IdempotencyRecord",
+                 "status":"COMPLETED","orderId":"%s","response":"{}","createdAt":"2026-01-01T10:00:00Z"}
+                """.formatted(orderId);
+
+        IdempotencyRecord record = IdempotencyRecordCodec.decode(legacy.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(record.getStatus()).isEqualTo(IdempotencyStatus.COMPLETED);
+        assertThat(record.getOrderId()).isEqualTo(orderId);
+        assertThat(record.getResponse()).isEqualTo("{}");
+    }
+
+    @Test
+    void shouldRejectTruncatedRecords() {
+
+        assertThatThrownBy(() -> IdempotencyRecordCodec.decode(new byte[]{1, 1}))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
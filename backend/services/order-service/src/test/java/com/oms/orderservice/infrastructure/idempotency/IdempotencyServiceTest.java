@@ -0,0 +1,136 @@
+package com.oms.orderservice.infrastructure.idempotency;
+
+import com.oms.orderservice.domain.idempotency.IdempotencyStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyService(redisTemplate, meterRegistry, 24, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void shouldAcquireUnknownKeys() {
+
+        acquireReturns(null);
+
+        assertThat(service.tryAcquire("key-1").isAcquired()).isTrue();
+        assertThat(acquires("acquired")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReturnTheStoredResponseForCompletedKeys() {
+
+        acquireReturns(IdempotencyRecordCodec.encode(new IdempotencyRecord(
+                IdempotencyStatus.COMPLETED, UUID.randomUUID(), "{}", Instant.now())));
+
+        IdempotencyResult result = service.tryAcquire("key-1");
+
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.getExistingRecord().getResponse()).isEqualTo("{}");
+    }
+
+    @Test
+    void shouldReportKeysStillInProgress() {
+
+        acquireReturns(IdempotencyRecordCodec.encode(new IdempotencyRecord(
+                IdempotencyStatus.IN_PROGRESS, null, null, Instant.now())));
+
+        assertThat(service.tryAcquire("key-1").isInProgress()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAnswerRetriesOfCompletedKeysFromMemory() {
+
+        service.markCompleted("key-1", UUID.randomUUID(), "{}");
+
+        IdempotencyResult result = service.tryAcquire("key-1");
+
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(acquires("completed_local")).isEqualTo(1);
+        verify(redisTemplate).execute(any(RedisCallback.class));
+        verify(redisTemplate, never()).execute(
+                any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class), anyList(), any(), any());
+    }
+
+    @Test
+    void shouldForgetClearedKeys() {
+
+        service.markCompleted("key-1", UUID.randomUUID(), "{}");
+        service.clear("key-1");
+        acquireReturns(null);
+
+        assertThat(service.tryAcquire("key-1").isAcquired()).isTrue();
+        verify(redisTemplate).delete(IdempotencyKeyUtil.orderCreate("key-1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAcquireABatchInOneCallAndAnswerKnownKeysFromMemory() {
+
+        service.markCompleted("key-done", UUID.randomUUID(), "{}");
+        when(redisTemplate.execute(
+                any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class), anyList(), any(), any()))
+                .thenReturn(List.of(
+                        new byte[0],
+                        IdempotencyRecordCodec.encode(new IdempotencyRecord(
+                                IdempotencyStatus.IN_PROGRESS, null, null, Instant.now()))));
+
+        List<IdempotencyResult> results = service.tryAcquireAll(List.of("key-new", "key-done", "key-busy"));
+
+        assertThat(results).extracting(IdempotencyResult::isAcquired, IdempotencyResult::isCompleted,
+                        IdempotencyResult::isInProgress)
+                .containsExactly(
+                        tuple(true, false, false),
+                        tuple(false, true, false),
+                        tuple(false, false, true));
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of(IdempotencyKeyUtil.orderCreate("key-new"), IdempotencyKeyUtil.orderCreate("key-busy"))),
+                any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void acquireReturns(byte[] existing) {
+        when(redisTemplate.execute(
+                any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class), anyList(), any(), any()))
+                .thenReturn(existing);
+    }
+
+    private double acquires(String outcome) {
+        return meterRegistry.get("omniorder_idempotency_acquire_total")
+                .tag("outcome", outcome).counter().count();
+    }
+}
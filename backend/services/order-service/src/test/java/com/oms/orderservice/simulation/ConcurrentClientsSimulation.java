@@ -0,0 +1,59 @@
+package com.oms.orderservice.simulation;
+
+import io.gatling.javaapi.core.*;
+import io.gatling.javaapi.http.*;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.*;
+
+/**
+ * A fixed number of concurrent clients (closed model), each creating an
+ * order and then polling its status. Run it once per threading mode
+ * (SPRING_THREADS_VIRTUAL_ENABLED=false, then true) against the same stack
+ * and compare throughput and the p99 of both requests; turning on
+ * /chaos/latency shows how each mode copes with requests that just wait.
+ *
+ * Run with:
+ * mvn gatling:test -Dgatling.simulationClass=com.oms.orderservice.simulation.ConcurrentClientsSimulation
+ *     -Dbase.url=http://localhost:8081 -Dclients=2000 -Dduration=120
+ */
+public class ConcurrentClientsSimulation extends Simulation {
+
+    private static final int CLIENTS = Integer.getInteger("clients", 2000);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("duration", 120));
+    private static final int POLLS = Integer.getInteger("polls", 5);
+
+    HttpProtocolBuilder httpProtocol = http
+            .baseUrl(System.getProperty("base.url", "http://localhost:8081"))
+            .acceptHeader("application/json")
+            .contentTypeHeader("application/json")
+            .shareConnections();
+
+    ScenarioBuilder scn = scenario("Concurrent Clients")
+            .forever().on(
+                    exec(http("Create Order")
+                            .post("/orders")
+                            .header("Idempotency-Key", session -> UUID.randomUUID().toString())
+                            .body(StringBody("""
+                                    {
+                                      "customerEmail": "loadtest@example.com",
+                                      "items": [ { "productId": "PROD-001", "quantity": 1, "price": 50.00 } ]
+                                    }
+                                    """))
+                            .asJson()
+                            .check(status().is(201))
+                            .check(jsonPath("$.orderId").saveAs("orderId")))
+                    .repeat(POLLS).on(
+                            exec(http("Poll Status")
+                                    .get("/orders/#{orderId}")
+                                    .check(status().is(200)))));
+
+    {
+        setUp(scn.injectClosed(constantConcurrentUsers(CLIENTS).during(DURATION)))
+                .protocols(httpProtocol)
+                .maxDuration(DURATION);
+    }
+}
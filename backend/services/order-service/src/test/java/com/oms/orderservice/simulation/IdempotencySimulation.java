@@ -9,38 +9,54 @@ import java.util.UUID;
 import static io.gatling.javaapi.core.CoreDsl.*;
 import static io.gatling.javaapi.http.HttpDsl.*;
 
+/**
+ * Idempotency-Key retry storm: every user creates one order and then
+ * retries the same request. Compare the "Retry" percentiles and the
+ * {@code omniorder_idempotency_acquire_total} outcomes between builds.
+ *
+ * Run with:
+ * mvn gatling:test -Dgatling.simulationClass=com.oms.orderservice.simulation.IdempotencySimulation
+ *     -Dbase.url=http://localhost:8080 -Dusers=200 -Dretries=20
+ */
 public class IdempotencySimulation extends Simulation {
 
+    private static final int USERS = Integer.getInteger("users", 200);
+    private static final int RETRIES = Integer.getInteger("retries", 20);
+
+    private static final String BODY = """
+            {
+              "customerEmail": "idempotent@example.com",
+              "items": [ { "productId": "PROD-001", "quantity": 1, "price": 50.00 } ]
+            }
+            """;
+
     HttpProtocolBuilder httpProtocol = http
-            .baseUrl("http://localhost:8080")
+            .baseUrl(System.getProperty("base.url", "http://localhost:8080"))
             .acceptHeader("application/json")
             .contentTypeHeader("application/json");
 
-    
-    ScenarioBuilder scn = scenario("Idempotency Load Test")
+    ScenarioBuilder scn = scenario("Idempotency Retry Storm")
             .exec(session -> session.set("idempotencyKey", UUID.randomUUID().toString()))
             .exec(
                     http("First Request")
                             .post("/api/orders")
                             .header("Idempotency-Key", "#{idempotencyKey}")
-                            .body(StringBody("""
-                                    { "customerEmail": "idempotent@example.com", "items": [] }
-                                    """)).asJson()
-                            .check(status().is(200)))
-            .pause(1)
-            .exec(
-                    http("Second Request (Duplicate)")
-                            .post("/api/orders")
-                            .header("Idempotency-Key", "#{idempotencyKey}")
-                            .body(StringBody("""
-                                    { "customerEmail": "idempotent@example.com", "items": [] }
-                                    """)).asJson()
-                            .check(status().is(200))
-            
-            );
+                            .body(StringBody(BODY)).asJson()
+                            .check(status().is(201))
+                            .check(jsonPath("$.orderId").saveAs("orderId")))
+            .repeat(RETRIES).on(
+                    exec(
+                            http("Retry")
+                                    .post("/api/orders")
+                                    .header("Idempotency-Key", "#{idempotencyKey}")
+                                    .body(StringBody(BODY)).asJson()
+                                    .check(status().is(201))
+                                    .check(jsonPath("$.orderId").isEL("#{orderId}"))));
 
     {
         setUp(
-                scn.injectOpen(atOnceUsers(20))).protocols(httpProtocol);
+                scn.injectOpen(rampUsers(USERS).during(Duration.ofSeconds(10))))
+                .protocols(httpProtocol)
+                .assertions(global().failedRequests().count().is(0L));
     }
 }
@@ -0,0 +1,79 @@
+package com.oms.orderservice.simulation;
+
+import io.gatling.javaapi.core.*;
+import io.gatling.javaapi.http.*;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.*;
+
+/**
+ * Mass inventory-failure scenario: every order asks for a product inventory
+ * has never stocked, so each one is compensated (refund + ORDER_FAILED) by
+ * the saga. A known product with too little stock would not do: inventory
+ * publishes its availability and the order service's pre-check answers 422
+ * before a saga starts, while products it has not heard of are let through.
+ *
+ * The "Compensation round-trip" group measures how long orders take to
+ * reach CANCELLED (how GET /orders/{id} reports ORDER_FAILED) while the
+ * storm is running, which is the saga orchestrator's compensation
+ * throughput seen end to end.
+ *
+ * Tunable with -DbaseUrl, -Drate (orders per second), -Dduration (seconds)
+ * and -DproductId (must not exist in inventory).
+ */
+public class InventoryFailureStormSimulation extends Simulation {
+
+    private static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:8080");
+    private static final int RATE = Integer.getInteger("rate", 200);
+    private static final int DURATION_SECONDS = Integer.getInteger("duration", 60);
+    private static final String UNSTOCKED_PRODUCT = System.getProperty("productId", "STORM-UNSTOCKED-001");
+
+    HttpProtocolBuilder httpProtocol = http
+            .baseUrl(BASE_URL)
+            .acceptHeader("application/json")
+            .contentTypeHeader("application/json");
+
+    ScenarioBuilder scn = scenario("Inventory Failure Storm")
+            .exec(session -> session
+                    .set("idempotencyKey", UUID.randomUUID().toString())
+                    .set("productId", UNSTOCKED_PRODUCT)
+                    .set("status", "PENDING"))
+            .exec(
+                    http("Create Unfulfillable Order")
+                            .post("/api/orders")
+                            .header("Idempotency-Key", "#{idempotencyKey}")
+                            .body(StringBody("""
+                                    {
+                                      "customerEmail": "storm@example.com",
+                                      "items": [
+                                        { "productId": "#{productId}", "quantity": 1, "price": 1.00 }
+                                      ]
+                                    }
+                                    """))
+                            .asJson()
+                            .check(status().in(200, 201))
+                            .check(jsonPath("$.orderId").saveAs("orderId")))
+            .group("Compensation round-trip").on(
+                    asLongAsDuring(session -> !"CANCELLED".equals(session.getString("status")), Duration.ofSeconds(60))
+                            .on(
+                                    pause(Duration.ofMillis(250))
+                                            .exec(
+                                                    http("Poll Order Status")
+                                                            .get("/api/orders/#{orderId}")
+                                                            .check(status().is(200))
+                                                            .check(jsonPath("$.status").saveAs("status")))));
+
+    {
+        setUp(
+                scn.injectOpen(
+                        rampUsersPerSec(1).to(RATE).during(Duration.ofSeconds(10)),
+                        constantUsersPerSec(RATE).during(Duration.ofSeconds(DURATION_SECONDS))
+                )).protocols(httpProtocol)
+                .assertions(
+                        global().successfulRequests().percent().gt(99.0),
+                        details("Compensation round-trip").responseTime().percentile(95.0).lt(10_000));
+    }
+}
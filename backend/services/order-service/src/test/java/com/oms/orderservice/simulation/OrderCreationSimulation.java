@@ -4,43 +4,63 @@ import io.gatling.javaapi.core.*;
 import io.gatling.javaapi.http.*;
 
 import java.time.Duration;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static io.gatling.javaapi.core.CoreDsl.*;
 import static io.gatling.javaapi.http.HttpDsl.*;
 
+/**
+ * Order creation throughput. With {@code -Dbatch.size=N} (N > 1) every
+ * request posts N orders to {@code /orders/batch} instead of one to
+ * {@code /orders}; compare orders/s as requests/s times N.
+ *
+ * Run with:
+ * mvn gatling:test -Dbase.url=http://localhost:8080 -Dbatch.size=100
+ */
 public class OrderCreationSimulation extends Simulation {
 
-    
+    private static final int BATCH_SIZE = Integer.getInteger("batch.size", 1);
+
+    private static final String ORDER = """
+            "customerEmail": "loadtest@example.com",
+            "items": [
+              { "productId": "PROD-001", "quantity": 1, "price": 50.00 },
+              { "productId": "PROD-002", "quantity": 2, "price": 25.00 }
+            ]
+            """;
+
     HttpProtocolBuilder httpProtocol = http
-            .baseUrl("http://localhost:8080") 
+            .baseUrl(System.getProperty("base.url", "http://localhost:8080"))
             .acceptHeader("application/json")
             .contentTypeHeader("application/json");
 
-    
+    HttpRequestActionBuilder single = http("Create Order")
+            .post("/api/orders")
+            .header("Idempotency-Key", session -> UUID.randomUUID().toString())
+            .body(StringBody("{" + ORDER + "}"))
+            .asJson()
+            .check(status().is(201));
+
+    HttpRequestActionBuilder batch = http("Create Order Batch")
+            .post("/api/orders/batch")
+            .body(StringBody(session -> IntStream.range(0, BATCH_SIZE)
+                    .mapToObj(i -> "{\"idempotencyKey\": \"" + UUID.randomUUID() + "\"," + ORDER + "}")
+                    .collect(Collectors.joining(",", "{\"orders\": [", "]}"))))
+            .asJson()
+            .check(status().is(200))
+            .check(jsonPath("$[?(@.outcome != 'CREATED')]").notExists());
+
     ScenarioBuilder scn = scenario("Order Creation Load Test")
-            .exec(
-                    http("Create Order")
-                            .post("/api/orders")
-                            .body(StringBody(
-                                    """
-                                            {
-                                              "customerEmail": "loadtest@example.com",
-                                              "items": [
-                                                { "productId": "PROD-001", "quantity": 1, "price": 50.00 },
-                                                { "productId": "PROD-002", "quantity": 2, "price": 25.00 }
-                                              ]
-                                            }
-                                            """))
-                            .asJson()
-                            .check(status().is(200)));
-
-    
+            .exec(BATCH_SIZE > 1 ? batch : single);
+
     {
         setUp(
                 scn.injectOpen(
-                        nothingFor(2), 
-                        atOnceUsers(10), 
-                        rampUsers(50).during(Duration.ofSeconds(10)) 
+                        nothingFor(2),
+                        atOnceUsers(10),
+                        rampUsers(50).during(Duration.ofSeconds(10))
                 )).protocols(httpProtocol);
     }
 }
@@ -84,6 +84,7 @@ public class KafkaConfig {
                 props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
                 props.put(ConsumerConfig.GROUP_ID_CONFIG, "payment-service");
                 props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+                props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
 
                 props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG,
                                 org.springframework.kafka.support.serializer.ErrorHandlingDeserializer.class);
@@ -158,6 +159,7 @@ public class KafkaConfig {
                 props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
                 props.put(ConsumerConfig.GROUP_ID_CONFIG, "payment-service");
                 props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+                props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
 
                 props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG,
                                 org.springframework.kafka.support.serializer.ErrorHandlingDeserializer.class);
@@ -1,6 +1,6 @@
 package com.oms.sagaorchestrator.api;
 
-import com.oms.sagaorchestrator.saga.repository.OrderSagaRepository;
+import com.oms.sagaorchestrator.saga.store.SagaStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,11 +12,11 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class SagaController {
 
-    private final OrderSagaRepository orderSagaRepository;
+    private final SagaStore sagaStore;
 
     @GetMapping("/{orderId}")
     public ResponseEntity<com.oms.sagaorchestrator.saga.domain.OrderSaga> getSagaByOrder(@PathVariable UUID orderId) {
-        return orderSagaRepository.findByOrderId(orderId)
+        return sagaStore.find(orderId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -4,12 +4,18 @@ import com.oms.eventcontracts.events.InventoryReservedEvent;
 import com.oms.eventcontracts.events.InventoryUnavailableEvent;
 import com.oms.eventcontracts.events.OrderCreatedEvent;
 import com.oms.eventcontracts.events.PaymentCompletedEvent;
+import com.oms.eventcontracts.events.PaymentFailedEvent;
 import com.oms.eventcontracts.events.PaymentRefundedEvent;
+import com.oms.sagaorchestrator.saga.messaging.SagaEventListener;
+import com.oms.sagaorchestrator.saga.store.SagaStore;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.RangeAssignor;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.context.annotation.Bean;
@@ -18,15 +24,21 @@ import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
 import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.DelegatingByTopicDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
 import org.springframework.util.backoff.FixedBackOff;
 import org.springframework.beans.factory.annotation.Value;
 
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Configuration
 public class KafkaConfig {
@@ -37,6 +49,23 @@ public class KafkaConfig {
         @Value("${kafka.consumer.group-id}")
         private String groupId;
 
+        @Value("${kafka.topics.inventory-reserved}")
+        private String inventoryReservedTopic;
+
+        @Value("${kafka.topics.inventory-unavailable}")
+        private String inventoryUnavailableTopic;
+
+        @Value("${saga.listener.max-poll-records:500}")
+        private int maxPollRecords;
+
+        @Value("${saga.kafka.transactions.enabled:false}")
+        private boolean transactionsEnabled;
+
+        @Value("${saga.kafka.transaction-id-prefix:saga-tx-}")
+        private String transactionIdPrefix;
+
+        private KafkaTransactionManager<String, Object> kafkaTransactionManager;
+
         @Bean
         public DefaultErrorHandler sagaErrorHandler(
                         DeadLetterPublishingRecoverer recoverer) {
@@ -44,32 +73,66 @@ public class KafkaConfig {
                 return new DefaultErrorHandler(recoverer, backOff);
         }
 
+        /**
+         * One consumer for every topic that drives the saga, so all events of
+         * an order reach the same instance and thread. The range assignor
+         * hands a member the same partition numbers of each subscribed topic;
+         * with equal partition counts and the order id as key, partition p of
+         * every saga topic belongs to the same consumer. Values are decoded
+         * by topic.
+         */
         @Bean
-        public ConsumerFactory<String, OrderCreatedEvent> consumerFactory() {
+        public ConsumerFactory<String, Object> sagaEventConsumerFactory() {
                 Map<String, Object> props = new HashMap<>();
-
                 props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
                 props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
                 props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
                 props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+                props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+                props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+                props.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, RangeAssignor.class.getName());
+
+                Map<Pattern, Deserializer<?>> byTopic = new LinkedHashMap<>();
+                byTopic.put(topic(SagaEventListener.ORDER_CREATED), eventDeserializer(OrderCreatedEvent.class));
+                byTopic.put(topic(SagaEventListener.PAYMENT_COMPLETED), eventDeserializer(PaymentCompletedEvent.class));
+                byTopic.put(topic(SagaEventListener.PAYMENT_FAILED), eventDeserializer(PaymentFailedEvent.class));
+                byTopic.put(topic(SagaEventListener.PAYMENT_REFUNDED), eventDeserializer(PaymentRefundedEvent.class));
+                byTopic.put(topic(inventoryReservedTopic), eventDeserializer(InventoryReservedEvent.class));
+                byTopic.put(topic(inventoryUnavailableTopic), eventDeserializer(InventoryUnavailableEvent.class));
+
+                return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                                new DelegatingByTopicDeserializer(byTopic, new ByteArrayDeserializer()));
+        }
 
-                JsonDeserializer<OrderCreatedEvent> deserializer = new JsonDeserializer<>(OrderCreatedEvent.class);
+        private static Pattern topic(String name) {
+                return Pattern.compile(Pattern.quote(name));
+        }
 
+        private static <T> JsonDeserializer<T> eventDeserializer(Class<T> type) {
+                JsonDeserializer<T> deserializer = new JsonDeserializer<>(type);
                 deserializer.addTrustedPackages("com.oms.eventcontracts");
                 deserializer.setUseTypeHeaders(false);
-
-                return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), deserializer);
+                return deserializer;
         }
 
-        @Bean
-        public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> kafkaListenerContainerFactory(
-                        DefaultErrorHandler sagaErrorHandler) {
-                ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
-
-                factory.setConsumerFactory(consumerFactory());
+        /**
+         * Also registered as {@code kafkaListenerContainerFactory}, the one a
+         * listener gets without naming a factory, so there is no second
+         * consumer setup to wire a listener to by mistake.
+         */
+        @Bean({"sagaEventKafkaListenerContainerFactory", "kafkaListenerContainerFactory"})
+        public ConcurrentKafkaListenerContainerFactory<String, Object> sagaEventKafkaListenerContainerFactory(
+                        DefaultErrorHandler sagaErrorHandler, SagaStore sagaStore,
+                        DeadLetterPublishingRecoverer deadLetterPublishingRecoverer) {
+                ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+
+                factory.setConsumerFactory(sagaEventConsumerFactory());
                 factory.setCommonErrorHandler(sagaErrorHandler);
+                factory.setBatchListener(true);
                 factory.getContainerProperties()
-                                .setAckMode(ContainerProperties.AckMode.RECORD);
+                                .setAckMode(ContainerProperties.AckMode.MANUAL);
+                factory.getContainerProperties().setConsumerRebalanceListener(sagaStore);
+                applyTransactionMode(factory, deadLetterPublishingRecoverer);
 
                 return factory;
         }
@@ -81,145 +144,46 @@ public class KafkaConfig {
                 config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
                 config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
 
-                return new DefaultKafkaProducerFactory<>(config);
-        }
-
-        @Bean
-        public KafkaTemplate<String, Object> kafkaTemplate() {
-                return new KafkaTemplate<>(producerFactory());
-        }
-
-        @Bean
-        public ConsumerFactory<String, PaymentCompletedEvent> paymentCompletedConsumerFactory() {
-
-                Map<String, Object> props = new HashMap<>();
-                props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-                props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-                props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-                props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-
-                JsonDeserializer<PaymentCompletedEvent> deserializer = new JsonDeserializer<>(
-                                PaymentCompletedEvent.class);
-
-                deserializer.addTrustedPackages("com.oms.eventcontracts");
-                deserializer.setUseTypeHeaders(false);
-
-                return new DefaultKafkaConsumerFactory<>(
-                                props,
-                                new StringDeserializer(),
-                                deserializer);
-        }
-
-        @Bean
-        public ConcurrentKafkaListenerContainerFactory<String, PaymentCompletedEvent> paymentCompletedKafkaListenerContainerFactory(
-                        DefaultErrorHandler sagaErrorHandler) {
-                ConcurrentKafkaListenerContainerFactory<String, PaymentCompletedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
-
-                factory.setConsumerFactory(paymentCompletedConsumerFactory());
-                factory.setCommonErrorHandler(sagaErrorHandler);
-                factory.getContainerProperties()
-                                .setAckMode(ContainerProperties.AckMode.RECORD);
-
-                return factory;
-        }
-
-        @Bean
-        public ConsumerFactory<String, InventoryReservedEvent> inventoryReservedConsumerFactory() {
-
-                Map<String, Object> props = new HashMap<>();
-                props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-                props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-                props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-                props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-
-                JsonDeserializer<InventoryReservedEvent> deserializer = new JsonDeserializer<>(
-                                InventoryReservedEvent.class);
-
-                deserializer.addTrustedPackages("com.oms.eventcontracts");
-                deserializer.setUseTypeHeaders(false);
-
-                return new DefaultKafkaConsumerFactory<>(
-                                props,
-                                new StringDeserializer(),
-                                deserializer);
-        }
-
-        @Bean
-        public ConcurrentKafkaListenerContainerFactory<String, InventoryReservedEvent> inventoryReservedKafkaListenerContainerFactory(
-                        DefaultErrorHandler sagaErrorHandler) {
-                ConcurrentKafkaListenerContainerFactory<String, InventoryReservedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
-                factory.setConsumerFactory(inventoryReservedConsumerFactory());
-                factory.setCommonErrorHandler(sagaErrorHandler);
-                factory.getContainerProperties()
-                                .setAckMode(ContainerProperties.AckMode.RECORD);
+                DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(config);
+                if (transactionsEnabled) {
+                        config.put(ProducerConfig.ACKS_CONFIG, "all");
+                        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+                        factory.updateConfigs(config);
+                        // transactional.id must be unique per running instance
+                        factory.setTransactionIdPrefix(transactionIdPrefix + UUID.randomUUID() + "-");
+                }
                 return factory;
         }
 
-        @Bean
-        public ConsumerFactory<String, InventoryUnavailableEvent>
-        inventoryUnavailableConsumerFactory() {
-
-                Map<String, Object> props = new HashMap<>();
-                props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-                props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-                props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-                props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-
-                JsonDeserializer<InventoryUnavailableEvent> deserializer =
-                        new JsonDeserializer<>(InventoryUnavailableEvent.class);
-
-                deserializer.addTrustedPackages("com.oms.eventcontracts");
-                deserializer.setUseTypeHeaders(false);
-
-                return new DefaultKafkaConsumerFactory<>(
-                        props,
-                        new StringDeserializer(),
-                        deserializer
-                );
-        }
-
-
-        @Bean
-        public ConcurrentKafkaListenerContainerFactory<String, InventoryUnavailableEvent>
-        inventoryUnavailableKafkaListenerContainerFactory(
-                DefaultErrorHandler sagaErrorHandler) {
-
-                ConcurrentKafkaListenerContainerFactory<String, InventoryUnavailableEvent> factory =
-                        new ConcurrentKafkaListenerContainerFactory<>();
-
-                factory.setConsumerFactory(inventoryUnavailableConsumerFactory());
-                factory.setCommonErrorHandler(sagaErrorHandler);
-                factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
-
-                return factory;
-        }
-
-        @Bean
-        public ConsumerFactory<String, PaymentRefundedEvent> paymentRefundedConsumerFactory() {
-                Map<String, Object> props = new HashMap<>();
-                props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-                props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-                props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-                props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-
-                JsonDeserializer<PaymentRefundedEvent> deserializer = new JsonDeserializer<>(PaymentRefundedEvent.class);
-                deserializer.addTrustedPackages("com.oms.eventcontracts");
-                deserializer.setUseTypeHeaders(false);
-
-                return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), deserializer);
+        /**
+         * In transactional mode the container runs each batch in a Kafka
+         * transaction: listener sends and the consumed offsets commit together
+         * (sendOffsetsToTransaction). Not a bean, so Boot's JPA transaction
+         * manager stays the primary one. Poison events are dead-lettered by
+         * SagaBatchProcessor, so the rollback processor only has to keep
+         * retrying whole-batch failures such as a database outage.
+         */
+        private <V> void applyTransactionMode(ConcurrentKafkaListenerContainerFactory<String, V> factory,
+                        DeadLetterPublishingRecoverer recoverer) {
+                if (!transactionsEnabled) {
+                        return;
+                }
+                if (kafkaTransactionManager == null) {
+                        kafkaTransactionManager = new KafkaTransactionManager<>(producerFactory());
+                }
+                factory.getContainerProperties().setKafkaAwareTransactionManager(kafkaTransactionManager);
+                factory.setAfterRollbackProcessor(new DefaultAfterRollbackProcessor<>(
+                                recoverer,
+                                new FixedBackOff(1000L, FixedBackOff.UNLIMITED_ATTEMPTS),
+                                kafkaTemplate(),
+                                true));
         }
 
         @Bean
-        public ConcurrentKafkaListenerContainerFactory<String, PaymentRefundedEvent> paymentRefundedKafkaListenerContainerFactory(
-                        DefaultErrorHandler sagaErrorHandler) {
-                ConcurrentKafkaListenerContainerFactory<String, PaymentRefundedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
-                factory.setConsumerFactory(paymentRefundedConsumerFactory());
-                factory.setCommonErrorHandler(sagaErrorHandler);
-                factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
-                return factory;
+        public KafkaTemplate<String, Object> kafkaTemplate() {
+                return new KafkaTemplate<>(producerFactory());
         }
 
-
         @Bean
         public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer(
                         KafkaTemplate<String, Object> kafkaTemplate) {
@@ -1,9 +1,12 @@
 package com.oms.sagaorchestrator.saga.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -16,7 +19,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @Getter
 @Setter
-public class OrderSaga {
+public class OrderSaga implements Persistable<UUID> {
 
     @Id
     @Column(nullable = false, updatable = false)
@@ -39,6 +42,16 @@ public class OrderSaga {
 
     private Instant updatedAt;
 
+    /**
+     * Lets {@code save} persist new sagas directly instead of merging them,
+     * which would cost a SELECT per saga and defeat JDBC batching.
+     */
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
     public OrderSaga(UUID orderId, BigDecimal amount) {
         this.orderId = orderId;
         this.amount = amount;
@@ -47,6 +60,24 @@ public class OrderSaga {
         this.updatedAt = this.createdAt;
     }
 
+    @Override
+    @JsonIgnore
+    public UUID getId() {
+        return orderId;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
     public void addItem(String productId, int quantity, BigDecimal price) {
         OrderSagaItem item = new OrderSagaItem(productId, quantity, price, this);
         this.items.add(item);
@@ -1,6 +1,7 @@
 package com.oms.sagaorchestrator.saga.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.oms.eventcontracts.ids.UuidV7;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,7 +16,6 @@ import java.util.UUID;
 public class OrderSagaItem {
 
     @Id
-    @GeneratedValue
     private UUID id;
 
     @Column(nullable = false)
@@ -41,6 +41,7 @@ public class OrderSagaItem {
             BigDecimal price,
             OrderSaga saga
     ) {
+        this.id = UuidV7.next();
         this.productId = productId;
         this.quantity = quantity;
         this.price = price;
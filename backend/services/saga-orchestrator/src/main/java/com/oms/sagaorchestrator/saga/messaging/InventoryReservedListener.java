@@ -5,11 +5,8 @@ import com.oms.eventcontracts.enums.OrderProgress;
 import com.oms.eventcontracts.events.InventoryReservedEvent;
 import com.oms.sagaorchestrator.saga.domain.OrderSaga;
 import com.oms.sagaorchestrator.saga.domain.SagaState;
-import com.oms.sagaorchestrator.saga.repository.OrderSagaRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
@@ -20,31 +17,25 @@ import java.util.UUID;
 @Slf4j
 public class InventoryReservedListener {
 
-    private final OrderSagaRepository sagaRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
-    @KafkaListener(
-            topics = "${kafka.topics.inventory-reserved}",
-            groupId = "${kafka.consumer.group-id}",
-            containerFactory = "inventoryReservedKafkaListenerContainerFactory"
-    )
-    @Transactional
-    public void handle(InventoryReservedEvent event) {
+
+    OrderSaga apply(OrderSaga saga, InventoryReservedEvent event) {
         try {
             UUID orderId = UUID.fromString(event.getOrderId());
             log.info("Batch InventoryReservedEvent received | orderId={}", orderId);
 
-            OrderSaga saga = sagaRepository.findById(orderId)
-                    .orElseThrow(() -> new IllegalStateException("Saga not found"));
+            if (saga == null) {
+                throw new IllegalStateException("Saga not found");
+            }
 
             if (saga.getState() == SagaState.COMPLETED) {
-                return;
+                return null;
             }
             saga.markInventoryReserved();
 
             
             saga.markCompleted();
-            sagaRepository.save(saga);
 
             
             AdvanceOrderProgressCommand finalEvent =  new AdvanceOrderProgressCommand(
@@ -52,13 +43,12 @@ public class InventoryReservedListener {
                     OrderProgress.ORDER_COMPLETED
             );
 
-
-
             
             log.info("Attempting to send OrderCompletedEvent...");
             kafkaTemplate.send("order.command.advance-progress", orderId.toString(), finalEvent);
 
             log.info("✅ OrderCompletedEvent SENT | orderId={}", orderId);
+            return saga;
 
         } catch (Exception e) {
             log.error("🔥 CRITICAL ERROR in InventoryReservedListener 🔥", e);
@@ -6,15 +6,13 @@ import com.oms.eventcontracts.enums.OrderProgress;
 import com.oms.eventcontracts.events.InventoryUnavailableEvent;
 import com.oms.sagaorchestrator.saga.domain.OrderSaga;
 import com.oms.sagaorchestrator.saga.domain.SagaState;
-import com.oms.sagaorchestrator.saga.repository.OrderSagaRepository;
-import jakarta.transaction.Transactional;
+import com.oms.sagaorchestrator.saga.outbox.SagaCommand;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Component
@@ -22,12 +20,12 @@ import java.util.UUID;
 @Slf4j
 public class InventoryUnavailableListener {
 
-        private final OrderSagaRepository sagaRepository;
-        private final KafkaTemplate<String, Object> kafkaTemplate;
-
-        @KafkaListener(topics = "${kafka.topics.inventory-unavailable}", containerFactory = "inventoryUnavailableKafkaListenerContainerFactory", groupId = "${kafka.consumer.group-id}")
-        @Transactional
-        public void handle(InventoryUnavailableEvent event) {
+        /**
+         * Moves the saga to COMPENSATING and emits the refund and order-failed
+         * commands through the saga outbox, so the consumer thread never waits
+         * for broker acknowledgments.
+         */
+        OrderSaga apply(OrderSaga saga, InventoryUnavailableEvent event, List<SagaCommand> commands) {
                 try {
                         UUID orderId = UUID.fromString(event.getOrderId());
 
@@ -35,10 +33,9 @@ public class InventoryUnavailableListener {
                                         orderId, event.getReason());
 
                         
-                        OrderSaga saga = sagaRepository.findById(orderId).orElse(null);
                         if (saga == null) {
                                 log.warn("⚠️  Saga not found for order {}, ignoring event", orderId);
-                                return;
+                                return null;
                         }
                         log.info("✓ Saga loaded | currentState={}", saga.getState());
 
@@ -46,57 +43,43 @@ public class InventoryUnavailableListener {
                         if (saga.getState() != SagaState.INVENTORY_REQUESTED) {
                                 log.warn("⚠️  Ignoring event - saga in wrong state | orderId={} | currentState={} | expectedState=INVENTORY_REQUESTED",
                                                 orderId, saga.getState());
-                                return;
+                                return null;
                         }
 
                         
                         log.info("→ Transitioning saga to INVENTORY_FAILED...");
                         saga.setReason(event.getReason());
                         saga.markInventoryFailed();
-                        sagaRepository.saveAndFlush(saga);
                         log.info("✓ Saga transitioned to INVENTORY_FAILED with reason: {}", event.getReason());
 
                         log.info("→ Transitioning saga to COMPENSATING...");
                         saga.markCompensating();
-                        sagaRepository.save(saga);
                         log.info("✓ Saga transitioned to COMPENSATING");
 
                         
-                        log.info("→ Sending RefundPaymentCommand...");
-                        var refundCommand = new RefundPaymentCommand(
+                        commands.add(new SagaCommand(
                                         orderId,
-                                        saga.getAmount(),
-                                        event.getReason(),
-                                        Instant.now());
-
-                        var refundResult = kafkaTemplate.send(
                                         "payment.refund.command",
-                                        orderId.toString(),
-                                        refundCommand).get(); 
-
-                        log.info("✓ RefundPaymentCommand sent successfully | recordMetadata={}",
-                                        refundResult.getRecordMetadata());
+                                        new RefundPaymentCommand(
+                                                        orderId,
+                                                        saga.getAmount(),
+                                                        event.getReason(),
+                                                        Instant.now())));
 
-                        
-                        log.info("→ Sending AdvanceOrderProgressCommand(ORDER_FAILED)...");
-                        var orderFailCommand = new AdvanceOrderProgressCommand(
+                        commands.add(new SagaCommand(
                                         orderId,
-                                        OrderProgress.ORDER_FAILED);
-
-                        var orderFailResult = kafkaTemplate.send(
                                         "order.command.advance-progress",
-                                        orderId.toString(),
-                                        orderFailCommand).get(); 
-
-                        log.info("✓ AdvanceOrderProgressCommand sent successfully | recordMetadata={}",
-                                        orderFailResult.getRecordMetadata());
+                                        new AdvanceOrderProgressCommand(
+                                                        orderId,
+                                                        OrderProgress.ORDER_FAILED)));
 
-                        log.info("✅ Rollback compensation completed successfully | orderId={}", orderId);
+                        log.info("✅ Compensation commands queued | orderId={}", orderId);
+                        return saga;
 
                 } catch (IllegalStateException e) {
                         log.error("❌ Invalid state transition in saga | error={}", e.getMessage(), e);
                         throw new RuntimeException("Saga state transition failed", e);
-                } catch (Exception e) {
+                } catch (RuntimeException e) {
                         log.error("❌ Failed to process InventoryUnavailableEvent | orderId={} | error={}",
                                         event.getOrderId(), e.getMessage(), e);
                         throw new RuntimeException("Rollback compensation failed", e);
@@ -7,15 +7,12 @@ import com.oms.eventcontracts.events.OrderCreatedEvent;
 import com.oms.eventcontracts.events.OrderItemDTO;
 import com.oms.sagaorchestrator.saga.domain.OrderSaga;
 import com.oms.sagaorchestrator.saga.domain.SagaState;
-import com.oms.sagaorchestrator.saga.repository.OrderSagaRepository;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import jakarta.annotation.PostConstruct;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
@@ -25,7 +22,6 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class OrderCreatedListener {
 
-        private final OrderSagaRepository sagaRepository;
         private final KafkaTemplate<String, Object> kafkaTemplate;
         private final CircuitBreakerRegistry circuitBreakerRegistry;
 
@@ -42,23 +38,20 @@ public class OrderCreatedListener {
                                                 event.getStateTransition().getToState()));
         }
 
-        @KafkaListener(topics = "order.event.created", groupId = "saga-orchestrator")
-        @Transactional
-        public void handle(OrderCreatedEvent event) {
 
-                OrderSaga saga = sagaRepository.findById(event.getOrderId())
-                                .orElseGet(() -> {
-                                        OrderSaga s = new OrderSaga(event.getOrderId(), event.getAmount());
-                                        for (OrderItemDTO item : event.getItems()) {
-                                                s.addItem(item.getProductId(), item.getQuantity(), item.getPrice());
-                                        }
-                                        return sagaRepository.save(s);
-                                });
+        OrderSaga apply(OrderSaga saga, OrderCreatedEvent event) {
+
+                if (saga == null) {
+                        saga = new OrderSaga(event.getOrderId(), event.getAmount());
+                        for (OrderItemDTO item : event.getItems()) {
+                                saga.addItem(item.getProductId(), item.getQuantity(), item.getPrice());
+                        }
+                }
 
                 
                 if (saga.getState() != SagaState.STARTED) {
                         log.info("⏭️ Saga already progressed for orderId={}, skipping", event.getOrderId());
-                        return;
+                        return null;
                 }
 
                 try {
@@ -79,7 +72,6 @@ public class OrderCreatedListener {
                         }).run();
 
                         saga.markPaymentRequested();
-                        sagaRepository.save(saga);
                         log.info("✅ Payment command dispatched for orderId={}", event.getOrderId());
 
                 } catch (CallNotPermittedException e) {
@@ -93,13 +85,13 @@ public class OrderCreatedListener {
                                         event.getOrderId(), e.getMessage(), e);
                         handlePaymentDispatchFailure(saga);
                 }
+                return saga;
         }
 
         
         private void handlePaymentDispatchFailure(OrderSaga saga) {
                 try {
                         saga.markPaymentFailed();
-                        sagaRepository.save(saga);
                         log.warn("⚠️ Saga marked PAYMENT_FAILED due to dispatch failure for orderId={}",
                                         saga.getOrderId());
                 } catch (Exception ex) {
@@ -6,11 +6,8 @@ import com.oms.eventcontracts.enums.OrderProgress;
 import com.oms.eventcontracts.events.PaymentCompletedEvent;
 import com.oms.sagaorchestrator.saga.domain.OrderSaga;
 import com.oms.sagaorchestrator.saga.domain.SagaState;
-import com.oms.sagaorchestrator.saga.repository.OrderSagaRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
@@ -23,27 +20,21 @@ import java.util.UUID;
 @Slf4j
 public class PaymentCompletedListener {
 
-    private final OrderSagaRepository sagaRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
-    @KafkaListener(
-            topics = "payment.completed",
-            groupId = "saga-orchestrator",
-            containerFactory = "paymentCompletedKafkaListenerContainerFactory"
-    )
-    @Transactional
-    public void handle(PaymentCompletedEvent event) {
+
+    OrderSaga apply(OrderSaga saga, PaymentCompletedEvent event) {
 
         UUID orderId = event.getOrderId();
-        OrderSaga saga = sagaRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalStateException("Saga not found"));
+        if (saga == null) {
+            throw new IllegalStateException("Saga not found");
+        }
 
-        if (saga.getState() != SagaState.PAYMENT_REQUESTED) return;
+        if (saga.getState() != SagaState.PAYMENT_REQUESTED) return null;
 
         
         saga.markPaymentCompleted();
         saga.markInventoryRequested();
-        sagaRepository.save(saga);
 
         List<ReserveInventoryCommand.LineItem> commandItems = saga.getItems().stream()
                 .map(item -> new ReserveInventoryCommand.LineItem(item.getProductId(), item.getQuantity()))
@@ -69,5 +60,6 @@ public class PaymentCompletedListener {
         kafkaTemplate.send("inventory.reserve.command", orderId.toString(), command);
 
         log.info("Batch ReserveInventoryCommand sent for orderId={}", orderId);
+        return saga;
     }
 }
\ No newline at end of file
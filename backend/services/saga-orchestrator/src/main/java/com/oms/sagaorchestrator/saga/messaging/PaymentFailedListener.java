@@ -5,27 +5,23 @@ import com.oms.eventcontracts.enums.OrderProgress;
 import com.oms.eventcontracts.events.PaymentFailedEvent;
 import com.oms.sagaorchestrator.saga.domain.OrderSaga;
 import com.oms.sagaorchestrator.saga.domain.SagaState;
-import com.oms.sagaorchestrator.saga.repository.OrderSagaRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+
 @Component
 @RequiredArgsConstructor
 public class PaymentFailedListener {
-    private final OrderSagaRepository sagaRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
-
-    @KafkaListener(topics = "payment.failed", groupId = "saga-orchestrator"
-
-            )
-    public void handle(PaymentFailedEvent event){
-        OrderSaga saga = sagaRepository.findById(event.getOrderId()).orElseThrow(() -> new IllegalStateException("Saga not found"));
+    OrderSaga apply(OrderSaga saga, PaymentFailedEvent event){
+        if(saga == null){
+            throw new IllegalStateException("Saga not found");
+        }
 
         if(saga.getState() != SagaState.PAYMENT_REQUESTED){
-            return;
+            return null;
         }
 
         kafkaTemplate.send(
@@ -40,6 +36,6 @@ public class PaymentFailedListener {
 
         saga.setReason(event.getReason());
         saga.markPaymentFailed();
-        sagaRepository.saveAndFlush(saga);
+        return saga;
     }
 }
@@ -0,0 +1,224 @@
+package com.oms.sagaorchestrator.saga.messaging;
+
+import com.oms.sagaorchestrator.saga.domain.OrderSaga;
+import com.oms.sagaorchestrator.saga.domain.SagaState;
+import com.oms.sagaorchestrator.saga.outbox.SagaCommand;
+import com.oms.sagaorchestrator.saga.store.SagaStore;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Applies a poll's worth of saga events against the {@link SagaStore}.
+ *
+ * The sagas referenced by the batch are taken from the store, which only
+ * goes to Postgres for the ones it does not hold yet (one query per batch).
+ * Events are applied in offset order against the in-memory sagas and the
+ * touched sagas are staged for write-behind together with the commands
+ * the steps emitted and the batch's acknowledgment. Events for the same order are applied to the same
+ * instance in sequence, which keeps per-order ordering.
+ *
+ * If an event fails, its own changes are reverted, the sagas changed by the
+ * events before it are flushed and a {@link BatchListenerFailedException}
+ * carrying the failed index is thrown. The container then commits the
+ * offsets before that index and retries or dead-letters from the failed
+ * record onwards, exactly like the record listeners did.
+ *
+ * With {@code saga.kafka.transactions.enabled} the listener runs inside a
+ * Kafka transaction that carries its sends and the consumed offsets. The
+ * batch's saga changes are then written through to Postgres before the
+ * listener returns, so the database commit directly precedes the Kafka
+ * commit. Failed events are nacked so the earlier ones still commit, and
+ * an event that keeps failing is dead-lettered inside the same transaction.
+ */
+@Slf4j
+@Component
+public class SagaBatchProcessor {
+
+    private static final String DLQ_TOPIC = "saga.events.dlq";
+
+    private final SagaStore sagaStore;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final boolean transactional;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+
+    private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+
+    public SagaBatchProcessor(
+            SagaStore sagaStore,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${saga.kafka.transactions.enabled:false}") boolean transactional,
+            @Value("${saga.listener.max-retries:2}") int maxRetries,
+            @Value("${saga.listener.retry-backoff-ms:500}") long retryBackoffMs
+    ) {
+        this.sagaStore = sagaStore;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactional = transactional;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
+    }
+
+    public <E> void process(List<E> events, Acknowledgment ack, Function<E, UUID> orderIdOf, SagaStep<E> step) {
+        processWithCommands(events, ack, orderIdOf, (saga, event, commands) -> step.apply(saga, event));
+    }
+
+    public <E> void processWithCommands(List<E> events, Acknowledgment ack, Function<E, UUID> orderIdOf,
+                                        SagaCommandStep<E> step) {
+
+        if (events.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> orderIds = new HashSet<>();
+        for (E event : events) {
+            try {
+                orderIds.add(orderIdOf.apply(event));
+            } catch (RuntimeException ex) {
+                // reported against the event's own index below
+            }
+        }
+
+        Map<UUID, OrderSaga> sagas = sagaStore.loadAll(orderIds);
+
+        Set<OrderSaga> touched = new LinkedHashSet<>();
+        List<SagaCommand> commands = new ArrayList<>();
+        Map<OrderSaga, Snapshot> before = new IdentityHashMap<>();
+        Failure failure = null;
+
+        for (int i = 0; i < events.size(); i++) {
+            E event = events.get(i);
+            UUID orderId = null;
+            OrderSaga saga = null;
+            Snapshot snapshot = null;
+            int emitted = commands.size();
+            try {
+                orderId = orderIdOf.apply(event);
+                saga = sagas.get(orderId);
+                snapshot = saga == null ? null : Snapshot.of(saga);
+                if (saga != null) {
+                    before.putIfAbsent(saga, snapshot);
+                }
+
+                OrderSaga result = step.apply(saga, event, commands);
+                if (result != null) {
+                    sagas.put(orderId, result);
+                    touched.add(result);
+                }
+                if (transactional && !attempts.isEmpty()) {
+                    attempts.remove(attemptKey(event, orderId));
+                }
+            } catch (RuntimeException ex) {
+                commands.subList(emitted, commands.size()).clear();
+                if (snapshot != null) {
+                    snapshot.restore(saga);
+                } else if (orderId != null) {
+                    sagas.remove(orderId);
+                }
+                if (transactional && deadLettered(event, orderId, ex)) {
+                    continue;
+                }
+                failure = new Failure(i, ex);
+                break;
+            }
+        }
+
+        if (transactional) {
+            writeThrough(touched, commands, before);
+            if (failure == null) {
+                ack.acknowledge();
+            } else {
+                log.warn("Saga event at index {} failed, redelivering from there", failure.index(), failure.cause());
+                ack.nack(failure.index(), retryBackoff);
+            }
+            return;
+        }
+
+        if (failure == null) {
+            sagaStore.stage(touched, commands, ack);
+            log.debug("Applied {} saga events, staged {} sagas", events.size(), touched.size());
+            return;
+        }
+
+        sagaStore.stage(touched, commands, null);
+        sagaStore.flush();
+        throw new BatchListenerFailedException(
+                "Saga event at index " + failure.index() + " failed", failure.cause(), failure.index());
+    }
+
+    private void writeThrough(Set<OrderSaga> touched, List<SagaCommand> commands, Map<OrderSaga, Snapshot> before) {
+        try {
+            sagaStore.writeThrough(touched, commands);
+        } catch (RuntimeException ex) {
+            before.forEach((saga, snapshot) -> snapshot.restore(saga));
+            throw ex;
+        }
+    }
+
+    /**
+     * Counts failures of an event across redeliveries and, once they exceed
+     * {@code saga.listener.max-retries}, publishes it to the DLQ inside the
+     * listener's transaction so it is skipped atomically with the offset commit.
+     */
+    private boolean deadLettered(Object event, UUID orderId, RuntimeException ex) {
+
+        String key = attemptKey(event, orderId);
+        if (attempts.merge(key, 1, Integer::sum) <= maxRetries) {
+            return false;
+        }
+        attempts.remove(key);
+
+        ProducerRecord<String, Object> record = new ProducerRecord<>(DLQ_TOPIC,
+                orderId != null ? orderId.toString() : null, event);
+        record.headers().add("dlq-exception-class", ex.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        record.headers().add("dlq-exception-message", String.valueOf(ex.getMessage()).getBytes(StandardCharsets.UTF_8));
+        record.headers().add("dlq-event-type", event.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        kafkaTemplate.send(record);
+
+        log.error("Saga event {} for orderId={} dead-lettered after {} retries", event.getClass().getSimpleName(),
+                orderId, maxRetries, ex);
+        return true;
+    }
+
+    private static String attemptKey(Object event, UUID orderId) {
+        return event.getClass().getName() + ":" + orderId;
+    }
+
+    private record Failure(int index, RuntimeException cause) {
+    }
+
+    /**
+     * The saga fields a step may change, captured so a failed step can be
+     * undone without discarding the rest of the batch.
+     */
+    private record Snapshot(SagaState state, String reason, Instant updatedAt) {
+
+        static Snapshot of(OrderSaga saga) {
+            return new Snapshot(saga.getState(), saga.getReason(), saga.getUpdatedAt());
+        }
+
+        void restore(OrderSaga saga) {
+            saga.setState(state);
+            saga.setReason(reason);
+            saga.setUpdatedAt(updatedAt);
+        }
+    }
+}
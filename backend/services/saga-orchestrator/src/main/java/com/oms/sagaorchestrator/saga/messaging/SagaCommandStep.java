@@ -0,0 +1,18 @@
+package com.oms.sagaorchestrator.saga.messaging;
+
+import com.oms.sagaorchestrator.saga.domain.OrderSaga;
+import com.oms.sagaorchestrator.saga.outbox.SagaCommand;
+
+import java.util.List;
+
+/**
+ * A {@link SagaStep} that emits its commands through the saga outbox
+ * instead of sending them itself. Commands added to {@code commands} are
+ * written together with the saga change and published afterwards, so the
+ * step never waits for the broker.
+ */
+@FunctionalInterface
+public interface SagaCommandStep<E> {
+
+    OrderSaga apply(OrderSaga saga, E event, List<SagaCommand> commands);
+}
@@ -0,0 +1,102 @@
+package com.oms.sagaorchestrator.saga.messaging;
+
+import com.oms.eventcontracts.events.InventoryReservedEvent;
+import com.oms.eventcontracts.events.InventoryUnavailableEvent;
+import com.oms.eventcontracts.events.OrderCreatedEvent;
+import com.oms.eventcontracts.events.PaymentCompletedEvent;
+import com.oms.eventcontracts.events.PaymentFailedEvent;
+import com.oms.eventcontracts.events.PaymentRefundedEvent;
+import com.oms.sagaorchestrator.saga.domain.OrderSaga;
+import com.oms.sagaorchestrator.saga.outbox.SagaCommand;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Single entry point for the events that drive the saga. They are consumed
+ * by one container (see {@code KafkaConfig#sagaEventConsumerFactory}), so a
+ * saga is only ever loaded, changed and staged by the consumer thread that
+ * owns its partition, and the {@code SagaStore} cache can be trusted. Each
+ * event is handed to the step of its type in poll order.
+ */
+@Component
+@RequiredArgsConstructor
+public class SagaEventListener {
+
+    public static final String ORDER_CREATED = "order.event.created";
+    public static final String PAYMENT_COMPLETED = "payment.completed";
+    public static final String PAYMENT_FAILED = "payment.failed";
+    public static final String PAYMENT_REFUNDED = "payment.refunded";
+
+    private final SagaBatchProcessor batchProcessor;
+    private final OrderCreatedListener orderCreated;
+    private final PaymentCompletedListener paymentCompleted;
+    private final PaymentFailedListener paymentFailed;
+    private final PaymentRefundedListener paymentRefunded;
+    private final InventoryReservedListener inventoryReserved;
+    private final InventoryUnavailableListener inventoryUnavailable;
+
+    @KafkaListener(
+            topics = {
+                    ORDER_CREATED,
+                    PAYMENT_COMPLETED,
+                    PAYMENT_FAILED,
+                    PAYMENT_REFUNDED,
+                    "${kafka.topics.inventory-reserved}",
+                    "${kafka.topics.inventory-unavailable}"
+            },
+            groupId = "${kafka.consumer.group-id}",
+            containerFactory = "sagaEventKafkaListenerContainerFactory"
+    )
+    public void handle(List<Object> events, Acknowledgment ack) {
+        batchProcessor.processWithCommands(events, ack, SagaEventListener::orderIdOf, this::apply);
+    }
+
+    OrderSaga apply(OrderSaga saga, Object event, List<SagaCommand> commands) {
+        if (event instanceof OrderCreatedEvent created) {
+            return orderCreated.apply(saga, created);
+        }
+        if (event instanceof PaymentCompletedEvent completed) {
+            return paymentCompleted.apply(saga, completed);
+        }
+        if (event instanceof PaymentFailedEvent failed) {
+            return paymentFailed.apply(saga, failed);
+        }
+        if (event instanceof PaymentRefundedEvent refunded) {
+            return paymentRefunded.apply(saga, refunded);
+        }
+        if (event instanceof InventoryReservedEvent reserved) {
+            return inventoryReserved.apply(saga, reserved);
+        }
+        if (event instanceof InventoryUnavailableEvent unavailable) {
+            return inventoryUnavailable.apply(saga, unavailable, commands);
+        }
+        throw new IllegalArgumentException("Not a saga event: " + event.getClass().getName());
+    }
+
+    static UUID orderIdOf(Object event) {
+        if (event instanceof OrderCreatedEvent created) {
+            return created.getOrderId();
+        }
+        if (event instanceof PaymentCompletedEvent completed) {
+            return completed.getOrderId();
+        }
+        if (event instanceof PaymentFailedEvent failed) {
+            return failed.getOrderId();
+        }
+        if (event instanceof PaymentRefundedEvent refunded) {
+            return refunded.getOrderId();
+        }
+        if (event instanceof InventoryReservedEvent reserved) {
+            return UUID.fromString(reserved.getOrderId());
+        }
+        if (event instanceof InventoryUnavailableEvent unavailable) {
+            return UUID.fromString(unavailable.getOrderId());
+        }
+        throw new IllegalArgumentException("Not a saga event: " + event.getClass().getName());
+    }
+}
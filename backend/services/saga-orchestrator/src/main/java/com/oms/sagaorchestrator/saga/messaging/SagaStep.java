@@ -0,0 +1,16 @@
+package com.oms.sagaorchestrator.saga.messaging;
+
+import com.oms.sagaorchestrator.saga.domain.OrderSaga;
+
+/**
+ * One saga transition driven by an incoming event.
+ *
+ * Receives the current saga for the event's order ({@code null} if none
+ * exists yet) and returns the saga to be saved, or {@code null} if the event
+ * was skipped and nothing changed.
+ */
+@FunctionalInterface
+public interface SagaStep<E> {
+
+    OrderSaga apply(OrderSaga saga, E event);
+}
@@ -0,0 +1,10 @@
+package com.oms.sagaorchestrator.saga.outbox;
+
+import java.util.UUID;
+
+/**
+ * A command a saga step wants published, keyed by its order, once the saga
+ * change that produced it is persisted.
+ */
+public record SagaCommand(UUID orderId, String topic, Object payload) {
+}
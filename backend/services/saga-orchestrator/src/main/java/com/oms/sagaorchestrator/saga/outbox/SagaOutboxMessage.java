@@ -0,0 +1,58 @@
+package com.oms.sagaorchestrator.saga.outbox;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "saga_outbox", indexes = {
+        @Index(name = "idx_saga_outbox_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_saga_outbox_order_created", columnList = "order_id, created_at")
+})
+@Getter
+@NoArgsConstructor
+public class SagaOutboxMessage {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID orderId;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(nullable = false)
+    private String messageKey;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SagaOutboxStatus status;
+
+    @Column(nullable = false)
+    private int retryCount;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant nextRetryAt;
+
+    public void markFailed() {
+        this.status = SagaOutboxStatus.FAILED;
+    }
+
+    public void incrementRetry() {
+        this.retryCount++;
+    }
+
+    public void scheduleNextRetry() {
+        this.nextRetryAt = Instant.now()
+                .plusSeconds(Math.min(60, retryCount * 5L));
+    }
+}
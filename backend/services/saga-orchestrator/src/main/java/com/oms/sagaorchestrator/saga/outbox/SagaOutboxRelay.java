@@ -0,0 +1,231 @@
+package com.oms.sagaorchestrator.saga.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes commands written to {@code saga_outbox} by the saga store.
+ *
+ * Saga listeners never wait for the broker: they stage their commands with
+ * the saga change and this relay sends them on its own thread, awaiting the
+ * acknowledgments for the whole batch at once.
+ *
+ * With a transactional producer the batch is published in one Kafka
+ * transaction, so read_committed consumers see all of it or none of it.
+ * Payloads are parsed before the transaction opens: an unreadable one is
+ * marked FAILED on its own instead of aborting the batch every run.
+ *
+ * A command that is not sent goes through the retry schedule and is marked
+ * FAILED after {@value #MAX_RETRIES} attempts, or at once for a send error
+ * that would repeat every time. Only the oldest pending command of an order
+ * is claimed, so a retry is never overtaken by a later command.
+ */
+@Slf4j
+@Component
+public class SagaOutboxRelay {
+
+    static final int MAX_RETRIES = 3;
+
+    private final SagaOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int batchSize;
+    private final long ackTimeoutMs;
+
+    public SagaOutboxRelay(
+            SagaOutboxRepository outboxRepository,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${saga.outbox.batch-size:500}") int batchSize,
+            @Value("${saga.outbox.ack-timeout-ms:10000}") long ackTimeoutMs
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.batchSize = batchSize;
+        this.ackTimeoutMs = ackTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${saga.outbox.poll-interval-ms:100}")
+    @Transactional
+    public void publishPending() {
+
+        List<SagaOutboxMessage> messages = outboxRepository.fetchPending(batchSize, MAX_RETRIES);
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        if (kafkaTemplate.isTransactional()) {
+            publishInTransaction(messages);
+            return;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(messages.size());
+        for (SagaOutboxMessage message : messages) {
+            try {
+                sends.add(kafkaTemplate.send(message.getTopic(), message.getMessageKey(),
+                        objectMapper.readTree(message.getPayload())));
+            } catch (Exception ex) {
+                sends.add(CompletableFuture.failedFuture(ex));
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs);
+        List<UUID> acked = new ArrayList<>(messages.size());
+
+        for (int i = 0; i < messages.size(); i++) {
+            SagaOutboxMessage message = messages.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acked.add(message.getId());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException ex) {
+                handleFailure(message, ex.getCause());
+            } catch (Exception ex) {
+                handleFailure(message, ex);
+            }
+        }
+
+        if (!acked.isEmpty()) {
+            outboxRepository.markSent(acked);
+        }
+        log.debug("Published {}/{} saga commands", acked.size(), messages.size());
+    }
+
+    private void publishInTransaction(List<SagaOutboxMessage> messages) {
+
+        Map<SagaOutboxMessage, Object> payloads = new LinkedHashMap<>();
+        for (SagaOutboxMessage message : messages) {
+            try {
+                payloads.put(message, objectMapper.readTree(message.getPayload()));
+            } catch (JsonProcessingException ex) {
+                log.error("Saga command {} to {} has an unreadable payload, marking it failed",
+                        message.getId(), message.getTopic(), ex);
+                message.markFailed();
+            }
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        try {
+            kafkaTemplate.executeInTransaction(operations -> {
+                List<CompletableFuture<?>> sends = new ArrayList<>(payloads.size());
+                payloads.forEach((message, payload) ->
+                        sends.add(operations.send(message.getTopic(), message.getMessageKey(), payload)));
+                awaitInTransaction(List.copyOf(payloads.keySet()), sends);
+                return null;
+            });
+        } catch (Exception ex) {
+            CommandNotSentException notSent = findCause(ex, CommandNotSentException.class);
+            if (notSent != null) {
+                // the rest of the batch goes out on the next run, without the command that broke it
+                handleFailure(notSent.message, notSent.getCause());
+            } else {
+                payloads.keySet().forEach(message -> retryLater(message, ex));
+            }
+            log.warn("Saga command transaction of {} messages failed", payloads.size(), ex);
+            return;
+        }
+
+        outboxRepository.markSent(payloads.keySet().stream().map(SagaOutboxMessage::getId).toList());
+        log.debug("Published {} saga commands in one transaction", payloads.size());
+    }
+
+    /** Waits for every send of the transaction, so a rejected record is known before the commit. */
+    private void awaitInTransaction(List<SagaOutboxMessage> messages, List<CompletableFuture<?>> sends) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs);
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while publishing saga commands", ex);
+            } catch (ExecutionException ex) {
+                throw new CommandNotSentException(messages.get(i), ex.getCause());
+            } catch (TimeoutException ex) {
+                throw new CommandNotSentException(messages.get(i), ex);
+            }
+        }
+    }
+
+    private void handleFailure(SagaOutboxMessage message, Throwable ex) {
+        if (isPermanent(ex)) {
+            message.incrementRetry();
+            log.error("Saga command {} to {} permanently failed", message.getId(), message.getTopic(), ex);
+            message.markFailed();
+            return;
+        }
+        retryLater(message, ex);
+    }
+
+    private void retryLater(SagaOutboxMessage message, Throwable ex) {
+        message.incrementRetry();
+        if (message.getRetryCount() >= MAX_RETRIES) {
+            log.error("Saga command {} to {} failed after {} attempts",
+                    message.getId(), message.getTopic(), message.getRetryCount(), ex);
+            message.markFailed();
+        } else {
+            log.warn("Saga command {} to {} not acknowledged, retry {} scheduled",
+                    message.getId(), message.getTopic(), message.getRetryCount(), ex);
+            message.scheduleNextRetry();
+        }
+    }
+
+    /**
+     * Whether sending again would fail the same way, such as an unreadable
+     * payload, an oversized record or a serialization error. Time-outs and
+     * errors Kafka marks as retriable are worth another attempt, and so is
+     * anything unknown.
+     */
+    static boolean isPermanent(Throwable ex) {
+        boolean kafkaError = false;
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException || cause instanceof TimeoutException) {
+                return false;
+            }
+            if (cause instanceof JsonProcessingException) {
+                return true;
+            }
+            kafkaError |= cause instanceof KafkaException;
+        }
+        return kafkaError;
+    }
+
+    private static <T extends Throwable> T findCause(Throwable ex, Class<T> type) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+        }
+        return null;
+    }
+
+    private static final class CommandNotSentException extends RuntimeException {
+
+        private final transient SagaOutboxMessage message;
+
+        private CommandNotSentException(SagaOutboxMessage message, Throwable cause) {
+            super("Saga command " + message.getId() + " was not sent", cause);
+            this.message = message;
+        }
+    }
+}
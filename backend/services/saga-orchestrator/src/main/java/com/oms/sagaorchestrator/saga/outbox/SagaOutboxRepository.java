@@ -0,0 +1,42 @@
+package com.oms.sagaorchestrator.saga.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface SagaOutboxRepository extends JpaRepository<SagaOutboxMessage, UUID> {
+
+    /**
+     * Claims up to {@code limit} publishable commands. Only the oldest
+     * pending command of each order is eligible, so a command waiting for
+     * its retry is not overtaken by a later one for the same order.
+     */
+    @Query(value = """
+    SELECT *
+    FROM saga_outbox m
+    WHERE m.status = 'NEW'
+    AND m.retry_count < :maxRetries
+    AND (m.next_retry_at IS NULL OR m.next_retry_at <= now())
+    AND NOT EXISTS (
+        SELECT 1
+        FROM saga_outbox prior
+        WHERE prior.order_id = m.order_id
+        AND prior.status = 'NEW'
+        AND prior.retry_count < :maxRetries
+        AND prior.created_at < m.created_at
+    )
+    ORDER BY m.created_at
+    LIMIT :limit
+    FOR UPDATE SKIP LOCKED
+""", nativeQuery = true)
+    List<SagaOutboxMessage> fetchPending(@Param("limit") int limit, @Param("maxRetries") int maxRetries);
+
+    @Modifying
+    @Query(value = "UPDATE saga_outbox SET status = 'SENT' WHERE id IN (:ids)", nativeQuery = true)
+    int markSent(@Param("ids") Collection<UUID> ids);
+}
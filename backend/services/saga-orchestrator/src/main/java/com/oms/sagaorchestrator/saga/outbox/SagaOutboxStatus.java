@@ -0,0 +1,7 @@
+package com.oms.sagaorchestrator.saga.outbox;
+
+public enum SagaOutboxStatus {
+    NEW,
+    SENT,
+    FAILED
+}
@@ -1,16 +1,25 @@
 package com.oms.sagaorchestrator.saga.repository;
 
 import com.oms.sagaorchestrator.saga.domain.OrderSaga;
+import com.oms.sagaorchestrator.saga.domain.SagaState;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface OrderSagaRepository extends JpaRepository<OrderSaga, UUID> {
 
     Optional<OrderSaga> findByOrderId(UUID orderId);
+
+    @Query("select distinct s from OrderSaga s left join fetch s.items where s.orderId in :orderIds")
+    List<OrderSaga> findAllWithItemsByOrderIdIn(@Param("orderIds") Collection<UUID> orderIds);
+
+    @Query("select s.orderId from OrderSaga s where s.state not in :states")
+    List<UUID> findOrderIdsByStateNotIn(@Param("states") Collection<SagaState> states);
 }
@@ -0,0 +1,42 @@
+package com.oms.sagaorchestrator.saga.store;
+
+import com.oms.sagaorchestrator.saga.domain.OrderSaga;
+import com.oms.sagaorchestrator.saga.domain.SagaState;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable copy of a saga as staged for write-behind, so the flush never
+ * reads an instance a listener thread is still changing.
+ */
+record SagaRow(
+        UUID orderId,
+        BigDecimal amount,
+        SagaState state,
+        String reason,
+        Instant createdAt,
+        Instant updatedAt,
+        List<ItemRow> items
+) {
+
+    record ItemRow(UUID id, String productId, int quantity, BigDecimal price, boolean reserved) {
+    }
+
+    static SagaRow of(OrderSaga saga) {
+        return new SagaRow(
+                saga.getOrderId(),
+                saga.getAmount(),
+                saga.getState(),
+                saga.getReason(),
+                saga.getCreatedAt(),
+                saga.getUpdatedAt(),
+                saga.getItems().stream()
+                        .map(item -> new ItemRow(item.getId(), item.getProductId(), item.getQuantity(),
+                                item.getPrice(), item.isReserved()))
+                        .toList()
+        );
+    }
+}
@@ -0,0 +1,431 @@
+package com.oms.sagaorchestrator.saga.store;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.oms.eventcontracts.ids.UuidV7;
+import com.oms.sagaorchestrator.saga.domain.OrderSaga;
+import com.oms.sagaorchestrator.saga.domain.SagaState;
+import com.oms.sagaorchestrator.saga.outbox.SagaCommand;
+import com.oms.sagaorchestrator.saga.repository.OrderSagaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory store of the live sagas owned by this instance.
+ *
+ * All events of an order are keyed by its id and every saga topic is read
+ * by the one range-assigned consumer of {@code SagaEventListener}, so
+ * partition p of each topic, and with it every event of an order, reaches
+ * the same instance and consumer thread. This relies on the saga topics
+ * having the same partition count. Sagas of the assigned partitions are
+ * therefore kept in memory and saga steps read them from here instead of
+ * from Postgres; only sagas not yet cached are loaded, one query per batch.
+ *
+ * Changes are staged as immutable rows together with the commands they
+ * emit and the acknowledgment of the batch that made them, and written to
+ * {@code order_sagas} and {@code saga_outbox} in one transaction by a
+ * periodic write-behind flush. Offsets are only acknowledged after the flush has
+ * committed, so a crash replays the unflushed events against the last
+ * persisted state, as before.
+ *
+ * Sagas in a terminal state are evicted once flushed. On rebalance the store
+ * flushes and drops the sagas of revoked partitions and loads the live
+ * sagas of newly assigned ones: the ids of all live sagas are read, and
+ * only those hashing to an assigned partition are loaded.
+ */
+@Slf4j
+@Component
+public class SagaStore implements ConsumerAwareRebalanceListener {
+
+    private static final Set<SagaState> TERMINAL =
+            EnumSet.of(SagaState.COMPLETED, SagaState.FAILED, SagaState.COMPENSATED);
+
+    private static final int WARM_UP_CHUNK = 1000;
+
+    private static final String UPSERT_SAGA = """
+            INSERT INTO order_sagas (order_id, amount, state, reason, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (order_id) DO UPDATE
+            SET state = EXCLUDED.state,
+                reason = EXCLUDED.reason,
+                updated_at = EXCLUDED.updated_at
+            WHERE order_sagas.updated_at IS NULL OR order_sagas.updated_at <= EXCLUDED.updated_at
+            """;
+
+    private static final String UPSERT_ITEM = """
+            INSERT INTO order_saga_items (id, order_id, product_id, quantity, price, reserved)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE
+            SET reserved = EXCLUDED.reserved
+            """;
+
+    private static final String INSERT_COMMAND = """
+            INSERT INTO saga_outbox (id, order_id, topic, message_key, payload, status, retry_count, created_at)
+            VALUES (?, ?, ?, ?, ?, 'NEW', 0, ?)
+            """;
+
+    private final OrderSagaRepository sagaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate writeTemplate;
+    private final int maxDirty;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ConcurrentHashMap<UUID, OrderSaga> live = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Object pendingLock = new Object();
+
+    private Map<UUID, SagaRow> dirty = new LinkedHashMap<>();
+    private List<CommandRow> commands = new ArrayList<>();
+    private List<Acknowledgment> acks = new ArrayList<>();
+
+    public SagaStore(
+            OrderSagaRepository sagaRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${saga.store.max-dirty:5000}") int maxDirty
+    ) {
+        this.sagaRepository = sagaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.maxDirty = maxDirty;
+    }
+
+    public Optional<OrderSaga> find(UUID orderId) {
+        OrderSaga saga = live.get(orderId);
+        return saga != null ? Optional.of(saga) : sagaRepository.findByOrderId(orderId);
+    }
+
+    /**
+     * Returns the existing sagas for the given orders, loading the ones not
+     * in memory with a single query.
+     */
+    public Map<UUID, OrderSaga> loadAll(Collection<UUID> orderIds) {
+
+        Map<UUID, OrderSaga> sagas = new HashMap<>();
+        List<UUID> misses = new ArrayList<>();
+
+        for (UUID orderId : orderIds) {
+            OrderSaga saga = live.get(orderId);
+            if (saga != null) {
+                sagas.put(orderId, saga);
+            } else {
+                misses.add(orderId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            List<OrderSaga> loaded = readTemplate.execute(status -> sagaRepository.findAllWithItemsByOrderIdIn(misses));
+            for (OrderSaga saga : loaded) {
+                OrderSaga cached = live.putIfAbsent(saga.getOrderId(), saga);
+                sagas.put(saga.getOrderId(), cached != null ? cached : saga);
+            }
+        }
+
+        return sagas;
+    }
+
+    public void stage(Collection<OrderSaga> sagas, Acknowledgment ack) {
+        stage(sagas, List.of(), ack);
+    }
+
+    /**
+     * Stages changed sagas and the commands they emit for the next flush.
+     * The acknowledgment, if given, is released once everything staged up
+     * to now has been written.
+     */
+    public void stage(Collection<OrderSaga> sagas, Collection<SagaCommand> emitted, Acknowledgment ack) {
+
+        List<CommandRow> rows = new ArrayList<>(emitted.size());
+        for (SagaCommand command : emitted) {
+            rows.add(CommandRow.of(command, serialize(command.payload())));
+        }
+
+        int pending;
+        synchronized (pendingLock) {
+            for (OrderSaga saga : sagas) {
+                live.put(saga.getOrderId(), saga);
+                dirty.put(saga.getOrderId(), SagaRow.of(saga));
+            }
+            commands.addAll(rows);
+            if (ack != null) {
+                acks.add(ack);
+            }
+            pending = dirty.size();
+        }
+
+        if (pending >= maxDirty) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes sagas and their commands synchronously, bypassing the
+     * write-behind queue. Used in transactional mode, where the write has to
+     * commit before the listener's Kafka transaction does. The in-memory
+     * store is only updated once the write has committed.
+     */
+    public void writeThrough(Collection<OrderSaga> sagas, Collection<SagaCommand> emitted) {
+
+        if (sagas.isEmpty() && emitted.isEmpty()) {
+            return;
+        }
+
+        List<SagaRow> rows = sagas.stream().map(SagaRow::of).toList();
+        List<CommandRow> commandRows = new ArrayList<>(emitted.size());
+        for (SagaCommand command : emitted) {
+            commandRows.add(CommandRow.of(command, serialize(command.payload())));
+        }
+
+        writeTemplate.executeWithoutResult(status -> write(rows, commandRows));
+
+        for (OrderSaga saga : sagas) {
+            live.put(saga.getOrderId(), saga);
+        }
+        evictTerminal(rows);
+    }
+
+    @Scheduled(fixedDelayString = "${saga.store.flush-interval-ms:200}")
+    public void flushPending() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Saga write-behind flush failed, retrying on next interval", ex);
+        }
+    }
+
+    /**
+     * Writes all staged sagas in one JDBC batch and then acknowledges the
+     * batches that produced them.
+     */
+    public void flush() {
+
+        flushLock.lock();
+        try {
+            Map<UUID, SagaRow> rows;
+            List<CommandRow> pendingCommands;
+            List<Acknowledgment> pendingAcks;
+            synchronized (pendingLock) {
+                if (dirty.isEmpty() && commands.isEmpty() && acks.isEmpty()) {
+                    return;
+                }
+                rows = dirty;
+                pendingCommands = commands;
+                pendingAcks = acks;
+                dirty = new LinkedHashMap<>();
+                commands = new ArrayList<>();
+                acks = new ArrayList<>();
+            }
+
+            try {
+                if (!rows.isEmpty() || !pendingCommands.isEmpty()) {
+                    writeTemplate.executeWithoutResult(status -> write(rows.values(), pendingCommands));
+                }
+            } catch (RuntimeException ex) {
+                synchronized (pendingLock) {
+                    rows.putAll(dirty);
+                    dirty = rows;
+                    pendingCommands.addAll(commands);
+                    commands = pendingCommands;
+                    pendingAcks.addAll(acks);
+                    acks = pendingAcks;
+                }
+                throw ex;
+            }
+
+            pendingAcks.forEach(Acknowledgment::acknowledge);
+            evictTerminal(rows.values());
+            log.debug("Flushed {} sagas, acknowledged {} batches", rows.size(), pendingAcks.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(Collection<SagaRow> rows, List<CommandRow> emitted) {
+
+        if (!emitted.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_COMMAND, emitted, emitted.size(), (ps, command) -> {
+                ps.setObject(1, command.id());
+                ps.setObject(2, command.orderId());
+                ps.setString(3, command.topic());
+                ps.setString(4, command.key());
+                ps.setString(5, command.payload());
+                ps.setTimestamp(6, Timestamp.from(command.createdAt()));
+            });
+        }
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_SAGA, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row.orderId());
+            ps.setBigDecimal(2, row.amount());
+            ps.setString(3, row.state().name());
+            ps.setString(4, row.reason());
+            ps.setTimestamp(5, Timestamp.from(row.createdAt()));
+            ps.setTimestamp(6, row.updatedAt() != null ? Timestamp.from(row.updatedAt()) : null);
+        });
+
+        List<ItemWrite> items = new ArrayList<>();
+        for (SagaRow row : rows) {
+            for (SagaRow.ItemRow item : row.items()) {
+                items.add(new ItemWrite(row.orderId(), item));
+            }
+        }
+        if (!items.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ITEM, items, items.size(), (ps, write) -> {
+                ps.setObject(1, write.item().id());
+                ps.setObject(2, write.orderId());
+                ps.setString(3, write.item().productId());
+                ps.setInt(4, write.item().quantity());
+                ps.setBigDecimal(5, write.item().price());
+                ps.setBoolean(6, write.item().reserved());
+            });
+        }
+    }
+
+    private void evictTerminal(Collection<SagaRow> rows) {
+        synchronized (pendingLock) {
+            for (SagaRow row : rows) {
+                if (TERMINAL.contains(row.state()) && !dirty.containsKey(row.orderId())) {
+                    live.computeIfPresent(row.orderId(),
+                            (orderId, saga) -> TERMINAL.contains(saga.getState()) ? null : saga);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Saga flush on partition revocation failed", ex);
+        }
+
+        Map<String, Set<Integer>> revoked = byTopic(partitions);
+        int before = live.size();
+        revoked.forEach((topic, numbers) -> {
+            int partitionCount = consumer.partitionsFor(topic).size();
+            synchronized (pendingLock) {
+                live.keySet().removeIf(orderId ->
+                        !dirty.containsKey(orderId) && numbers.contains(partitionOf(orderId, partitionCount)));
+            }
+        });
+        log.info("Dropped {} cached sagas for revoked partitions {}", before - live.size(), partitions);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, Set<Integer>> assigned = byTopic(partitions);
+            Set<Integer> partitionCounts = new HashSet<>();
+            List<UUID> activeIds = readTemplate.execute(status -> sagaRepository.findOrderIdsByStateNotIn(TERMINAL));
+            Set<UUID> owned = new LinkedHashSet<>();
+            for (Map.Entry<String, Set<Integer>> topic : assigned.entrySet()) {
+                int partitionCount = consumer.partitionsFor(topic.getKey()).size();
+                partitionCounts.add(partitionCount);
+                for (UUID orderId : activeIds) {
+                    if (topic.getValue().contains(partitionOf(orderId, partitionCount)) && !live.containsKey(orderId)) {
+                        owned.add(orderId);
+                    }
+                }
+            }
+            if (partitionCounts.size() > 1) {
+                log.warn("Saga topics have different partition counts {}, events of one order may reach different instances",
+                        partitionCounts);
+            }
+
+            int warmed = 0;
+            List<UUID> ids = new ArrayList<>(owned);
+            for (int from = 0; from < ids.size(); from += WARM_UP_CHUNK) {
+                List<UUID> chunk = ids.subList(from, Math.min(ids.size(), from + WARM_UP_CHUNK));
+                for (OrderSaga saga : readTemplate.execute(status -> sagaRepository.findAllWithItemsByOrderIdIn(chunk))) {
+                    if (live.putIfAbsent(saga.getOrderId(), saga) == null) {
+                        warmed++;
+                    }
+                }
+            }
+            log.info("Loaded {} live sagas for assigned partitions {}", warmed, partitions);
+        } catch (RuntimeException ex) {
+            log.warn("Could not warm saga store for {}, sagas will be loaded on demand", partitions, ex);
+        }
+    }
+
+    private static Map<String, Set<Integer>> byTopic(Collection<TopicPartition> partitions) {
+        return partitions.stream().collect(Collectors.groupingBy(TopicPartition::topic,
+                Collectors.mapping(TopicPartition::partition, Collectors.toCollection(HashSet::new))));
+    }
+
+    /**
+     * Same partition the default producer partitioner picks for the
+     * {@code orderId.toString()} record key.
+     */
+    static int partitionOf(UUID orderId, int partitionCount) {
+        return Utils.toPositive(Utils.murmur2(orderId.toString().getBytes(StandardCharsets.UTF_8))) % partitionCount;
+    }
+
+    private String serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Saga command payload is not serializable", ex);
+        }
+    }
+
+    private record ItemWrite(UUID orderId, SagaRow.ItemRow item) {
+    }
+
+    private record CommandRow(UUID id, UUID orderId, String topic, String key, String payload, Instant createdAt) {
+
+        static CommandRow of(SagaCommand command, String payload) {
+            return new CommandRow(UuidV7.next(), command.orderId(), command.topic(),
+                    command.orderId().toString(), payload, Instant.now());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.oms.sagaorchestrator.saga.messaging;
+
+import com.oms.sagaorchestrator.saga.domain.OrderSaga;
+import com.oms.sagaorchestrator.saga.domain.SagaState;
+import com.oms.sagaorchestrator.saga.outbox.SagaCommand;
+import com.oms.sagaorchestrator.saga.store.SagaStore;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SagaBatchProcessorTest {
+
+    @Mock
+    private SagaStore sagaStore;
+
+    @Mock
+    private Acknowledgment ack;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private SagaBatchProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new SagaBatchProcessor(sagaStore, kafkaTemplate, false, 2, 500);
+    }
+
+    @Test
+    void shouldLoadAndStageTheWholeBatchOnce() {
+
+        OrderSaga first = new OrderSaga(UUID.randomUUID(), BigDecimal.TEN);
+        OrderSaga second = new OrderSaga(UUID.randomUUID(), BigDecimal.ONE);
+        when(sagaStore.loadAll(any())).thenReturn(sagas(first, second));
+
+        processor.process(List.of(first.getOrderId(), second.getOrderId()), ack, id -> id, (saga, id) -> {
+            saga.markPaymentRequested();
+            return saga;
+        });
+
+        verify(sagaStore, times(1)).loadAll(any());
+        assertThat(stagedSagas(ack)).containsExactly(first, second);
+        assertThat(first.getState()).isEqualTo(SagaState.PAYMENT_REQUESTED);
+        assertThat(second.getState()).isEqualTo(SagaState.PAYMENT_REQUESTED);
+    }
+
+    @Test
+    void shouldApplyEventsOfOneOrderInSequence() {
+
+        UUID orderId = UUID.randomUUID();
+        when(sagaStore.loadAll(any())).thenReturn(new HashMap<>());
+
+        processor.process(List.of(orderId, orderId), ack, id -> id, (saga, id) -> {
+            if (saga == null) {
+                return new OrderSaga(id, BigDecimal.TEN);
+            }
+            if (saga.getState() != SagaState.STARTED) {
+                return null;
+            }
+            saga.markPaymentRequested();
+            return saga;
+        });
+
+        assertThat(stagedSagas(ack)).singleElement()
+                .satisfies(saga -> assertThat(saga.getState()).isEqualTo(SagaState.PAYMENT_REQUESTED));
+    }
+
+    @Test
+    void shouldFlushEarlierEventsAndReportTheFailedIndex() {
+
+        OrderSaga applied = new OrderSaga(UUID.randomUUID(), BigDecimal.TEN);
+        OrderSaga failing = new OrderSaga(UUID.randomUUID(), BigDecimal.ONE);
+        when(sagaStore.loadAll(any())).thenReturn(sagas(applied, failing));
+
+        assertThatThrownBy(() -> processor.processWithCommands(
+                List.of(applied.getOrderId(), failing.getOrderId()), ack, id -> id, (saga, id, commands) -> {
+                    saga.markPaymentRequested();
+                    commands.add(new SagaCommand(id, "payment.initiate", id.toString()));
+                    if (saga == failing) {
+                        throw new IllegalStateException("broker unavailable");
+                    }
+                    return saga;
+                }))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        ex -> assertThat(ex.getIndex()).isEqualTo(1));
+
+        assertThat(stagedSagas(null)).containsExactly(applied);
+        assertThat(stagedCommands()).extracting(SagaCommand::orderId).containsExactly(applied.getOrderId());
+        InOrder order = inOrder(sagaStore);
+        order.verify(sagaStore).stage(any(), any(), isNull());
+        order.verify(sagaStore).flush();
+        assertThat(applied.getState()).isEqualTo(SagaState.PAYMENT_REQUESTED);
+        assertThat(failing.getState()).isEqualTo(SagaState.STARTED);
+    }
+
+    @Test
+    void shouldWriteThroughAndNackTheFailedIndexInTransactionalMode() {
+
+        SagaBatchProcessor transactional = new SagaBatchProcessor(sagaStore, kafkaTemplate, true, 2, 500);
+        OrderSaga applied = new OrderSaga(UUID.randomUUID(), BigDecimal.TEN);
+        OrderSaga failing = new OrderSaga(UUID.randomUUID(), BigDecimal.ONE);
+        when(sagaStore.loadAll(any())).thenReturn(sagas(applied, failing));
+
+        transactional.process(List.of(applied.getOrderId(), failing.getOrderId()), ack, id -> id, (saga, id) -> {
+            saga.markPaymentRequested();
+            if (saga == failing) {
+                throw new IllegalStateException("broker unavailable");
+            }
+            return saga;
+        });
+
+        verify(sagaStore).writeThrough(eq(Set.of(applied)), eq(List.of()));
+        verify(sagaStore, never()).stage(any(), any(), any());
+        verify(ack).nack(1, Duration.ofMillis(500));
+        verify(ack, never()).acknowledge();
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        assertThat(failing.getState()).isEqualTo(SagaState.STARTED);
+    }
+
+    @Test
+    void shouldDeadLetterAnEventThatKeepsFailingInTransactionalMode() {
+
+        SagaBatchProcessor transactional = new SagaBatchProcessor(sagaStore, kafkaTemplate, true, 1, 500);
+        OrderSaga failing = new OrderSaga(UUID.randomUUID(), BigDecimal.ONE);
+        when(sagaStore.loadAll(any())).thenAnswer(invocation -> sagas(failing));
+
+        SagaStep<UUID> step = (saga, id) -> {
+            throw new IllegalStateException("poison");
+        };
+        transactional.process(List.of(failing.getOrderId()), ack, id -> id, step);
+        transactional.process(List.of(failing.getOrderId()), ack, id -> id, step);
+
+        verify(ack, times(1)).nack(0, Duration.ofMillis(500));
+        verify(ack, times(1)).acknowledge();
+        verify(kafkaTemplate).send(any(ProducerRecord.class));
+    }
+
+    private static Map<UUID, OrderSaga> sagas(OrderSaga... sagas) {
+        Map<UUID, OrderSaga> byId = new HashMap<>();
+        for (OrderSaga saga : sagas) {
+            byId.put(saga.getOrderId(), saga);
+        }
+        return byId;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OrderSaga> stagedSagas(Acknowledgment expectedAck) {
+        ArgumentCaptor<Collection<OrderSaga>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(sagaStore).stage(captor.capture(), any(), expectedAck == null ? isNull() : eq(expectedAck));
+        return List.copyOf(captor.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SagaCommand> stagedCommands() {
+        ArgumentCaptor<Collection<SagaCommand>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(sagaStore).stage(any(), captor.capture(), any());
+        return List.copyOf(captor.getValue());
+    }
+}
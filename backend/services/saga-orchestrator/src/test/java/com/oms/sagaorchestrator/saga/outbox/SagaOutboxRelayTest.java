@@ -0,0 +1,182 @@
+package com.oms.sagaorchestrator.saga.outbox;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import org.apache.kafka.common.errors.NotLeaderOrFollowerException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SagaOutboxRelayTest {
+
+    @Mock
+    private SagaOutboxRepository outboxRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private SagaOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new SagaOutboxRelay(outboxRepository, kafkaTemplate, 100, 1000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldMarkOnlyAcknowledgedCommandsSent() {
+
+        SagaOutboxMessage refund = message("payment.refund.command");
+        SagaOutboxMessage orderFailed = message("order.command.advance-progress");
+
+        when(outboxRepository.fetchPending(100, SagaOutboxRelay.MAX_RETRIES)).thenReturn(List.of(refund, orderFailed));
+        when(kafkaTemplate.send(eq("payment.refund.command"), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaTemplate.send(eq("order.command.advance-progress"), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker unavailable")));
+
+        relay.publishPending();
+
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxRepository).markSent(ids.capture());
+        assertThat(ids.getValue()).containsExactly(refund.getId());
+        assertThat(orderFailed.getRetryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldBackOffAndFailACommandThatIsNeverAcknowledged() {
+
+        SagaOutboxMessage refund = message("payment.refund.command");
+        when(outboxRepository.fetchPending(100, SagaOutboxRelay.MAX_RETRIES)).thenReturn(List.of(refund));
+        when(kafkaTemplate.send(eq("payment.refund.command"), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker unavailable")));
+
+        relay.publishPending();
+
+        assertThat(refund.getStatus()).isEqualTo(SagaOutboxStatus.NEW);
+        assertThat(refund.getNextRetryAt()).isAfter(Instant.now());
+
+        for (int i = 1; i < SagaOutboxRelay.MAX_RETRIES; i++) {
+            relay.publishPending();
+        }
+
+        assertThat(refund.getRetryCount()).isEqualTo(SagaOutboxRelay.MAX_RETRIES);
+        assertThat(refund.getStatus()).isEqualTo(SagaOutboxStatus.FAILED);
+        verify(outboxRepository, never()).markSent(any());
+    }
+
+    @Test
+    void shouldFailAPermanentlyRejectedCommandAtOnce() {
+
+        SagaOutboxMessage refund = message("payment.refund.command");
+        when(outboxRepository.fetchPending(100, SagaOutboxRelay.MAX_RETRIES)).thenReturn(List.of(refund));
+        when(kafkaTemplate.send(eq("payment.refund.command"), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new KafkaException("send failed", new RecordTooLargeException("too large"))));
+
+        relay.publishPending();
+
+        assertThat(refund.getRetryCount()).isEqualTo(1);
+        assertThat(refund.getStatus()).isEqualTo(SagaOutboxStatus.FAILED);
+    }
+
+    @Test
+    void shouldRetryTimeoutsAndRetriableErrorsButNotRejectedRecords() {
+
+        assertThat(SagaOutboxRelay.isPermanent(new org.apache.kafka.common.errors.TimeoutException("no ack"))).isFalse();
+        assertThat(SagaOutboxRelay.isPermanent(
+                new KafkaException("send failed", new NotLeaderOrFollowerException("moved")))).isFalse();
+        assertThat(SagaOutboxRelay.isPermanent(new RuntimeException("unknown"))).isFalse();
+        assertThat(SagaOutboxRelay.isPermanent(new RecordTooLargeException("too large"))).isTrue();
+        assertThat(SagaOutboxRelay.isPermanent(new SerializationException("bad value"))).isTrue();
+        assertThat(SagaOutboxRelay.isPermanent(new JsonParseException(null, "bad payload"))).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFailAnUnreadablePayloadWithoutHoldingBackTheTransaction() {
+
+        SagaOutboxMessage refund = message("payment.refund.command");
+        SagaOutboxMessage unreadable = message("order.command.advance-progress");
+        ReflectionTestUtils.setField(unreadable, "payload", "{not json");
+
+        KafkaOperations<String, Object> operations = mock(KafkaOperations.class);
+        when(outboxRepository.fetchPending(100, SagaOutboxRelay.MAX_RETRIES)).thenReturn(List.of(refund, unreadable));
+        when(kafkaTemplate.isTransactional()).thenReturn(true);
+        when(kafkaTemplate.executeInTransaction(any())).thenAnswer(invocation ->
+                invocation.<KafkaOperations.OperationsCallback<String, Object, Object>>getArgument(0)
+                        .doInOperations(operations));
+        when(operations.send(eq("payment.refund.command"), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.publishPending();
+
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxRepository).markSent(ids.capture());
+        assertThat(ids.getValue()).containsExactly(refund.getId());
+        assertThat(unreadable.getStatus()).isEqualTo(SagaOutboxStatus.FAILED);
+        verify(operations, never()).send(eq("order.command.advance-progress"), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRetryOnlyTheCommandThatBrokeTheTransaction() {
+
+        SagaOutboxMessage refund = message("payment.refund.command");
+        SagaOutboxMessage oversized = message("order.command.advance-progress");
+
+        KafkaOperations<String, Object> operations = mock(KafkaOperations.class);
+        when(outboxRepository.fetchPending(100, SagaOutboxRelay.MAX_RETRIES)).thenReturn(List.of(refund, oversized));
+        when(kafkaTemplate.isTransactional()).thenReturn(true);
+        when(kafkaTemplate.executeInTransaction(any())).thenAnswer(invocation ->
+                invocation.<KafkaOperations.OperationsCallback<String, Object, Object>>getArgument(0)
+                        .doInOperations(operations));
+        when(operations.send(eq("payment.refund.command"), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(operations.send(eq("order.command.advance-progress"), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RecordTooLargeException("too large")));
+
+        relay.publishPending();
+
+        verify(outboxRepository, never()).markSent(any());
+        assertThat(oversized.getStatus()).isEqualTo(SagaOutboxStatus.FAILED);
+        assertThat(refund.getStatus()).isEqualTo(SagaOutboxStatus.NEW);
+        assertThat(refund.getRetryCount()).isZero();
+    }
+
+    private static SagaOutboxMessage message(String topic) {
+        SagaOutboxMessage message = new SagaOutboxMessage();
+        UUID orderId = UUID.randomUUID();
+        ReflectionTestUtils.setField(message, "id", UUID.randomUUID());
+        ReflectionTestUtils.setField(message, "orderId", orderId);
+        ReflectionTestUtils.setField(message, "topic", topic);
+        ReflectionTestUtils.setField(message, "messageKey", orderId.toString());
+        ReflectionTestUtils.setField(message, "payload", "{\"orderId\":\"" + orderId + "\"}");
+        ReflectionTestUtils.setField(message, "status", SagaOutboxStatus.NEW);
+        ReflectionTestUtils.setField(message, "createdAt", Instant.now());
+        return message;
+    }
+}
@@ -0,0 +1,165 @@
+package com.oms.sagaorchestrator.saga.store;
+
+import com.oms.sagaorchestrator.saga.domain.OrderSaga;
+import com.oms.sagaorchestrator.saga.repository.OrderSagaRepository;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.producer.internals.BuiltInPartitioner;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SagaStoreTest {
+
+    private static final int PARTITIONS = 12;
+
+    @Mock
+    private OrderSagaRepository sagaRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Acknowledgment ack;
+
+    private SagaStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new SagaStore(sagaRepository, jdbcTemplate, transactionManager, 5000);
+    }
+
+    @Test
+    void shouldServeStagedSagasWithoutReadingTheDatabase() {
+
+        OrderSaga saga = new OrderSaga(UUID.randomUUID(), BigDecimal.TEN);
+        store.stage(List.of(saga), ack);
+
+        assertThat(store.loadAll(List.of(saga.getOrderId()))).containsEntry(saga.getOrderId(), saga);
+        verify(sagaRepository, never()).findAllWithItemsByOrderIdIn(any());
+    }
+
+    @Test
+    void shouldAcknowledgeOnlyAfterTheWriteSucceeded() {
+
+        OrderSaga saga = new OrderSaga(UUID.randomUUID(), BigDecimal.TEN);
+        saga.addItem("product-1", 1, BigDecimal.TEN);
+        store.stage(List.of(saga), ack);
+
+        store.flush();
+
+        InOrder order = inOrder(jdbcTemplate, ack);
+        order.verify(jdbcTemplate, times(2))
+                .batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        order.verify(ack).acknowledge();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepPendingWritesWhenTheFlushFails() {
+
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("db down"))
+                .thenReturn(new int[0][]);
+
+        OrderSaga saga = new OrderSaga(UUID.randomUUID(), BigDecimal.TEN);
+        store.stage(List.of(saga), ack);
+
+        assertThatThrownBy(store::flush).isInstanceOf(DataAccessResourceFailureException.class);
+        verify(ack, never()).acknowledge();
+
+        store.flush();
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    void shouldEvictTerminalSagasOnceFlushed() {
+
+        OrderSaga saga = new OrderSaga(UUID.randomUUID(), BigDecimal.TEN);
+        saga.markPaymentRequested();
+        saga.markPaymentFailed();
+        saga.markFailed();
+        store.stage(List.of(saga), ack);
+
+        assertThat(store.find(saga.getOrderId())).containsSame(saga);
+
+        store.flush();
+
+        when(sagaRepository.findByOrderId(saga.getOrderId())).thenReturn(Optional.empty());
+        assertThat(store.find(saga.getOrderId())).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWarmOnlyTheSagasOfAssignedPartitions() {
+
+        UUID owned = orderOnPartition(3);
+        UUID other = orderOnPartition(5);
+        OrderSaga saga = new OrderSaga(owned, BigDecimal.TEN);
+        Consumer<Object, Object> consumer = mock(Consumer.class);
+        when(consumer.partitionsFor("payment.completed")).thenReturn(partitions("payment.completed"));
+        when(sagaRepository.findOrderIdsByStateNotIn(any())).thenReturn(List.of(owned, other));
+        when(sagaRepository.findAllWithItemsByOrderIdIn(List.of(owned))).thenReturn(List.of(saga));
+
+        store.onPartitionsAssigned(consumer, List.of(new TopicPartition("payment.completed", 3)));
+
+        assertThat(store.loadAll(List.of(owned))).containsEntry(owned, saga);
+        verify(sagaRepository).findAllWithItemsByOrderIdIn(List.of(owned));
+    }
+
+    private static UUID orderOnPartition(int partition) {
+        UUID orderId;
+        do {
+            orderId = UUID.randomUUID();
+        } while (SagaStore.partitionOf(orderId, PARTITIONS) != partition);
+        return orderId;
+    }
+
+    private static List<PartitionInfo> partitions(String topic) {
+        return IntStream.range(0, PARTITIONS)
+                .mapToObj(partition -> new PartitionInfo(topic, partition, null, null, null))
+                .toList();
+    }
+
+    @Test
+    void shouldMatchTheProducerPartitioner() {
+
+        UUID orderId = UUID.randomUUID();
+        byte[] key = orderId.toString().getBytes(StandardCharsets.UTF_8);
+
+        assertThat(SagaStore.partitionOf(orderId, 12)).isEqualTo(BuiltInPartitioner.partitionForKey(key, 12));
+    }
+}
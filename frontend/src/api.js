@@ -176,6 +176,30 @@ export async function fetchOrderById(orderId) {
     }
 }
 
+const TERMINAL_PROGRESS = ['ORDER_COMPLETED', 'ORDER_FAILED']
+
+/**
+ * Follows an order's progress over server-sent events instead of polling
+ * fetchOrderById. onProgress gets { orderId, status, progress } for the
+ * current state and then each transition. EventSource reconnects by itself
+ * and resumes after the last event it saw; the stream is closed once the
+ * order completes or fails. Returns a function that closes it early.
+ */
+export function subscribeOrderProgress(orderId, onProgress) {
+    const source = new EventSource(`${SVC.order}/orders/${orderId}/events`)
+    source.addEventListener('progress', (event) => {
+        const snapshot = JSON.parse(event.data)
+        if (TERMINAL_PROGRESS.includes(snapshot.progress)) source.close()
+        onProgress(snapshot)
+    })
+    source.onerror = () => {
+        if (source.readyState === EventSource.CLOSED) {
+            console.warn(`[API] progress stream for order ${orderId} closed`)
+        }
+    }
+    return () => source.close()
+}
+
 // =============================================
 //  SAGA
 // =============================================
@@ -2,7 +2,7 @@ import { useState, useEffect } from 'react'
 import { ShoppingCart, CreditCard, Package, Truck, Bell, CheckCircle, XCircle, Loader, AlertTriangle, ChevronRight, Plus, RefreshCw, Database, Info } from 'lucide-react'
 import { toast } from 'sonner'
 import { useSagaStore } from '../store.js'
-import { createOrder, fetchSaga, fetchOrders, toggleKillSwitch, fetchInventory, createInventoryItem } from '../api.js'
+import { createOrder, fetchSaga, fetchOrders, subscribeOrderProgress, toggleKillSwitch, fetchInventory, createInventoryItem } from '../api.js'
 
 const STEP_ICONS = { ShoppingCart, CreditCard, Package, Truck, Bell }
 
@@ -275,15 +275,16 @@ export default function Simulator() {
 
     useEffect(() => {
         let isMounted = true;
-        const poll = async () => {
-            if (activeOrderId && isMounted) {
-                try {
-                    const saga = await fetchSaga(activeOrderId)
-                    if (saga && isMounted) {
-                        setActiveSagaData(mapSagaToVisualizer(saga))
-                    }
-                } catch (e) {}
-            }
+        let followUp;
+        const refreshSaga = async () => {
+            try {
+                const saga = await fetchSaga(activeOrderId)
+                if (saga && isMounted) {
+                    setActiveSagaData(mapSagaToVisualizer(saga))
+                }
+            } catch (e) {}
+        }
+        const refreshOrders = async () => {
             try {
                 const orders = await fetchOrders(5)
                 if (isMounted && Array.isArray(orders)) {
@@ -291,9 +292,21 @@ export default function Simulator() {
                 }
             } catch (e) {}
         }
-        poll()
-        const interval = setInterval(poll, 1500)
-        return () => { isMounted = false; clearInterval(interval) }
+        refreshOrders()
+
+        // The active order's progress is pushed; the saga is re-read on each transition,
+        // once more shortly after the last one to catch compensation finishing.
+        const unsubscribe = activeOrderId
+            ? subscribeOrderProgress(activeOrderId, ({ progress }) => {
+                refreshSaga()
+                refreshOrders()
+                if (progress === 'ORDER_COMPLETED' || progress === 'ORDER_FAILED') {
+                    followUp = setTimeout(refreshSaga, 1500)
+                }
+            })
+            : () => {}
+        const interval = setInterval(refreshOrders, 5000)
+        return () => { isMounted = false; unsubscribe(); clearTimeout(followUp); clearInterval(interval) }
     }, [activeOrderId])
 
     const handleOrder = async () => {
@@ -314,7 +327,7 @@ export default function Simulator() {
             
             toast.success(`Order #${response.orderId.substring(0,8)} placed successfully!`)
             
-            // Set the new ID - Polling will take over from here using real DB states
+            // Set the new ID - the progress stream takes over from here using real DB states
             setActiveOrderId(response.orderId)
             
             if (scenario === 'payment_failure') {